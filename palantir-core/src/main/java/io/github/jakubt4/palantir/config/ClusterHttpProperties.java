@@ -0,0 +1,28 @@
+package io.github.jakubt4.palantir.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * HTTP client timeouts for calls between palantir-core instances — gossip heartbeats,
+ * catalogue forwarding, shard handoff and manoeuvre replication.
+ *
+ * <p>Bound from {@code palantir.http.cluster.*} in {@code application.yaml}.
+ *
+ * @param connectTimeout
+ *   <strong>500 ms default</strong>: peers sit on the same host or LAN, so a connect
+ *   that takes longer means the peer is gone; failing fast keeps a dead member from
+ *   holding up a gossip round.
+ *
+ * @param readTimeout
+ *   <strong>5 s default</strong>: heartbeats answer in milliseconds, but a handoff batch
+ *   of a few thousand TLEs has to be parsed by the receiver before it responds, and a
+ *   replicated manoeuvre integrated.
+ */
+@ConfigurationProperties(prefix = "palantir.http.cluster")
+public record ClusterHttpProperties(
+        Duration connectTimeout,
+        Duration readTimeout
+) {
+}
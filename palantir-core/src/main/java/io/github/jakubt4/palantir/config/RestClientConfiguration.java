@@ -20,12 +20,15 @@ import org.springframework.web.client.RestClient;
  * {@code SimpleClientHttpRequestFactory}.
  */
 @Configuration
-@EnableConfigurationProperties(CelestrakHttpProperties.class)
+@EnableConfigurationProperties({CelestrakHttpProperties.class, ClusterHttpProperties.class})
 public class RestClientConfiguration {
 
     /** Qualifier for the {@link RestClient} configured for CelesTrak GP catalogue calls. */
     public static final String CELESTRAK_REST_CLIENT = "celestrakRestClient";
 
+    /** Qualifier for the {@link RestClient} used between palantir-core cluster members. */
+    public static final String CLUSTER_REST_CLIENT = "clusterRestClient";
+
     @Bean(name = CELESTRAK_REST_CLIENT)
     public RestClient celestrakRestClient(final CelestrakHttpProperties properties) {
         // ClientHttpRequestFactorySettings + ClientHttpRequestFactories together
@@ -40,4 +43,15 @@ public class RestClientConfiguration {
                 .requestFactory(factory)
                 .build();
     }
+
+    @Bean(name = CLUSTER_REST_CLIENT)
+    public RestClient clusterRestClient(final ClusterHttpProperties properties) {
+        final var settings = ClientHttpRequestFactorySettings.DEFAULTS
+                .withConnectTimeout(properties.connectTimeout())
+                .withReadTimeout(properties.readTimeout());
+        final var factory = ClientHttpRequestFactories.get(JdkClientHttpRequestFactory.class, settings);
+        return RestClient.builder()
+                .requestFactory(factory)
+                .build();
+    }
 }
@@ -0,0 +1,42 @@
+package io.github.jakubt4.palantir.config;
+
+import io.github.jakubt4.palantir.service.stream.PositionStreamBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the raw (non-STOMP) WebSocket endpoints served by {@code palantir-core}.
+ *
+ * <p>Plain WebSocket is used on purpose: the position stream is a binary protocol
+ * consumed directly by the CesiumJS HMI, and STOMP framing would add text headers
+ * to every tick.
+ *
+ * <p>Handshakes are accepted from the same origin only, unless
+ * {@code palantir.stream.allowed-origins} lists origin patterns; {@code *} is an explicit
+ * opt-in to any origin.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    private final PositionStreamBroadcaster positionStreamBroadcaster;
+
+    @Value("${palantir.stream.path:/ws/positions}")
+    private String streamPath;
+
+    @Value("${palantir.stream.allowed-origins:}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(final WebSocketHandlerRegistry registry) {
+        final var registration = registry.addHandler(positionStreamBroadcaster, streamPath);
+        if (allowedOrigins.length > 0) {
+            registration.setAllowedOriginPatterns(allowedOrigins);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.jakubt4.palantir.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Binds {@link WorkloadProperties} for the compute lanes. The lanes themselves and the
+ * propagation tick's dedicated thread live in
+ * {@link io.github.jakubt4.palantir.service.workload}.
+ */
+@Configuration
+@EnableConfigurationProperties(WorkloadProperties.class)
+public class WorkloadConfiguration {
+
+    /**
+     * Fork/join pool for the parallel phase of admitted requests, sized by
+     * {@code palantir.workload.parallelism} (0 = one worker per core). Shut down with the
+     * context; {@code close()} would wait for a running plan instead.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool computePool(@Value("${palantir.workload.parallelism:0}") final int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.jakubt4.palantir.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admission limits of the compute lanes that shield the propagation tick from expensive
+ * REST requests — see {@link io.github.jakubt4.palantir.service.workload.ComputeLanes}.
+ *
+ * <p>Bound from {@code palantir.workload.*} in {@code application.yaml}.
+ *
+ * @param lanes limits per lane name; a lane without an entry gets {@link LaneLimits#DEFAULT}
+ */
+@ConfigurationProperties(prefix = "palantir.workload")
+public record WorkloadProperties(Map<String, LaneLimits> lanes) {
+
+    public WorkloadProperties {
+        lanes = lanes == null ? Map.of() : Map.copyOf(lanes);
+    }
+
+    /**
+     * @param maxConcurrent requests computing at once
+     * @param maxQueued     requests allowed to wait for a slot; beyond that they are shed
+     *                      with {@code 429 Too Many Requests} immediately
+     * @param maxWait       how long a queued request waits before it is shed
+     */
+    public record LaneLimits(int maxConcurrent, int maxQueued, Duration maxWait) {
+
+        public static final LaneLimits DEFAULT = new LaneLimits(1, 4, Duration.ofSeconds(5));
+    }
+}
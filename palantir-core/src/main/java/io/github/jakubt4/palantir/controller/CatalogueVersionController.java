@@ -0,0 +1,67 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.CatalogueVersionResponse;
+import io.github.jakubt4.palantir.service.catalogue.VersionedCatalogue;
+import io.github.jakubt4.palantir.service.cluster.ClusterMembership;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Version history of the propagated catalogue, kept by {@link VersionedCatalogue}.
+ *
+ * <p>History and rollback are local to this instance: in a cluster each member versions
+ * its own partition, and a rollback is not forwarded. It restores only the entries this
+ * instance owns now, and never a version published before the ring in force was built —
+ * that version predates the hand-offs of the last rebalance, so restoring it would drop
+ * the entries this instance has taken over since.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/orbit/catalogue/versions")
+@RequiredArgsConstructor
+public class CatalogueVersionController {
+
+    private final VersionedCatalogue versionedCatalogue;
+    private final ClusterMembership clusterMembership;
+
+    /**
+     * {@code GET /api/orbit/catalogue/versions} — the retained versions, current first.
+     */
+    @GetMapping
+    public List<CatalogueVersionResponse> versions() {
+        return versionedCatalogue.history().stream().map(CatalogueVersionResponse::of).toList();
+    }
+
+    /**
+     * {@code POST /api/orbit/catalogue/versions/{version}/rollback} — republishes a retained
+     * version's tracked TLEs as a new version; the active spacecraft is left as it is.
+     *
+     * @return the new current version, {@code 404 Not Found} if {@code version} is no
+     *         longer retained, or {@code 409 Conflict} if the cluster has rebalanced since
+     *         it was published
+     */
+    @PostMapping("/{version}/rollback")
+    public ResponseEntity<CatalogueVersionResponse> rollback(@PathVariable final long version) {
+        final var target = versionedCatalogue.history().stream().filter(s -> s.version() == version).findFirst();
+        if (target.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        final var ringSince = clusterMembership.ringSince();
+        if (target.get().publishedAt().isBefore(ringSince)) {
+            log.warn("Refusing rollback to catalogue v{}: published {}, before the ring of {}",
+                    version, target.get().publishedAt(), ringSince);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.of(versionedCatalogue.rollback(version, clusterMembership::owns)
+                .map(CatalogueVersionResponse::of));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.ClusterHeartbeat;
+import io.github.jakubt4.palantir.dto.ClusterLeave;
+import io.github.jakubt4.palantir.dto.ClusterStatus;
+import io.github.jakubt4.palantir.dto.DownlinkHandoff;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.cluster.CatalogueRouter;
+import io.github.jakubt4.palantir.service.cluster.ClusterMembership;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreService;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverCommand;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Peer protocol between palantir-core instances sharing a catalogue — see
+ * {@link ClusterMembership}. The gossip endpoints answer {@code 404 Not Found} while
+ * partitioning is disabled, so a misconfigured peer cannot pull a standalone instance
+ * into its ring. The endpoints that make this instance act for a peer — manoeuvre
+ * replication and downlink handoff — answer {@code 403 Forbidden} to anyone but a
+ * configured peer.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterMembership clusterMembership;
+    private final OrbitPropagationService orbitPropagationService;
+    private final CatalogueRouter catalogueRouter;
+    private final ManoeuvreService manoeuvreService;
+
+    /** {@code GET /api/cluster} — membership as seen by this instance. */
+    @GetMapping
+    public ClusterStatus status() {
+        return new ClusterStatus(clusterMembership.isEnabled(), clusterMembership.self(),
+                clusterMembership.ring().members(), orbitPropagationService.catalogueSize());
+    }
+
+    /**
+     * {@code POST /api/cluster/heartbeat} — merges the sender's view and returns this one.
+     * From anyone but a configured peer only the seeds in the view are merged.
+     */
+    @PostMapping("/heartbeat")
+    public ResponseEntity<ClusterHeartbeat> heartbeat(@RequestBody final ClusterHeartbeat heartbeat,
+                                                      final HttpServletRequest request) {
+        if (!clusterMembership.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(clusterMembership.onHeartbeat(heartbeat, request.getRemoteAddr()));
+    }
+
+    /** {@code POST /api/cluster/leave} — removes a gracefully departing member. */
+    @PostMapping("/leave")
+    public ResponseEntity<Void> leave(@RequestBody final ClusterLeave leave) {
+        if (!clusterMembership.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        clusterMembership.onLeave(leave);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code POST /api/cluster/manoeuvre} — plans a {@code FIRE_THRUSTER} replicated by the
+     * member that received it.
+     *
+     * @return {@code 204 No Content} once the manoeuvre is in force, {@code 409 Conflict} if
+     *         it could not be planned
+     */
+    @PostMapping("/manoeuvre")
+    public ResponseEntity<Void> manoeuvre(@RequestBody final ThrustManeuverCommand command,
+                                          final HttpServletRequest request) {
+        final var refused = refuse(request);
+        if (refused != null) {
+            return refused;
+        }
+        return manoeuvreService.planReplica(command)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * {@code POST /api/cluster/downlink} — continues the active spacecraft's downlink from
+     * the count its previous owner reached.
+     */
+    @PostMapping("/downlink")
+    public ResponseEntity<Void> downlink(@RequestBody final DownlinkHandoff handoff,
+                                         final HttpServletRequest request) {
+        final var refused = refuse(request);
+        if (refused != null) {
+            return refused;
+        }
+        catalogueRouter.onDownlinkHandoff(handoff);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** The response to a peer-only request from {@code request}'s client, {@code null} if it may proceed. */
+    private ResponseEntity<Void> refuse(final HttpServletRequest request) {
+        if (!clusterMembership.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!clusterMembership.isPeerAddress(request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return null;
+    }
+}
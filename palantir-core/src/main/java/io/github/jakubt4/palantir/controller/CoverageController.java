@@ -0,0 +1,55 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.CoverageRequest;
+import io.github.jakubt4.palantir.service.coverage.CoverageEncoder;
+import io.github.jakubt4.palantir.service.coverage.CoverageService;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Mission-planning analyses over the registered constellation, computed on demand by
+ * {@link CoverageService}. Each analysis takes a slot in the
+ * {@value ComputeLanes#COVERAGE} compute lane.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/analysis")
+@RequiredArgsConstructor
+public class CoverageController {
+
+    private final CoverageService coverageService;
+    private final ComputeLanes computeLanes;
+
+    /**
+     * {@code POST /api/analysis/coverage} — coverage fraction and maximum/mean revisit time
+     * per grid cell, streamed in the binary layout of {@link CoverageEncoder}.
+     * {@code X-Catalogue-Version} names the catalogue snapshot the satellites were taken from.
+     *
+     * @return {@code 404 Not Found} if a requested object is not registered,
+     *         {@code 400 Bad Request} if the request is invalid or too large,
+     *         {@code 429 Too Many Requests} if the lane is saturated
+     */
+    @PostMapping("/coverage")
+    public ResponseEntity<StreamingResponseBody> coverage(@RequestBody final CoverageRequest request) {
+        try (final var permit = computeLanes.admit(ComputeLanes.COVERAGE)) {
+            return coverageService.analyse(request)
+                    .map(result -> ResponseEntity.ok()
+                            .contentType(MediaType.parseMediaType(CoverageEncoder.CONTENT_TYPE))
+                            .header("X-Coverage-Elapsed-Ms", Long.toString(result.elapsedMillis()))
+                            .header("X-Catalogue-Version", Long.toString(result.catalogueVersion()))
+                            .<StreamingResponseBody>body(out -> CoverageEncoder.write(result, out)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (final IllegalArgumentException e) {
+            log.warn("Rejected coverage request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
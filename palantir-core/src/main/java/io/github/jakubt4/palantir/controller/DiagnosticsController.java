@@ -0,0 +1,94 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.FlightRecordingStatus;
+import io.github.jakubt4.palantir.service.diagnostics.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+/**
+ * On-demand Java Flight Recorder recording, for attributing tick jitter to pipeline
+ * stages, GC or I/O. See {@link FlightRecordingService}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/diagnostics/jfr")
+@RequiredArgsConstructor
+public class DiagnosticsController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    /** {@code GET /api/diagnostics/jfr} — {@code 404 Not Found} if nothing was recorded yet. */
+    @GetMapping
+    public ResponseEntity<FlightRecordingStatus> status() {
+        return ResponseEntity.of(flightRecordingService.status());
+    }
+
+    /**
+     * {@code POST /api/diagnostics/jfr/start?durationSeconds=300&settings=profile}
+     *
+     * @return {@code 409 Conflict} if a recording is already running,
+     *         {@code 400 Bad Request} if the duration or settings are not allowed
+     */
+    @PostMapping("/start")
+    public ResponseEntity<FlightRecordingStatus> start(
+            @RequestParam(required = false) final Long durationSeconds,
+            @RequestParam(required = false) final String settings) {
+        try {
+            final var duration = durationSeconds != null ? Duration.ofSeconds(durationSeconds) : null;
+            return ResponseEntity.ok(flightRecordingService.start(duration, settings));
+        } catch (final IllegalArgumentException e) {
+            log.warn("Rejected JFR start: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (final IllegalStateException e) {
+            log.warn("Rejected JFR start: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /** {@code POST /api/diagnostics/jfr/stop} — {@code 404 Not Found} if nothing was recorded yet. */
+    @PostMapping("/stop")
+    public ResponseEntity<FlightRecordingStatus> stop() {
+        return ResponseEntity.of(flightRecordingService.stop());
+    }
+
+    /**
+     * {@code GET /api/diagnostics/jfr/recording} — the recording so far as a {@code .jfr}
+     * file, for JDK Mission Control or {@code jfr print}.
+     *
+     * @return {@code 404 Not Found} if nothing was recorded yet
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<StreamingResponseBody> download() throws IOException {
+        final var status = flightRecordingService.status();
+        final var file = flightRecordingService.dump();
+        if (status.isEmpty() || file.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        final var path = file.get();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(path))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + status.get().name() + ".jfr\"")
+                .body(out -> {
+                    try {
+                        Files.copy(path, out);
+                    } finally {
+                        Files.deleteIfExists(path);
+                    }
+                });
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.EclipseResponse;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.eclipse.EclipseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+/**
+ * Eclipse state and predicted entry/exit times, served by {@link EclipseService}.
+ *
+ * <p>Illumination is as of the latest tick; transitions are predicted from the object's
+ * current TLE and cached until it changes.
+ */
+@RestController
+@RequestMapping("/api/orbit/eclipse")
+@RequiredArgsConstructor
+public class EclipseController {
+
+    private final OrbitPropagationService orbitPropagationService;
+    private final EclipseService eclipseService;
+
+    /**
+     * {@code GET /api/orbit/eclipse/{catalogNumber}}
+     *
+     * @return {@code 404 Not Found} if the object is not tracked
+     */
+    @GetMapping("/{catalogNumber}")
+    public ResponseEntity<EclipseResponse> eclipse(@PathVariable final int catalogNumber) {
+        return ResponseEntity.of(orbitPropagationService.findTracked(catalogNumber)
+                .map(object -> eclipseService.describe(object.tle(), Instant.now())));
+    }
+}
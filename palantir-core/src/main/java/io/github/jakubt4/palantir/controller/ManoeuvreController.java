@@ -0,0 +1,49 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.AvoidancePlanRequest;
+import io.github.jakubt4.palantir.dto.AvoidancePlanResponse;
+import io.github.jakubt4.palantir.service.manoeuvre.AvoidancePlanner;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Manoeuvre planning. Nothing here commands the spacecraft — a chosen candidate is flown
+ * by releasing {@code FIRE_THRUSTER} through Yamcs with its Δv components.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/manoeuvre")
+@RequiredArgsConstructor
+public class ManoeuvreController {
+
+    private final AvoidancePlanner avoidancePlanner;
+    private final ComputeLanes computeLanes;
+
+    /**
+     * {@code POST /api/manoeuvre/avoidance-plan} — Pareto set of avoidance burns (Δv vs. Pc)
+     * for one conjunction, computed in the {@value ComputeLanes#AVOIDANCE} compute lane.
+     *
+     * @return {@code 404 Not Found} if either object is not tracked, {@code 400 Bad Request}
+     *         if the request is incomplete or TCA leaves no time to burn, {@code 429 Too Many
+     *         Requests} if the lane is saturated, {@code 500 Internal Server Error} if the
+     *         post-manoeuvre ephemeris does not reach the encounter yet
+     */
+    @PostMapping("/avoidance-plan")
+    public ResponseEntity<AvoidancePlanResponse> avoidancePlan(@RequestBody final AvoidancePlanRequest request) {
+        try (final var permit = computeLanes.admit(ComputeLanes.AVOIDANCE)) {
+            return ResponseEntity.of(avoidancePlanner.plan(request));
+        } catch (final IllegalArgumentException e) {
+            log.warn("Rejected avoidance plan request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (final IllegalStateException e) {
+            log.error("Avoidance planning failed: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
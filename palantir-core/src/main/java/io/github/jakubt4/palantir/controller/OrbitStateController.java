@@ -0,0 +1,74 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.ObjectStateResponse;
+import io.github.jakubt4.palantir.service.state.OrbitStateStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Read-only queries over the latest propagated state of every tracked object.
+ *
+ * <p>All endpoints are answered from {@link OrbitStateStore}; none of them propagate,
+ * so results are as of the most recent 1 Hz tick (see {@code epoch} in the response).
+ */
+@RestController
+@RequestMapping("/api/orbit")
+@RequiredArgsConstructor
+public class OrbitStateController {
+
+    private final OrbitStateStore orbitStateStore;
+
+    /** {@code GET /api/orbit/state} — every tracked object, in catalogue-number order. */
+    @GetMapping("/state")
+    public List<ObjectStateResponse> allStates() {
+        return orbitStateStore.findAll();
+    }
+
+    /** {@code GET /api/orbit/state/{catalogNumber}} — one object, {@code 404} if not tracked. */
+    @GetMapping("/state/{catalogNumber}")
+    public ResponseEntity<ObjectStateResponse> state(@PathVariable final int catalogNumber) {
+        return ResponseEntity.of(orbitStateStore.find(catalogNumber));
+    }
+
+    /**
+     * {@code GET /api/orbit/overhead?lat=&lon=&radius=} — objects whose sub-satellite point
+     * is within {@code radius} km of the ground location, nearest first.
+     *
+     * @return {@code 400 Bad Request} if the location is out of range or the radius is not positive
+     */
+    @GetMapping("/overhead")
+    public ResponseEntity<List<ObjectStateResponse>> overhead(@RequestParam final double lat,
+                                                              @RequestParam final double lon,
+                                                              @RequestParam final double radius) {
+        // Negated comparisons also reject NaN.
+        if (!(lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180 && radius > 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orbitStateStore.findOverhead(lat, lon, radius));
+    }
+
+    /**
+     * {@code GET /api/orbit/bbox?minLat=&maxLat=&minLon=&maxLon=} — objects inside a geodetic
+     * bounding box. {@code minLon > maxLon} selects a box crossing the antimeridian.
+     *
+     * @return {@code 400 Bad Request} if the box is out of range or {@code minLat > maxLat}
+     */
+    @GetMapping("/bbox")
+    public ResponseEntity<List<ObjectStateResponse>> boundingBox(@RequestParam final double minLat,
+                                                                 @RequestParam final double maxLat,
+                                                                 @RequestParam final double minLon,
+                                                                 @RequestParam final double maxLon) {
+        if (!(minLat >= -90 && maxLat <= 90 && minLat <= maxLat
+                && minLon >= -180 && minLon <= 180 && maxLon >= -180 && maxLon <= 180)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orbitStateStore.findInBox(minLat, maxLat, minLon, maxLon));
+    }
+}
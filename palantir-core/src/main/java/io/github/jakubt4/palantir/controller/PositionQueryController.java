@@ -0,0 +1,70 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.ObjectStateResponse;
+import io.github.jakubt4.palantir.dto.PositionBatchRequest;
+import io.github.jakubt4.palantir.dto.PositionBatchResponse;
+import io.github.jakubt4.palantir.service.query.PositionQueryService;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+/**
+ * Position-at-time queries over the tracked catalogue, served by {@link PositionQueryService}.
+ *
+ * <p>Unlike the state endpoints these propagate on demand, so any time can be requested —
+ * not just the latest tick.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/orbit/position")
+@RequiredArgsConstructor
+public class PositionQueryController {
+
+    private final PositionQueryService positionQueryService;
+    private final ComputeLanes computeLanes;
+
+    /**
+     * {@code GET /api/orbit/position/{catalogNumber}?time=2026-10-19T12:00:00Z}
+     *
+     * @return {@code 404 Not Found} if the object is not tracked
+     */
+    @GetMapping("/{catalogNumber}")
+    public ResponseEntity<ObjectStateResponse> positionAt(
+            @PathVariable final int catalogNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant time) {
+        return ResponseEntity.of(positionQueryService.positionAt(catalogNumber, time));
+    }
+
+    /**
+     * {@code POST /api/orbit/position/batch} — evaluates every requested object at every
+     * requested time in one call, in the {@value ComputeLanes#POSITION_BATCH} compute lane.
+     *
+     * @return {@code 400 Bad Request} if either list is missing/empty or the batch is too large,
+     *         {@code 429 Too Many Requests} if the lane is saturated
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<PositionBatchResponse> positionsAt(@RequestBody final PositionBatchRequest request) {
+        if (request.catalogNumbers() == null || request.catalogNumbers().isEmpty()
+                || request.times() == null || request.times().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(computeLanes.run(ComputeLanes.POSITION_BATCH,
+                    () -> positionQueryService.positionsAt(request.catalogNumbers(), request.times())));
+        } catch (final IllegalArgumentException e) {
+            log.warn("Rejected position batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
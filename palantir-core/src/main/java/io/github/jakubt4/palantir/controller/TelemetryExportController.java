@@ -0,0 +1,92 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.dto.TelemetryExportRequest;
+import io.github.jakubt4.palantir.service.export.TelemetryExportEncoder;
+import io.github.jakubt4.palantir.service.export.TelemetryExportService;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Bulk exports for offline analytics, generated by {@link TelemetryExportService}
+ * instead of being read back from the Yamcs archive.
+ *
+ * <p>An export holds its slot in the {@value ComputeLanes#EXPORT} compute lane until the
+ * last byte is streamed, not just while the request is prepared. The slot is released when
+ * the stream ends, when the asynchronous request completes without streaming, or at once if
+ * the request fails before a body is handed to Spring MVC.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class TelemetryExportController {
+
+    private static final String EXPORT_PERMIT = TelemetryExportController.class.getName() + ".permit";
+
+    private final TelemetryExportService telemetryExportService;
+    private final ComputeLanes computeLanes;
+
+    /**
+     * {@code POST /api/export/telemetry} — latitude, longitude and altitude of every
+     * requested satellite over the window, streamed in the column-chunked layout of
+     * {@link TelemetryExportEncoder}. The length is known before the first sample is
+     * propagated and sent as {@code Content-Length}; {@code X-Catalogue-Version} names the
+     * catalogue snapshot the satellites were taken from.
+     *
+     * @return {@code 404 Not Found} if a requested object is not registered,
+     *         {@code 400 Bad Request} if the request is invalid or too large,
+     *         {@code 429 Too Many Requests} if the lane is saturated
+     */
+    @PostMapping("/telemetry")
+    public ResponseEntity<StreamingResponseBody> telemetry(@RequestBody final TelemetryExportRequest request,
+                                                           final HttpServletRequest servletRequest) {
+        final var permit = computeLanes.admit(ComputeLanes.EXPORT);
+        var handedOff = false;
+        try {
+            final var export = telemetryExportService.prepare(request);
+            if (export.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            // The body may never run: the async request can time out or its task be rejected.
+            WebAsyncUtils.getAsyncManager(servletRequest).registerCallableInterceptor(EXPORT_PERMIT,
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(final NativeWebRequest webRequest, final Callable<T> task) {
+                            permit.close();
+                        }
+                    });
+            final var response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(TelemetryExportEncoder.CONTENT_TYPE))
+                    .contentLength(TelemetryExportEncoder.length(export.get()))
+                    .header("X-Catalogue-Version", Long.toString(export.get().catalogueVersion()))
+                    .<StreamingResponseBody>body(out -> {
+                        try (permit) {
+                            telemetryExportService.write(export.get(), out);
+                        }
+                    });
+            handedOff = true;
+            return response;
+        } catch (final IllegalArgumentException e) {
+            log.warn("Rejected telemetry export: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } finally {
+            if (!handedOff) {
+                permit.close();
+            }
+        }
+    }
+}
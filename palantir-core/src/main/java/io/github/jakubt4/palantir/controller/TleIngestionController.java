@@ -3,19 +3,35 @@ package io.github.jakubt4.palantir.controller;
 import io.github.jakubt4.palantir.dto.TleRequest;
 import io.github.jakubt4.palantir.dto.TleResponse;
 import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.cluster.CatalogueRouter;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
 /**
  * REST endpoint for Two-Line Element (TLE) ingestion.
  *
  * <p>Accepts a satellite TLE via {@code POST /api/orbit/tle} and hot-swaps
  * the active orbit propagator, enabling in-flight target changes without restart.
+ * Additional objects for the tracked catalogue are loaded in bulk via
+ * {@code POST /api/orbit/catalogue}.
+ *
+ * <p>In a cluster, catalogue TLEs owned by another member are forwarded to it and the
+ * active TLE is replicated to every member — see {@link CatalogueRouter}. Requests that
+ * carry {@link CatalogueRouter#FORWARDED_HEADER} and come from a configured peer are
+ * applied locally; from any other client the header is ignored.
  */
 @Slf4j
 @RestController
@@ -24,6 +40,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class TleIngestionController {
 
     private final OrbitPropagationService orbitPropagationService;
+    private final CatalogueRouter catalogueRouter;
+    private final ComputeLanes computeLanes;
 
     /**
      * Ingests a TLE set and activates orbit propagation for the given satellite.
@@ -33,7 +51,11 @@ public class TleIngestionController {
      *         validation failure or Orekit parse error
      */
     @PostMapping("/tle")
-    public ResponseEntity<TleResponse> ingestTle(@RequestBody final TleRequest request) {
+    public ResponseEntity<TleResponse> ingestTle(
+            @RequestBody final TleRequest request,
+            @RequestHeader(name = CatalogueRouter.FORWARDED_HEADER, required = false) final boolean marked,
+            final HttpServletRequest servletRequest) {
+        final var forwarded = catalogueRouter.trustForwarded(marked, servletRequest.getRemoteAddr());
         if (request.satelliteName() == null || request.satelliteName().isBlank()) {
             return ResponseEntity.badRequest()
                     .body(new TleResponse(null, "REJECTED", "Satellite name is required"));
@@ -46,6 +68,7 @@ public class TleIngestionController {
         try {
             orbitPropagationService.updateTle(request.satelliteName(), request.line1(), request.line2());
             log.info("TLE ingested for satellite [{}]", request.satelliteName());
+            catalogueRouter.activeUpdated(request, forwarded);
             return ResponseEntity.ok(
                     new TleResponse(request.satelliteName(), "ACTIVE", "TLE loaded, propagation started"));
         } catch (final Exception e) {
@@ -54,4 +77,83 @@ public class TleIngestionController {
                     .body(new TleResponse(request.satelliteName(), "REJECTED", "Invalid TLE: " + e.getMessage()));
         }
     }
+
+    /**
+     * Adds a batch of TLEs to the tracked catalogue (propagated every tick, exposed through
+     * the state store and position stream, but not downlinked). Entries are processed
+     * independently, so one malformed TLE does not reject the rest of the batch. Entries
+     * owned by another cluster member are forwarded to it, one request per member. Only the
+     * local entries are parsed in the {@value ComputeLanes#CATALOGUE} compute lane; the
+     * forwarding waits on peers, so it runs on the request thread without holding a slot.
+     *
+     * @param requests satellite names and two-line element strings
+     * @return {@code 200 OK} with one {@link TleResponse} per entry ({@code TRACKED} or
+     *         {@code REJECTED}), {@code 400 Bad Request} if the batch is empty,
+     *         {@code 429 Too Many Requests} if the lane is saturated
+     */
+    @PostMapping("/catalogue")
+    public ResponseEntity<List<TleResponse>> ingestCatalogue(
+            @RequestBody final List<TleRequest> requests,
+            @RequestHeader(name = CatalogueRouter.FORWARDED_HEADER, required = false) final boolean marked,
+            final HttpServletRequest servletRequest) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        final var forwarded = catalogueRouter.trustForwarded(marked, servletRequest.getRemoteAddr());
+        return ResponseEntity.ok(ingest(requests, forwarded));
+    }
+
+    private List<TleResponse> ingest(final List<TleRequest> requests, final boolean forwarded) {
+        final var results = new TleResponse[requests.size()];
+        final var remote = new LinkedHashMap<String, List<Integer>>();
+        final var local = new ArrayList<Integer>();
+        for (var i = 0; i < requests.size(); i++) {
+            final var request = requests.get(i);
+            if (request.line1() == null || request.line2() == null) {
+                results[i] = new TleResponse(request.satelliteName(), "REJECTED", "TLE line1 and line2 are required");
+                continue;
+            }
+            final var owner = forwarded ? null : catalogueRouter.remoteOwner(request.line1()).orElse(null);
+            if (owner != null) {
+                remote.computeIfAbsent(owner, k -> new ArrayList<>()).add(i);
+                continue;
+            }
+            local.add(i);
+        }
+        // All local entries become visible to the tick together, as one catalogue version. A
+        // batch owned entirely by peers takes no slot.
+        final var localRequests = local.stream().map(requests::get).toList();
+        final var ingest = local.isEmpty() ? null
+                : computeLanes.run(ComputeLanes.CATALOGUE, () -> orbitPropagationService.trackTles(localRequests));
+        var tracked = 0;
+        for (var j = 0; j < local.size(); j++) {
+            final var name = requests.get(local.get(j)).satelliteName();
+            final var outcome = ingest.outcomes().get(j);
+            if (outcome.tracked()) {
+                results[local.get(j)] = new TleResponse(name, "TRACKED", "Catalogue #" + outcome.catalogNumber());
+                tracked++;
+            } else {
+                results[local.get(j)] = new TleResponse(name, "REJECTED", outcome.error());
+            }
+        }
+        if (!remote.isEmpty()) {
+            final var byOwner = new LinkedHashMap<String, List<TleRequest>>();
+            remote.forEach((owner, indices) -> byOwner.put(owner, indices.stream().map(requests::get).toList()));
+            final var responses = catalogueRouter.forward(byOwner);
+            remote.forEach((owner, indices) -> {
+                final var answered = responses.getOrDefault(owner, List.of());
+                for (var j = 0; j < indices.size(); j++) {
+                    results[indices.get(j)] = j < answered.size() ? answered.get(j)
+                            : new TleResponse(requests.get(indices.get(j)).satelliteName(), "REJECTED",
+                            "No response from owner " + owner);
+                }
+            });
+        }
+        log.info("Catalogue ingest: {} of {} TLE(s) tracked as catalogue {}, {} forwarded to {} peer(s), "
+                        + "catalogue size {}",
+                tracked, requests.size(), ingest != null ? "v" + ingest.version() : "unchanged",
+                remote.values().stream().mapToInt(List::size).sum(), remote.size(),
+                orbitPropagationService.catalogueSize());
+        return Arrays.asList(results);
+    }
 }
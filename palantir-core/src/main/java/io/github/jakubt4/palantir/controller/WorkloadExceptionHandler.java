@@ -0,0 +1,27 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import io.github.jakubt4.palantir.service.workload.LaneSaturatedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers requests shed by a full {@link ComputeLanes} lane with
+ * {@code 429 Too Many Requests} and a {@code Retry-After} hint in seconds.
+ */
+@Slf4j
+@RestControllerAdvice
+public class WorkloadExceptionHandler {
+
+    @ExceptionHandler(LaneSaturatedException.class)
+    public ResponseEntity<Void> laneSaturated(final LaneSaturatedException e) {
+        log.warn("Rejected request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()))
+                .build();
+    }
+}
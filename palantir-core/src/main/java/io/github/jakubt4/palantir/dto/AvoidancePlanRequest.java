@@ -0,0 +1,23 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+
+/**
+ * Request for a collision-avoidance manoeuvre plan against one conjunction.
+ *
+ * @param primaryCatalogNumber   NORAD number of the object that will manoeuvre
+ * @param secondaryCatalogNumber NORAD number of the object to avoid
+ * @param tca                    predicted time of closest approach (ISO-8601, UTC)
+ * @param targetMissDistanceKm   optional; miss distance at which a candidate is considered
+ *                               sufficient — defaults to {@code palantir.manoeuvre.planner.target-miss-distance-km}
+ * @param earliestBurn           optional; no burn is planned before this instant, nor before
+ *                               the command lead time from now
+ */
+public record AvoidancePlanRequest(
+        Integer primaryCatalogNumber,
+        Integer secondaryCatalogNumber,
+        Instant tca,
+        Double targetMissDistanceKm,
+        Instant earliestBurn
+) {
+}
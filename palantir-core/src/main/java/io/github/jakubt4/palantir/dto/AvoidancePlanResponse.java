@@ -0,0 +1,57 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Collision-avoidance plan: the unmanoeuvred encounter and the Pareto-optimal candidate
+ * burns, for operator review before any {@code FIRE_THRUSTER} is released.
+ *
+ * @param primaryCatalogNumber   object that would manoeuvre
+ * @param secondaryCatalogNumber object being avoided
+ * @param closestApproach        time of closest approach without a manoeuvre
+ * @param missDistanceKm         miss distance without a manoeuvre
+ * @param collisionProbability   Pc without a manoeuvre
+ * @param manoeuvreRequired      whether that Pc exceeds the configured threshold
+ * @param candidates             Pareto set of Δv vs. Pc, cheapest first — each entry has
+ *                               strictly lower Pc than every cheaper one
+ * @param evaluated              candidates actually propagated
+ * @param pruned                 candidates skipped because a cheaper burn already met the target
+ * @param planningMillis         wall-clock time to plan
+ */
+public record AvoidancePlanResponse(
+        int primaryCatalogNumber,
+        int secondaryCatalogNumber,
+        Instant closestApproach,
+        double missDistanceKm,
+        double collisionProbability,
+        boolean manoeuvreRequired,
+        List<Candidate> candidates,
+        int evaluated,
+        int pruned,
+        long planningMillis
+) {
+
+    /**
+     * One candidate burn, expressed as {@code FIRE_THRUSTER} arguments (RTN / QSW, m/s).
+     *
+     * @param burnEpoch            impulse epoch
+     * @param deltaV               Δv magnitude, the fuel proxy
+     * @param closestApproach      time of closest approach after the burn
+     * @param missDistanceKm       miss distance after the burn
+     * @param collisionProbability Pc after the burn
+     * @param meetsTarget          whether the miss distance reaches the requested target
+     */
+    public record Candidate(
+            Instant burnEpoch,
+            double deltaVRadial,
+            double deltaVAlongTrack,
+            double deltaVNormal,
+            double deltaV,
+            Instant closestApproach,
+            double missDistanceKm,
+            double collisionProbability,
+            boolean meetsTarget
+    ) {
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.jakubt4.palantir.dto;
+
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+
+import java.time.Instant;
+
+/**
+ * One retained version of the propagated catalogue.
+ *
+ * @param version         catalogue version, increasing with every change
+ * @param publishedAt     when the version became current
+ * @param change          what produced it, e.g. a TLE update, a catalogue batch or a rollback
+ * @param activeSatellite name of the active spacecraft, {@code null} if none is set
+ * @param catalogueSize   number of tracked catalogue entries
+ */
+public record CatalogueVersionResponse(
+        long version,
+        Instant publishedAt,
+        String change,
+        String activeSatellite,
+        int catalogueSize
+) {
+
+    public static CatalogueVersionResponse of(final CatalogueSnapshot snapshot) {
+        return new CatalogueVersionResponse(snapshot.version(), snapshot.publishedAt(), snapshot.change(),
+                snapshot.active().map(TrackedObject::name).orElse(null), snapshot.catalogue().size());
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.util.Map;
+
+/**
+ * Gossip message exchanged between palantir-core instances via
+ * {@code POST /api/cluster/heartbeat}; the response carries the receiver's own view.
+ *
+ * @param member     base URL of the sender
+ * @param heartbeats highest heartbeat counter the sender has seen per member, itself included
+ */
+public record ClusterHeartbeat(String member, Map<String, Long> heartbeats) {
+}
@@ -0,0 +1,11 @@
+package io.github.jakubt4.palantir.dto;
+
+/**
+ * Graceful departure notice sent via {@code POST /api/cluster/leave} once the leaving
+ * instance has handed its catalogue shard over.
+ *
+ * @param member    base URL of the leaving instance
+ * @param heartbeat its final heartbeat counter; gossip at or below it is ignored
+ */
+public record ClusterLeave(String member, long heartbeat) {
+}
@@ -0,0 +1,14 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.util.List;
+
+/**
+ * Membership as seen by one instance, returned by {@code GET /api/cluster}.
+ *
+ * @param enabled       whether catalogue partitioning is on
+ * @param self          base URL of this instance
+ * @param members       live members including this one, sorted
+ * @param catalogueSize objects in this instance's catalogue shard
+ */
+public record ClusterStatus(boolean enabled, String self, List<String> members, int catalogueSize) {
+}
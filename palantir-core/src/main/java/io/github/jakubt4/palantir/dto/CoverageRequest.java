@@ -0,0 +1,27 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Request for a ground coverage and revisit analysis over a global lat/lon grid.
+ *
+ * @param catalogNumbers  satellites to include; {@code null} or empty for every registered
+ *                        object (the active spacecraft and the tracked catalogue)
+ * @param start           start of the analysis window (ISO-8601, UTC)
+ * @param end             end of the analysis window (ISO-8601, UTC)
+ * @param stepSeconds     optional; sampling step — defaults to {@code palantir.coverage.step-s}
+ * @param cellDeg         optional; grid resolution, must divide 180 — defaults to
+ *                        {@code palantir.coverage.cell-deg}
+ * @param minElevationDeg optional; a cell is covered while the satellite is at least this
+ *                        high above its horizon — defaults to {@code palantir.coverage.min-elevation-deg}
+ */
+public record CoverageRequest(
+        List<Integer> catalogNumbers,
+        Instant start,
+        Instant end,
+        Double stepSeconds,
+        Double cellDeg,
+        Double minElevationDeg
+) {
+}
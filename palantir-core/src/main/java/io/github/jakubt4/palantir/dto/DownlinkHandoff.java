@@ -0,0 +1,13 @@
+package io.github.jakubt4.palantir.dto;
+
+/**
+ * State of the active spacecraft's downlink, sent via {@code POST /api/cluster/downlink}
+ * by the member that stops downlinking to the member that takes over, so the APID 100
+ * sequence count continues across the change of owner.
+ *
+ * @param sequenceCount    14-bit sequence count the next APID 100 packet would have carried
+ * @param lastPacketMillis wall-clock time the sender's last APID 100 packet was generated,
+ *                         epoch milliseconds
+ */
+public record DownlinkHandoff(int sequenceCount, long lastPacketMillis) {
+}
@@ -0,0 +1,35 @@
+package io.github.jakubt4.palantir.dto;
+
+import io.github.jakubt4.palantir.service.eclipse.EclipsePrediction;
+import io.github.jakubt4.palantir.service.eclipse.EclipseState;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Current illumination of one tracked object and its predicted shadow transitions.
+ *
+ * @param catalogNumber  NORAD catalogue number
+ * @param epoch          tick the illumination was evaluated at; {@code null} if the object
+ *                       was not part of a tick yet
+ * @param illumination   visible fraction of the solar disc at {@code epoch}, 0 (umbra) to 1
+ * @param state          shadow region at {@code epoch}
+ * @param predictedUntil end of the prediction window — no transition beyond it is listed
+ * @param transitions    upcoming cone crossings, earliest first
+ */
+public record EclipseResponse(
+        int catalogNumber,
+        Instant epoch,
+        Double illumination,
+        EclipseState state,
+        Instant predictedUntil,
+        List<Transition> transitions
+) {
+
+    /**
+     * @param type boundary crossed
+     * @param time crossing time (UTC)
+     */
+    public record Transition(EclipsePrediction.Type type, Instant time) {
+    }
+}
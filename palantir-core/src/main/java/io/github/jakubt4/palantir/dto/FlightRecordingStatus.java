@@ -0,0 +1,28 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+
+/**
+ * State of the on-demand JFR recording.
+ *
+ * @param name          recording name, also the download's file name stem
+ * @param state         JFR recording state — {@code RUNNING}, or {@code STOPPED} once stopped
+ *                      or its duration has elapsed
+ * @param settings      JFR configuration the recording was started with
+ * @param startTime     when recording started
+ * @param stopTime      when recording stopped; {@code null} while running
+ * @param maxDurationMs the recording stops by itself after this long
+ * @param maxSizeBytes  bound on the recording's on-disk size; older chunks are discarded beyond it
+ * @param sizeBytes     current on-disk size
+ */
+public record FlightRecordingStatus(
+        String name,
+        String state,
+        String settings,
+        Instant startTime,
+        Instant stopTime,
+        long maxDurationMs,
+        long maxSizeBytes,
+        long sizeBytes
+) {
+}
@@ -0,0 +1,34 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+
+/**
+ * Propagated state of one tracked object — the latest tick's from the in-memory state
+ * store, or any time's from a position query.
+ *
+ * @param catalogNumber NORAD catalogue number
+ * @param name          display name supplied at TLE ingestion
+ * @param epoch         tick time the state was propagated to
+ * @param latitude      geodetic latitude (degrees)
+ * @param longitude     geodetic longitude (degrees)
+ * @param altitude      altitude above the WGS-84 ellipsoid (kilometres)
+ * @param position      ITRF position {@code [x, y, z]} (metres)
+ * @param velocity      ITRF velocity {@code [vx, vy, vz]} (metres per second)
+ * @param catalogueVersion version of the catalogue snapshot whose TLE produced the state
+ */
+public record ObjectStateResponse(int catalogNumber,
+                                  String name,
+                                  Instant epoch,
+                                  double latitude,
+                                  double longitude,
+                                  double altitude,
+                                  double[] position,
+                                  double[] velocity,
+                                  long catalogueVersion) {
+
+    /** The same state, attributed to another catalogue version with the same TLE. */
+    public ObjectStateResponse withCatalogueVersion(final long version) {
+        return version == catalogueVersion ? this : new ObjectStateResponse(
+                catalogNumber, name, epoch, latitude, longitude, altitude, position, velocity, version);
+    }
+}
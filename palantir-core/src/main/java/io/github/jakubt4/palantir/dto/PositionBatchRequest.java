@@ -0,0 +1,13 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Batch position query: every listed object is evaluated at every listed time.
+ *
+ * @param catalogNumbers NORAD catalogue numbers of tracked objects
+ * @param times          evaluation instants (ISO-8601, UTC)
+ */
+public record PositionBatchRequest(List<Integer> catalogNumbers, List<Instant> times) {
+}
@@ -0,0 +1,14 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch position query.
+ *
+ * @param states                one entry per (object, time) pair, grouped by object in request order
+ * @param unknownCatalogNumbers requested catalogue numbers that are not tracked (skipped)
+ * @param catalogueVersion      version of the catalogue snapshot the whole batch was resolved against
+ */
+public record PositionBatchResponse(List<ObjectStateResponse> states, List<Integer> unknownCatalogNumbers,
+                                    long catalogueVersion) {
+}
@@ -0,0 +1,22 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.util.List;
+
+/**
+ * Text message a position-stream client sends to (re)define what it wants to receive.
+ *
+ * <p>Both fields are optional: a missing or empty {@code catalogNumbers} subscribes to
+ * every object, a missing {@code viewport} means the whole globe.
+ *
+ * @param catalogNumbers NORAD catalogue numbers to receive (e.g. {@code [25544]})
+ * @param viewport       geodetic bounding box the client is currently displaying
+ */
+public record StreamSubscriptionRequest(List<Integer> catalogNumbers, Viewport viewport) {
+
+    /**
+     * Geodetic bounding box in degrees. {@code minLon > maxLon} denotes a box that
+     * crosses the antimeridian (e.g. 170 → −170).
+     */
+    public record Viewport(double minLat, double maxLat, double minLon, double maxLon) {
+    }
+}
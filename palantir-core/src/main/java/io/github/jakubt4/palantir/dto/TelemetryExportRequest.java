@@ -0,0 +1,21 @@
+package io.github.jakubt4.palantir.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Request for a bulk export of the navigation telemetry the propagation engine generates.
+ *
+ * @param catalogNumbers satellites to export; {@code null} or empty for every registered
+ *                       object (the active spacecraft and the tracked catalogue)
+ * @param start          first sample (ISO-8601, UTC); sub-millisecond digits are dropped
+ * @param end            end of the window (ISO-8601, UTC), inclusive if it falls on a step
+ * @param stepSeconds    optional; sampling step — defaults to {@code palantir.export.step-s}
+ */
+public record TelemetryExportRequest(
+        List<Integer> catalogNumbers,
+        Instant start,
+        Instant end,
+        Double stepSeconds
+) {
+}
@@ -1,6 +1,10 @@
 package io.github.jakubt4.palantir.service;
 
 import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.DownlinkHandoff;
+import io.github.jakubt4.palantir.service.diagnostics.TelemetryPacketEvent;
+import io.github.jakubt4.palantir.service.eclipse.EclipseState;
+import io.github.jakubt4.palantir.service.uplink.CommandAckStage;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -48,20 +52,39 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>Time format reference: CCSDS 301.0-B-4 §3.2 (Unsegmented Time Code,
  * Level-1 epoch 1 January 1958 TAI). 4 + 2 octets gives 1/65536 s
  * resolution (~15 µs), well below our 1 Hz cadence.
+ *
+ * <p>Further packet types share both headers and differ only in APID and payload; each
+ * APID keeps its own sequence counter. APID {@value #ECLIPSE_APID} carries the eclipse
+ * state ({@link #sendEclipsePacket}), APID {@value #COMMAND_ACK_APID} telecommand
+ * acknowledgements ({@link #sendCommandAck}). Every send is recorded as a
+ * {@link TelemetryPacketEvent} when a JFR recording enables it.
+ *
+ * <p>In a cluster only the owner of the active spacecraft sends APID {@value #APID}. When
+ * ownership moves, the old owner hands its count over ({@link #downlinkHandoff}) and the
+ * new one continues from it ({@link #continueDownlink}), so the ground sees one stream.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CcsdsTelemetrySender {
 
-    private static final int APID = 100;
+    /** Navigation packets of the active spacecraft — see {@link #sendPacket}. */
+    public static final int APID = 100;
+    /** Eclipse state of the active spacecraft — see {@link #sendEclipsePacket}. */
+    public static final int ECLIPSE_APID = 101;
+    /** Telecommand acknowledgements — see {@link #sendCommandAck}. */
+    public static final int COMMAND_ACK_APID = 102;
     private static final int CCSDS_PRIMARY_HEADER_LENGTH = 6;
     private static final int CCSDS_SECONDARY_HEADER_LENGTH = 6;  // 4 bytes coarse + 2 bytes fine
     private static final int PAYLOAD_LENGTH = 12;                // 3 floats × 4 bytes
-    private static final int TOTAL_LENGTH =
-            CCSDS_PRIMARY_HEADER_LENGTH + CCSDS_SECONDARY_HEADER_LENGTH + PAYLOAD_LENGTH;
+    private static final int ECLIPSE_PAYLOAD_LENGTH = 13;        // uint8 + 3 floats × 4 bytes
+    private static final int COMMAND_ACK_PAYLOAD_LENGTH = 14;    // uint16 + 2 × uint8 + CUC + float
 
     private final AtomicInteger sequenceCounter = new AtomicInteger(0);
+    private final AtomicInteger eclipseSequenceCounter = new AtomicInteger(0);
+    private final AtomicInteger commandAckSequenceCounter = new AtomicInteger(0);
+    /** Generation time of the last APID {@value #APID} packet, epoch ms; 0 before the first. */
+    private volatile long lastPacketMillis;
 
     @SuppressWarnings("unused")  // injected to guarantee Orekit data is loaded before @PostConstruct
     private final OrekitConfig orekitConfig;
@@ -109,54 +132,160 @@ public class CcsdsTelemetrySender {
      */
     public void sendPacket(final AbsoluteDate generationTime,
                            final float lat, final float lon, final float alt) {
-        final var buffer = ByteBuffer.allocate(TOTAL_LENGTH);
+        final var buffer = header(APID, sequenceCounter, PAYLOAD_LENGTH, generationTime);
+        lastPacketMillis = generationTime.toDate(TimeScalesFactory.getUTC()).getTime();
+
+        // Payload: 3 × IEEE 754 float, big-endian (ByteBuffer default).
+        buffer.putFloat(lat);
+        buffer.putFloat(lon);
+        buffer.putFloat(alt);
+
+        transmit(APID, buffer, generationTime, "lat=" + lat + ", lon=" + lon + ", alt=" + alt + " km");
+    }
+
+    /**
+     * The APID {@value #APID} sequence count of the next packet and when the last one was
+     * generated — what the member taking over the downlink needs to continue the stream.
+     */
+    public DownlinkHandoff downlinkHandoff() {
+        return new DownlinkHandoff(sequenceCounter.get() & 0x3FFF, lastPacketMillis);
+    }
+
+    /** Continues the APID {@value #APID} stream at {@code sequenceCount}, modulo 2^14. */
+    public void continueDownlink(final int sequenceCount) {
+        sequenceCounter.set(sequenceCount & 0x3FFF);
+    }
+
+    /**
+     * Encodes the active spacecraft's eclipse state into an APID {@value #ECLIPSE_APID}
+     * packet (same headers as the nav packet) and transmits via UDP.
+     *
+     * <p>Payload (13 bytes): state (uint8 — 0 sunlit, 1 penumbra, 2 umbra), illuminated
+     * fraction, seconds to the next umbra entry, seconds to the next umbra exit (3 ×
+     * float32, big-endian). Times are NaN when not predicted yet or beyond the prediction
+     * horizon.
+     *
+     * @param generationTime tick time, embedded as TAI seconds since 1958-01-01
+     * @param state          shadow region
+     * @param illumination   visible fraction of the solar disc, 0..1
+     * @param umbraEntryIn   seconds until the next umbra entry, or NaN
+     * @param umbraExitIn    seconds until the next umbra exit, or NaN
+     */
+    public void sendEclipsePacket(final AbsoluteDate generationTime, final EclipseState state,
+                                  final float illumination, final float umbraEntryIn, final float umbraExitIn) {
+        final var buffer = header(ECLIPSE_APID, eclipseSequenceCounter, ECLIPSE_PAYLOAD_LENGTH, generationTime);
+        buffer.put((byte) state.code());
+        buffer.putFloat(illumination);
+        buffer.putFloat(umbraEntryIn);
+        buffer.putFloat(umbraExitIn);
+
+        transmit(ECLIPSE_APID, buffer, generationTime, state + ", illumination=" + illumination
+                + ", umbra entry in " + umbraEntryIn + " s, exit in " + umbraExitIn + " s");
+    }
+
+    /**
+     * Encodes a telecommand acknowledgement into an APID {@value #COMMAND_ACK_APID} packet
+     * and transmits via UDP. The Secondary Header time is when the command reached
+     * {@code stage}; the payload carries when it was received.
+     *
+     * <p>Payload (14 bytes): uplink sequence (uint16), opcode (uint8), stage (uint8 —
+     * {@link CommandAckStage#code()}), receive time (CUC, 4 + 2 octets, same epoch as the
+     * Secondary Header), receive-to-stage latency in seconds (float32, big-endian).
+     *
+     * @param stageTime      time the command reached {@code stage}
+     * @param uplinkSequence the command's uplink sequence number, echoed as received
+     * @param opCode         the command's opcode, echoed as received
+     * @param stage          verification stage being reported
+     * @param receivedAt     time the command's datagram was received
+     * @param latencySeconds receive-to-stage latency, measured on the monotonic clock
+     */
+    public void sendCommandAck(final AbsoluteDate stageTime, final int uplinkSequence, final int opCode,
+                               final CommandAckStage stage, final AbsoluteDate receivedAt,
+                               final float latencySeconds) {
+        final var buffer = header(COMMAND_ACK_APID, commandAckSequenceCounter, COMMAND_ACK_PAYLOAD_LENGTH,
+                stageTime);
+        buffer.putShort((short) uplinkSequence);
+        buffer.put((byte) opCode);
+        buffer.put((byte) stage.code());
+        putCuc(buffer, receivedAt);
+        buffer.putFloat(latencySeconds);
+
+        transmit(COMMAND_ACK_APID, buffer, stageTime, stage + " #" + (uplinkSequence & 0xFFFF)
+                + " opcode=0x" + String.format("%02X", opCode & 0xFF) + ", " + latencySeconds + " s after receipt");
+    }
+
+    /**
+     * Allocates a packet and writes the Primary Header and CUC Secondary Header, leaving
+     * the buffer positioned at the start of the payload.
+     */
+    private ByteBuffer header(final int apid, final AtomicInteger counter, final int payloadLength,
+                              final AbsoluteDate generationTime) {
+        final var buffer = ByteBuffer.allocate(
+                CCSDS_PRIMARY_HEADER_LENGTH + CCSDS_SECONDARY_HEADER_LENGTH + payloadLength);
 
         // Packet ID: Version(000) | Type(0) | SecHeader(1) | APID(11 bits).
         // Sec Header bit (bit 11) is now set because we emit a Secondary Header.
-        final var packetId = (short) (0x0800 | (APID & 0x07FF));
+        final var packetId = (short) (0x0800 | (apid & 0x07FF));
         buffer.putShort(packetId);
 
         // Sequence Control: Grouping Flags(11 = standalone) | Sequence Count(14 bits).
-        final var seqCount = sequenceCounter.getAndIncrement() & 0x3FFF;
+        // CCSDS 133.0-B-2 §4.1.3.4.2: the count runs independently per APID.
+        final var seqCount = counter.getAndIncrement() & 0x3FFF;
         final var seqControl = (short) (0xC000 | seqCount);
         buffer.putShort(seqControl);
 
         // Data Length: octets in Packet Data Field (Sec Header + payload) minus 1.
-        final var dataLength = (short) (CCSDS_SECONDARY_HEADER_LENGTH + PAYLOAD_LENGTH - 1);
+        final var dataLength = (short) (CCSDS_SECONDARY_HEADER_LENGTH + payloadLength - 1);
         buffer.putShort(dataLength);
 
         // Secondary Header — CUC time, 4 octets coarse + 2 octets fine, no P-field.
         // The CfsPacketPreprocessor on the Yamcs side is configured with TAI epoch and
         // reads (uint32, uint16) directly at offsets 6 and 10.
-        final var secondsSinceEpoch = generationTime.durationFrom(taiEpoch);
-        final var coarse = (long) Math.floor(secondsSinceEpoch);
-        final var fine = (int) Math.round((secondsSinceEpoch - coarse) * 65536.0) & 0xFFFF;
-        buffer.putInt((int) (coarse & 0xFFFFFFFFL));
-        buffer.putShort((short) fine);
+        putCuc(buffer, generationTime);
+        return buffer;
+    }
 
-        // Payload: 3 × IEEE 754 float, big-endian (ByteBuffer default).
-        buffer.putFloat(lat);
-        buffer.putFloat(lon);
-        buffer.putFloat(alt);
+    /** CUC time, 4 octets coarse TAI seconds since 1958 + 2 octets fine (1/65536 s). */
+    private void putCuc(final ByteBuffer buffer, final AbsoluteDate time) {
+        // Rounded as a whole so a fraction within 2^-17 s of the next second carries into
+        // the coarse field instead of wrapping the fine field to 0 — one second back in time.
+        final var ticks = Math.round(time.durationFrom(taiEpoch) * 65536.0);
+        buffer.putInt((int) (ticks >>> 16));
+        buffer.putShort((short) ticks);
+    }
 
+    private void transmit(final int apid, final ByteBuffer buffer, final AbsoluteDate generationTime,
+                          final String summary) {
+        final var event = new TelemetryPacketEvent();
+        event.begin();
+        final var data = buffer.array();
         try {
-            final var data = buffer.array();
             final var packet = new DatagramPacket(data, data.length, address, port);
             socket.send(packet);
-            final var hexFmt = HexFormat.ofDelimiter(" ");
-            final var hdrHex = hexFmt.formatHex(data, 0, CCSDS_PRIMARY_HEADER_LENGTH);
-            final var secHdrHex = hexFmt.formatHex(data,
-                    CCSDS_PRIMARY_HEADER_LENGTH,
-                    CCSDS_PRIMARY_HEADER_LENGTH + CCSDS_SECONDARY_HEADER_LENGTH);
-            final var payloadHex = hexFmt.formatHex(data,
-                    CCSDS_PRIMARY_HEADER_LENGTH + CCSDS_SECONDARY_HEADER_LENGTH,
-                    TOTAL_LENGTH);
-            log.debug("TX CCSDS [APID={}, SEQ={}, {} bytes, t={}] → {}:{} | lat={}, lon={}, alt={} km\n"
-                            + "         HDR: [{}]  SEC: [{}]  DATA: [{}]",
-                    APID, seqCount, data.length, generationTime, host, port, lat, lon, alt,
-                    hdrHex, secHdrHex, payloadHex);
+            event.sent = true;
+            if (log.isDebugEnabled()) {
+                final var hexFmt = HexFormat.ofDelimiter(" ");
+                final var hdrHex = hexFmt.formatHex(data, 0, CCSDS_PRIMARY_HEADER_LENGTH);
+                final var secHdrHex = hexFmt.formatHex(data,
+                        CCSDS_PRIMARY_HEADER_LENGTH,
+                        CCSDS_PRIMARY_HEADER_LENGTH + CCSDS_SECONDARY_HEADER_LENGTH);
+                final var payloadHex = hexFmt.formatHex(data,
+                        CCSDS_PRIMARY_HEADER_LENGTH + CCSDS_SECONDARY_HEADER_LENGTH,
+                        data.length);
+                log.debug("TX CCSDS [APID={}, SEQ={}, {} bytes, t={}] → {}:{} | {}\n"
+                                + "         HDR: [{}]  SEC: [{}]  DATA: [{}]",
+                        apid, buffer.getShort(2) & 0x3FFF, data.length, generationTime, host, port, summary,
+                        hdrHex, secHdrHex, payloadHex);
+            }
         } catch (final IOException e) {
-            log.error("Failed to transmit CCSDS packet: {}", e.getMessage());
+            log.error("Failed to transmit CCSDS packet (APID={}): {}", apid, e.getMessage());
+        } finally {
+            if (event.shouldCommit()) {
+                event.apid = apid;
+                event.sequence = buffer.getShort(2) & 0x3FFF;
+                event.bytes = data.length;
+                event.commit();
+            }
         }
     }
 }
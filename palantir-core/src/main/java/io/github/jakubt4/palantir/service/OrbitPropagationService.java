@@ -1,32 +1,79 @@
 package io.github.jakubt4.palantir.service;
 
 import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.TleRequest;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueIngest;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.github.jakubt4.palantir.service.catalogue.VersionedCatalogue;
+import io.github.jakubt4.palantir.service.cluster.ClusterMembership;
+import io.github.jakubt4.palantir.service.diagnostics.PropagationTickEvent;
+import io.github.jakubt4.palantir.service.eclipse.EclipseService;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.github.jakubt4.palantir.service.state.OrbitStateBatch;
+import io.github.jakubt4.palantir.service.state.OrbitStateStore;
+import io.github.jakubt4.palantir.service.stream.PositionStreamBroadcaster;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.frames.Frame;
 import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Transform;
 import org.orekit.propagation.analytical.tle.TLE;
 import org.orekit.propagation.analytical.tle.TLEPropagator;
 import org.orekit.time.AbsoluteDate;
 import org.orekit.time.TimeScalesFactory;
 import org.orekit.utils.Constants;
 import org.orekit.utils.IERSConventions;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.orekit.utils.PVCoordinates;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Core orbit propagation engine — drives the satellite digital twin.
  *
- * <p>Maintains a thread-safe {@link TLEPropagator} that can be hot-swapped at runtime
- * via {@link #updateTle}. A {@code @Scheduled} loop propagates the current TLE at 1 Hz,
+ * <p>Maintains a {@link TLEPropagator} that can be hot-swapped at runtime via
+ * {@link #updateTle}. A 1 Hz tick on its own platform thread
+ * ({@link io.github.jakubt4.palantir.service.workload.TickLane}) propagates the current TLE,
  * converts the spacecraft state from TEME to geodetic coordinates (WGS-84), and hands
  * lat/lon/alt to {@link CcsdsTelemetrySender} for CCSDS downlink.
  *
+ * <p>Alongside the downlinked spacecraft, a catalogue of further tracked objects
+ * (constellation members, debris) can be loaded via {@link #trackTle}. Every tick
+ * propagates the active spacecraft and the whole catalogue to the same epoch, writes the
+ * results into the {@link OrbitStateStore} and fans them out through the
+ * {@link PositionStreamBroadcaster}. Only the active spacecraft is downlinked over CCSDS.
+ * The finished batch then goes through the {@link EclipseService} stage, which evaluates
+ * illumination for every object against one Sun position and downlinks the active
+ * spacecraft's eclipse state. Each tick is recorded as a {@link PropagationTickEvent}
+ * with per-stage durations when a JFR recording enables it.
+ *
+ * <p>When several instances run as a cluster, each propagates only the catalogue numbers
+ * the {@link ClusterMembership} ring assigns to it — the active spacecraft included, so
+ * exactly one instance downlinks it. Entries it does not own stay in the catalogue only
+ * until {@link io.github.jakubt4.palantir.service.cluster.CatalogueRouter} has handed
+ * them to their owner.
+ *
+ * <p>After a {@code FIRE_THRUSTER} the active spacecraft's TLE no longer describes its
+ * orbit. {@link io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreService} integrates
+ * the post-burn trajectory in the background and installs it via {@link #installEphemeris};
+ * from the burn epoch on, the tick samples that {@link ManoeuvreEphemeris} instead of SGP4.
+ * Should the ephemeris run out before it is extended, the tick falls back to SGP4 rather
+ * than stop downlinking.
+ * A new TLE for the active spacecraft supersedes any installed ephemeris.
+ *
+ * <p>The active spacecraft, its ephemeris and the catalogue are held in one immutable
+ * {@link CatalogueSnapshot}, published by {@link VersionedCatalogue}. Every change —
+ * a new active TLE, a catalogue batch of any size, an ephemeris, a handoff — publishes
+ * the next version atomically. Each tick reads one snapshot and stamps its version on the
+ * published batch, so it never mixes two versions.
+ *
  * <p>On startup a default ISS TLE is loaded so telemetry flows immediately.
  */
 @Slf4j
@@ -44,11 +91,14 @@ public class OrbitPropagationService {
     @SuppressWarnings("unused") // injected to guarantee Orekit data is loaded before @PostConstruct
     private final OrekitConfig orekitConfig;
     private final CcsdsTelemetrySender ccsdsTelemetrySender;
-
-    private final AtomicReference<TLEPropagator> activePropagator = new AtomicReference<>();
-    private final AtomicReference<String> activeSatelliteName = new AtomicReference<>("NONE");
+    private final PositionStreamBroadcaster positionStreamBroadcaster;
+    private final OrbitStateStore orbitStateStore;
+    private final EclipseService eclipseService;
+    private final ClusterMembership clusterMembership;
+    private final VersionedCatalogue catalogue;
 
     private OneAxisEllipsoid earth;
+    private Frame teme;
 
     @PostConstruct
     void init() {
@@ -58,6 +108,7 @@ public class OrbitPropagationService {
                 Constants.WGS84_EARTH_FLATTENING,
                 itrf
         );
+        teme = FramesFactory.getTEME();
         log.info("Earth model initialized — WGS84 ellipsoid, ITRF/IERS-2010");
 
         loadDefaultTle();
@@ -73,7 +124,8 @@ public class OrbitPropagationService {
     }
 
     /**
-     * Parses a TLE and atomically replaces the active propagator.
+     * Parses a TLE and atomically replaces the active spacecraft, discarding any
+     * post-manoeuvre ephemeris. Name, TLE and ephemeris change in one version.
      *
      * @param satelliteName display name for logging
      * @param line1         NORAD TLE line 1
@@ -83,47 +135,270 @@ public class OrbitPropagationService {
     public void updateTle(final String satelliteName, final String line1, final String line2) {
         final var tle = new TLE(line1, line2);
         final var propagator = TLEPropagator.selectExtrapolator(tle);
+        final var snapshot = catalogue.publish(current -> current.withActive(
+                new TrackedObject(satelliteName, tle, propagator), "active " + satelliteName));
+
+        log.info("AOS — Acquired signal for [{}], TLE epoch: {}, propagator: {}, catalogue v{}",
+                satelliteName, tle.getDate(), propagator.getClass().getSimpleName(), snapshot.version());
+    }
+
+    /**
+     * Parses a TLE and adds it to the tracked catalogue, replacing any earlier TLE for the
+     * same catalogue number. The downlinked spacecraft is not affected; if the catalogue
+     * number matches the active spacecraft, the active propagator takes precedence.
+     *
+     * @param name  display name
+     * @param line1 NORAD TLE line 1
+     * @param line2 NORAD TLE line 2
+     * @return NORAD catalogue number of the tracked object
+     * @throws org.orekit.errors.OrekitException if the TLE cannot be parsed
+     */
+    public int trackTle(final String name, final String line1, final String line2) {
+        final var object = parse(name, line1, line2);
+        catalogue.publish(current -> current.withTracked(List.of(object), "track " + name));
+        log.debug("Tracking [{}] (#{}), TLE epoch: {}", name, object.catalogNumber(), object.tle().getDate());
+        return object.catalogNumber();
+    }
+
+    /**
+     * Parses a batch of TLEs and adds every valid one to the tracked catalogue in a single
+     * version, so ticks and queries see either none or all of the batch. Entries are parsed
+     * independently; one malformed TLE does not reject the rest.
+     */
+    public CatalogueIngest trackTles(final List<TleRequest> requests) {
+        final var objects = new ArrayList<TrackedObject>(requests.size());
+        final var outcomes = new ArrayList<CatalogueIngest.Outcome>(requests.size());
+        for (final var request : requests) {
+            try {
+                final var object = parse(request.satelliteName(), request.line1(), request.line2());
+                objects.add(object);
+                outcomes.add(new CatalogueIngest.Outcome(object.catalogNumber(), null));
+            } catch (final Exception e) {
+                outcomes.add(new CatalogueIngest.Outcome(-1, "Invalid TLE: " + e.getMessage()));
+            }
+        }
+        final var snapshot = objects.isEmpty()
+                ? catalogue.current()
+                : catalogue.publish(current -> current.withTracked(objects, "catalogue batch of " + objects.size()));
+        return new CatalogueIngest(snapshot.version(), outcomes);
+    }
+
+    /**
+     * Removes catalogue entries in one version — each only if it is still the entry for its
+     * number; a TLE tracked for the same number in the meantime is kept.
+     *
+     * @return number of entries removed
+     */
+    public int untrack(final Collection<TrackedObject> objects) {
+        final var removed = new int[1];
+        catalogue.publish(current -> {
+            final var next = current.withoutTracked(objects, "untrack " + objects.size());
+            removed[0] = current.catalogue().size() - next.catalogue().size();
+            return next;
+        });
+        return removed[0];
+    }
+
+    /** The latest catalogue version; hold on to it for a consistent view across several reads. */
+    public CatalogueSnapshot snapshot() {
+        return catalogue.current();
+    }
+
+    /**
+     * The tracked catalogue in catalogue-number order, without the active spacecraft.
+     * Propagators belong to the tick; see {@link #findTracked}.
+     */
+    public List<TrackedObject> catalogueObjects() {
+        return catalogue.current().catalogue().toList();
+    }
+
+    /** Number of objects in the tracked catalogue, excluding the active spacecraft. */
+    public int catalogueSize() {
+        return catalogue.current().catalogue().size();
+    }
+
+    /**
+     * Looks up the TLE currently used for a catalogue number — the active spacecraft's if
+     * it matches, otherwise the tracked catalogue's.
+     *
+     * <p>The returned propagator belongs to the tick and is not thread-safe; callers that
+     * propagate on their own threads must build their own from {@link TrackedObject#tle()}.
+     */
+    public Optional<TrackedObject> findTracked(final int catalogNumber) {
+        return catalogue.current().find(catalogNumber);
+    }
+
+    /**
+     * Every registered object — the active spacecraft and the tracked catalogue — in
+     * catalogue-number order, the active spacecraft taking precedence over a catalogue
+     * entry with the same number. Propagators belong to the tick; see {@link #findTracked}.
+     */
+    public List<TrackedObject> registeredObjects() {
+        return catalogue.current().registeredObjects();
+    }
+
+    /**
+     * The active (downlinked) spacecraft. Its propagator belongs to the tick and is not
+     * thread-safe — see {@link #findTracked}.
+     */
+    public Optional<TrackedObject> activeObject() {
+        return catalogue.current().active();
+    }
 
-        activePropagator.set(propagator);
-        activeSatelliteName.set(satelliteName);
+    /** The installed post-manoeuvre ephemeris of the active spacecraft, if any. */
+    public Optional<ManoeuvreEphemeris> activeEphemeris() {
+        return catalogue.current().ephemeris();
+    }
 
-        log.info("AOS — Acquired signal for [{}], TLE epoch: {}, propagator: {}",
-                satelliteName, tle.getDate(), propagator.getClass().getSimpleName());
+    /**
+     * Installs a post-manoeuvre ephemeris for the active spacecraft, provided nothing
+     * changed since the caller read its inputs: the active TLE must still be
+     * {@code basis} and the installed ephemeris still {@code expected}.
+     *
+     * @return {@code false} if the active trajectory changed in the meantime
+     */
+    public boolean installEphemeris(final TLE basis, final ManoeuvreEphemeris expected,
+                                    final ManoeuvreEphemeris ephemeris) {
+        final var snapshot = catalogue.publish(current -> {
+            final var active = current.active().orElse(null);
+            if (active == null || active.tle() != basis || current.ephemeris().orElse(null) != expected) {
+                return current;
+            }
+            return current.withEphemeris(ephemeris, "ephemeris for " + active.name());
+        });
+        return snapshot.ephemeris().orElse(null) == ephemeris;
+    }
+
+    private static TrackedObject parse(final String name, final String line1, final String line2) {
+        final var tle = new TLE(line1, line2);
+        return new TrackedObject(name, tle, TLEPropagator.selectExtrapolator(tle));
     }
 
     /**
      * Propagates the active TLE to the current wall-clock instant, converts
      * the resulting spacecraft position to geodetic coordinates, and transmits
-     * a CCSDS telemetry packet. Invoked every second by Spring's scheduler.
+     * a CCSDS telemetry packet. The tracked catalogue is propagated to the same
+     * instant and the whole tick is published to the state store and position
+     * stream. Invoked every second by
+     * {@link io.github.jakubt4.palantir.service.workload.TickLane}.
      */
-    @Scheduled(fixedRate = 1000)
     public void propagateAndSend() {
-        final var propagator = activePropagator.get();
-        if (propagator == null) {
+        final var event = new PropagationTickEvent();
+        event.begin();
+        try {
+            tick(event);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void tick(final PropagationTickEvent event) {
+        // One snapshot for the whole tick: every row of the batch comes from one version.
+        final var snapshot = catalogue.current();
+        event.catalogueVersion = snapshot.version();
+        final var activeObject = snapshot.active().orElse(null);
+        final var propagator = activeObject != null ? activeObject.propagator() : null;
+        if (snapshot.isEmpty()) {
             log.debug("WAITING_FOR_TLE — No active propagator, awaiting TLE ingestion");
             return;
         }
+        event.lap();
 
+        final var instant = Instant.now();
+        final var now = new AbsoluteDate(Date.from(instant), TimeScalesFactory.getUTC());
+        final Transform temeToItrf;
         try {
-            final var now = new AbsoluteDate(Date.from(Instant.now()), TimeScalesFactory.getUTC());
+            // One TEME → ITRF transform per tick, shared by every object.
+            temeToItrf = teme.getTransformTo(earth.getBodyFrame(), now);
+        } catch (final Exception e) {
+            log.error("[{}] Frame transform error: {}",
+                    activeObject != null ? activeObject.name() : "NONE", e.getMessage());
+            return;
+        }
+        event.transformDuration = event.lap();
 
-            final var state = propagator.propagate(now);
-            final var position = state.getPVCoordinates(earth.getBodyFrame()).getPosition();
-            final var geo = earth.transform(position, earth.getBodyFrame(), now);
+        final var activeName = activeObject != null ? activeObject.name() : "NONE";
+        final var ephemeris = snapshot.ephemeris().orElse(null);
+        GeodeticSample active = null;
+        if (propagator != null && clusterMembership.owns(propagator.getTLE().getSatelliteNumber())) {
+            try {
+                // Handoff at the burn epoch: sampling the pre-integrated ephemeris costs about
+                // as much as an SGP4 step, so the tick does not slow down after a manoeuvre.
+                event.ephemeris = ephemeris != null && ephemeris.isActiveAt(now);
+                if (ephemeris != null && ephemeris.isExhaustedAt(now)) {
+                    log.warn("[{}] Manoeuvre ephemeris ended at {} — falling back to SGP4 until it is extended",
+                            activeName, ephemeris.end());
+                }
+                active = event.ephemeris
+                        ? geodetic(ephemeris.stateAt(now).getPVCoordinates(earth.getBodyFrame()), now)
+                        : sample(propagator, temeToItrf, now);
 
-            final var latDeg = Math.toDegrees(geo.getLatitude());
-            final var lonDeg = Math.toDegrees(geo.getLongitude());
-            final var altKm = geo.getAltitude() / 1000.0;
+                log.info("[{}] Position — lat={} deg, lon={} deg, alt={} km",
+                        activeName,
+                        String.format("%.2f", active.latDeg()),
+                        String.format("%.2f", active.lonDeg()),
+                        String.format("%.2f", active.altKm()));
 
-            log.info("[{}] Position — lat={} deg, lon={} deg, alt={} km",
-                    activeSatelliteName.get(),
-                    String.format("%.2f", latDeg),
-                    String.format("%.2f", lonDeg),
-                    String.format("%.2f", altKm));
+                ccsdsTelemetrySender.sendPacket(now,
+                        (float) active.latDeg(), (float) active.lonDeg(), (float) active.altKm());
+            } catch (final Exception e) {
+                log.error("[{}] Propagation error: {}", activeName, e.getMessage());
+                event.failures++;
+            }
+        }
+        event.activeDuration = event.lap();
+
+        final var activeId = active != null ? propagator.getTLE().getSatelliteNumber() : -1;
+        final var batch = new OrbitStateBatch(instant.toEpochMilli(), snapshot.version(),
+                snapshot.catalogue().size() + 1);
+        var activePending = active != null;
+        for (final var object : snapshot.catalogue()) {
+            final var id = object.catalogNumber();
+            if (activePending && activeId <= id) {
+                batch.add(activeId, activeName, active.itrf(), active.latDeg(), active.lonDeg(), active.altKm());
+                activePending = false;
+            }
+            if (id == activeId || !clusterMembership.owns(id)) {
+                continue;
+            }
+            try {
+                final var state = sample(object.propagator(), temeToItrf, now);
+                batch.add(id, object.name(), state.itrf(), state.latDeg(), state.lonDeg(), state.altKm());
+            } catch (final Exception e) {
+                log.debug("[{}] Catalogue propagation error: {}", object.name(), e.getMessage());
+                event.failures++;
+            }
+        }
+        if (activePending) {
+            batch.add(activeId, activeName, active.itrf(), active.latDeg(), active.lonDeg(), active.altKm());
+        }
+        event.objects = batch.size();
+        event.catalogueDuration = event.lap();
 
-            ccsdsTelemetrySender.sendPacket(now, (float) latDeg, (float) lonDeg, (float) altKm);
+        orbitStateStore.publish(batch);
+        positionStreamBroadcaster.publish(batch.toPositionFrame());
+        event.publishDuration = event.lap();
+
+        try {
+            eclipseService.process(batch, now, active != null ? propagator.getTLE() : null);
         } catch (final Exception e) {
-            log.error("[{}] Propagation error: {}", activeSatelliteName.get(), e.getMessage());
+            log.error("[{}] Eclipse stage error: {}", activeName, e.getMessage());
         }
+        event.eclipseDuration = event.lap();
+    }
+
+    private GeodeticSample sample(final TLEPropagator propagator, final Transform temeToItrf, final AbsoluteDate date) {
+        return geodetic(temeToItrf.transformPVCoordinates(propagator.propagate(date).getPVCoordinates()), date);
+    }
+
+    private GeodeticSample geodetic(final PVCoordinates itrf, final AbsoluteDate date) {
+        final var geo = earth.transform(itrf.getPosition(), earth.getBodyFrame(), date);
+        return new GeodeticSample(itrf,
+                Math.toDegrees(geo.getLatitude()),
+                Math.toDegrees(geo.getLongitude()),
+                geo.getAltitude() / 1000.0);
+    }
+
+    private record GeodeticSample(PVCoordinates itrf, double latDeg, double lonDeg, double altKm) {
     }
 }
@@ -1,6 +1,7 @@
 package io.github.jakubt4.palantir.service;
 
 import io.github.jakubt4.palantir.config.RestClientConfiguration;
+import io.github.jakubt4.palantir.service.diagnostics.TleRefreshEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +26,8 @@ import java.util.List;
  *
  * <p>Gated by {@code palantir.tle.refresh.enabled}; the test profile
  * sets this to {@code false} so unit tests do not hit the network.
+ *
+ * <p>Each poll is recorded as a {@link TleRefreshEvent} when a JFR recording enables it.
  */
 @Slf4j
 @Service
@@ -63,11 +66,26 @@ public class TleRefreshService {
             initialDelayString = "${palantir.tle.refresh.initial-delay-ms:60000}"
     )
     public void refreshTle() {
+        final var event = new TleRefreshEvent();
+        event.begin();
+        event.lap();
+        String outcome;
+        String body = null;
         try {
-            final var body = fetchTleBody();
-            applyTle(body);
+            body = fetchTleBody();
+            event.fetchDuration = event.lap();
+            outcome = applyTle(body) ? "APPLIED" : "REJECTED";
+            event.applyDuration = event.lap();
         } catch (final RestClientException e) {
             log.warn("TLE refresh: HTTP failure fetching {}: {}", celestrakUrl, e.getMessage());
+            event.fetchDuration = event.lap();
+            outcome = "HTTP_ERROR";
+        }
+        if (event.shouldCommit()) {
+            event.url = celestrakUrl;
+            event.bytes = body != null ? body.length() : 0;
+            event.outcome = outcome;
+            event.commit();
         }
     }
 
@@ -87,11 +105,13 @@ public class TleRefreshService {
      * (line1 + line2) responses — takes the last two non-blank lines as
      * the orbital elements. Orekit parse failures are caught and logged
      * so a single bad fetch doesn't crash the service.
+     *
+     * @return whether the TLE was applied
      */
-    void applyTle(final String body) {
+    boolean applyTle(final String body) {
         if (body == null || body.isBlank()) {
             log.warn("TLE refresh: empty response body, skipping");
-            return;
+            return false;
         }
 
         final List<String> lines = body.lines()
@@ -100,7 +120,7 @@ public class TleRefreshService {
                 .toList();
         if (lines.size() < 2) {
             log.warn("TLE refresh: only {} non-blank line(s) in response, skipping", lines.size());
-            return;
+            return false;
         }
 
         final var line1 = lines.get(lines.size() - 2);
@@ -109,8 +129,10 @@ public class TleRefreshService {
         try {
             orbitPropagationService.updateTle(satelliteName, line1, line2);
             log.info("TLE refresh: refreshed [{}] from CelesTrak", satelliteName);
+            return true;
         } catch (final Exception e) {
             log.warn("TLE refresh: parse error for response from {}: {}", celestrakUrl, e.getMessage());
+            return false;
         }
     }
 }
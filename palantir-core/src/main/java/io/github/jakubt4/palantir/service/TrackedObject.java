@@ -0,0 +1,19 @@
+package io.github.jakubt4.palantir.service;
+
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+
+/**
+ * One catalogue entry propagated on every tick: the parsed TLE and the SGP4/SDP4
+ * propagator built from it.
+ *
+ * @param name       display name supplied at ingestion
+ * @param tle        parsed two-line element set (source of catalogue number and epoch)
+ * @param propagator propagator selected by {@link TLEPropagator#selectExtrapolator(TLE)}
+ */
+public record TrackedObject(String name, TLE tle, TLEPropagator propagator) {
+
+    public int catalogNumber() {
+        return tle.getSatelliteNumber();
+    }
+}
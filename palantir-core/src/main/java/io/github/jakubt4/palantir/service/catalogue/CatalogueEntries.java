@@ -0,0 +1,285 @@
+package io.github.jakubt4.palantir.service.catalogue;
+
+import io.github.jakubt4.palantir.service.TrackedObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable tracked catalogue, sorted by catalogue number, that is updated by copying only
+ * what changes.
+ *
+ * <p>Entries are kept in chunks of at most {@value #MAX_CHUNK} sorted by catalogue number,
+ * with a spine holding the chunks and the lowest number in each. {@link #putAll} and
+ * {@link #removeAll} copy the spine and the chunks the change touches; every other chunk
+ * is shared with the original. A batch of k entries into a catalogue of n therefore costs
+ * O(n / {@value #MAX_CHUNK} + k · {@value #MAX_CHUNK}) instead of a full copy, and
+ * retained versions cost only the chunks that differ between them. Lookups are two binary
+ * searches; iteration walks the chunks in order, which is what the tick does every second.
+ */
+public final class CatalogueEntries implements Iterable<TrackedObject> {
+
+    /** Chunks grow to this size before they are split. */
+    static final int MAX_CHUNK = 128;
+    /** Size of the chunks a split or a fresh build produces. */
+    static final int CHUNK = MAX_CHUNK / 2;
+    /** A chunk shrunk below this by removals is merged into its predecessor when it fits. */
+    static final int MIN_CHUNK = MAX_CHUNK / 8;
+
+    public static final CatalogueEntries EMPTY = new CatalogueEntries(new TrackedObject[0][], new int[0], 0);
+
+    private static final Comparator<TrackedObject> BY_NUMBER = Comparator.comparingInt(TrackedObject::catalogNumber);
+
+    private final TrackedObject[][] chunks;
+    private final int[] lowKeys;
+    private final int size;
+
+    private CatalogueEntries(final TrackedObject[][] chunks, final int[] lowKeys, final int size) {
+        this.chunks = chunks;
+        this.lowKeys = lowKeys;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** The entry for {@code catalogNumber}, or {@code null}. */
+    public TrackedObject get(final int catalogNumber) {
+        if (size == 0) {
+            return null;
+        }
+        final var chunk = chunks[chunkFor(catalogNumber)];
+        final var i = indexOf(chunk, chunk.length, catalogNumber);
+        return i >= 0 ? chunk[i] : null;
+    }
+
+    /**
+     * Adds {@code objects}, replacing entries with the same catalogue number. Of several
+     * objects with one number, the last wins.
+     *
+     * @return a new catalogue, or this one if {@code objects} is empty
+     */
+    public CatalogueEntries putAll(final Collection<TrackedObject> objects) {
+        if (objects.isEmpty()) {
+            return this;
+        }
+        final var updates = sortedLastWins(objects);
+        final var out = new ArrayList<TrackedObject[]>(chunks.length + updates.length / CHUNK + 1);
+        if (chunks.length == 0) {
+            split(updates, updates.length, out);
+            return of(out);
+        }
+        var u = 0;
+        for (var c = 0; c < chunks.length; c++) {
+            final var upper = c + 1 < chunks.length ? lowKeys[c + 1] : Integer.MAX_VALUE;
+            var v = u;
+            while (v < updates.length && (updates[v].catalogNumber() < upper || c + 1 == chunks.length)) {
+                v++;
+            }
+            if (v == u) {
+                out.add(chunks[c]);
+                continue;
+            }
+            final var merged = merge(chunks[c], updates, u, v);
+            split(merged, merged.length, out);
+            u = v;
+        }
+        return of(out);
+    }
+
+    /**
+     * Removes the given entries — each only if it is still the very object stored for its
+     * catalogue number; an entry replaced in the meantime stays.
+     *
+     * @return a new catalogue, or this one if nothing was removed
+     */
+    public CatalogueEntries removeAll(final Collection<TrackedObject> objects) {
+        if (objects.isEmpty() || size == 0) {
+            return this;
+        }
+        final var removals = objects.toArray(TrackedObject[]::new);
+        Arrays.sort(removals, BY_NUMBER);
+        final var out = new ArrayList<TrackedObject[]>(chunks.length);
+        var removed = 0;
+        var r = 0;
+        for (var c = 0; c < chunks.length; c++) {
+            final var upper = c + 1 < chunks.length ? lowKeys[c + 1] : Integer.MAX_VALUE;
+            final var chunk = chunks[c];
+            final var kept = new TrackedObject[chunk.length];
+            var n = 0;
+            for (final var entry : chunk) {
+                while (r < removals.length && removals[r].catalogNumber() < entry.catalogNumber()) {
+                    r++;
+                }
+                var drop = false;
+                for (var s = r; s < removals.length && removals[s].catalogNumber() == entry.catalogNumber(); s++) {
+                    drop |= removals[s] == entry;
+                }
+                if (!drop) {
+                    kept[n++] = entry;
+                }
+            }
+            while (r < removals.length && removals[r].catalogNumber() < upper) {
+                r++;
+            }
+            if (n == chunk.length) {
+                out.add(chunk);
+                continue;
+            }
+            removed += chunk.length - n;
+            if (n == 0) {
+                continue;
+            }
+            final var last = out.isEmpty() ? null : out.getLast();
+            if (n < MIN_CHUNK && last != null && last.length + n <= MAX_CHUNK) {
+                final var combined = Arrays.copyOf(last, last.length + n);
+                System.arraycopy(kept, 0, combined, last.length, n);
+                out.set(out.size() - 1, combined);
+            } else {
+                out.add(Arrays.copyOf(kept, n));
+            }
+        }
+        return removed == 0 ? this : of(out);
+    }
+
+    /** The entries in catalogue-number order. */
+    public List<TrackedObject> toList() {
+        final var list = new ArrayList<TrackedObject>(size);
+        for (final var chunk : chunks) {
+            list.addAll(Arrays.asList(chunk));
+        }
+        return list;
+    }
+
+    @Override
+    public Iterator<TrackedObject> iterator() {
+        return new Iterator<>() {
+            private int chunk;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return chunk < chunks.length;
+            }
+
+            @Override
+            public TrackedObject next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final var current = chunks[chunk];
+                final var entry = current[index++];
+                if (index == current.length) {
+                    chunk++;
+                    index = 0;
+                }
+                return entry;
+            }
+        };
+    }
+
+    /** Number of chunks; for tests of the sharing between versions. */
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    TrackedObject[] chunk(final int index) {
+        return chunks[index];
+    }
+
+    private int chunkFor(final int catalogNumber) {
+        var lo = 0;
+        var hi = lowKeys.length - 1;
+        while (lo < hi) {
+            final var mid = (lo + hi + 1) >>> 1;
+            if (lowKeys[mid] <= catalogNumber) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private static int indexOf(final TrackedObject[] chunk, final int length, final int catalogNumber) {
+        var lo = 0;
+        var hi = length - 1;
+        while (lo <= hi) {
+            final var mid = (lo + hi) >>> 1;
+            final var key = chunk[mid].catalogNumber();
+            if (key < catalogNumber) {
+                lo = mid + 1;
+            } else if (key > catalogNumber) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    private static TrackedObject[] sortedLastWins(final Collection<TrackedObject> objects) {
+        final var sorted = objects.toArray(TrackedObject[]::new);
+        // Stable, so the last of several objects with one number stays last in its run.
+        Arrays.sort(sorted, BY_NUMBER);
+        var n = 0;
+        for (var i = 0; i < sorted.length; i++) {
+            if (i + 1 < sorted.length && sorted[i + 1].catalogNumber() == sorted[i].catalogNumber()) {
+                continue;
+            }
+            sorted[n++] = sorted[i];
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    private static TrackedObject[] merge(final TrackedObject[] chunk, final TrackedObject[] updates,
+                                         final int from, final int to) {
+        final var merged = new TrackedObject[chunk.length + to - from];
+        var i = 0;
+        var j = from;
+        var n = 0;
+        while (i < chunk.length || j < to) {
+            if (j == to || (i < chunk.length && chunk[i].catalogNumber() < updates[j].catalogNumber())) {
+                merged[n++] = chunk[i++];
+            } else {
+                if (i < chunk.length && chunk[i].catalogNumber() == updates[j].catalogNumber()) {
+                    i++;
+                }
+                merged[n++] = updates[j++];
+            }
+        }
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+
+    private static void split(final TrackedObject[] entries, final int length, final List<TrackedObject[]> out) {
+        if (length <= MAX_CHUNK) {
+            out.add(entries);
+            return;
+        }
+        final var pieces = (length + CHUNK - 1) / CHUNK;
+        for (var p = 0; p < pieces; p++) {
+            out.add(Arrays.copyOfRange(entries, p * length / pieces, (p + 1) * length / pieces));
+        }
+    }
+
+    private static CatalogueEntries of(final List<TrackedObject[]> chunks) {
+        final var spine = chunks.toArray(TrackedObject[][]::new);
+        final var lowKeys = new int[spine.length];
+        var size = 0;
+        for (var c = 0; c < spine.length; c++) {
+            lowKeys[c] = spine[c][0].catalogNumber();
+            size += spine[c].length;
+        }
+        return new CatalogueEntries(spine, lowKeys, size);
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.jakubt4.palantir.service.catalogue;
+
+import java.util.List;
+
+/**
+ * Result of adding a batch of TLEs to the tracked catalogue in one version.
+ *
+ * @param version  catalogue version that made the accepted entries visible; unchanged if
+ *                 none was accepted
+ * @param outcomes one per submitted TLE, in submission order
+ */
+public record CatalogueIngest(long version, List<Outcome> outcomes) {
+
+    /**
+     * @param catalogNumber NORAD catalogue number of a tracked entry, {@code -1} if rejected
+     * @param error         why the entry was rejected, {@code null} if it was tracked
+     */
+    public record Outcome(int catalogNumber, String error) {
+
+        public boolean tracked() {
+            return error == null;
+        }
+    }
+}
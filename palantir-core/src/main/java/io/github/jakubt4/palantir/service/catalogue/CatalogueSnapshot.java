@@ -0,0 +1,168 @@
+package io.github.jakubt4.palantir.service.catalogue;
+
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+/**
+ * One immutable, numbered version of everything the tick propagates: the active
+ * (downlinked) spacecraft, its post-manoeuvre ephemeris and the tracked catalogue.
+ *
+ * <p>A reader takes one snapshot and uses it throughout, so a tick or query never mixes
+ * entries of two versions — a new active TLE never appears with the old name, and a batch
+ * ingest is either entirely visible or not at all. Snapshots are never modified; the
+ * {@code with*} methods derive the next version, sharing every unchanged catalogue chunk
+ * with this one (see {@link CatalogueEntries}). They are published by
+ * {@link VersionedCatalogue}.
+ *
+ * <p>Propagators of the contained {@link TrackedObject}s belong to the tick and are not
+ * thread-safe; callers that propagate on their own threads build their own from the TLE.
+ */
+public final class CatalogueSnapshot {
+
+    /** Version 0: nothing registered. */
+    public static final CatalogueSnapshot EMPTY =
+            new CatalogueSnapshot(0, Instant.EPOCH, "empty", null, null, CatalogueEntries.EMPTY);
+
+    private final long version;
+    private final Instant publishedAt;
+    private final String change;
+    private final TrackedObject active;
+    private final ManoeuvreEphemeris ephemeris;
+    private final CatalogueEntries catalogue;
+
+    private CatalogueSnapshot(final long version, final Instant publishedAt, final String change,
+                              final TrackedObject active, final ManoeuvreEphemeris ephemeris,
+                              final CatalogueEntries catalogue) {
+        this.version = version;
+        this.publishedAt = publishedAt;
+        this.change = change;
+        this.active = active;
+        this.ephemeris = ephemeris;
+        this.catalogue = catalogue;
+    }
+
+    /** Increases by one with every published change, rollbacks included. */
+    public long version() {
+        return version;
+    }
+
+    public Instant publishedAt() {
+        return publishedAt;
+    }
+
+    /** What produced this version, for the version history. */
+    public String change() {
+        return change;
+    }
+
+    /** The active (downlinked) spacecraft. */
+    public Optional<TrackedObject> active() {
+        return Optional.ofNullable(active);
+    }
+
+    /** Post-manoeuvre trajectory of the active spacecraft; empty while SGP4 applies. */
+    public Optional<ManoeuvreEphemeris> ephemeris() {
+        return Optional.ofNullable(ephemeris);
+    }
+
+    /** The tracked catalogue, without the active spacecraft. */
+    public CatalogueEntries catalogue() {
+        return catalogue;
+    }
+
+    /** Whether neither an active spacecraft nor any catalogue entry is registered. */
+    public boolean isEmpty() {
+        return active == null && catalogue.isEmpty();
+    }
+
+    /**
+     * The TLE used for a catalogue number — the active spacecraft's if it matches,
+     * otherwise the tracked catalogue's.
+     */
+    public Optional<TrackedObject> find(final int catalogNumber) {
+        if (active != null && active.catalogNumber() == catalogNumber) {
+            return Optional.of(active);
+        }
+        return Optional.ofNullable(catalogue.get(catalogNumber));
+    }
+
+    /**
+     * Every registered object in catalogue-number order, the active spacecraft taking
+     * precedence over a catalogue entry with the same number.
+     */
+    public List<TrackedObject> registeredObjects() {
+        final var objects = new ArrayList<TrackedObject>(catalogue.size() + 1);
+        var activePending = active != null;
+        final var activeId = activePending ? active.catalogNumber() : -1;
+        for (final var object : catalogue) {
+            if (activePending && activeId <= object.catalogNumber()) {
+                objects.add(active);
+                activePending = false;
+            }
+            if (object.catalogNumber() != activeId) {
+                objects.add(object);
+            }
+        }
+        if (activePending) {
+            objects.add(active);
+        }
+        return objects;
+    }
+
+    /** Next version with {@code object} as the active spacecraft and no ephemeris. */
+    public CatalogueSnapshot withActive(final TrackedObject object, final String change) {
+        return next(change, object, null, catalogue);
+    }
+
+    /** Next version with {@code ephemeris} installed for the active spacecraft. */
+    public CatalogueSnapshot withEphemeris(final ManoeuvreEphemeris ephemeris, final String change) {
+        return next(change, active, ephemeris, catalogue);
+    }
+
+    /** Next version with {@code objects} added to or replaced in the tracked catalogue. */
+    public CatalogueSnapshot withTracked(final Collection<TrackedObject> objects, final String change) {
+        return next(change, active, ephemeris, catalogue.putAll(objects));
+    }
+
+    /**
+     * Next version without those of {@code objects} that are still the catalogue's entries
+     * for their numbers — or this snapshot if none is.
+     */
+    public CatalogueSnapshot withoutTracked(final Collection<TrackedObject> objects, final String change) {
+        final var remaining = catalogue.removeAll(objects);
+        return remaining == catalogue ? this : next(change, active, ephemeris, remaining);
+    }
+
+    /**
+     * Next version with the tracked catalogue of {@code earlier}, less the entries
+     * {@code keep} rejects. The active spacecraft and its ephemeris stay as they are: they
+     * are replicated across the cluster and may carry a manoeuvre since installed.
+     */
+    CatalogueSnapshot restoring(final CatalogueSnapshot earlier, final IntPredicate keep) {
+        final var dropped = new ArrayList<TrackedObject>();
+        for (final var object : earlier.catalogue) {
+            if (!keep.test(object.catalogNumber())) {
+                dropped.add(object);
+            }
+        }
+        return next("rollback to v" + earlier.version, active, ephemeris, earlier.catalogue.removeAll(dropped));
+    }
+
+    private CatalogueSnapshot next(final String change, final TrackedObject active,
+                                   final ManoeuvreEphemeris ephemeris, final CatalogueEntries catalogue) {
+        return new CatalogueSnapshot(version + 1, Instant.now(), change, active, ephemeris, catalogue);
+    }
+
+    @Override
+    public String toString() {
+        return "v" + version + " (" + change + ", " + (active != null ? active.name() : "no active spacecraft")
+                + ", " + catalogue.size() + " tracked)";
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.jakubt4.palantir.service.catalogue;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Publishes {@link CatalogueSnapshot}s copy-on-write and keeps the most recent ones for
+ * rollback.
+ *
+ * <p>Readers call {@link #current()} — a single volatile read, never blocked by a writer
+ * — and keep the snapshot for as long as they need a consistent view. Writers are
+ * serialised: each derives the next version from the current one and publishes it with
+ * one reference swap, so a change of any size becomes visible to the tick and to queries
+ * at once.
+ *
+ * <p>The last {@code palantir.catalogue.history-size} versions stay reachable.
+ * {@link #rollback} republishes one of them as a new version, so versions only ever
+ * increase. A rollback restores the tracked catalogue only; the active spacecraft and its
+ * ephemeris are carried forward from the current version. Retained versions share unchanged catalogue chunks; a full re-ingest keeps a
+ * complete copy of the catalogue alive per retained version. The current version is
+ * published as the {@code palantir.catalogue.version} gauge.
+ */
+@Slf4j
+@Component
+public class VersionedCatalogue {
+
+    private final AtomicReference<CatalogueSnapshot> current = new AtomicReference<>(CatalogueSnapshot.EMPTY);
+    /** Newest first, the current version included. Guarded by {@code this}. */
+    private final Deque<CatalogueSnapshot> history = new ArrayDeque<>();
+    private final int historySize;
+
+    public VersionedCatalogue(final MeterRegistry meterRegistry,
+                              @Value("${palantir.catalogue.history-size:8}") final int historySize) {
+        this.historySize = Math.max(1, historySize);
+        history.addFirst(CatalogueSnapshot.EMPTY);
+        Gauge.builder("palantir.catalogue.version", current, ref -> ref.get().version())
+                .register(meterRegistry);
+    }
+
+    /** The latest published version. Wait-free. */
+    public CatalogueSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Derives the next version from the current one and publishes it.
+     *
+     * @param change returns the next snapshot, or its argument to publish nothing
+     * @return the snapshot current after the call
+     */
+    public synchronized CatalogueSnapshot publish(final UnaryOperator<CatalogueSnapshot> change) {
+        final var before = current.get();
+        final var next = change.apply(before);
+        if (next == before) {
+            return before;
+        }
+        if (next.version() != before.version() + 1) {
+            throw new IllegalStateException("Snapshot " + next + " does not follow " + before);
+        }
+        current.set(next);
+        history.addFirst(next);
+        while (history.size() > historySize) {
+            history.removeLast();
+        }
+        return next;
+    }
+
+    /** The retained versions, newest (current) first. */
+    public synchronized List<CatalogueSnapshot> history() {
+        return List.copyOf(history);
+    }
+
+    /**
+     * Republishes the tracked catalogue of a retained version as the next version.
+     *
+     * @return the new current snapshot, or empty if {@code version} is no longer retained
+     */
+    public Optional<CatalogueSnapshot> rollback(final long version) {
+        return rollback(version, catalogNumber -> true);
+    }
+
+    /**
+     * Republishes the tracked catalogue of a retained version as the next version, without
+     * the entries {@code keep} rejects.
+     *
+     * @param keep whether a tracked catalogue number of the retained version is restored
+     * @return the new current snapshot, or empty if {@code version} is no longer retained
+     */
+    public synchronized Optional<CatalogueSnapshot> rollback(final long version, final IntPredicate keep) {
+        final var target = history.stream().filter(s -> s.version() == version).findFirst();
+        if (target.isEmpty()) {
+            return Optional.empty();
+        }
+        final var restored = publish(s -> s.restoring(target.get(), keep));
+        log.warn("Catalogue rolled back to v{} as {}", version, restored);
+        return Optional.of(restored);
+    }
+}
@@ -0,0 +1,474 @@
+package io.github.jakubt4.palantir.service.cluster;
+
+import io.github.jakubt4.palantir.config.RestClientConfiguration;
+import io.github.jakubt4.palantir.dto.DownlinkHandoff;
+import io.github.jakubt4.palantir.dto.TleRequest;
+import io.github.jakubt4.palantir.dto.TleResponse;
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverCommand;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps each catalogue TLE on the cluster member that owns it.
+ *
+ * <p>Ingestion: a catalogue TLE posted to any instance is forwarded to its owner's
+ * {@code POST /api/orbit/catalogue}, marked with {@link #FORWARDED_HEADER} so the owner
+ * tracks it without routing it again — even if its own view of the ring momentarily
+ * disagrees. The header is honoured only from configured peers
+ * ({@link ClusterMembership#isPeerAddress}); from anyone else the request is routed as
+ * usual. The active-spacecraft TLE is replicated to every member instead: each keeps
+ * it, and only the owner of its catalogue number propagates and downlinks it.
+ *
+ * <p>Manoeuvres: a {@code FIRE_THRUSTER} is replicated the same way, so every member
+ * integrates the same post-burn trajectory and whichever owns the active spacecraft —
+ * now or after a rebalance — downlinks it. The command's outcome is the owner's.
+ *
+ * <p>Rebalancing: on every {@link ClusterRingChange}, and as a periodic sweep, entries
+ * this instance no longer owns are handed off to their new owners in batches and removed
+ * locally once the owner has accepted them; entries that fail to transfer stay and are
+ * retried by the next sweep. Members that joined, and peers a replication failed for, are
+ * caught up with the active TLE, if one was ingested through the API, and the manoeuvres
+ * since. If ownership of the active spacecraft moved away, its APID
+ * {@value CcsdsTelemetrySender#APID} sequence count is handed to the new owner, which
+ * continues it past the ticks elapsed meanwhile. On graceful shutdown the whole shard is
+ * handed off before {@link ClusterMembership#leave()} tells the peers. A member that
+ * crashes takes its shard with it until the TLEs are posted again, and its successor
+ * continues the downlink from its own count.
+ */
+@Slf4j
+@Service
+public class CatalogueRouter {
+
+    /** Request header marking a TLE ingest that was forwarded by another member. */
+    public static final String FORWARDED_HEADER = "X-Palantir-Forwarded";
+
+    private static final ParameterizedTypeReference<List<TleResponse>> RESPONSES = new ParameterizedTypeReference<>() {
+    };
+
+    private final ClusterMembership membership;
+    private final OrbitPropagationService orbitPropagationService;
+    private final CcsdsTelemetrySender ccsdsTelemetrySender;
+    private final RestClient restClient;
+    private final int handoffBatchSize;
+    private final long tickPeriodMillis;
+
+    /** Serialises rebalancing runs; a run always works against the ring current when it starts. */
+    private final ExecutorService rebalanceExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("cluster-rebalance").factory());
+    private final ExecutorService peerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean rebalancePending = new AtomicBoolean();
+    /** Last active TLE ingested through the API, here or on a peer; {@code null} if none. */
+    private final AtomicReference<TleRequest> activeTle = new AtomicReference<>();
+    /** {@code FIRE_THRUSTER} commands received here since {@link #activeTle}, in order. */
+    private final List<ThrustManeuverCommand> manoeuvres = new CopyOnWriteArrayList<>();
+    /**
+     * Peers that have been sent {@link #activeTle} and every one of {@link #manoeuvres}, so
+     * members that join, or missed a replication, can be caught up.
+     */
+    private final Set<String> caughtUp = new HashSet<>();
+    /** Generation time of the last APID 100 packet whose count was handed off, epoch ms. */
+    private long downlinkHandedOffAt;
+
+    public CatalogueRouter(
+            final ClusterMembership membership,
+            final OrbitPropagationService orbitPropagationService,
+            final CcsdsTelemetrySender ccsdsTelemetrySender,
+            @Qualifier(RestClientConfiguration.CLUSTER_REST_CLIENT) final RestClient clusterRestClient,
+            @Value("${palantir.cluster.handoff-batch-size:2000}") final int handoffBatchSize,
+            @Value("${palantir.workload.tick.period-ms:1000}") final long tickPeriodMillis) {
+        this.membership = membership;
+        this.orbitPropagationService = orbitPropagationService;
+        this.ccsdsTelemetrySender = ccsdsTelemetrySender;
+        this.restClient = clusterRestClient;
+        this.handoffBatchSize = handoffBatchSize;
+        this.tickPeriodMillis = tickPeriodMillis;
+    }
+
+    /**
+     * Whether a request marked with {@link #FORWARDED_HEADER} may be applied without
+     * routing: only if it came from a configured peer.
+     *
+     * @param marked        whether the header was set
+     * @param remoteAddress IP address of the HTTP client
+     */
+    public boolean trustForwarded(final boolean marked, final String remoteAddress) {
+        if (!marked) {
+            return false;
+        }
+        if (membership.isPeerAddress(remoteAddress)) {
+            return true;
+        }
+        log.warn("[CLUSTER] Ignoring {} from {}, which is not a configured peer", FORWARDED_HEADER, remoteAddress);
+        return false;
+    }
+
+    /**
+     * The member a TLE must be forwarded to, or empty if this instance owns it — or if the
+     * catalogue number cannot be read, in which case local parsing reports the error.
+     */
+    public Optional<String> remoteOwner(final String line1) {
+        if (!membership.isEnabled()) {
+            return Optional.empty();
+        }
+        final var catalogNumber = catalogNumber(line1);
+        if (catalogNumber < 0) {
+            return Optional.empty();
+        }
+        final var owner = membership.ring().owner(catalogNumber);
+        return owner.equals(membership.self()) ? Optional.empty() : Optional.of(owner);
+    }
+
+    /**
+     * Forwards TLEs to their owners, one request per owner, in parallel.
+     *
+     * @param byOwner TLEs grouped by owning member
+     * @return per owner, one response per TLE in the same order; TLEs an owner could not
+     *         be reached for are {@code REJECTED}
+     */
+    public Map<String, List<TleResponse>> forward(final Map<String, List<TleRequest>> byOwner) {
+        final var calls = new LinkedHashMap<String, CompletableFuture<List<TleResponse>>>();
+        byOwner.forEach((owner, requests) -> calls.put(owner, CompletableFuture.supplyAsync(() -> {
+            try {
+                return post(owner, "/api/orbit/catalogue", requests, RESPONSES).stream()
+                        .map(response -> new TleResponse(response.satelliteName(), response.status(),
+                                response.message() + " on " + owner))
+                        .toList();
+            } catch (final RestClientException e) {
+                log.warn("[CLUSTER] Forwarding {} TLE(s) to {} failed: {}", requests.size(), owner, e.getMessage());
+                return requests.stream()
+                        .map(request -> new TleResponse(request.satelliteName(), "REJECTED",
+                                "Owner " + owner + " unreachable: " + e.getMessage()))
+                        .toList();
+            }
+        }, peerExecutor)));
+        final var results = new LinkedHashMap<String, List<TleResponse>>();
+        calls.forEach((owner, call) -> results.put(owner, call.join()));
+        return results;
+    }
+
+    /**
+     * Records a new active TLE and, unless it was itself forwarded, replicates it to every
+     * peer in the background.
+     */
+    public void activeUpdated(final TleRequest request, final boolean forwarded) {
+        if (!membership.isEnabled()) {
+            return;
+        }
+        synchronized (caughtUp) {
+            activeTle.set(request);
+            manoeuvres.clear();
+            caughtUp.clear();
+        }
+        if (!forwarded) {
+            for (final var peer : peers(membership.ring())) {
+                peerExecutor.execute(() -> catchUp(peer, request, List.of()));
+            }
+        }
+    }
+
+    /**
+     * Replicates a {@code FIRE_THRUSTER} received here to every peer, each of which plans
+     * it in turn.
+     *
+     * @return whether the owner of the active spacecraft installed the manoeuvre, once it
+     *         has answered; empty if this instance is the owner, so its own plan decides
+     */
+    public Optional<CompletableFuture<Boolean>> replicateManoeuvre(final ThrustManeuverCommand command) {
+        if (!membership.isEnabled()) {
+            return Optional.empty();
+        }
+        manoeuvres.add(command);
+        final var ring = membership.ring();
+        final var active = orbitPropagationService.activeObject();
+        final var owner = active.map(object -> ring.owner(object.catalogNumber())).orElse(membership.self());
+        CompletableFuture<Boolean> ownerOutcome = null;
+        for (final var peer : peers(ring)) {
+            final var sent = CompletableFuture.supplyAsync(() -> sendManoeuvre(peer, command), peerExecutor);
+            if (peer.equals(owner)) {
+                ownerOutcome = sent;
+            }
+        }
+        return Optional.ofNullable(ownerOutcome);
+    }
+
+    /**
+     * Continues the APID {@value CcsdsTelemetrySender#APID} stream handed over by the
+     * previous owner of the active spacecraft, skipping the ticks elapsed since its last
+     * packet so that no count is sent twice.
+     */
+    public void onDownlinkHandoff(final DownlinkHandoff handoff) {
+        final var elapsedTicks = Math.max(0, (System.currentTimeMillis() - handoff.lastPacketMillis()) / tickPeriodMillis);
+        final var sequenceCount = (int) ((handoff.sequenceCount() + elapsedTicks) & 0x3FFF);
+        ccsdsTelemetrySender.continueDownlink(sequenceCount);
+        log.info("[CLUSTER] Downlink taken over — APID {} continues at sequence count {}",
+                CcsdsTelemetrySender.APID, sequenceCount);
+    }
+
+    @EventListener
+    public void onRingChange(final ClusterRingChange change) {
+        requestRebalance();
+    }
+
+    @Scheduled(
+            fixedRateString = "${palantir.cluster.rebalance-interval-ms:30000}",
+            initialDelayString = "${palantir.cluster.rebalance-interval-ms:30000}"
+    )
+    public void sweep() {
+        if (membership.isEnabled()) {
+            requestRebalance();
+        }
+    }
+
+    /** Hands the whole shard to the remaining members, then leaves the cluster. */
+    @PreDestroy
+    void leave() {
+        rebalanceExecutor.shutdownNow();
+        if (!membership.isEnabled()) {
+            peerExecutor.shutdownNow();
+            return;
+        }
+        try {
+            rebalanceExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            final var ring = membership.departureRing();
+            if (!ring.isEmpty()) {
+                handOff(ring);
+                handOffDownlink(ring);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            membership.leave();
+            peerExecutor.shutdownNow();
+        }
+    }
+
+    private void requestRebalance() {
+        if (rebalancePending.compareAndSet(false, true)) {
+            rebalanceExecutor.execute(() -> {
+                rebalancePending.set(false);
+                final var ring = membership.ring();
+                handOff(ring);
+                handOffDownlink(ring);
+                catchUpActive(ring);
+            });
+        }
+    }
+
+    /**
+     * Sends every catalogue entry {@code ring} assigns elsewhere to its owner and drops the
+     * ones the owner accepted. Package-private so tests can run it synchronously.
+     *
+     * @return number of entries handed off
+     */
+    int handOff(final ConsistentHashRing ring) {
+        final var self = membership.self();
+        final var outgoing = new HashMap<String, List<TrackedObject>>();
+        for (final var object : orbitPropagationService.catalogueObjects()) {
+            final var owner = ring.owner(object.catalogNumber());
+            if (!owner.equals(self)) {
+                outgoing.computeIfAbsent(owner, k -> new ArrayList<>()).add(object);
+            }
+        }
+        var handedOff = 0;
+        for (final var entry : outgoing.entrySet()) {
+            final var owner = entry.getKey();
+            final var objects = entry.getValue();
+            for (var from = 0; from < objects.size(); from += handoffBatchSize) {
+                final var batch = objects.subList(from, Math.min(from + handoffBatchSize, objects.size()));
+                final var requests = batch.stream()
+                        .map(o -> new TleRequest(o.name(), o.tle().getLine1(), o.tle().getLine2()))
+                        .toList();
+                try {
+                    final var responses = post(owner, "/api/orbit/catalogue", requests, RESPONSES);
+                    final var accepted = new ArrayList<TrackedObject>(batch.size());
+                    for (var i = 0; i < batch.size() && i < responses.size(); i++) {
+                        if ("TRACKED".equals(responses.get(i).status())) {
+                            accepted.add(batch.get(i));
+                        }
+                    }
+                    // One catalogue version per batch. A TLE re-ingested here meanwhile is
+                    // newer than the copy sent: untrack keeps it.
+                    handedOff += orbitPropagationService.untrack(accepted);
+                } catch (final RestClientException e) {
+                    log.warn("[CLUSTER] Handoff of {} object(s) to {} failed, retrying on next sweep: {}",
+                            batch.size(), owner, e.getMessage());
+                    break;
+                }
+            }
+        }
+        if (handedOff > 0) {
+            log.info("[CLUSTER] Handed off {} object(s) to {} member(s), {} left in local shard",
+                    handedOff, outgoing.size(), orbitPropagationService.catalogueSize());
+        }
+        return handedOff;
+    }
+
+    /**
+     * Sends the APID {@value CcsdsTelemetrySender#APID} sequence count to the member
+     * {@code ring} assigns the active spacecraft to, if this instance downlinked it since
+     * the last handoff. Package-private so tests can run it synchronously.
+     *
+     * @return whether a count was handed off
+     */
+    boolean handOffDownlink(final ConsistentHashRing ring) {
+        final var active = orbitPropagationService.activeObject().orElse(null);
+        if (active == null) {
+            return false;
+        }
+        final var owner = ring.owner(active.catalogNumber());
+        final var handoff = ccsdsTelemetrySender.downlinkHandoff();
+        if (owner.equals(membership.self()) || handoff.lastPacketMillis() <= downlinkHandedOffAt) {
+            return false;
+        }
+        try {
+            post(owner, "/api/cluster/downlink", handoff, new ParameterizedTypeReference<Void>() {
+            });
+            downlinkHandedOffAt = handoff.lastPacketMillis();
+            log.info("[CLUSTER] Downlink of [{}] handed to {} at sequence count {}",
+                    active.name(), owner, handoff.sequenceCount());
+            return true;
+        } catch (final RestClientException e) {
+            log.warn("[CLUSTER] Downlink handoff to {} failed, retrying on next sweep: {}", owner, e.getMessage());
+            return false;
+        }
+    }
+
+    private void catchUpActive(final ConsistentHashRing ring) {
+        final var request = activeTle.get();
+        final var sent = List.copyOf(manoeuvres);
+        if (request == null && sent.isEmpty()) {
+            return;
+        }
+        final var missing = new ArrayList<String>();
+        synchronized (caughtUp) {
+            for (final var peer : peers(ring)) {
+                if (!caughtUp.contains(peer)) {
+                    missing.add(peer);
+                }
+            }
+        }
+        for (final var peer : missing) {
+            peerExecutor.execute(() -> catchUp(peer, request, sent));
+        }
+    }
+
+    /**
+     * Sends {@code peer} the active TLE, which drops any ephemeris it holds, then replays
+     * {@code commands} in order. Marks the peer caught up if every call succeeded and
+     * nothing changed meanwhile.
+     */
+    private void catchUp(final String peer, final TleRequest request, final List<ThrustManeuverCommand> commands) {
+        try {
+            if (request != null) {
+                post(peer, "/api/orbit/tle", request, new ParameterizedTypeReference<TleResponse>() {
+                });
+            }
+        } catch (final RestClientException e) {
+            log.warn("[CLUSTER] Replicating active TLE [{}] to {} failed: {}",
+                    request.satelliteName(), peer, e.getMessage());
+            return;
+        }
+        for (final var command : commands) {
+            if (!sendManoeuvre(peer, command)) {
+                return;
+            }
+        }
+        synchronized (caughtUp) {
+            if (activeTle.get() == request && manoeuvres.equals(commands)) {
+                caughtUp.add(peer);
+            }
+        }
+    }
+
+    /**
+     * @return whether {@code peer} installed the manoeuvre; one that did not is dropped
+     *         from {@link #caughtUp} and replayed the commands by a later sweep
+     */
+    private boolean sendManoeuvre(final String peer, final ThrustManeuverCommand command) {
+        try {
+            post(peer, "/api/cluster/manoeuvre", command, new ParameterizedTypeReference<Void>() {
+            });
+            return true;
+        } catch (final RestClientException e) {
+            log.warn("[CLUSTER] Replicating {} to {} failed: {}", command, peer, e.getMessage());
+            synchronized (caughtUp) {
+                caughtUp.remove(peer);
+            }
+            return false;
+        }
+    }
+
+    private List<String> peers(final ConsistentHashRing ring) {
+        final var self = membership.self();
+        return ring.members().stream().filter(member -> !member.equals(self)).toList();
+    }
+
+    <T> T post(final String member, final String path, final Object body, final ParameterizedTypeReference<T> type) {
+        return restClient.post()
+                .uri(member + path)
+                .header(FORWARDED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)
+                .retrieve()
+                .body(type);
+    }
+
+    /**
+     * NORAD catalogue number from columns 3–7 of TLE line 1, including the Alpha-5 form
+     * (a leading letter, I and O skipped, standing for 10–33 ten-thousands).
+     *
+     * @return the number, or −1 if the field is malformed
+     */
+    static int catalogNumber(final String line1) {
+        if (line1 == null || line1.length() < 7) {
+            return -1;
+        }
+        final var field = line1.substring(2, 7).strip();
+        if (field.isEmpty()) {
+            return -1;
+        }
+        var value = 0;
+        final var lead = field.charAt(0);
+        var start = 0;
+        if (lead >= 'A' && lead <= 'Z' && lead != 'I' && lead != 'O') {
+            value = 10 + (lead - 'A') - (lead > 'I' ? 1 : 0) - (lead > 'O' ? 1 : 0);
+            start = 1;
+        }
+        for (var i = start; i < field.length(); i++) {
+            final var c = field.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
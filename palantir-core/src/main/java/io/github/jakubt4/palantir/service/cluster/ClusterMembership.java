@@ -0,0 +1,377 @@
+package io.github.jakubt4.palantir.service.cluster;
+
+import io.github.jakubt4.palantir.config.RestClientConfiguration;
+import io.github.jakubt4.palantir.dto.ClusterHeartbeat;
+import io.github.jakubt4.palantir.dto.ClusterLeave;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Membership of a palantir-core cluster and the {@link ConsistentHashRing} that splits
+ * the tracked catalogue between its members.
+ *
+ * <p>Members find each other by gossip: every {@code heartbeat-ms} each instance bumps
+ * its own heartbeat counter and sends its view — the highest counter it has seen per
+ * member — to the seeds and to every member it knows, which answer with theirs. A member
+ * whose counter has not risen for {@code failure-timeout-ms} is dropped. Counters start
+ * at the wall-clock millisecond, so a restarted instance always outranks its previous
+ * incarnation. A graceful shutdown sends {@code POST /api/cluster/leave} instead of
+ * waiting for the timeout; the departed counter is remembered so stale gossip about the
+ * member cannot resurrect it; the same applies to a member that timed out.
+ *
+ * <p>Whenever the member set changes the ring is rebuilt and a {@link ClusterRingChange}
+ * is published. Members that see the same set compute the same ring, so ownership
+ * converges as soon as gossip does — within a few heartbeats on a LAN.
+ *
+ * <p>Gossip discovers members, but only the configured seeds are trusted to make this
+ * instance act on their behalf — see {@link #isPeerAddress}. Likewise only they vouch for
+ * other members: a heartbeat from any other address counts only for the seeds it names,
+ * so a forged one cannot add a member to the ring and have a shard handed off to it.
+ * List every member as a seed.
+ *
+ * <p>With {@code palantir.cluster.enabled=false} (the default) nothing is sent and this
+ * instance owns every catalogue number.
+ */
+@Slf4j
+@Service
+public class ClusterMembership {
+
+    private final boolean enabled;
+    private final String self;
+    private final List<String> seeds;
+    private final long failureTimeoutNanos;
+    private final int virtualNodes;
+    private final RestClient restClient;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong heartbeat = new AtomicLong(System.currentTimeMillis());
+    private final ConcurrentHashMap<String, Peer> peers = new ConcurrentHashMap<>();
+    /**
+     * Last heartbeat counter of each member that left or timed out. Gossip at or below it
+     * is stale and ignored — otherwise peers that have not noticed the departure yet would
+     * keep re-adding the member.
+     */
+    private final ConcurrentHashMap<String, Long> departed = new ConcurrentHashMap<>();
+    /** Peers with a heartbeat exchange outstanding; a slow peer gets at most one at a time. */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService peerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Object ringLock = new Object();
+
+    private volatile ConsistentHashRing ring;
+    private volatile Instant ringSince = Instant.EPOCH;
+    private volatile boolean leaving;
+
+    public ClusterMembership(
+            @Qualifier(RestClientConfiguration.CLUSTER_REST_CLIENT) final RestClient clusterRestClient,
+            final ApplicationEventPublisher eventPublisher,
+            @Value("${palantir.cluster.enabled:false}") final boolean enabled,
+            @Value("${palantir.cluster.self-url:http://localhost:${server.port:8080}}") final String selfUrl,
+            @Value("${palantir.cluster.seeds:}") final String[] seeds,
+            @Value("${palantir.cluster.failure-timeout-ms:5000}") final long failureTimeoutMs,
+            @Value("${palantir.cluster.virtual-nodes:128}") final int virtualNodes) {
+        this.restClient = clusterRestClient;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.self = normalise(selfUrl);
+        this.seeds = Arrays.stream(seeds)
+                .filter(seed -> !seed.isBlank())
+                .map(ClusterMembership::normalise)
+                .filter(seed -> !seed.equals(self))
+                .distinct()
+                .toList();
+        this.failureTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(failureTimeoutMs);
+        this.virtualNodes = virtualNodes;
+        this.ring = ConsistentHashRing.of(List.of(self), virtualNodes);
+        if (enabled) {
+            log.info("[CLUSTER] Partitioning enabled — self {}, seeds {}", self, this.seeds);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Base URL this instance advertises to its peers. */
+    public String self() {
+        return self;
+    }
+
+    /** The ring in force. */
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    /**
+     * When the ring in force was built — catalogue versions published before then were
+     * partitioned differently. {@link Instant#EPOCH} while this instance is on its own.
+     */
+    public Instant ringSince() {
+        return ringSince;
+    }
+
+    /** Whether this instance propagates and downlinks {@code catalogNumber}. */
+    public boolean owns(final int catalogNumber) {
+        if (!enabled) {
+            return true;
+        }
+        final var current = ring;
+        return current.members().size() == 1 || current.owner(catalogNumber).equals(self);
+    }
+
+    /**
+     * Whether a request from {@code remoteAddress} comes from a configured peer: the
+     * address must be one the host of a seed resolves to. Members learnt only through
+     * gossip do not count — anyone can send a heartbeat.
+     *
+     * @param remoteAddress IP address of the HTTP client, as reported by the servlet container
+     */
+    public boolean isPeerAddress(final String remoteAddress) {
+        if (!enabled || remoteAddress == null) {
+            return false;
+        }
+        final InetAddress remote;
+        try {
+            remote = InetAddress.getByName(remoteAddress);
+        } catch (final UnknownHostException e) {
+            return false;
+        }
+        for (final var seed : seeds) {
+            try {
+                final var host = URI.create(seed).getHost();
+                if (host != null && Arrays.asList(InetAddress.getAllByName(host)).contains(remote)) {
+                    return true;
+                }
+            } catch (final UnknownHostException | IllegalArgumentException e) {
+                log.debug("[CLUSTER] Cannot resolve seed {}: {}", seed, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The ring as it will be once this instance has left — the target of its final
+     * handoff. Empty if no peer is alive.
+     */
+    public ConsistentHashRing departureRing() {
+        return ConsistentHashRing.of(peers.keySet(), virtualNodes);
+    }
+
+    @Scheduled(fixedRateString = "${palantir.cluster.heartbeat-ms:500}")
+    public void heartbeat() {
+        if (enabled && !leaving) {
+            gossip();
+        }
+    }
+
+    /**
+     * One gossip round: bumps this instance's counter, expires silent members and sends
+     * the resulting view to every known member and seed.
+     *
+     * @return completes when every exchange of the round has finished or failed
+     */
+    CompletableFuture<Void> gossip() {
+        heartbeat.incrementAndGet();
+        expire(System.nanoTime());
+        final var view = view();
+        final var targets = new HashSet<>(seeds);
+        targets.addAll(peers.keySet());
+        final var exchanges = new ArrayList<CompletableFuture<Void>>(targets.size());
+        for (final var target : targets) {
+            if (!inFlight.add(target)) {
+                continue;
+            }
+            exchanges.add(CompletableFuture.runAsync(() -> {
+                try {
+                    // Answered by a seed or by a member a seed vouched for.
+                    merge(exchange(target, view), true);
+                } catch (final RestClientException e) {
+                    log.debug("[CLUSTER] Heartbeat to {} failed: {}", target, e.getMessage());
+                } finally {
+                    inFlight.remove(target);
+                }
+            }, peerExecutor));
+        }
+        return CompletableFuture.allOf(exchanges.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Handles a peer's heartbeat and answers with this instance's view.
+     *
+     * @param remoteAddress IP address of the HTTP client; unless it is a peer's, only the
+     *                      configured seeds among the heartbeat's members are merged
+     */
+    public ClusterHeartbeat onHeartbeat(final ClusterHeartbeat incoming, final String remoteAddress) {
+        merge(incoming, isPeerAddress(remoteAddress));
+        return view();
+    }
+
+    /** Handles a peer's graceful departure. */
+    public void onLeave(final ClusterLeave leave) {
+        final var member = normalise(leave.member());
+        departed.merge(member, leave.heartbeat(), Math::max);
+        if (peers.remove(member) != null) {
+            log.info("[CLUSTER] {} left", member);
+            rebuildRing();
+        }
+    }
+
+    /**
+     * Stops gossiping and tells every live peer that this instance is leaving. Called
+     * once the shard has been handed off; waits at most one failure timeout.
+     */
+    public void leave() {
+        if (!enabled) {
+            return;
+        }
+        leaving = true;
+        final var notice = new ClusterLeave(self, heartbeat.get());
+        final var notices = peers.keySet().stream()
+                .map(peer -> CompletableFuture.runAsync(() -> {
+                    try {
+                        sendLeave(peer, notice);
+                    } catch (final RestClientException e) {
+                        log.debug("[CLUSTER] Leave notice to {} failed: {}", peer, e.getMessage());
+                    }
+                }, peerExecutor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(notices).get(failureTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            log.warn("[CLUSTER] Not every peer acknowledged the leave notice");
+        } catch (final Exception e) {
+            log.warn("[CLUSTER] Leave notice failed: {}", e.getMessage());
+        }
+        log.info("[CLUSTER] Left the cluster");
+    }
+
+    @PreDestroy
+    void close() {
+        peerExecutor.shutdownNow();
+    }
+
+    /** HTTP round trip, package-private so tests can wire instances together in-process. */
+    ClusterHeartbeat exchange(final String peer, final ClusterHeartbeat view) {
+        return restClient.post()
+                .uri(peer + "/api/cluster/heartbeat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(view)
+                .retrieve()
+                .body(ClusterHeartbeat.class);
+    }
+
+    void sendLeave(final String peer, final ClusterLeave leave) {
+        restClient.post()
+                .uri(peer + "/api/cluster/leave")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(leave)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private ClusterHeartbeat view() {
+        final var heartbeats = new HashMap<String, Long>(peers.size() + 1);
+        peers.forEach((member, peer) -> heartbeats.put(member, peer.heartbeat()));
+        heartbeats.put(self, heartbeat.get());
+        return new ClusterHeartbeat(self, heartbeats);
+    }
+
+    /** @param trusted whether {@code incoming} comes from a peer and may name any member */
+    private void merge(final ClusterHeartbeat incoming, final boolean trusted) {
+        if (incoming == null || incoming.heartbeats() == null || leaving) {
+            return;
+        }
+        final var now = System.nanoTime();
+        var joined = false;
+        for (final var entry : incoming.heartbeats().entrySet()) {
+            final var member = normalise(entry.getKey());
+            final long counter = entry.getValue();
+            if (member.equals(self) || counter <= departed.getOrDefault(member, Long.MIN_VALUE)
+                    || !trusted && !seeds.contains(member)) {
+                continue;
+            }
+            final var previous = peers.get(member);
+            if (previous == null) {
+                // Only a rising counter proves the member is alive; a fresh entry is given the
+                // benefit of the doubt for one timeout.
+                if (peers.putIfAbsent(member, new Peer(counter, now)) == null) {
+                    log.info("[CLUSTER] {} joined", member);
+                    joined = true;
+                }
+            } else if (counter > previous.heartbeat()) {
+                peers.replace(member, previous, new Peer(counter, now));
+            }
+        }
+        if (joined) {
+            rebuildRing();
+        }
+    }
+
+    private void expire(final long now) {
+        var expired = false;
+        for (final var entry : peers.entrySet()) {
+            if (now - entry.getValue().seenNanos() > failureTimeoutNanos
+                    && peers.remove(entry.getKey(), entry.getValue())) {
+                departed.merge(entry.getKey(), entry.getValue().heartbeat(), Math::max);
+                log.warn("[CLUSTER] {} timed out", entry.getKey());
+                expired = true;
+            }
+        }
+        if (expired) {
+            rebuildRing();
+        }
+    }
+
+    private void rebuildRing() {
+        synchronized (ringLock) {
+            final var members = new HashSet<>(peers.keySet());
+            members.add(self);
+            final var previous = ring;
+            if (members.equals(new HashSet<>(previous.members()))) {
+                return;
+            }
+            final var current = ConsistentHashRing.of(members, virtualNodes);
+            ringSince = Instant.now();
+            ring = current;
+            log.info("[CLUSTER] Ring rebuilt — {} member(s): {}", current.members().size(), current.members());
+            eventPublisher.publishEvent(new ClusterRingChange(previous, current));
+        }
+    }
+
+    private static String normalise(final String url) {
+        final var trimmed = url.strip();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * @param heartbeat highest counter seen for the member
+     * @param seenNanos {@link System#nanoTime()} when that counter was first seen
+     */
+    private record Peer(long heartbeat, long seenNanos) {
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.jakubt4.palantir.service.cluster;
+
+/**
+ * Published by {@link ClusterMembership} whenever a member joins, leaves or times out.
+ *
+ * @param previous ring before the change
+ * @param current  ring now in force
+ */
+public record ClusterRingChange(ConsistentHashRing previous, ConsistentHashRing current) {
+}
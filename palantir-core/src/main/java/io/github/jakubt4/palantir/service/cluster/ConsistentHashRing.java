@@ -0,0 +1,105 @@
+package io.github.jakubt4.palantir.service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent-hash ring assigning catalogue numbers to cluster members.
+ *
+ * <p>Each member is placed at {@code virtualNodes} pseudo-random points on a 64-bit ring;
+ * a catalogue number belongs to the member owning the first point at or after its own
+ * hash, wrapping around. When a member joins it takes over about 1/N of the keys, spread
+ * evenly across the others, and when one leaves only its keys move — every other
+ * assignment stays put. With 128 virtual nodes per member the largest share is typically
+ * within ~15% of the ideal 1/N.
+ *
+ * <p>The placement depends only on the member ids, so every instance that sees the same
+ * membership computes the same ring. Immutable and thread-safe.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    private ConsistentHashRing(final List<String> members, final long[] points, final String[] owners) {
+        this.members = members;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    /**
+     * @param members      member ids; duplicates are ignored
+     * @param virtualNodes points per member, at least 1
+     */
+    public static ConsistentHashRing of(final Collection<String> members, final int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        final var sorted = List.copyOf(new TreeSet<>(members));
+        final var entries = new ArrayList<long[]>(sorted.size() * virtualNodes);
+        for (var m = 0; m < sorted.size(); m++) {
+            final var seed = fnv1a(sorted.get(m));
+            for (var v = 0; v < virtualNodes; v++) {
+                entries.add(new long[]{mix(seed + v * 0x9E3779B97F4A7C15L), m});
+            }
+        }
+        // Ties (vanishingly rare) are broken by member order so every instance agrees.
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        final var points = new long[entries.size()];
+        final var owners = new String[entries.size()];
+        for (var i = 0; i < points.length; i++) {
+            points[i] = entries.get(i)[0];
+            owners[i] = sorted.get((int) entries.get(i)[1]);
+        }
+        return new ConsistentHashRing(sorted, points, owners);
+    }
+
+    /** Member ids, sorted. */
+    public List<String> members() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * The member owning {@code catalogNumber}.
+     *
+     * @throws IllegalStateException if the ring has no members
+     */
+    public String owner(final int catalogNumber) {
+        if (points.length == 0) {
+            throw new IllegalStateException("ring has no members");
+        }
+        final var hash = mix(catalogNumber);
+        var index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /** SplitMix64 finaliser — spreads consecutive catalogue numbers over the whole ring. */
+    private static long mix(final long value) {
+        var z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** FNV-1a over the id's UTF-8 bytes; unlike {@link String#hashCode()} it is 64-bit. */
+    private static long fnv1a(final String id) {
+        var hash = 0xCBF29CE484222325L;
+        for (final var b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+}
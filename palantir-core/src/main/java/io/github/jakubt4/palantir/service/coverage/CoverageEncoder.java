@@ -0,0 +1,65 @@
+package io.github.jakubt4.palantir.service.coverage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of a {@link CoverageResult}, streamed map by map.
+ *
+ * <p>Wire layout (all multi-byte fields big-endian):
+ * <pre>
+ *   [0-3]    Magic             ASCII "PCOV"
+ *   [4]      Format version    uint8, currently 1
+ *   [5-6]    Rows              uint16
+ *   [7-8]    Columns           uint16
+ *   [9-12]   Cell size         float32, degrees
+ *   [13-20]  Start             int64, milliseconds since 1970-01-01 UTC
+ *   [21-24]  Step              float32, seconds
+ *   [25-28]  Steps             int32
+ *   [29-30]  Satellites        uint16
+ *   then three float32 maps of rows × columns cells each, row-major from the south-west:
+ *     coverage fraction, maximum revisit (s), mean revisit (s) — NaN where undefined
+ * </pre>
+ *
+ * <p>A 1° grid is 64 800 cells, so a response is about 760 KiB and decodes with one
+ * {@code numpy.frombuffer(body, '>f4', offset=31)}.
+ */
+public final class CoverageEncoder {
+
+    public static final String CONTENT_TYPE = "application/vnd.palantir.coverage";
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 31;
+    private static final byte[] MAGIC = {'P', 'C', 'O', 'V'};
+    private static final int CHUNK_CELLS = 8192;
+
+    private CoverageEncoder() {
+    }
+
+    /** Writes the header and the three maps to {@code out}, in fixed-size chunks. */
+    public static void write(final CoverageResult result, final OutputStream out) throws IOException {
+        final var header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.put(MAGIC);
+        header.put((byte) FORMAT_VERSION);
+        header.putShort((short) result.rows());
+        header.putShort((short) result.cols());
+        header.putFloat((float) result.cellDeg());
+        header.putLong(result.start().toEpochMilli());
+        header.putFloat((float) result.stepSeconds());
+        header.putInt(result.steps());
+        header.putShort((short) Math.min(result.satellites(), 0xFFFF));
+        out.write(header.array());
+
+        final var chunk = ByteBuffer.allocate(CHUNK_CELLS * Float.BYTES);
+        for (final var map : new float[][] {
+                result.coverage(), result.maxRevisitSeconds(), result.meanRevisitSeconds()}) {
+            for (var from = 0; from < map.length; from += CHUNK_CELLS) {
+                final var to = Math.min(map.length, from + CHUNK_CELLS);
+                chunk.clear();
+                chunk.asFloatBuffer().put(map, from, to - from);
+                out.write(chunk.array(), 0, (to - from) * Float.BYTES);
+            }
+        }
+        out.flush();
+    }
+}
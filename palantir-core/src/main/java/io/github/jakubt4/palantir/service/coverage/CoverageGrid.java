@@ -0,0 +1,129 @@
+package io.github.jakubt4.palantir.service.coverage;
+
+import java.util.Arrays;
+
+/**
+ * Per-cell access statistics over one contiguous run of time steps — the accumulator of
+ * one fork-join slice.
+ *
+ * <p>A cell is "accessed" at a step if any satellite covers it then. For each cell the
+ * grid keeps the first and last accessed step, the number of accessed steps and the gaps
+ * between consecutive accesses (maximum, sum, count). Gaps are measured in steps from one
+ * accessed step to the next, so a cell seen every step has no gaps and one seen at steps
+ * 10 and 70 has a single gap of 60. Because every field is a min, max or sum, two grids
+ * over adjacent step ranges {@link #merge} exactly: the only new gap is the one bridging
+ * the left grid's last access and the right grid's first.
+ *
+ * <p>{@link #mark} is the hot loop — footprints are hundreds of cells and almost all of
+ * them were already covered the step before. That case only reads and writes
+ * {@link #last}; accessed steps are counted per run of consecutive steps, when the run
+ * ends, rather than per step.
+ *
+ * <p>Cells are row-major, row 0 at the south pole, column 0 at −180°. Not thread-safe —
+ * each slice owns its grid until it is merged.
+ */
+final class CoverageGrid {
+
+    private static final int NEVER = Integer.MIN_VALUE;
+
+    final int cells;
+    final int[] first;
+    final int[] last;
+    /** First step of the run of consecutive accessed steps that ends at {@link #last}. */
+    final int[] runStart;
+    /** Accessed steps in runs before the current one. */
+    final int[] closedAccessed;
+    final int[] maxGap;
+    final long[] gapSum;
+    final int[] gapCount;
+
+    CoverageGrid(final int cells) {
+        this.cells = cells;
+        first = new int[cells];
+        last = new int[cells];
+        runStart = new int[cells];
+        closedAccessed = new int[cells];
+        maxGap = new int[cells];
+        gapSum = new long[cells];
+        gapCount = new int[cells];
+        Arrays.fill(first, NEVER);
+        Arrays.fill(last, NEVER);
+    }
+
+    /**
+     * Records an access at {@code step} for cells {@code [from, to]}. Steps must be
+     * visited in ascending order; repeated marks within one step (overlapping footprints)
+     * count once.
+     */
+    void mark(final int from, final int to, final int step) {
+        final var previousStep = step - 1;
+        for (var c = from; c <= to; c++) {
+            final var previous = last[c];
+            if (previous == step) {
+                continue;
+            }
+            last[c] = step;
+            if (previous != previousStep) {
+                startRun(c, previous, step);
+            }
+        }
+    }
+
+    /** Number of steps at which the cell was accessed. */
+    int accessed(final int cell) {
+        return last[cell] == NEVER ? 0 : closedAccessed[cell] + last[cell] - runStart[cell] + 1;
+    }
+
+    /**
+     * Folds in the grid of the step range that immediately follows this one. Afterwards
+     * this grid describes both ranges; {@code right} must not be used again.
+     */
+    CoverageGrid merge(final CoverageGrid right) {
+        for (var c = 0; c < cells; c++) {
+            if (right.first[c] == NEVER) {
+                continue;
+            }
+            if (last[c] == NEVER) {
+                first[c] = right.first[c];
+                runStart[c] = right.runStart[c];
+                closedAccessed[c] = right.closedAccessed[c];
+            } else {
+                final var total = accessed(c) + right.accessed(c);
+                final var bridge = right.first[c] - last[c];
+                if (bridge > 1) {
+                    gap(c, bridge);
+                }
+                // The right grid's first run continues ours if it starts on the next step and
+                // is also its open run.
+                if (bridge > 1 || right.gapCount[c] > 0) {
+                    runStart[c] = right.runStart[c];
+                }
+                closedAccessed[c] = total - (right.last[c] - runStart[c] + 1);
+            }
+            last[c] = right.last[c];
+            maxGap[c] = Math.max(maxGap[c], right.maxGap[c]);
+            gapSum[c] += right.gapSum[c];
+            gapCount[c] += right.gapCount[c];
+        }
+        return this;
+    }
+
+    /** First access, or the end of a gap: closes the previous run and opens a new one. */
+    private void startRun(final int cell, final int previous, final int step) {
+        if (previous == NEVER) {
+            first[cell] = step;
+        } else {
+            closedAccessed[cell] += previous - runStart[cell] + 1;
+            gap(cell, step - previous);
+        }
+        runStart[cell] = step;
+    }
+
+    private void gap(final int cell, final int gap) {
+        if (gap > maxGap[cell]) {
+            maxGap[cell] = gap;
+        }
+        gapSum[cell] += gap;
+        gapCount[cell]++;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.jakubt4.palantir.service.coverage;
+
+import java.time.Instant;
+
+/**
+ * Coverage and revisit maps of one analysis, one value per grid cell, row-major from the
+ * south-west corner (row 0 centred at {@code −90 + cellDeg/2}, column 0 at
+ * {@code −180 + cellDeg/2}).
+ *
+ * <p>Revisit times are the intervals between consecutive accesses to a cell, measured to
+ * within one step. Cells without such an interval in the window — never accessed, or
+ * accessed in one unbroken stretch that does not span the whole window — report NaN;
+ * cells covered at every step report 0.
+ *
+ * @param rows               grid rows (latitude)
+ * @param cols               grid columns (longitude)
+ * @param cellDeg            cell size (degrees)
+ * @param start              first sampled instant
+ * @param stepSeconds        sampling step
+ * @param steps              number of sampled instants
+ * @param satellites         satellites propagated
+ * @param catalogueVersion   catalogue snapshot the satellites were resolved from
+ * @param coverage           fraction of sampled instants at which each cell was accessed
+ * @param maxRevisitSeconds  longest revisit interval per cell
+ * @param meanRevisitSeconds mean revisit interval per cell
+ * @param elapsedMillis      wall-clock time of the analysis
+ */
+public record CoverageResult(int rows,
+                             int cols,
+                             double cellDeg,
+                             Instant start,
+                             double stepSeconds,
+                             int steps,
+                             int satellites,
+                             long catalogueVersion,
+                             float[] coverage,
+                             float[] maxRevisitSeconds,
+                             float[] meanRevisitSeconds,
+                             long elapsedMillis) {
+
+    static CoverageResult of(final CoverageGrid grid, final int rows, final int cols, final double cellDeg,
+                             final Instant start, final double stepSeconds, final int steps,
+                             final int satellites, final long catalogueVersion, final long elapsedMillis) {
+        final var cells = rows * cols;
+        final var coverage = new float[cells];
+        final var maxRevisit = new float[cells];
+        final var meanRevisit = new float[cells];
+        for (var c = 0; c < cells; c++) {
+            coverage[c] = (float) grid.accessed(c) / steps;
+            if (grid.gapCount[c] > 0) {
+                maxRevisit[c] = (float) (grid.maxGap[c] * stepSeconds);
+                meanRevisit[c] = (float) (grid.gapSum[c] * stepSeconds / grid.gapCount[c]);
+            } else {
+                final var continuous = grid.accessed(c) == steps;
+                maxRevisit[c] = continuous ? 0f : Float.NaN;
+                meanRevisit[c] = continuous ? 0f : Float.NaN;
+            }
+        }
+        return new CoverageResult(rows, cols, cellDeg, start, stepSeconds, steps, satellites, catalogueVersion,
+                coverage, maxRevisit, meanRevisit, elapsedMillis);
+    }
+
+    public int cells() {
+        return rows * cols;
+    }
+}
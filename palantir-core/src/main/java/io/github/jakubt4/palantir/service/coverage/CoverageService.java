@@ -0,0 +1,330 @@
+package io.github.jakubt4.palantir.service.coverage;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.CoverageRequest;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ground coverage and revisit analysis of a set of satellites over a global lat/lon grid.
+ *
+ * <p>Every satellite is propagated with SGP4 at each step of the window, and its
+ * footprint — the spherical cap in which it stands at least {@code minElevationDeg}
+ * above the horizon — is rasterised onto the grid: one {@code acos} per grid row gives
+ * the row's longitude span, and the covered cells are marked as contiguous index runs.
+ * A cell's coverage is the fraction of steps at which any satellite sees it; its revisit
+ * times are the intervals between those steps ({@link CoverageGrid}).
+ *
+ * <p>As in the tick and the export, the active spacecraft follows its post-manoeuvre
+ * ephemeris from the burn epoch on, and contributes nothing past the ephemeris end.
+ *
+ * <p>The window is split into time slices on a dedicated {@link ForkJoinPool}. Each
+ * slice builds its own propagators and one TEME → ITRF transform per step shared by all
+ * satellites, accumulates into a private {@link CoverageGrid}, and the grids are merged
+ * pairwise on the way back up the fork tree, so there is no shared mutable state.
+ *
+ * <p>The Earth is a sphere of mean radius and sub-satellite points are geocentric; at
+ * grid resolutions of a tenth of a degree and coarser that is well inside one cell.
+ */
+@Slf4j
+@Service
+public class CoverageService {
+
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+    private static final int MIN_SLICE_STEPS = 64;
+
+    @SuppressWarnings("unused") // injected to guarantee Orekit data is loaded before frames are built
+    private final OrekitConfig orekitConfig;
+    private final OrbitPropagationService orbitPropagationService;
+
+    private final double defaultStepSeconds;
+    private final double defaultCellDeg;
+    private final double defaultMinElevationDeg;
+    private final double minCellDeg;
+    private final long maxSamples;
+    private final int parallelism;
+
+    private final ForkJoinPool pool;
+    private final Timer analysisTimer;
+
+    public CoverageService(
+            final OrekitConfig orekitConfig,
+            final OrbitPropagationService orbitPropagationService,
+            final MeterRegistry meterRegistry,
+            @Value("${palantir.coverage.step-s:10}") final double defaultStepSeconds,
+            @Value("${palantir.coverage.cell-deg:1}") final double defaultCellDeg,
+            @Value("${palantir.coverage.min-elevation-deg:10}") final double defaultMinElevationDeg,
+            @Value("${palantir.coverage.min-cell-deg:0.25}") final double minCellDeg,
+            @Value("${palantir.coverage.max-samples:50000000}") final long maxSamples,
+            @Value("${palantir.coverage.parallelism:0}") final int parallelism) {
+        this.orekitConfig = orekitConfig;
+        this.orbitPropagationService = orbitPropagationService;
+        this.defaultStepSeconds = defaultStepSeconds;
+        this.defaultCellDeg = defaultCellDeg;
+        this.defaultMinElevationDeg = defaultMinElevationDeg;
+        this.minCellDeg = minCellDeg;
+        this.maxSamples = maxSamples;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.analysisTimer = Timer.builder("palantir.coverage.analysis")
+                .description("Time to compute a coverage and revisit analysis")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the analysis over registered objects.
+     *
+     * @return empty if a requested catalogue number is not registered
+     * @throws IllegalArgumentException if the window, step, grid or elevation is invalid,
+     *                                  or the run exceeds {@code palantir.coverage.max-samples}
+     */
+    public Optional<CoverageResult> analyse(final CoverageRequest request) {
+        if (request.start() == null || request.end() == null || !request.end().isAfter(request.start())) {
+            throw new IllegalArgumentException("start and end are required and end must be after start");
+        }
+        final var snapshot = orbitPropagationService.snapshot();
+        final var objects = new ArrayList<TrackedObject>();
+        if (request.catalogNumbers() == null || request.catalogNumbers().isEmpty()) {
+            objects.addAll(snapshot.registeredObjects());
+        } else {
+            for (final var id : request.catalogNumbers().stream().distinct().toList()) {
+                final var object = id == null ? Optional.<TrackedObject>empty() : snapshot.find(id);
+                if (object.isEmpty()) {
+                    return Optional.empty();
+                }
+                objects.add(object.get());
+            }
+        }
+        if (objects.isEmpty()) {
+            throw new IllegalArgumentException("No satellites registered");
+        }
+
+        final var stepSeconds = request.stepSeconds() != null ? request.stepSeconds() : defaultStepSeconds;
+        final var cellDeg = request.cellDeg() != null ? request.cellDeg() : defaultCellDeg;
+        final var minElevationDeg = request.minElevationDeg() != null
+                ? request.minElevationDeg() : defaultMinElevationDeg;
+        if (!(stepSeconds > 0)) {
+            throw new IllegalArgumentException("stepSeconds must be positive");
+        }
+        if (!(minElevationDeg >= 0 && minElevationDeg < 90)) {
+            throw new IllegalArgumentException("minElevationDeg must be in [0, 90)");
+        }
+        final var rows = (int) Math.round(180.0 / cellDeg);
+        if (!(cellDeg >= minCellDeg && cellDeg <= 30) || Math.abs(rows * cellDeg - 180.0) > 1e-9) {
+            throw new IllegalArgumentException("cellDeg must divide 180 and lie in [" + minCellDeg + ", 30]");
+        }
+        final var windowSeconds = (request.end().toEpochMilli() - request.start().toEpochMilli()) / 1000.0;
+        final var steps = (long) Math.floor(windowSeconds / stepSeconds) + 1;
+        if (steps * objects.size() > maxSamples) {
+            throw new IllegalArgumentException(steps * objects.size() + " samples requested, limit is " + maxSamples);
+        }
+
+        final var tles = objects.stream().map(TrackedObject::tle).toArray(TLE[]::new);
+        final var ephemeris = snapshot.ephemeris().orElse(null);
+        var ephemerisIndex = -1;
+        if (ephemeris != null) {
+            final var activeTle = snapshot.active().map(TrackedObject::tle).orElse(null);
+            for (var i = 0; i < tles.length; i++) {
+                if (tles[i] == activeTle) {
+                    ephemerisIndex = i;
+                    break;
+                }
+            }
+        }
+        final var grid = new Grid(rows, 2 * rows, cellDeg);
+        final var run = new Run(tles, ephemerisIndex, ephemeris, grid,
+                new AbsoluteDate(Date.from(request.start()), TimeScalesFactory.getUTC()),
+                stepSeconds, Math.toRadians(minElevationDeg),
+                FramesFactory.getTEME(), FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        final var sliceSteps = (int) Math.max(MIN_SLICE_STEPS, (steps + 4L * parallelism - 1) / (4L * parallelism));
+
+        final var start = System.nanoTime();
+        final var accumulated = pool.invoke(new Slice(run, 0, (int) steps, sliceSteps));
+        final var elapsedNanos = System.nanoTime() - start;
+        analysisTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        final var result = CoverageResult.of(accumulated, grid.rows(), grid.cols(), cellDeg, request.start(),
+                stepSeconds, (int) steps, tles.length, snapshot.version(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        log.info("[COVERAGE] {} satellites × {} steps of {} s on a {}° grid in {} ms",
+                tles.length, steps, stepSeconds, cellDeg, result.elapsedMillis());
+        return Optional.of(result);
+    }
+
+    /** Grid geometry with per-row trigonometry precomputed. */
+    private record Grid(int rows, int cols, double cellDeg, double[] sinLat, double[] cosLat) {
+
+        Grid(final int rows, final int cols, final double cellDeg) {
+            this(rows, cols, cellDeg, new double[rows], new double[rows]);
+            for (var i = 0; i < rows; i++) {
+                final var lat = Math.toRadians(-90.0 + (i + 0.5) * cellDeg);
+                sinLat[i] = Math.sin(lat);
+                cosLat[i] = Math.cos(lat);
+            }
+        }
+    }
+
+    /**
+     * Immutable inputs shared by every slice of one analysis.
+     *
+     * @param ephemerisIndex index in {@code tles} of the active spacecraft if it has a
+     *                       post-manoeuvre {@code ephemeris}, otherwise −1
+     */
+    private record Run(TLE[] tles, int ephemerisIndex, ManoeuvreEphemeris ephemeris, Grid grid,
+                       AbsoluteDate start, double stepSeconds, double minElevationRad, Frame teme, Frame itrf) {
+    }
+
+    /** Steps {@code [from, to)}; splits in half down to {@code sliceSteps}. */
+    private static final class Slice extends RecursiveTask<CoverageGrid> {
+
+        private final Run run;
+        private final int from;
+        private final int to;
+        private final int sliceSteps;
+
+        Slice(final Run run, final int from, final int to, final int sliceSteps) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+            this.sliceSteps = sliceSteps;
+        }
+
+        @Override
+        protected CoverageGrid compute() {
+            if (to - from <= sliceSteps) {
+                return accumulate();
+            }
+            final var mid = (from + to) >>> 1;
+            final var left = new Slice(run, from, mid, sliceSteps);
+            left.fork();
+            final var right = new Slice(run, mid, to, sliceSteps).compute();
+            return left.join().merge(right);
+        }
+
+        private CoverageGrid accumulate() {
+            final var grid = run.grid();
+            final var accumulator = new CoverageGrid(grid.rows() * grid.cols());
+            final var propagators = new TLEPropagator[run.tles().length];
+            for (var i = 0; i < propagators.length; i++) {
+                propagators[i] = TLEPropagator.selectExtrapolator(run.tles()[i]);
+            }
+            final var cosElevation = Math.cos(run.minElevationRad());
+
+            for (var step = from; step < to; step++) {
+                final var date = run.start().shiftedBy(step * run.stepSeconds());
+                final var temeToItrf = run.teme().getStaticTransformTo(run.itrf(), date);
+                for (var i = 0; i < propagators.length; i++) {
+                    final var propagator = propagators[i];
+                    if (propagator == null) {
+                        continue;
+                    }
+                    final Vector3D p;
+                    if (i == run.ephemerisIndex() && !date.isBefore(run.ephemeris().burnEpoch())) {
+                        try {
+                            p = run.ephemeris().stateAt(date).getPVCoordinates(run.itrf()).getPosition();
+                        } catch (final IllegalArgumentException | OrekitException e) {
+                            // Past the ephemeris end: no sample, not the superseded pre-burn orbit.
+                            continue;
+                        }
+                    } else {
+                        try {
+                            p = temeToItrf.transformPosition(propagator.getPVCoordinates(date).getPosition());
+                        } catch (final OrekitException e) {
+                            // Decayed or otherwise unpropagatable — drop it for the rest of the slice.
+                            propagators[i] = null;
+                            continue;
+                        }
+                    }
+                    final var x = p.getX();
+                    final var y = p.getY();
+                    final var z = p.getZ();
+                    final var r = Math.sqrt(x * x + y * y + z * z);
+                    if (r <= EARTH_RADIUS_M) {
+                        continue;
+                    }
+                    // Earth central angle from the sub-satellite point to where the satellite
+                    // sits at the minimum elevation.
+                    final var radius = Math.acos(EARTH_RADIUS_M / r * cosElevation) - run.minElevationRad();
+                    footprint(accumulator, grid, Math.asin(z / r), Math.atan2(y, x), radius, step);
+                }
+            }
+            return accumulator;
+        }
+
+        /** Marks every cell whose centre lies within {@code radius} (rad) of the sub-point. */
+        private static void footprint(final CoverageGrid accumulator, final Grid grid,
+                                      final double lat0, final double lon0, final double radius, final int step) {
+            final var cell = grid.cellDeg();
+            final var cols = grid.cols();
+            final var lat0Deg = Math.toDegrees(lat0);
+            final var lon0Deg = Math.toDegrees(lon0);
+            final var radiusDeg = Math.toDegrees(radius);
+            final var sinLat0 = Math.sin(lat0);
+            final var cosLat0 = Math.cos(lat0);
+            final var cosRadius = Math.cos(radius);
+
+            final var rowFrom = Math.max(0, (int) Math.ceil((lat0Deg - radiusDeg + 90.0) / cell - 0.5));
+            final var rowTo = Math.min(grid.rows() - 1, (int) Math.floor((lat0Deg + radiusDeg + 90.0) / cell - 0.5));
+            for (var row = rowFrom; row <= rowTo; row++) {
+                // Spherical law of cosines solved for the longitude half-width at this latitude.
+                final var k = (cosRadius - grid.sinLat()[row] * sinLat0) / (grid.cosLat()[row] * cosLat0);
+                if (k > 1.0) {
+                    continue;
+                }
+                final var base = row * cols;
+                if (k <= -1.0) {
+                    accumulator.mark(base, base + cols - 1, step);
+                    continue;
+                }
+                final var halfWidthDeg = Math.toDegrees(Math.acos(k));
+                final var colFrom = (int) Math.ceil((lon0Deg - halfWidthDeg + 180.0) / cell - 0.5);
+                final var colTo = (int) Math.floor((lon0Deg + halfWidthDeg + 180.0) / cell - 0.5);
+                final var count = colTo - colFrom + 1;
+                if (count <= 0) {
+                    continue;
+                }
+                if (count >= cols) {
+                    accumulator.mark(base, base + cols - 1, step);
+                    continue;
+                }
+                final var first = Math.floorMod(colFrom, cols);
+                final var last = first + count - 1;
+                if (last < cols) {
+                    accumulator.mark(base + first, base + last, step);
+                } else {
+                    // Wraps across the antimeridian.
+                    accumulator.mark(base + first, base + cols - 1, step);
+                    accumulator.mark(base, base + last - cols, step);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import io.github.jakubt4.palantir.dto.FlightRecordingStatus;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * On-demand, bounded Java Flight Recorder recording of the running service.
+ *
+ * <p>At most one recording exists at a time. It is started with one of the JDK's built-in
+ * configurations ({@code default} for low overhead, {@code profile} for more detail) plus
+ * the pipeline events of this package, so GC, safepoint, socket and thread events land in
+ * the same file as the tick stages. Every recording is bounded: it stops by itself after
+ * {@code palantir.diagnostics.jfr.max-duration-ms} and keeps at most
+ * {@code palantir.diagnostics.jfr.max-size-bytes} on disk, discarding the oldest data
+ * beyond that. A stopped recording stays available for download until the next one
+ * starts.
+ *
+ * <p>The recording is downloadable over HTTP, so the JDK events that snapshot the process
+ * environment, system properties and JVM command line are left out: they would hand any
+ * caller of the endpoint the credentials passed to the service that way.
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final List<String> SETTINGS = List.of("default", "profile");
+    private static final List<Class<? extends PipelineEvent>> EVENTS = List.of(
+            PropagationTickEvent.class, TelemetryPacketEvent.class, TelecommandEvent.class, TleRefreshEvent.class);
+    /** JDK events carrying environment variables, system properties or JVM arguments. */
+    static final List<String> REDACTED_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+    private static final DateTimeFormatter NAME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    /** Guarded by {@code this}. */
+    private Recording recording;
+    private String settings;
+
+    public FlightRecordingService(
+            @Value("${palantir.diagnostics.jfr.max-duration-ms:900000}") final long maxDurationMillis,
+            @Value("${palantir.diagnostics.jfr.max-size-bytes:104857600}") final long maxSizeBytes) {
+        this.maxDuration = Duration.ofMillis(maxDurationMillis);
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Starts a recording, discarding a previous stopped one.
+     *
+     * @param duration how long to record; {@code null} for the configured maximum
+     * @param settings JFR configuration name; {@code null} for {@code default}
+     * @throws IllegalArgumentException if the duration exceeds the maximum or the settings are unknown
+     * @throws IllegalStateException    if a recording is already running
+     */
+    public synchronized FlightRecordingStatus start(final Duration duration, final String settings) {
+        final var length = duration != null ? duration : maxDuration;
+        if (length.isNegative() || length.isZero() || length.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("duration must be positive and at most " + maxDuration);
+        }
+        final var configurationName = settings != null ? settings : "default";
+        if (!SETTINGS.contains(configurationName)) {
+            throw new IllegalArgumentException("settings must be one of " + SETTINGS);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("recording " + recording.getName() + " is already running");
+        }
+        discard();
+
+        final Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (final IOException | ParseException e) {
+            throw new IllegalStateException("cannot load JFR configuration " + configurationName, e);
+        }
+        final var next = new Recording(configuration);
+        next.setName("palantir-" + NAME_FORMAT.format(Instant.now()));
+        next.setToDisk(true);
+        next.setDuration(length);
+        next.setMaxSize(maxSizeBytes);
+        for (final var event : EVENTS) {
+            next.enable(event).withoutStackTrace();
+        }
+        for (final var event : REDACTED_EVENTS) {
+            next.disable(event);
+        }
+        next.start();
+        recording = next;
+        this.settings = configurationName;
+        log.info("[JFR] Recording {} started — {} settings, up to {}", next.getName(), configurationName, length);
+        return status(next);
+    }
+
+    /** Stops the running recording; it stays available for download. */
+    public synchronized Optional<FlightRecordingStatus> stop() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("[JFR] Recording {} stopped", recording.getName());
+        }
+        return Optional.of(status(recording));
+    }
+
+    /** The current or last recording, if any. */
+    public synchronized Optional<FlightRecordingStatus> status() {
+        return Optional.ofNullable(recording).map(this::status);
+    }
+
+    /**
+     * Writes the recording's data so far to a temporary {@code .jfr} file. A running
+     * recording keeps running. The caller owns the file and must delete it.
+     */
+    public synchronized Optional<Path> dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return Optional.empty();
+        }
+        final var file = Files.createTempFile(recording.getName() + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return Optional.of(file);
+    }
+
+    private FlightRecordingStatus status(final Recording current) {
+        final var duration = current.getDuration();
+        return new FlightRecordingStatus(
+                current.getName(),
+                current.getState().name(),
+                settings,
+                current.getStartTime(),
+                current.getState() == RecordingState.RUNNING ? null : current.getStopTime(),
+                duration != null ? duration.toMillis() : maxDuration.toMillis(),
+                current.getMaxSize(),
+                current.getSize());
+    }
+
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        discard();
+    }
+}
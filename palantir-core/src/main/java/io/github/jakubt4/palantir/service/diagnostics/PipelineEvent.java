@@ -0,0 +1,28 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import jdk.jfr.Event;
+
+/**
+ * Base of the pipeline's JFR events: adds a stage stopwatch for events that break their
+ * duration down by stage.
+ *
+ * <p>Events are used with the usual {@code new} / {@link #begin()} / {@link #commit()}
+ * pattern and stay compiled in. While no recording enables them, JFR leaves the event
+ * class uninstrumented: {@code begin()} and {@code commit()} are empty and the JIT removes
+ * the allocation, so the cost is the few {@link System#nanoTime()} reads of {@link #lap()}.
+ */
+public abstract class PipelineEvent extends Event {
+
+    /** Not recorded — transient fields are ignored by JFR. */
+    private transient long lapStart;
+    private transient boolean lapping;
+
+    /** Nanoseconds since the previous call; the first call starts the stopwatch and returns 0. */
+    public long lap() {
+        final var now = System.nanoTime();
+        final var elapsed = lapping ? now - lapStart : 0;
+        lapStart = now;
+        lapping = true;
+        return elapsed;
+    }
+}
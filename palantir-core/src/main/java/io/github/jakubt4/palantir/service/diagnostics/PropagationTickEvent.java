@@ -0,0 +1,59 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One run of {@code OrbitPropagationService.propagateAndSend}, split into its stages so
+ * tick jitter can be attributed to frame transforms, SGP4, publishing or the eclipse
+ * stage — and lined up against GC and socket events in the same recording.
+ */
+@Name("palantir.PropagationTick")
+@Label("Propagation Tick")
+@Category({"Palantir", "Pipeline"})
+@Description("One 1 Hz propagation tick and the duration of each stage")
+@StackTrace(false)
+public class PropagationTickEvent extends PipelineEvent {
+
+    @Label("Objects")
+    @Description("Rows in the published batch")
+    public int objects;
+
+    @Label("Failures")
+    @Description("Objects that could not be propagated this tick")
+    public int failures;
+
+    @Label("Catalogue Version")
+    @Description("Version of the catalogue snapshot the tick propagated")
+    public long catalogueVersion;
+
+    @Label("Ephemeris")
+    @Description("Active spacecraft sampled from a post-manoeuvre ephemeris instead of SGP4")
+    public boolean ephemeris;
+
+    @Label("Transform")
+    @Timespan(Timespan.NANOSECONDS)
+    public long transformDuration;
+
+    @Label("Active Spacecraft")
+    @Description("Propagation, geodetic conversion and CCSDS downlink of the active spacecraft")
+    @Timespan(Timespan.NANOSECONDS)
+    public long activeDuration;
+
+    @Label("Catalogue")
+    @Timespan(Timespan.NANOSECONDS)
+    public long catalogueDuration;
+
+    @Label("Publish")
+    @Description("State store and position stream")
+    @Timespan(Timespan.NANOSECONDS)
+    public long publishDuration;
+
+    @Label("Eclipse")
+    @Timespan(Timespan.NANOSECONDS)
+    public long eclipseDuration;
+}
@@ -0,0 +1,44 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One telecommand through {@code UdpCommandReceiver}, from the returned receive to the
+ * final acknowledgement.
+ */
+@Name("palantir.Telecommand")
+@Label("Telecommand")
+@Category({"Palantir", "Pipeline"})
+@Description("Telecommand dispatch, execution and acknowledgement")
+@StackTrace(false)
+public class TelecommandEvent extends PipelineEvent {
+
+    @Label("Uplink Sequence")
+    public int uplinkSequence;
+
+    @Label("Opcode")
+    public int opCode;
+
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+
+    @Label("Outcome")
+    @Description("Final acknowledgement stage: COMPLETED or FAILED")
+    public String outcome;
+
+    @Label("Dispatch")
+    @Description("Decode and ACCEPTED acknowledgement, up to the handler call")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dispatchDuration;
+
+    @Label("Execute")
+    @Timespan(Timespan.NANOSECONDS)
+    public long executeDuration;
+}
@@ -0,0 +1,31 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One CCSDS Space Packet handed to the UDP socket; the event spans the send. */
+@Name("palantir.TelemetryPacket")
+@Label("Telemetry Packet")
+@Category({"Palantir", "Pipeline"})
+@Description("CCSDS Space Packet transmitted over UDP")
+@StackTrace(false)
+public class TelemetryPacketEvent extends PipelineEvent {
+
+    @Label("APID")
+    public int apid;
+
+    @Label("Sequence Count")
+    public int sequence;
+
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+
+    @Label("Sent")
+    @Description("False if the socket send failed")
+    public boolean sent;
+}
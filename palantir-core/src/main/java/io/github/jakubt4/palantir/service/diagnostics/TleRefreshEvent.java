@@ -0,0 +1,37 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** One CelesTrak poll of {@code TleRefreshService.refreshTle}. */
+@Name("palantir.TleRefresh")
+@Label("TLE Refresh")
+@Category({"Palantir", "Pipeline"})
+@Description("CelesTrak TLE fetch and propagator hot-swap")
+@StackTrace(false)
+public class TleRefreshEvent extends PipelineEvent {
+
+    @Label("URL")
+    public String url;
+
+    @Label("Response Size")
+    @DataAmount
+    public int bytes;
+
+    @Label("Outcome")
+    @Description("APPLIED, REJECTED (empty or unparseable body) or HTTP_ERROR")
+    public String outcome;
+
+    @Label("Fetch")
+    @Timespan(Timespan.NANOSECONDS)
+    public long fetchDuration;
+
+    @Label("Apply")
+    @Timespan(Timespan.NANOSECONDS)
+    public long applyDuration;
+}
@@ -0,0 +1,34 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+import java.util.Arrays;
+import java.util.OptionalDouble;
+
+/**
+ * Immutable snapshot of every object's illumination for one propagation tick.
+ *
+ * <p>Entries are stored column-wise and sorted by ascending NORAD catalogue number, as
+ * in the {@link io.github.jakubt4.palantir.service.state.OrbitStateBatch} they were
+ * computed from. The arrays are owned by the frame once it is published.
+ *
+ * @param epochMillis    tick generation time, milliseconds since the Unix epoch (UTC)
+ * @param catalogNumbers NORAD catalogue numbers, strictly ascending
+ * @param illumination   visible fraction of the solar disc per entry — 1 sunlit, 0 umbra
+ */
+public record EclipseFrame(long epochMillis, int[] catalogNumbers, float[] illumination) {
+
+    public EclipseFrame {
+        if (illumination.length != catalogNumbers.length) {
+            throw new IllegalArgumentException("EclipseFrame columns must have equal length");
+        }
+    }
+
+    /** Illuminated fraction of one object at this tick, if it was part of it. */
+    public OptionalDouble illuminationOf(final int catalogNumber) {
+        final var row = Arrays.binarySearch(catalogNumbers, catalogNumber);
+        return row >= 0 ? OptionalDouble.of(illumination[row]) : OptionalDouble.empty();
+    }
+
+    public int size() {
+        return catalogNumbers.length;
+    }
+}
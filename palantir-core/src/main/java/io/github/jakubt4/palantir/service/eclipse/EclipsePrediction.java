@@ -0,0 +1,52 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shadow transitions of one TLE over a prediction window, in chronological order.
+ *
+ * @param tle         TLE the prediction was computed from; a new TLE invalidates it
+ * @param from        start of the searched window
+ * @param until       end of the searched window — no transition beyond it is known
+ * @param transitions cone crossings inside the window, earliest first
+ */
+public record EclipsePrediction(TLE tle, AbsoluteDate from, AbsoluteDate until, List<Transition> transitions) {
+
+    public EclipsePrediction {
+        transitions = List.copyOf(transitions);
+    }
+
+    /** First transition of the given type strictly after {@code date}, if inside the window. */
+    public Optional<Transition> next(final Type type, final AbsoluteDate date) {
+        for (final var transition : transitions) {
+            if (transition.type() == type && transition.date().isAfter(date)) {
+                return Optional.of(transition);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Whether the window still covers at least {@code seconds} after {@code date}. */
+    boolean covers(final AbsoluteDate date, final double seconds) {
+        return !date.isBefore(from) && until.durationFrom(date) >= seconds;
+    }
+
+    /** Boundary crossed, in the order a satellite meets them on a full eclipse. */
+    public enum Type {
+        PENUMBRA_ENTRY,
+        UMBRA_ENTRY,
+        UMBRA_EXIT,
+        PENUMBRA_EXIT
+    }
+
+    /**
+     * @param type boundary crossed
+     * @param date crossing time, located to within a millisecond
+     */
+    public record Transition(Type type, AbsoluteDate date) {
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+import org.hipparchus.analysis.UnivariateFunction;
+import org.hipparchus.analysis.solvers.AllowedSolution;
+import org.hipparchus.analysis.solvers.BracketingNthOrderBrentSolver;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.utils.ExtendedPositionProvider;
+
+import java.util.ArrayList;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Finds the shadow-cone crossings of one TLE over a window by root-finding.
+ *
+ * <p>The penumbra and umbra margins of {@link ShadowModel} are sampled every
+ * {@code stepSeconds}; every sign change brackets one crossing, which a Brent solver then
+ * locates to {@value #ACCURACY_S} s. The step must be shorter than the briefest eclipse
+ * worth reporting — a grazing pass shorter than one step can fall between samples.
+ *
+ * <p>Each call builds its own SGP4 propagator, so instances can be shared across threads.
+ */
+final class EclipsePredictor {
+
+    static final double ACCURACY_S = 1e-3;
+    private static final int MAX_EVALUATIONS = 100;
+
+    private final ExtendedPositionProvider sun;
+    private final double horizonSeconds;
+    private final double stepSeconds;
+
+    EclipsePredictor(final ExtendedPositionProvider sun, final double horizonSeconds, final double stepSeconds) {
+        if (!(stepSeconds > 0) || !(horizonSeconds >= stepSeconds)) {
+            throw new IllegalArgumentException("Eclipse search needs 0 < step <= horizon, got step="
+                    + stepSeconds + " s, horizon=" + horizonSeconds + " s");
+        }
+        this.sun = sun;
+        this.horizonSeconds = horizonSeconds;
+        this.stepSeconds = stepSeconds;
+    }
+
+    double horizonSeconds() {
+        return horizonSeconds;
+    }
+
+    EclipsePrediction predict(final TLE tle, final AbsoluteDate from) {
+        final var propagator = TLEPropagator.selectExtrapolator(tle);
+        final var solver = new BracketingNthOrderBrentSolver(ACCURACY_S, 5);
+        final var transitions = new ArrayList<EclipsePrediction.Transition>();
+
+        var t0 = 0.0;
+        var penumbra0 = margin(propagator, from, t0, ShadowModel::penumbraMargin);
+        var umbra0 = margin(propagator, from, t0, ShadowModel::umbraMargin);
+        while (t0 < horizonSeconds) {
+            final var t1 = Math.min(horizonSeconds, t0 + stepSeconds);
+            final var penumbra1 = margin(propagator, from, t1, ShadowModel::penumbraMargin);
+            final var umbra1 = margin(propagator, from, t1, ShadowModel::umbraMargin);
+
+            // Within one step the order is fixed by geometry: penumbra before umbra on
+            // entry, umbra before penumbra on exit.
+            if (penumbra0 >= 0 && penumbra1 < 0) {
+                transitions.add(crossing(solver, propagator, from, t0, t1,
+                        ShadowModel::penumbraMargin, EclipsePrediction.Type.PENUMBRA_ENTRY));
+            }
+            if (umbra0 >= 0 && umbra1 < 0) {
+                transitions.add(crossing(solver, propagator, from, t0, t1,
+                        ShadowModel::umbraMargin, EclipsePrediction.Type.UMBRA_ENTRY));
+            }
+            if (umbra0 < 0 && umbra1 >= 0) {
+                transitions.add(crossing(solver, propagator, from, t0, t1,
+                        ShadowModel::umbraMargin, EclipsePrediction.Type.UMBRA_EXIT));
+            }
+            if (penumbra0 < 0 && penumbra1 >= 0) {
+                transitions.add(crossing(solver, propagator, from, t0, t1,
+                        ShadowModel::penumbraMargin, EclipsePrediction.Type.PENUMBRA_EXIT));
+            }
+            t0 = t1;
+            penumbra0 = penumbra1;
+            umbra0 = umbra1;
+        }
+        return new EclipsePrediction(tle, from, from.shiftedBy(horizonSeconds), transitions);
+    }
+
+    private EclipsePrediction.Transition crossing(final BracketingNthOrderBrentSolver solver,
+                                                  final TLEPropagator propagator,
+                                                  final AbsoluteDate from,
+                                                  final double t0, final double t1,
+                                                  final ToDoubleBiFunction<Vector3D, Vector3D> margin,
+                                                  final EclipsePrediction.Type type) {
+        final UnivariateFunction f = t -> margin(propagator, from, t, margin);
+        final var t = solver.solve(MAX_EVALUATIONS, f, t0, t1, AllowedSolution.ANY_SIDE);
+        return new EclipsePrediction.Transition(type, from.shiftedBy(t));
+    }
+
+    private double margin(final TLEPropagator propagator, final AbsoluteDate from, final double offset,
+                          final ToDoubleBiFunction<Vector3D, Vector3D> margin) {
+        final var date = from.shiftedBy(offset);
+        final var satellite = propagator.propagate(date).getPosition();
+        return margin.applyAsDouble(sun.getPosition(date, propagator.getFrame()), satellite);
+    }
+}
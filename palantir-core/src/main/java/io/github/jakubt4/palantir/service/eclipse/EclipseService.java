@@ -0,0 +1,203 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.EclipseResponse;
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.state.OrbitStateBatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.orekit.bodies.AnalyticalSolarPositionProvider;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Eclipse stage of the propagation tick, plus cached entry/exit predictions.
+ *
+ * <p>{@link #process} runs on the tick thread after every object has been propagated: the
+ * Sun position is computed once for the tick epoch and the conical {@link ShadowModel} is
+ * evaluated over the whole batch in one pass over its ITRF columns. The active
+ * spacecraft's result is downlinked on APID {@value CcsdsTelemetrySender#ECLIPSE_APID}
+ * together with the time to its next umbra entry and exit.
+ *
+ * <p>Those times come from an {@link EclipsePrediction} per TLE, found by root-finding on
+ * the shadow-cone margins ({@link EclipsePredictor}) over
+ * {@code palantir.eclipse.prediction-horizon-ms}. Predictions are cached by catalogue
+ * number and recomputed when the TLE changes or less than half the horizon remains.
+ * Whenever the tick's catalogue version changes, predictions for objects no longer in the
+ * tick — untracked, handed off to a peer or decayed — are dropped.
+ * The tick never root-finds itself: a missing or stale prediction is computed on a
+ * virtual thread and the packet reports the times as unknown until it lands.
+ *
+ * <p>Predictions follow the TLE. After a {@code FIRE_THRUSTER} the downlinked
+ * illumination follows the manoeuvre ephemeris while the predicted times still come from
+ * the pre-burn TLE, until a new one is ingested.
+ */
+@Slf4j
+@Service
+public class EclipseService {
+
+    @SuppressWarnings("unused") // injected to guarantee Orekit data is loaded before @PostConstruct
+    private final OrekitConfig orekitConfig;
+    private final CcsdsTelemetrySender ccsdsTelemetrySender;
+    private final AnalyticalSolarPositionProvider sun;
+    private final EclipsePredictor predictor;
+
+    private final AtomicReference<EclipseFrame> latest = new AtomicReference<>();
+    private final ConcurrentHashMap<Integer, EclipsePrediction> predictions = new ConcurrentHashMap<>();
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Frame itrf;
+    /** Catalogue version the predictions were last pruned against; tick thread only. */
+    private long prunedVersion = -1;
+
+    public EclipseService(
+            final OrekitConfig orekitConfig,
+            final CcsdsTelemetrySender ccsdsTelemetrySender,
+            @Value("${palantir.eclipse.prediction-horizon-ms:21600000}") final long horizonMillis,
+            @Value("${palantir.eclipse.search-step-ms:30000}") final long stepMillis) {
+        this.orekitConfig = orekitConfig;
+        this.ccsdsTelemetrySender = ccsdsTelemetrySender;
+        this.sun = new AnalyticalSolarPositionProvider();
+        this.predictor = new EclipsePredictor(sun, horizonMillis / 1000.0, stepMillis / 1000.0);
+    }
+
+    @PostConstruct
+    void init() {
+        itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+    }
+
+    /**
+     * Evaluates illumination for every object in the tick and downlinks the active
+     * spacecraft's eclipse packet.
+     *
+     * @param batch     the tick's states, ITRF positions
+     * @param date      tick epoch
+     * @param activeTle TLE of the active spacecraft, or {@code null} if it is not in the batch
+     */
+    public void process(final OrbitStateBatch batch, final AbsoluteDate date, final TLE activeTle) {
+        final var frame = batch.toEclipseFrame(sun.getPosition(date, itrf));
+        latest.set(frame);
+        if (batch.catalogueVersion() != prunedVersion) {
+            prunedVersion = batch.catalogueVersion();
+            predictions.keySet().removeIf(id -> frame.illuminationOf(id).isEmpty());
+        }
+        if (activeTle == null) {
+            return;
+        }
+        final var illumination = frame.illuminationOf(activeTle.getSatelliteNumber());
+        if (illumination.isEmpty()) {
+            return;
+        }
+        final var prediction = cachedPrediction(activeTle, date);
+        ccsdsTelemetrySender.sendEclipsePacket(date,
+                EclipseState.of(illumination.getAsDouble()),
+                (float) illumination.getAsDouble(),
+                secondsUntil(prediction, EclipsePrediction.Type.UMBRA_ENTRY, date),
+                secondsUntil(prediction, EclipsePrediction.Type.UMBRA_EXIT, date));
+    }
+
+    /** Illumination of every object at the most recent tick, if one has run. */
+    public Optional<EclipseFrame> latest() {
+        return Optional.ofNullable(latest.get());
+    }
+
+    /**
+     * Upcoming shadow transitions for a TLE from {@code date} on, computing them on the
+     * calling thread if the cached prediction does not cover the request.
+     */
+    public EclipsePrediction predict(final TLE tle, final AbsoluteDate date) {
+        final var cached = predictions.get(tle.getSatelliteNumber());
+        if (isFresh(cached, tle, date)) {
+            return cached;
+        }
+        final var prediction = predictor.predict(tle, date);
+        predictions.merge(tle.getSatelliteNumber(), prediction,
+                (old, computed) -> old.tle() == tle && old.from().isAfter(computed.from()) ? old : computed);
+        return prediction;
+    }
+
+    /**
+     * Latest illumination and upcoming transitions of one object, for the REST API.
+     *
+     * @param tle  the object's current TLE
+     * @param time start of the prediction window
+     */
+    public EclipseResponse describe(final TLE tle, final Instant time) {
+        final var id = tle.getSatelliteNumber();
+        final var date = new AbsoluteDate(Date.from(time), TimeScalesFactory.getUTC());
+        final var prediction = predict(tle, date);
+        final var transitions = prediction.transitions().stream()
+                .filter(transition -> !transition.date().isBefore(date))
+                .map(transition -> new EclipseResponse.Transition(transition.type(), toInstant(transition.date())))
+                .toList();
+
+        final var frame = latest.get();
+        final var illumination = frame != null ? frame.illuminationOf(id) : OptionalDouble.empty();
+        return illumination.isPresent()
+                ? new EclipseResponse(id, Instant.ofEpochMilli(frame.epochMillis()), illumination.getAsDouble(),
+                        EclipseState.of(illumination.getAsDouble()), toInstant(prediction.until()), transitions)
+                : new EclipseResponse(id, null, null, null, toInstant(prediction.until()), transitions);
+    }
+
+    /**
+     * The cached prediction if it still applies to {@code tle} at {@code date}; schedules
+     * a background refresh when it is missing or running short.
+     */
+    private EclipsePrediction cachedPrediction(final TLE tle, final AbsoluteDate date) {
+        final var id = tle.getSatelliteNumber();
+        final var cached = predictions.get(id);
+        if (!isFresh(cached, tle, date) && pending.add(id)) {
+            executor.submit(() -> {
+                try {
+                    predict(tle, date);
+                } catch (final Exception e) {
+                    log.error("[ECLIPSE] Prediction failed for #{}: {}", id, e.getMessage());
+                } finally {
+                    pending.remove(id);
+                }
+            });
+        }
+        return cached != null && cached.tle() == tle && cached.covers(date, 0) ? cached : null;
+    }
+
+    private boolean isFresh(final EclipsePrediction cached, final TLE tle, final AbsoluteDate date) {
+        return cached != null && cached.tle() == tle && cached.covers(date, predictor.horizonSeconds() / 2);
+    }
+
+    private static float secondsUntil(final EclipsePrediction prediction, final EclipsePrediction.Type type,
+                                      final AbsoluteDate date) {
+        if (prediction == null) {
+            return Float.NaN;
+        }
+        return prediction.next(type, date)
+                .map(transition -> (float) transition.date().durationFrom(date))
+                .orElse(Float.NaN);
+    }
+
+    private static Instant toInstant(final AbsoluteDate date) {
+        return date.toDate(TimeScalesFactory.getUTC()).toInstant();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
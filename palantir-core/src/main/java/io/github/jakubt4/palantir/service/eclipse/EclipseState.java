@@ -0,0 +1,28 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+/** Illumination state of a satellite, as downlinked in the eclipse packet's state byte. */
+public enum EclipseState {
+
+    SUNLIT(0),
+    PENUMBRA(1),
+    UMBRA(2);
+
+    private final int code;
+
+    EclipseState(final int code) {
+        this.code = code;
+    }
+
+    /** Wire value of the {@code Eclipse_State} telemetry parameter. */
+    public int code() {
+        return code;
+    }
+
+    /** Classifies an illuminated fraction from {@link ShadowModel}. */
+    public static EclipseState of(final double illumination) {
+        if (illumination >= 1.0) {
+            return SUNLIT;
+        }
+        return illumination <= 0.0 ? UMBRA : PENUMBRA;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.utils.Constants;
+
+/**
+ * Conical Earth-shadow model (Montenbruck &amp; Gill, <i>Satellite Orbits</i>, §3.4.2).
+ *
+ * <p>Seen from the satellite, the Sun and the Earth are discs of apparent radius
+ * {@code a} and {@code b}, separated by angle {@code c}. The satellite is sunlit while
+ * {@code c ≥ a + b}, in umbra while {@code c ≤ b − a}, and in penumbra in between, where
+ * the illuminated fraction is one minus the overlapping area of the two discs over the
+ * Sun's. The Earth is a sphere of WGS-84 equatorial radius; the oblateness error is a few
+ * seconds on entry/exit times in LEO, below the 1 Hz tick.
+ *
+ * <p>All positions are Earth-centred and must share one frame. Stateless and thread-safe.
+ */
+public final class ShadowModel {
+
+    private static final double SUN_RADIUS = Constants.SUN_RADIUS;
+    private static final double EARTH_RADIUS = Constants.WGS84_EARTH_EQUATORIAL_RADIUS;
+
+    private ShadowModel() {
+    }
+
+    /**
+     * Illuminated fraction of the solar disc for every row, in one pass over the
+     * position columns. The Sun position is shared by all rows of one epoch.
+     *
+     * @param sun  Sun position (m)
+     * @param x    satellite x coordinates (m)
+     * @param y    satellite y coordinates (m)
+     * @param z    satellite z coordinates (m)
+     * @param n    number of rows to evaluate
+     * @param out  receives the fraction per row: 1 sunlit, 0 umbra, in between penumbra
+     */
+    public static void illumination(final Vector3D sun,
+                                    final double[] x, final double[] y, final double[] z,
+                                    final int n, final float[] out) {
+        final var sx = sun.getX();
+        final var sy = sun.getY();
+        final var sz = sun.getZ();
+        for (var i = 0; i < n; i++) {
+            out[i] = (float) illumination(sx, sy, sz, x[i], y[i], z[i]);
+        }
+    }
+
+    /** Illuminated fraction of the solar disc seen from {@code satellite}. */
+    public static double illumination(final Vector3D sun, final Vector3D satellite) {
+        return illumination(sun.getX(), sun.getY(), sun.getZ(),
+                satellite.getX(), satellite.getY(), satellite.getZ());
+    }
+
+    /**
+     * Angular margin (radians) to the penumbra cone, {@code c − (a + b)}: positive while
+     * sunlit, negative once any part of the Sun is hidden. Continuous, so suitable for
+     * root-finding where the illuminated fraction is flat.
+     */
+    static double penumbraMargin(final Vector3D sun, final Vector3D satellite) {
+        final var g = geometry(sun.getX(), sun.getY(), sun.getZ(),
+                satellite.getX(), satellite.getY(), satellite.getZ());
+        return g[2] - (g[0] + g[1]);
+    }
+
+    /**
+     * Angular margin (radians) to the umbra cone, {@code c − (b − a)}: negative only while
+     * the Sun is fully hidden.
+     */
+    static double umbraMargin(final Vector3D sun, final Vector3D satellite) {
+        final var g = geometry(sun.getX(), sun.getY(), sun.getZ(),
+                satellite.getX(), satellite.getY(), satellite.getZ());
+        return g[2] - (g[1] - g[0]);
+    }
+
+    private static double illumination(final double sx, final double sy, final double sz,
+                                       final double px, final double py, final double pz) {
+        final var dx = sx - px;
+        final var dy = sy - py;
+        final var dz = sz - pz;
+        final var r = Math.sqrt(px * px + py * py + pz * pz);
+        final var d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        // Cheap early-out for the common case: satellite on the day side of the terminator.
+        final var dot = -(px * dx + py * dy + pz * dz);
+        if (dot <= 0) {
+            return 1.0;
+        }
+
+        final var a = Math.asin(SUN_RADIUS / d);
+        final var b = Math.asin(Math.min(1.0, EARTH_RADIUS / r));
+        final var c = Math.acos(Math.min(1.0, dot / (r * d)));
+        if (c >= a + b) {
+            return 1.0;
+        }
+        if (c <= b - a) {
+            return 0.0;
+        }
+        if (c <= a - b) {
+            // Annular: the whole Earth disc is inside the Sun's — only beyond ~1.4 million km.
+            return 1.0 - (b * b) / (a * a);
+        }
+        final var xc = (c * c + a * a - b * b) / (2 * c);
+        final var yc = Math.sqrt(Math.max(0.0, a * a - xc * xc));
+        final var overlap = a * a * Math.acos(xc / a) + b * b * Math.acos((c - xc) / b) - c * yc;
+        return Math.min(1.0, Math.max(0.0, 1.0 - overlap / (Math.PI * a * a)));
+    }
+
+    /** Apparent Sun radius, apparent Earth radius and their separation, radians. */
+    private static double[] geometry(final double sx, final double sy, final double sz,
+                                     final double px, final double py, final double pz) {
+        final var dx = sx - px;
+        final var dy = sy - py;
+        final var dz = sz - pz;
+        final var r = Math.sqrt(px * px + py * py + pz * pz);
+        final var d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        final var cos = -(px * dx + py * dy + pz * dz) / (r * d);
+        return new double[] {
+                Math.asin(SUN_RADIUS / d),
+                Math.asin(Math.min(1.0, EARTH_RADIUS / r)),
+                Math.acos(Math.max(-1.0, Math.min(1.0, cos)))
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.jakubt4.palantir.service.export;
+
+/**
+ * Steps {@code [firstStep, firstStep + steps)} of every satellite in an export. Each
+ * column holds {@code satellites × steps} values, satellite-major.
+ */
+record TelemetryChunk(int firstStep, int steps, float[] latitude, float[] longitude, float[] altitude) {
+
+    TelemetryChunk(final int firstStep, final int steps, final int satellites) {
+        this(firstStep, steps, new float[satellites * steps], new float[satellites * steps],
+                new float[satellites * steps]);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.jakubt4.palantir.service.export;
+
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A validated export, ready to be streamed by {@link TelemetryExportService#write}.
+ * Nothing is propagated until then.
+ *
+ * @param objects        satellites in export order
+ * @param start          epoch of step 0, millisecond precision
+ * @param stepSeconds    sampling step
+ * @param steps          samples per satellite
+ * @param chunkSteps     steps per chunk; every chunk but the last is full
+ * @param ephemerisIndex index in {@code objects} of the active spacecraft if it has a
+ *                       post-manoeuvre ephemeris, otherwise −1
+ * @param ephemeris      that ephemeris, or {@code null}
+ * @param catalogueVersion catalogue snapshot the satellites were resolved from
+ */
+public record TelemetryExport(
+        List<TrackedObject> objects,
+        Instant start,
+        double stepSeconds,
+        int steps,
+        int chunkSteps,
+        int ephemerisIndex,
+        ManoeuvreEphemeris ephemeris,
+        long catalogueVersion
+) {
+
+    public int satellites() {
+        return objects.size();
+    }
+
+    public int chunks() {
+        return (steps + chunkSteps - 1) / chunkSteps;
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.jakubt4.palantir.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Column-chunked binary encoding of a {@link TelemetryExport}, written chunk by chunk as
+ * the samples are propagated.
+ *
+ * <p>Wire layout (all multi-byte fields <b>little-endian</b>, unlike the other Palantir
+ * formats, so the columns map into numpy without a byte swap):
+ * <pre>
+ *   [0-3]    Magic             ASCII "PTLM"
+ *   [4]      Format version    uint8, currently 1
+ *   [5-7]    Reserved          zero
+ *   [8-15]   Start             int64, milliseconds since 1970-01-01 UTC
+ *   [16-23]  Step              float64, seconds
+ *   [24-27]  Steps             int32, samples per satellite
+ *   [28-31]  Satellites        int32
+ *   [32-35]  Chunk steps       int32
+ *   [36-39]  Reserved          zero
+ *   then one int32 NORAD catalogue number per satellite, zero-padded to a multiple of 8 bytes
+ *   then ceil(steps / chunk steps) chunks:
+ *     [0-3]  First step        int32
+ *     [4-7]  Steps n           int32, chunk steps except in the last chunk
+ *     three float32 columns of satellites × n values, satellite-major:
+ *       latitude (deg), longitude (deg), altitude (km) — WGS-84 geodetic, as downlinked;
+ *       NaN where the satellite cannot be propagated
+ * </pre>
+ *
+ * <p>Sample {@code i} is at {@code start + i × step}. Every chunk but the last has the
+ * same size, so a reader can map the full chunks as one strided array; the total length
+ * is known up front ({@link #length}).
+ */
+public final class TelemetryExportEncoder {
+
+    public static final String CONTENT_TYPE = "application/vnd.palantir.telemetry";
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 40;
+    static final int CHUNK_HEADER_LENGTH = 8;
+    static final int COLUMNS = 3;
+    private static final byte[] MAGIC = {'P', 'T', 'L', 'M'};
+    private static final int WRITE_FLOATS = 8192;
+
+    private TelemetryExportEncoder() {
+    }
+
+    /** Length of the encoded export in bytes. */
+    public static long length(final TelemetryExport export) {
+        return HEADER_LENGTH + directoryLength(export.satellites())
+                + (long) export.chunks() * CHUNK_HEADER_LENGTH
+                + (long) COLUMNS * Float.BYTES * export.satellites() * export.steps();
+    }
+
+    /** Writes the header and the catalogue number directory. */
+    static void writeHeader(final TelemetryExport export, final OutputStream out) throws IOException {
+        final var header = ByteBuffer.allocate(HEADER_LENGTH + directoryLength(export.satellites()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.put((byte) FORMAT_VERSION);
+        header.position(8);
+        header.putLong(export.start().toEpochMilli());
+        header.putDouble(export.stepSeconds());
+        header.putInt(export.steps());
+        header.putInt(export.satellites());
+        header.putInt(export.chunkSteps());
+        header.position(HEADER_LENGTH);
+        for (final var object : export.objects()) {
+            header.putInt(object.catalogNumber());
+        }
+        out.write(header.array());
+    }
+
+    /** Writes one chunk: its header, then the three columns in fixed-size pieces. */
+    static void writeChunk(final TelemetryChunk chunk, final OutputStream out) throws IOException {
+        final var buffer = ByteBuffer.allocate(WRITE_FLOATS * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(chunk.firstStep());
+        buffer.putInt(chunk.steps());
+        out.write(buffer.array(), 0, CHUNK_HEADER_LENGTH);
+        for (final var column : new float[][] {chunk.latitude(), chunk.longitude(), chunk.altitude()}) {
+            for (var from = 0; from < column.length; from += WRITE_FLOATS) {
+                final var to = Math.min(column.length, from + WRITE_FLOATS);
+                buffer.clear();
+                buffer.asFloatBuffer().put(column, from, to - from);
+                out.write(buffer.array(), 0, (to - from) * Float.BYTES);
+            }
+        }
+    }
+
+    private static int directoryLength(final int satellites) {
+        return (satellites * Integer.BYTES + 7) & ~7;
+    }
+}
@@ -0,0 +1,304 @@
+package io.github.jakubt4.palantir.service.export;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.TelemetryExportRequest;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.errors.OrekitException;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.StaticTransform;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk export of the navigation telemetry — geodetic latitude, longitude and altitude —
+ * that the propagation engine generates, for a set of satellites over a time window.
+ *
+ * <p>Analytics used to pull these samples back out of the Yamcs archive one parameter
+ * at a time. Since they are a deterministic function of the TLEs, this service
+ * regenerates them instead, with the same models as the tick: SGP4, TEME → ITRF
+ * (IERS 2010) and the WGS-84 ellipsoid, switching to the active spacecraft's
+ * post-manoeuvre ephemeris from its burn epoch. The output is column-chunked
+ * ({@link TelemetryExportEncoder}) and streamed as it is computed: while one chunk is
+ * written, the next is propagated on a dedicated {@link ForkJoinPool}, its satellites
+ * split into ranges that share one frame transform per step. Memory stays bounded by
+ * two chunks of {@code palantir.export.chunk-samples} samples, whatever the window.
+ *
+ * <p>Each export builds its own propagators, so it neither contends with the tick nor
+ * disturbs the query caches.
+ */
+@Slf4j
+@Service
+public class TelemetryExportService {
+
+    @SuppressWarnings("unused") // injected to guarantee Orekit data is loaded before frames are built
+    private final OrekitConfig orekitConfig;
+    private final OrbitPropagationService orbitPropagationService;
+
+    private final double defaultStepSeconds;
+    private final long maxSamples;
+    private final int chunkSamples;
+    private final int parallelism;
+
+    private final ForkJoinPool pool;
+    private final Timer exportTimer;
+
+    public TelemetryExportService(
+            final OrekitConfig orekitConfig,
+            final OrbitPropagationService orbitPropagationService,
+            final MeterRegistry meterRegistry,
+            @Value("${palantir.export.step-s:1}") final double defaultStepSeconds,
+            @Value("${palantir.export.max-samples:200000000}") final long maxSamples,
+            @Value("${palantir.export.chunk-samples:262144}") final int chunkSamples,
+            @Value("${palantir.export.parallelism:0}") final int parallelism) {
+        this.orekitConfig = orekitConfig;
+        this.orbitPropagationService = orbitPropagationService;
+        this.defaultStepSeconds = defaultStepSeconds;
+        this.maxSamples = maxSamples;
+        this.chunkSamples = Math.max(1, chunkSamples);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+        this.exportTimer = Timer.builder("palantir.export.telemetry")
+                .description("Time to propagate and stream a bulk telemetry export")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates a request and resolves its satellites.
+     *
+     * @return empty if a requested catalogue number is not registered
+     * @throws IllegalArgumentException if the window or step is invalid, or the export
+     *                                  exceeds {@code palantir.export.max-samples}
+     */
+    public Optional<TelemetryExport> prepare(final TelemetryExportRequest request) {
+        if (request.start() == null || request.end() == null || !request.end().isAfter(request.start())) {
+            throw new IllegalArgumentException("start and end are required and end must be after start");
+        }
+        final var snapshot = orbitPropagationService.snapshot();
+        final var objects = new ArrayList<TrackedObject>();
+        if (request.catalogNumbers() == null || request.catalogNumbers().isEmpty()) {
+            objects.addAll(snapshot.registeredObjects());
+        } else {
+            for (final var id : request.catalogNumbers().stream().distinct().toList()) {
+                final var object = id == null ? Optional.<TrackedObject>empty() : snapshot.find(id);
+                if (object.isEmpty()) {
+                    return Optional.empty();
+                }
+                objects.add(object.get());
+            }
+        }
+        if (objects.isEmpty()) {
+            throw new IllegalArgumentException("No satellites registered");
+        }
+
+        final var stepSeconds = request.stepSeconds() != null ? request.stepSeconds() : defaultStepSeconds;
+        if (!(stepSeconds >= 1e-3)) {
+            throw new IllegalArgumentException("stepSeconds must be at least 0.001");
+        }
+        final var start = request.start().truncatedTo(ChronoUnit.MILLIS);
+        final var windowSeconds = (request.end().toEpochMilli() - start.toEpochMilli()) / 1000.0;
+        final var steps = (long) Math.floor(windowSeconds / stepSeconds) + 1;
+        if (steps * objects.size() > maxSamples) {
+            throw new IllegalArgumentException(steps * objects.size() + " samples requested, limit is " + maxSamples);
+        }
+        final var chunkSteps = (int) Math.max(1, Math.min(steps, chunkSamples / objects.size()));
+
+        final var active = snapshot.active();
+        final var ephemeris = snapshot.ephemeris();
+        var ephemerisIndex = -1;
+        if (active.isPresent() && ephemeris.isPresent()) {
+            for (var i = 0; i < objects.size(); i++) {
+                if (objects.get(i).tle() == active.get().tle()) {
+                    ephemerisIndex = i;
+                    break;
+                }
+            }
+        }
+        return Optional.of(new TelemetryExport(List.copyOf(objects), start, stepSeconds, (int) steps, chunkSteps,
+                ephemerisIndex, ephemerisIndex >= 0 ? ephemeris.get() : null, snapshot.version()));
+    }
+
+    /**
+     * Propagates the export and streams it to {@code out}, one chunk ahead of the writer.
+     *
+     * @throws IOException if the client goes away; propagation stops after the current chunk
+     */
+    public void write(final TelemetryExport export, final OutputStream out) throws IOException {
+        final var started = System.nanoTime();
+        final var itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final var run = new Run(export,
+                new TLEPropagator[export.satellites()],
+                new boolean[export.satellites()],
+                new AbsoluteDate(export.start(), TimeScalesFactory.getUTC()),
+                FramesFactory.getTEME(), itrf,
+                new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS, Constants.WGS84_EARTH_FLATTENING, itrf),
+                Math.max(1, export.satellites() / (4 * parallelism)));
+
+        TelemetryExportEncoder.writeHeader(export, out);
+        ForkJoinTask<TelemetryChunk> pending = pool.submit(new ChunkTask(run, 0));
+        try {
+            for (var c = 0; c < export.chunks(); c++) {
+                final var chunk = pending.join();
+                pending = c + 1 < export.chunks() ? pool.submit(new ChunkTask(run, c + 1)) : null;
+                TelemetryExportEncoder.writeChunk(chunk, out);
+            }
+            out.flush();
+        } finally {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+        final var elapsedNanos = System.nanoTime() - started;
+        exportTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("[EXPORT] {} satellites × {} steps of {} s streamed in {} ms",
+                export.satellites(), export.steps(), export.stepSeconds(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * State of one export shared by its chunks. Propagators are built on first use and a
+     * satellite that fails to propagate is marked failed for the rest of the export;
+     * chunks run one at a time, so each slot is only ever touched by one thread at once.
+     */
+    private record Run(TelemetryExport export, TLEPropagator[] propagators, boolean[] failed,
+                       AbsoluteDate start, Frame teme, Frame itrf, OneAxisEllipsoid earth, int rangeSatellites) {
+    }
+
+    /** Propagates chunk {@code index}: one transform per step, then the satellites in parallel ranges. */
+    private static final class ChunkTask extends RecursiveTask<TelemetryChunk> {
+
+        private final Run run;
+        private final int index;
+
+        ChunkTask(final Run run, final int index) {
+            this.run = run;
+            this.index = index;
+        }
+
+        @Override
+        protected TelemetryChunk compute() {
+            final var export = run.export();
+            final var firstStep = index * export.chunkSteps();
+            final var steps = Math.min(export.chunkSteps(), export.steps() - firstStep);
+            final var dates = new AbsoluteDate[steps];
+            final var temeToItrf = new StaticTransform[steps];
+            for (var j = 0; j < steps; j++) {
+                dates[j] = run.start().shiftedBy((firstStep + j) * export.stepSeconds());
+                temeToItrf[j] = run.teme().getStaticTransformTo(run.itrf(), dates[j]);
+            }
+            final var chunk = new TelemetryChunk(firstStep, steps, export.satellites());
+            new Satellites(run, chunk, dates, temeToItrf, 0, export.satellites()).invoke();
+            return chunk;
+        }
+    }
+
+    /** Satellites {@code [from, to)} of one chunk; splits in half down to {@code rangeSatellites}. */
+    private static final class Satellites extends RecursiveAction {
+
+        private final Run run;
+        private final TelemetryChunk chunk;
+        private final AbsoluteDate[] dates;
+        private final StaticTransform[] temeToItrf;
+        private final int from;
+        private final int to;
+
+        Satellites(final Run run, final TelemetryChunk chunk, final AbsoluteDate[] dates,
+                   final StaticTransform[] temeToItrf, final int from, final int to) {
+            this.run = run;
+            this.chunk = chunk;
+            this.dates = dates;
+            this.temeToItrf = temeToItrf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > run.rangeSatellites()) {
+                final var mid = (from + to) >>> 1;
+                invokeAll(new Satellites(run, chunk, dates, temeToItrf, from, mid),
+                        new Satellites(run, chunk, dates, temeToItrf, mid, to));
+                return;
+            }
+            for (var i = from; i < to; i++) {
+                final var ephemeris = i == run.export().ephemerisIndex() ? run.export().ephemeris() : null;
+                var row = i * chunk.steps();
+                for (var j = 0; j < dates.length; j++, row++) {
+                    // Past the ephemeris end the row is NaN, not the superseded pre-burn orbit.
+                    final var position = ephemeris != null && !dates[j].isBefore(ephemeris.burnEpoch())
+                            ? ephemerisPosition(ephemeris, dates[j])
+                            : sgp4Position(i, j);
+                    if (position == null) {
+                        chunk.latitude()[row] = Float.NaN;
+                        chunk.longitude()[row] = Float.NaN;
+                        chunk.altitude()[row] = Float.NaN;
+                        continue;
+                    }
+                    final var geo = run.earth().transform(position, run.itrf(), dates[j]);
+                    chunk.latitude()[row] = (float) Math.toDegrees(geo.getLatitude());
+                    chunk.longitude()[row] = (float) Math.toDegrees(geo.getLongitude());
+                    chunk.altitude()[row] = (float) (geo.getAltitude() / 1000.0);
+                }
+            }
+        }
+
+        /** ITRF position from SGP4, or {@code null} once the satellite has failed to propagate. */
+        private Vector3D sgp4Position(final int i, final int j) {
+            if (run.failed()[i]) {
+                return null;
+            }
+            try {
+                var propagator = run.propagators()[i];
+                if (propagator == null) {
+                    propagator = TLEPropagator.selectExtrapolator(run.export().objects().get(i).tle());
+                    run.propagators()[i] = propagator;
+                }
+                return temeToItrf[j].transformPosition(propagator.getPVCoordinates(dates[j]).getPosition());
+            } catch (final OrekitException e) {
+                // Decayed or otherwise unpropagatable — SGP4 will not recover later in the window.
+                run.failed()[i] = true;
+                return null;
+            }
+        }
+
+        /** ITRF position from the post-manoeuvre ephemeris, or {@code null} outside its segments. */
+        private Vector3D ephemerisPosition(final ManoeuvreEphemeris ephemeris, final AbsoluteDate date) {
+            try {
+                return ephemeris.stateAt(date).getPVCoordinates(run.itrf()).getPosition();
+            } catch (final IllegalArgumentException | OrekitException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import io.github.jakubt4.palantir.dto.AvoidancePlanRequest;
+import io.github.jakubt4.palantir.dto.AvoidancePlanResponse;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.frames.Frame;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.propagation.Propagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.propagation.sampling.OrekitStepHandler;
+import org.orekit.propagation.sampling.OrekitStepInterpolator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collision-avoidance trade-space search: which burn, when, buys how much Pc reduction.
+ *
+ * <p>The grid is burn epochs × Δv directions × Δv magnitudes. Burn epochs sit at
+ * multiples of half the primary's orbital period before TCA (where the radial and
+ * along-track displacement from a burn peaks), back to the earliest allowed burn;
+ * directions are ±radial, ±along-track and ±normal; magnitudes come from
+ * {@code palantir.manoeuvre.planner.delta-v-magnitudes}.
+ *
+ * <p>Every candidate is re-propagated numerically with {@link ManoeuvreDynamics}. To keep
+ * the SGP4-vs-numerical model difference out of the miss distance, a candidate's effect
+ * is taken <em>differentially</em>: primary position = SGP4 baseline + (numerical with Δv −
+ * numerical without Δv), the zero-Δv reference being integrated once per burn epoch.
+ * Closest approach is found on a 1 s grid around TCA and refined by linearising the
+ * relative motion about the nearest sample.
+ *
+ * <p>Work runs on the shared compute {@link ForkJoinPool}
+ * ({@link io.github.jakubt4.palantir.config.WorkloadConfiguration}): first the
+ * per-epoch references, then one task per (epoch, direction) chain. A chain walks its
+ * magnitudes cheapest first and stops as soon as the target miss distance is reached; all
+ * chains share the cheapest Δv known to reach it and skip anything dearer. The result is
+ * the Pareto set of Δv vs. Pc up to that Δv.
+ *
+ * <p>Pc uses Chan's small-hard-body approximation with an isotropic combined position
+ * sigma — TLEs carry no covariance, so {@code position-sigma-m} stands in for it.
+ */
+@Slf4j
+@Service
+public class AvoidancePlanner {
+
+    private static final double STEP_SECONDS = 1.0;
+    /**
+     * Half the period of the lowest sustainable orbit, roughly 150 km. Burn epochs sit at
+     * least half a period before TCA, so a shorter half-window always keeps them before it.
+     */
+    private static final double MAX_WINDOW_SECONDS = 2600;
+    private static final Vector3D[] DIRECTIONS = {
+            Vector3D.PLUS_J, Vector3D.MINUS_J,   // along-track (S)
+            Vector3D.PLUS_I, Vector3D.MINUS_I,   // radial (Q)
+            Vector3D.PLUS_K, Vector3D.MINUS_K    // normal (W)
+    };
+
+    private final OrbitPropagationService orbitPropagationService;
+    private final ManoeuvreDynamics dynamics;
+
+    private final double pcThreshold;
+    private final double hardBodyRadiusM;
+    private final double positionSigmaM;
+    private final double defaultTargetMissM;
+    private final double windowSeconds;
+    private final int maxBurnEpochs;
+    private final double[] magnitudes;
+    private final long leadTimeMillis;
+
+    private final ForkJoinPool pool;
+    private final Timer planTimer;
+
+    public AvoidancePlanner(
+            final OrbitPropagationService orbitPropagationService,
+            final ManoeuvreDynamics dynamics,
+            final MeterRegistry meterRegistry,
+            @Value("${palantir.manoeuvre.planner.pc-threshold:1e-4}") final double pcThreshold,
+            @Value("${palantir.manoeuvre.planner.hard-body-radius-m:20}") final double hardBodyRadiusM,
+            @Value("${palantir.manoeuvre.planner.position-sigma-m:1000}") final double positionSigmaM,
+            @Value("${palantir.manoeuvre.planner.target-miss-distance-km:5}") final double targetMissDistanceKm,
+            @Value("${palantir.manoeuvre.planner.window-s:300}") final double windowSeconds,
+            @Value("${palantir.manoeuvre.planner.burn-epochs:6}") final int maxBurnEpochs,
+            @Value("${palantir.manoeuvre.planner.delta-v-magnitudes:0.01,0.02,0.05,0.1,0.2,0.5,1.0}") final double[] magnitudes,
+            @Value("${palantir.manoeuvre.lead-time-ms:10000}") final long leadTimeMillis,
+            final ForkJoinPool computePool) {
+        if (!(windowSeconds > 0 && windowSeconds < MAX_WINDOW_SECONDS)) {
+            throw new IllegalArgumentException("palantir.manoeuvre.planner.window-s must be in (0, "
+                    + MAX_WINDOW_SECONDS + ") so burn epochs precede the window, was " + windowSeconds);
+        }
+        this.orbitPropagationService = orbitPropagationService;
+        this.dynamics = dynamics;
+        this.pcThreshold = pcThreshold;
+        this.hardBodyRadiusM = hardBodyRadiusM;
+        this.positionSigmaM = positionSigmaM;
+        this.defaultTargetMissM = targetMissDistanceKm * 1000.0;
+        this.windowSeconds = windowSeconds;
+        this.maxBurnEpochs = maxBurnEpochs;
+        this.magnitudes = magnitudes.clone();
+        Arrays.sort(this.magnitudes);
+        this.leadTimeMillis = leadTimeMillis;
+        this.pool = computePool;
+        this.planTimer = Timer.builder("palantir.manoeuvre.plan")
+                .description("Time to plan a collision-avoidance manoeuvre")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Plans against the tracked catalogue. The active spacecraft is taken from its
+     * post-manoeuvre ephemeris where one is in force, everything else from its TLE.
+     *
+     * @return empty if either object is not tracked
+     * @throws IllegalArgumentException if the request is incomplete or no burn epoch fits
+     *                                  between the earliest allowed burn and TCA
+     * @throws IllegalStateException    if the window reaches past the end of the active
+     *                                  spacecraft's post-manoeuvre ephemeris
+     */
+    public Optional<AvoidancePlanResponse> plan(final AvoidancePlanRequest request) {
+        if (request.primaryCatalogNumber() == null || request.secondaryCatalogNumber() == null
+                || request.tca() == null) {
+            throw new IllegalArgumentException("primaryCatalogNumber, secondaryCatalogNumber and tca are required");
+        }
+        // One snapshot for both objects, so a burn installed mid-request cannot pair one
+        // object's pre-burn view with another's post-burn one.
+        final var snapshot = orbitPropagationService.snapshot();
+        final var primary = trajectory(snapshot, request.primaryCatalogNumber());
+        final var secondary = trajectory(snapshot, request.secondaryCatalogNumber());
+        if (primary.isEmpty() || secondary.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var earliest = Instant.now().plusMillis(leadTimeMillis);
+        if (request.earliestBurn() != null && request.earliestBurn().isAfter(earliest)) {
+            earliest = request.earliestBurn();
+        }
+        final var targetMissM = request.targetMissDistanceKm() != null
+                ? request.targetMissDistanceKm() * 1000.0
+                : defaultTargetMissM;
+
+        return Optional.of(plan(request.primaryCatalogNumber(), primary.get(),
+                request.secondaryCatalogNumber(), secondary.get(),
+                toDate(request.tca()), toDate(earliest), targetMissM));
+    }
+
+    /**
+     * Plans one conjunction. {@code primary} and {@code secondary} are sampled on the
+     * calling thread only; the parallel phase works from the sampled states.
+     */
+    AvoidancePlanResponse plan(final int primaryId, final Function<AbsoluteDate, SpacecraftState> primary,
+                               final int secondaryId, final Function<AbsoluteDate, SpacecraftState> secondary,
+                               final AbsoluteDate tca, final AbsoluteDate earliestBurn, final double targetMissM) {
+        final var start = System.nanoTime();
+        final var frame = dynamics.inertialFrame();
+        final var window = new Window(frame, tca.shiftedBy(-windowSeconds),
+                (int) Math.round(2 * windowSeconds / STEP_SECONDS) + 1);
+
+        // Unmanoeuvred encounter, and the relative state every candidate is a correction to.
+        final var baseline = new double[window.samples * 6];
+        final var unmanoeuvredPrimary = new double[window.samples * 6];
+        for (var i = 0; i < window.samples; i++) {
+            final var date = window.date(i);
+            final var p = primary.apply(date).getPVCoordinates(frame);
+            final var s = secondary.apply(date).getPVCoordinates(frame);
+            window.put(baseline, i, p.getPosition().subtract(s.getPosition()), p.getVelocity().subtract(s.getVelocity()));
+            window.put(unmanoeuvredPrimary, i, p.getPosition(), p.getVelocity());
+        }
+        final var unmanoeuvred = window.closestApproach(baseline, null, null);
+
+        final var halfPeriod = new KeplerianOrbit(primary.apply(tca).getOrbit()).getKeplerianPeriod() / 2;
+        final var burnEpochs = new ArrayList<AbsoluteDate>();
+        for (var k = 1; k <= maxBurnEpochs; k++) {
+            final var epoch = tca.shiftedBy(-k * halfPeriod);
+            if (epoch.isBefore(earliestBurn)) {
+                break;
+            }
+            burnEpochs.add(epoch);
+        }
+        if (burnEpochs.isEmpty()) {
+            throw new IllegalArgumentException("No burn opportunity between " + earliestBurn + " and TCA " + tca);
+        }
+        final var preBurn = burnEpochs.stream().map(primary).toList();
+
+        // Phase 1: zero-Δv numerical reference per burn epoch — all submitted before any join.
+        final var referenceTasks = preBurn.stream()
+                .map(state -> pool.submit(() -> window.sample(
+                        dynamics.propagator(dynamics.applyImpulse(state, Vector3D.ZERO)), unmanoeuvredPrimary)))
+                .toList();
+        final var references = referenceTasks.stream().map(ForkJoinTask::join).toList();
+
+        // Phase 2: one chain per (epoch, direction), magnitudes ascending.
+        final var cheapestSufficient = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        final var evaluated = new LongAdder();
+        final var pruned = new LongAdder();
+        final var results = new ConcurrentLinkedQueue<Evaluation>();
+        final var chains = new ArrayList<ForkJoinTask<?>>();
+        for (var e = 0; e < burnEpochs.size(); e++) {
+            final var state = preBurn.get(e);
+            final var reference = references.get(e);
+            for (final var direction : DIRECTIONS) {
+                chains.add(pool.submit(() -> {
+                    for (var m = 0; m < magnitudes.length; m++) {
+                        final var magnitude = magnitudes[m];
+                        if (magnitude > cheapestSufficient.get()) {
+                            pruned.add(magnitudes.length - m);
+                            return;
+                        }
+                        final var deltaV = direction.scalarMultiply(magnitude);
+                        final var candidate = window.sample(
+                                dynamics.propagator(dynamics.applyImpulse(state, deltaV)), unmanoeuvredPrimary);
+                        final var encounter = window.closestApproach(baseline, candidate, reference);
+                        evaluated.increment();
+                        results.add(new Evaluation(state.getDate(), deltaV, magnitude, encounter));
+                        if (encounter.missM() >= targetMissM) {
+                            cheapestSufficient.accumulate(magnitude);
+                            pruned.add(magnitudes.length - m - 1);
+                            return;
+                        }
+                    }
+                }));
+            }
+        }
+        chains.forEach(ForkJoinTask::join);
+
+        final var elapsedNanos = System.nanoTime() - start;
+        planTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        final var candidates = paretoFront(results, cheapestSufficient.get(), targetMissM);
+        log.info("[PLANNER] #{} vs #{} — miss {} m, Pc {}; {} evaluated, {} pruned, {} on Pareto front in {} ms",
+                primaryId, secondaryId, String.format("%.0f", unmanoeuvred.missM()),
+                String.format("%.2e", pc(unmanoeuvred.missM())), evaluated.sum(), pruned.sum(),
+                candidates.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+
+        final var baselinePc = pc(unmanoeuvred.missM());
+        return new AvoidancePlanResponse(primaryId, secondaryId,
+                toInstant(unmanoeuvred.time()), unmanoeuvred.missM() / 1000.0, baselinePc, baselinePc > pcThreshold,
+                candidates, (int) evaluated.sum(), (int) pruned.sum(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    /**
+     * Cheapest first, keeping a candidate only if its Pc is strictly below every cheaper
+     * one. Nothing dearer than the cheapest sufficient Δv is kept, so the front does not
+     * depend on which chains happened to be pruned.
+     */
+    private List<AvoidancePlanResponse.Candidate> paretoFront(final Iterable<Evaluation> results,
+                                                              final double maxMagnitude, final double targetMissM) {
+        final var sorted = new ArrayList<Evaluation>();
+        results.forEach(sorted::add);
+        sorted.sort(Comparator.comparingDouble(Evaluation::magnitude)
+                .thenComparing(Comparator.comparingDouble((Evaluation r) -> r.encounter().missM()).reversed()));
+
+        final var front = new ArrayList<AvoidancePlanResponse.Candidate>();
+        var bestPc = Double.POSITIVE_INFINITY;
+        for (final var result : sorted) {
+            final var pc = pc(result.encounter().missM());
+            if (result.magnitude() > maxMagnitude || !(pc < bestPc)) {
+                continue;
+            }
+            bestPc = pc;
+            front.add(new AvoidancePlanResponse.Candidate(
+                    toInstant(result.burnEpoch()),
+                    result.deltaV().getX(), result.deltaV().getY(), result.deltaV().getZ(),
+                    result.magnitude(),
+                    toInstant(result.encounter().time()),
+                    result.encounter().missM() / 1000.0,
+                    pc,
+                    result.encounter().missM() >= targetMissM));
+        }
+        return front;
+    }
+
+    /** Chan's small-hard-body Pc for an isotropic combined covariance. */
+    private double pc(final double missM) {
+        final var variance = positionSigmaM * positionSigmaM;
+        return hardBodyRadiusM * hardBodyRadiusM / (2 * variance) * Math.exp(-missM * missM / (2 * variance));
+    }
+
+    private static Optional<Function<AbsoluteDate, SpacecraftState>> trajectory(final CatalogueSnapshot snapshot,
+                                                                            final int catalogNumber) {
+        return snapshot.find(catalogNumber).map(object -> {
+            final var sgp4 = TLEPropagator.selectExtrapolator(object.tle());
+            final var ephemeris = snapshot.active()
+                    .filter(active -> active == object)
+                    .flatMap(active -> snapshot.ephemeris())
+                    .orElse(null);
+            return date -> {
+                if (ephemeris != null && ephemeris.isExhaustedAt(date)) {
+                    // SGP4 would be the superseded pre-burn orbit — no basis for a plan.
+                    throw new IllegalStateException("Post-manoeuvre ephemeris of #" + catalogNumber
+                            + " ends at " + ephemeris.end() + ", before " + date);
+                }
+                return ephemeris != null && ephemeris.isActiveAt(date)
+                        ? ephemeris.stateAt(date)
+                        : sgp4.propagate(date);
+            };
+        });
+    }
+
+    private static AbsoluteDate toDate(final Instant instant) {
+        return new AbsoluteDate(Date.from(instant), TimeScalesFactory.getUTC());
+    }
+
+    private static Instant toInstant(final AbsoluteDate date) {
+        return date.toDate(TimeScalesFactory.getUTC()).toInstant();
+    }
+
+    private record Evaluation(AbsoluteDate burnEpoch, Vector3D deltaV, double magnitude, Encounter encounter) {
+    }
+
+    private record Encounter(AbsoluteDate time, double missM) {
+    }
+
+    /**
+     * The sampling grid around TCA. Sample arrays hold, per sample, position then
+     * velocity (6 doubles) in {@code frame}.
+     */
+    private record Window(Frame frame, AbsoluteDate start, int samples) {
+
+        AbsoluteDate date(final int i) {
+            return start.shiftedBy(i * STEP_SECONDS);
+        }
+
+        void put(final double[] target, final int i, final Vector3D position, final Vector3D velocity) {
+            final var o = i * 6;
+            target[o] = position.getX();
+            target[o + 1] = position.getY();
+            target[o + 2] = position.getZ();
+            target[o + 3] = velocity.getX();
+            target[o + 4] = velocity.getY();
+            target[o + 5] = velocity.getZ();
+        }
+
+        /**
+         * Runs {@code propagator} to the end of the window, sampling it on the grid. Samples
+         * before the propagator's initial date — the burn, should it fall inside the
+         * window — are taken from {@code preBurn}.
+         */
+        double[] sample(final Propagator propagator, final double[] preBurn) {
+            final var sampler = new Sampler(this, preBurn);
+            propagator.getMultiplexer().add(sampler);
+            propagator.propagate(date(samples - 1));
+            return sampler.states;
+        }
+
+        /**
+         * Closest approach of {@code baseline + (candidate − reference)}; pass
+         * {@code null} for both to use the baseline alone.
+         */
+        Encounter closestApproach(final double[] baseline, final double[] candidate, final double[] reference) {
+            var best = -1;
+            var bestSq = Double.POSITIVE_INFINITY;
+            final var relative = new double[6];
+            for (var i = 0; i < samples; i++) {
+                relative(baseline, candidate, reference, i, relative);
+                final var sq = relative[0] * relative[0] + relative[1] * relative[1] + relative[2] * relative[2];
+                if (sq < bestSq) {
+                    bestSq = sq;
+                    best = i;
+                }
+            }
+            relative(baseline, candidate, reference, best, relative);
+            final var r = new Vector3D(relative[0], relative[1], relative[2]);
+            final var v = new Vector3D(relative[3], relative[4], relative[5]);
+            // Straight-line relative motion is accurate to metres within one sample step.
+            final var vSq = v.getNormSq();
+            final var dt = vSq > 0
+                    ? Math.max(-STEP_SECONDS, Math.min(STEP_SECONDS, -Vector3D.dotProduct(r, v) / vSq))
+                    : 0.0;
+            return new Encounter(date(best).shiftedBy(dt), new Vector3D(1, r, dt, v).getNorm());
+        }
+
+        private static void relative(final double[] baseline, final double[] candidate, final double[] reference,
+                                     final int i, final double[] out) {
+            final var o = i * 6;
+            for (var j = 0; j < 6; j++) {
+                out[j] = candidate == null
+                        ? baseline[o + j]
+                        : baseline[o + j] + candidate[o + j] - reference[o + j];
+            }
+        }
+    }
+
+    /**
+     * Step handler interpolating the dense output at every grid date inside each step,
+     * starting from a copy of the pre-burn samples.
+     */
+    private static final class Sampler implements OrekitStepHandler {
+
+        private final Window window;
+        private final double[] states;
+        private int next;
+
+        Sampler(final Window window, final double[] preBurn) {
+            this.window = window;
+            this.states = preBurn.clone();
+        }
+
+        @Override
+        public void handleStep(final OrekitStepInterpolator interpolator) {
+            final var end = interpolator.getCurrentState().getDate();
+            while (next < window.samples() && !window.date(next).isAfter(end)) {
+                final var date = window.date(next);
+                if (!date.isBefore(interpolator.getPreviousState().getDate())) {
+                    final var pv = interpolator.getInterpolatedState(date).getPVCoordinates(window.frame());
+                    window.put(states, next, pv.getPosition(), pv.getVelocity());
+                }
+                next++;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import jakarta.annotation.PostConstruct;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.forces.drag.DragForce;
+import org.orekit.forces.drag.IsotropicDrag;
+import org.orekit.forces.gravity.J2OnlyPerturbation;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.models.earth.atmosphere.SimpleExponentialAtmosphere;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.orbits.OrbitType;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.numerical.NumericalPropagator;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Post-burn force model and impulse geometry shared by manoeuvre execution
+ * ({@link ManoeuvreService}) and planning ({@link AvoidancePlanner}), so a plan is
+ * evaluated with the same physics that later flies it.
+ *
+ * <p>Point-mass + J₂ gravity and drag through an exponential atmosphere, integrated in
+ * GCRF with an adaptive Dormand–Prince 8(5,3). Every call to {@link #propagator} returns
+ * a new, independent propagator, so callers on different threads never share one.
+ */
+@Component
+public class ManoeuvreDynamics {
+
+    // Exponential atmosphere fitted at 400 km (Vallado, Table 8-4) — adequate for LEO
+    // manoeuvre previews; a full density model needs space-weather inputs we do not ingest.
+    private static final double REFERENCE_DENSITY = 3.725e-12;
+    private static final double REFERENCE_ALTITUDE = 400_000.0;
+    private static final double SCALE_HEIGHT = 58_515.0;
+
+    private static final double J2 = -Constants.WGS84_EARTH_C20 * Math.sqrt(5.0);
+    private static final double POSITION_TOLERANCE = 1.0;
+
+    @SuppressWarnings("unused") // injected to guarantee Orekit data is loaded before @PostConstruct
+    private final OrekitConfig orekitConfig;
+
+    private final double massKg;
+    private final double dragAreaM2;
+    private final double dragCoefficient;
+
+    private OneAxisEllipsoid earth;
+    private Frame inertial;
+
+    public ManoeuvreDynamics(
+            final OrekitConfig orekitConfig,
+            @Value("${palantir.manoeuvre.mass-kg:450000}") final double massKg,
+            @Value("${palantir.manoeuvre.drag-area-m2:1500}") final double dragAreaM2,
+            @Value("${palantir.manoeuvre.drag-coefficient:2.2}") final double dragCoefficient) {
+        this.orekitConfig = orekitConfig;
+        this.massKg = massKg;
+        this.dragAreaM2 = dragAreaM2;
+        this.dragCoefficient = dragCoefficient;
+    }
+
+    @PostConstruct
+    void init() {
+        earth = new OneAxisEllipsoid(
+                Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                Constants.WGS84_EARTH_FLATTENING,
+                FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        inertial = FramesFactory.getGCRF();
+    }
+
+    /** Integration frame of every post-burn state. */
+    Frame inertialFrame() {
+        return inertial;
+    }
+
+    /**
+     * {@code preBurn} with an impulsive Δv added, re-expressed in the integration frame.
+     *
+     * @param deltaVQsw Δv in the QSW local orbital frame (radial, along-track, normal), m/s
+     */
+    SpacecraftState applyImpulse(final SpacecraftState preBurn, final Vector3D deltaVQsw) {
+        final var pv = preBurn.getPVCoordinates(inertial);
+        final var q = pv.getPosition().normalize();
+        final var w = pv.getMomentum().normalize();
+        final var s = Vector3D.crossProduct(w, q);
+        final var deltaV = new Vector3D(deltaVQsw.getX(), q, deltaVQsw.getY(), s, deltaVQsw.getZ(), w);
+        return new SpacecraftState(new CartesianOrbit(
+                new PVCoordinates(pv.getPosition(), pv.getVelocity().add(deltaV)),
+                inertial, preBurn.getDate(), Constants.WGS84_EARTH_MU), massKg);
+    }
+
+    /** A new numerical propagator starting from {@code initial}. */
+    NumericalPropagator propagator(final SpacecraftState initial) {
+        final var tolerances = NumericalPropagator.tolerances(POSITION_TOLERANCE, initial.getOrbit(), OrbitType.CARTESIAN);
+        final var integrator = new DormandPrince853Integrator(1.0e-3, 300.0, tolerances[0], tolerances[1]);
+
+        final var propagator = new NumericalPropagator(integrator);
+        propagator.setOrbitType(OrbitType.CARTESIAN);
+        propagator.setInitialState(initial);
+        propagator.addForceModel(new J2OnlyPerturbation(Constants.WGS84_EARTH_MU,
+                Constants.WGS84_EARTH_EQUATORIAL_RADIUS, J2, earth.getBodyFrame()));
+        propagator.addForceModel(new DragForce(
+                new SimpleExponentialAtmosphere(earth, REFERENCE_DENSITY, REFERENCE_ALTITUDE, SCALE_HEIGHT),
+                new IsotropicDrag(dragAreaM2, dragCoefficient)));
+        return propagator;
+    }
+}
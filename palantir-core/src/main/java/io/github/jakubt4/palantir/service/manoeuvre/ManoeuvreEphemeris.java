@@ -0,0 +1,164 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Post-manoeuvre trajectory of the active spacecraft, integrated ahead of time by
+ * {@link ManoeuvreService}.
+ *
+ * <p>An immutable chain of contiguous, numerically integrated segments starting at the
+ * burn epoch. Sampling a segment is dense-output interpolation, not integration, so the
+ * 1 Hz tick pays microseconds per sample however expensive the force model was. Before
+ * {@link #burnEpoch()} the SGP4 trajectory still applies — {@link #isActiveAt} is the
+ * handoff test the tick runs on every sample. Past {@link #end()} it applies again until
+ * {@link ManoeuvreService} has extended the chain: a coarse position beats none.
+ *
+ * <p>A later manoeuvre is chained on ({@link #chainedWith}): the segments up to its burn
+ * stay, so the trajectory between the first burn and the next one remains in force while
+ * the next is pending, and past windows keep every burn.
+ *
+ * <p>When the chain is extended the new instance shares its older segments with this
+ * one, so each segment serialises access to its propagator ({@link BoundedPropagator}
+ * is not thread-safe).
+ */
+public final class ManoeuvreEphemeris {
+
+    private final AbsoluteDate burnEpoch;
+    private final AbsoluteDate latestBurnEpoch;
+    private final List<Segment> segments;
+
+    ManoeuvreEphemeris(final AbsoluteDate burnEpoch, final BoundedPropagator firstSegment) {
+        this(burnEpoch, burnEpoch, List.of(new Segment(firstSegment)));
+    }
+
+    private ManoeuvreEphemeris(final AbsoluteDate burnEpoch, final AbsoluteDate latestBurnEpoch,
+                               final List<Segment> segments) {
+        this.burnEpoch = burnEpoch;
+        this.latestBurnEpoch = latestBurnEpoch;
+        this.segments = segments;
+    }
+
+    /** Epoch of the first impulsive Δv of the chain; the first segment starts here. */
+    public AbsoluteDate burnEpoch() {
+        return burnEpoch;
+    }
+
+    /** Epoch of the most recent Δv chained on; {@link #burnEpoch()} for a single manoeuvre. */
+    public AbsoluteDate latestBurnEpoch() {
+        return latestBurnEpoch;
+    }
+
+    /** Last epoch covered by the integrated segments. */
+    public AbsoluteDate end() {
+        return segments.getLast().end;
+    }
+
+    /**
+     * Whether {@code date} is between the burn and {@link #end()}, i.e. this ephemeris
+     * supersedes SGP4 and {@link #stateAt} can sample it.
+     */
+    public boolean isActiveAt(final AbsoluteDate date) {
+        return !date.isBefore(burnEpoch) && !date.isAfter(end());
+    }
+
+    /** Whether {@code date} is past {@link #end()}, i.e. the chain was not extended in time. */
+    public boolean isExhaustedAt(final AbsoluteDate date) {
+        return date.isAfter(end());
+    }
+
+    /**
+     * Interpolated state at {@code date}, in the integration frame.
+     *
+     * @throws IllegalArgumentException if {@code date} is outside the retained segments
+     */
+    public SpacecraftState stateAt(final AbsoluteDate date) {
+        // Newest first: at a chained burn epoch the post-burn segment applies.
+        for (var i = segments.size() - 1; i >= 0; i--) {
+            final var segment = segments.get(i);
+            if (!date.isBefore(segment.start)) {
+                if (date.isAfter(segment.end)) {
+                    break;
+                }
+                return segment.stateAt(date);
+            }
+        }
+        throw new IllegalArgumentException("Ephemeris covers " + segments.getFirst().start
+                + " to " + end() + ", requested " + date);
+    }
+
+    /** State at {@link #end()}, the initial state of the next segment. */
+    SpacecraftState finalState() {
+        return stateAt(end());
+    }
+
+    /**
+     * A new chain with {@code next} appended. Segments ending before {@code retainFrom}
+     * are dropped so a long-running ephemeris does not grow without bound.
+     */
+    ManoeuvreEphemeris extendedWith(final BoundedPropagator next, final AbsoluteDate retainFrom) {
+        final var retained = new ArrayList<Segment>(segments.size() + 1);
+        for (final var segment : segments) {
+            if (!segment.end.isBefore(retainFrom)) {
+                retained.add(segment);
+            }
+        }
+        retained.add(new Segment(next));
+        return new ManoeuvreEphemeris(burnEpoch, latestBurnEpoch, List.copyOf(retained));
+    }
+
+    /**
+     * A new chain with a later manoeuvre: this trajectory up to {@code nextBurnEpoch},
+     * {@code postBurn} from there. It stays in force from this chain's {@link #burnEpoch()}.
+     *
+     * @param nextBurnEpoch epoch of the next Δv, at which this chain must be active
+     * @param postBurn      trajectory integrated from the state after that Δv
+     */
+    ManoeuvreEphemeris chainedWith(final AbsoluteDate nextBurnEpoch, final BoundedPropagator postBurn) {
+        if (!isActiveAt(nextBurnEpoch)) {
+            throw new IllegalArgumentException("Ephemeris covers " + burnEpoch + " to " + end()
+                    + ", next burn at " + nextBurnEpoch);
+        }
+        final var retained = new ArrayList<Segment>(segments.size() + 1);
+        for (final var segment : segments) {
+            if (segment.start.isBefore(nextBurnEpoch)) {
+                retained.add(segment.end.isAfter(nextBurnEpoch) ? segment.endingAt(nextBurnEpoch) : segment);
+            }
+        }
+        retained.add(new Segment(postBurn));
+        return new ManoeuvreEphemeris(burnEpoch, nextBurnEpoch, List.copyOf(retained));
+    }
+
+    /** A propagator and the part of its range this chain samples it over. */
+    private static final class Segment {
+
+        private final BoundedPropagator propagator;
+        private final AbsoluteDate start;
+        private final AbsoluteDate end;
+
+        Segment(final BoundedPropagator propagator) {
+            this(propagator, propagator.getMinDate(), propagator.getMaxDate());
+        }
+
+        private Segment(final BoundedPropagator propagator, final AbsoluteDate start, final AbsoluteDate end) {
+            this.propagator = propagator;
+            this.start = start;
+            this.end = end;
+        }
+
+        /** This segment cut short at {@code date}, sharing the propagator. */
+        Segment endingAt(final AbsoluteDate date) {
+            return new Segment(propagator, start, date);
+        }
+
+        SpacecraftState stateAt(final AbsoluteDate date) {
+            synchronized (propagator) {
+                return propagator.propagate(date);
+            }
+        }
+    }
+}
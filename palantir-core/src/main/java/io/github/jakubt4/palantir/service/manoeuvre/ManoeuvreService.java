@@ -0,0 +1,258 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.cluster.CatalogueRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.propagation.BoundedPropagator;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reacts to {@code FIRE_THRUSTER} by replacing the active spacecraft's SGP4 trajectory
+ * with a numerically integrated one.
+ *
+ * <p>A TLE's mean elements stop describing the orbit once Δv is applied, so the
+ * post-burn trajectory is integrated numerically ({@link ManoeuvreDynamics}). That is
+ * orders of magnitude more expensive per step than SGP4, so none of it runs on the 1 Hz
+ * tick: the burn is scheduled {@code palantir.manoeuvre.lead-time-ms} after
+ * reception, the trajectory is integrated on a virtual thread into a
+ * {@link ManoeuvreEphemeris}, and the finished ephemeris is installed on
+ * {@link OrbitPropagationService} ahead of the burn. The tick keeps sampling SGP4 until
+ * the burn epoch and the ephemeris from then on. Either way a {@link ThrustManeuverOutcome}
+ * is published when planning ends, which completes the command's acknowledgement.
+ *
+ * <p>A command not planned within {@code palantir.uplink.completion-timeout-ms} is
+ * reported failed and abandoned: the plan claims the outcome just before installing, so
+ * an integration that finishes after the deadline is discarded rather than installed
+ * behind a FAILED acknowledgement.
+ *
+ * <p>In a cluster the command is also replicated to every peer ({@link CatalogueRouter}),
+ * so each member holds the same trajectory whichever of them owns the active spacecraft.
+ * The outcome is then the owner's: a trajectory installed only here would never be
+ * downlinked.
+ *
+ * <p>Each integration covers {@code palantir.manoeuvre.horizon-ms}. A periodic check
+ * integrates the next segment, again in the background, once less than
+ * {@code palantir.manoeuvre.refill-margin-ms} of ephemeris remains.
+ */
+@Slf4j
+@Service
+public class ManoeuvreService {
+
+    private final OrbitPropagationService orbitPropagationService;
+    private final ManoeuvreDynamics dynamics;
+    private final CatalogueRouter catalogueRouter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final long leadTimeMillis;
+    private final long completionTimeoutMillis;
+    private final double horizonSeconds;
+    private final double refillMarginSeconds;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean extending = new AtomicBoolean();
+
+    public ManoeuvreService(
+            final OrbitPropagationService orbitPropagationService,
+            final ManoeuvreDynamics dynamics,
+            final CatalogueRouter catalogueRouter,
+            final ApplicationEventPublisher eventPublisher,
+            @Value("${palantir.manoeuvre.lead-time-ms:10000}") final long leadTimeMillis,
+            @Value("${palantir.manoeuvre.horizon-ms:21600000}") final long horizonMillis,
+            @Value("${palantir.manoeuvre.refill-margin-ms:7200000}") final long refillMarginMillis,
+            @Value("${palantir.uplink.completion-timeout-ms:30000}") final long completionTimeoutMillis) {
+        this.orbitPropagationService = orbitPropagationService;
+        this.dynamics = dynamics;
+        this.catalogueRouter = catalogueRouter;
+        this.eventPublisher = eventPublisher;
+        this.leadTimeMillis = leadTimeMillis;
+        this.horizonSeconds = horizonMillis / 1000.0;
+        this.refillMarginSeconds = refillMarginMillis / 1000.0;
+        this.completionTimeoutMillis = completionTimeoutMillis;
+    }
+
+    /**
+     * Hands the command to a background thread; returns immediately to the uplink loop.
+     * The {@link ThrustManeuverOutcome} follows when planning ends.
+     */
+    @EventListener
+    public void onThrustManeuver(final ThrustManeuverCommand command) {
+        // Settled once, by the plan just before it installs or by the deadline.
+        final var settled = new AtomicBoolean();
+        CompletableFuture.delayedExecutor(completionTimeoutMillis, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (settled.compareAndSet(false, true)) {
+                log.error("[MANOEUVRE] {} not planned within {} ms — abandoned", command, completionTimeoutMillis);
+                eventPublisher.publishEvent(new ThrustManeuverOutcome(command, false));
+            }
+        });
+        executor.submit(() -> {
+            var installed = false;
+            final var claimed = new boolean[1];
+            try {
+                // Replicated first, so the peers integrate alongside this instance.
+                final var owner = catalogueRouter.replicateManoeuvre(command);
+                final var planned = planLogged(command, () -> claimed[0] = settled.compareAndSet(false, true));
+                installed = owner.map(CompletableFuture::join).orElse(planned);
+            } catch (final Exception e) {
+                log.error("[MANOEUVRE] Replicating {} failed: {}", command, e.getMessage());
+            } finally {
+                if (claimed[0] || settled.compareAndSet(false, true)) {
+                    eventPublisher.publishEvent(new ThrustManeuverOutcome(command, installed));
+                }
+            }
+        });
+    }
+
+    /**
+     * Plans a command replicated by the member that received it. A command whose burn
+     * epoch is not after the installed ephemeris's latest burn is already in force —
+     * replayed while this instance was caught up — and is not applied twice. Runs on the
+     * calling thread.
+     *
+     * @return whether the manoeuvre is in force
+     */
+    public boolean planReplica(final ThrustManeuverCommand command) {
+        final var current = orbitPropagationService.activeEphemeris().orElse(null);
+        if (current != null && !current.latestBurnEpoch().isBefore(burnEpoch(command))) {
+            log.debug("[MANOEUVRE] {} already in force", command);
+            return true;
+        }
+        return planLogged(command, () -> true);
+    }
+
+    private boolean planLogged(final ThrustManeuverCommand command, final BooleanSupplier claim) {
+        try {
+            return plan(command, claim);
+        } catch (final Exception e) {
+            log.error("[MANOEUVRE] Planning failed for {}: {}", command, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Applies the commanded Δv to the active spacecraft's state at the burn epoch,
+     * integrates the post-burn trajectory and installs it. Runs on the calling thread.
+     *
+     * @return {@code false} if there is no active spacecraft or it changed while integrating
+     */
+    boolean plan(final ThrustManeuverCommand command) {
+        return plan(command, () -> true);
+    }
+
+    /**
+     * @param claim called just before installing; {@code false} abandons the plan
+     */
+    private boolean plan(final ThrustManeuverCommand command, final BooleanSupplier claim) {
+        final var active = orbitPropagationService.activeObject();
+        if (active.isEmpty()) {
+            log.warn("[MANOEUVRE] FIRE_THRUSTER ignored — no active spacecraft");
+            return false;
+        }
+        final var object = active.get();
+        final var current = orbitPropagationService.activeEphemeris().orElse(null);
+
+        final var burnEpoch = burnEpoch(command);
+
+        // Chain onto an earlier manoeuvre if it is already in force at this burn epoch, so
+        // its trajectory stays in force until this burn; otherwise start from SGP4 with a
+        // private propagator (the tick's is not thread-safe).
+        final var chained = current != null && current.isActiveAt(burnEpoch);
+        final SpacecraftState preBurn = chained
+                ? current.stateAt(burnEpoch)
+                : TLEPropagator.selectExtrapolator(object.tle()).propagate(burnEpoch);
+
+        final var postBurn = dynamics.applyImpulse(preBurn, new Vector3D(
+                command.deltaVRadial(), command.deltaVAlongTrack(), command.deltaVNormal()));
+
+        final var start = System.nanoTime();
+        final var trajectory = integrate(postBurn);
+        final var ephemeris = chained
+                ? current.chainedWith(burnEpoch, trajectory)
+                : new ManoeuvreEphemeris(burnEpoch, trajectory);
+        final var elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        if (!claim.getAsBoolean()) {
+            log.warn("[MANOEUVRE] [{}] Planning overran the completion timeout — Δv at {} discarded",
+                    object.name(), burnEpoch);
+            return false;
+        }
+        if (!orbitPropagationService.installEphemeris(object.tle(), current, ephemeris)) {
+            log.warn("[MANOEUVRE] [{}] Active trajectory changed during integration — Δv at {} discarded",
+                    object.name(), burnEpoch);
+            return false;
+        }
+        log.info("[MANOEUVRE] [{}] Δv (R={}, S={}, W={}) m/s at {} — ephemeris to {} integrated in {} ms",
+                object.name(), command.deltaVRadial(), command.deltaVAlongTrack(), command.deltaVNormal(),
+                burnEpoch, ephemeris.end(), elapsedMs);
+        return true;
+    }
+
+    /**
+     * Integrates the next segment in the background once the installed ephemeris runs
+     * within the refill margin of its end.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void extendEphemeris() {
+        final var current = orbitPropagationService.activeEphemeris().orElse(null);
+        final var active = orbitPropagationService.activeObject().orElse(null);
+        if (current == null || active == null) {
+            return;
+        }
+        final var now = toDate(Instant.now());
+        if (current.end().durationFrom(now) > refillMarginSeconds || !extending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.submit(() -> {
+            try {
+                final var extended = current.extendedWith(integrate(current.finalState()), now);
+                if (orbitPropagationService.installEphemeris(active.tle(), current, extended)) {
+                    log.debug("[MANOEUVRE] [{}] Ephemeris extended to {}", active.name(), extended.end());
+                }
+            } catch (final Exception e) {
+                log.error("[MANOEUVRE] [{}] Ephemeris extension failed: {}", active.name(), e.getMessage());
+            } finally {
+                extending.set(false);
+            }
+        });
+    }
+
+    /** Midpoint of the burn, which starts the lead time after reception. */
+    private AbsoluteDate burnEpoch(final ThrustManeuverCommand command) {
+        final var ignition = toDate(command.receivedAt().plusMillis(leadTimeMillis));
+        return ignition.shiftedBy(command.burnDurationSeconds() / 2.0);
+    }
+
+    private BoundedPropagator integrate(final SpacecraftState initial) {
+        final var propagator = dynamics.propagator(initial);
+        final var generator = propagator.getEphemerisGenerator();
+        propagator.propagate(initial.getDate().shiftedBy(horizonSeconds));
+        return generator.getGeneratedEphemeris();
+    }
+
+    private static AbsoluteDate toDate(final Instant instant) {
+        return new AbsoluteDate(Date.from(instant), TimeScalesFactory.getUTC());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
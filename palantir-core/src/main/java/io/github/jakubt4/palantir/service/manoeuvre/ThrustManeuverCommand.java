@@ -0,0 +1,54 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * A released {@code FIRE_THRUSTER} telecommand (opcode {@code 0x04}), published by
+ * {@link io.github.jakubt4.palantir.service.uplink.UdpCommandReceiver} as a Spring
+ * application event.
+ *
+ * <p>Δv components are in the local orbital frame of the active spacecraft —
+ * radial / along-track / cross-track, i.e. Orekit's {@code LOFType.QSW}.
+ *
+ * @param deltaVRadial        Δv along the position vector, m/s
+ * @param deltaVAlongTrack    Δv along-track (completes the right-handed triad), m/s
+ * @param deltaVNormal        Δv along the orbit normal, m/s
+ * @param burnDurationSeconds commanded burn duration; the burn is modelled as an impulse
+ *                            at its midpoint
+ * @param receivedAt          ground reception time of the telecommand
+ */
+public record ThrustManeuverCommand(
+        double deltaVRadial,
+        double deltaVAlongTrack,
+        double deltaVNormal,
+        int burnDurationSeconds,
+        Instant receivedAt
+) {
+
+    /**
+     * Payload after the opcode and uplink sequence: 3 × float32 Δv + uint16 burn duration,
+     * big-endian.
+     */
+    public static final int PAYLOAD_LENGTH = 14;
+
+    /**
+     * Decodes the {@code FIRE_THRUSTER} payload that follows the opcode and uplink sequence.
+     *
+     * @throws IllegalArgumentException if fewer than {@link #PAYLOAD_LENGTH} bytes are available
+     */
+    public static ThrustManeuverCommand decode(final byte[] data, final int offset, final int length,
+                                               final Instant receivedAt) {
+        if (length < PAYLOAD_LENGTH) {
+            throw new IllegalArgumentException(
+                    "FIRE_THRUSTER payload is " + length + " bytes, expected " + PAYLOAD_LENGTH);
+        }
+        final var buffer = ByteBuffer.wrap(data, offset, PAYLOAD_LENGTH);
+        return new ThrustManeuverCommand(
+                buffer.getFloat(),
+                buffer.getFloat(),
+                buffer.getFloat(),
+                Short.toUnsignedInt(buffer.getShort()),
+                receivedAt);
+    }
+}
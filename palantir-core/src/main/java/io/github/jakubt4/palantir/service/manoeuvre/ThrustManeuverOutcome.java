@@ -0,0 +1,13 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+/**
+ * Result of planning a {@link ThrustManeuverCommand}, published by
+ * {@link ManoeuvreService} once the post-burn ephemeris is installed or planning has
+ * failed. {@link io.github.jakubt4.palantir.service.uplink.UdpCommandReceiver} completes
+ * the command's acknowledgement with it.
+ *
+ * @param command   the command as it was published
+ * @param installed whether the manoeuvre is now part of the active trajectory
+ */
+public record ThrustManeuverOutcome(ThrustManeuverCommand command, boolean installed) {
+}
@@ -0,0 +1,106 @@
+package io.github.jakubt4.palantir.service.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded, access-ordered LRU map with hit/miss/eviction counters.
+ *
+ * <p>The map itself is guarded by the instance monitor; the critical section is a single
+ * {@link LinkedHashMap} operation. Value construction in {@link #computeIfAbsent} runs
+ * <em>outside</em> the lock so an expensive loader (building a TLE propagator) never
+ * blocks lookups of other keys. Two threads missing on the same key may both build a
+ * value; the first one stored wins and the other is discarded.
+ */
+final class LruCache<K, V> {
+
+    private final int capacity;
+    private final LinkedHashMap<K, V> map;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    LruCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.map = new LinkedHashMap<>(Math.min(capacity, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Returns the cached value or {@code null}, counting a hit or a miss. */
+    V get(final K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * Returns the cached value if {@code fresh} accepts it, otherwise drops it and returns
+     * {@code null}. A stale entry counts as a miss, not a hit.
+     */
+    V get(final K key, final Predicate<? super V> fresh) {
+        V value;
+        synchronized (this) {
+            value = map.get(key);
+            if (value != null && !fresh.test(value)) {
+                map.remove(key);
+                value = null;
+            }
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /** Stores {@code value} unless a value is already cached; returns the cached one. */
+    V putIfAbsent(final K key, final V value) {
+        synchronized (this) {
+            final var existing = map.putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+    }
+
+    /** Drops a single entry (not counted as an eviction). */
+    synchronized void remove(final K key) {
+        map.remove(key);
+    }
+
+    V computeIfAbsent(final K key, final Function<? super K, ? extends V> loader) {
+        final var cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return putIfAbsent(key, loader.apply(key));
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,335 @@
+package io.github.jakubt4.palantir.service.query;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.ObjectStateResponse;
+import io.github.jakubt4.palantir.dto.PositionBatchResponse;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.frames.Frame;
+import org.orekit.frames.FramesFactory;
+import org.orekit.frames.Transform;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Position of object X at time T" over the tracked catalogue, for conjunction and
+ * orchestration callers that query far more often than the 1 Hz tick.
+ *
+ * <p>Two caches sit in front of Orekit:
+ * <ul>
+ *   <li><b>Propagator cache</b> — LRU of {@link TLEPropagator}s keyed by catalogue number
+ *       + TLE epoch, so {@code selectExtrapolator} (SGP4 initialisation) runs once per TLE
+ *       rather than once per request. A new TLE for the same object has a new epoch and
+ *       therefore a new key; the stale propagator simply ages out. These propagators are
+ *       independent of the tick's, and each is used under its own monitor because
+ *       {@code TLEPropagator.propagate} is not thread-safe.</li>
+ *   <li><b>Result cache</b> — short-lived LRU of states evaluated at the start of each
+ *       {@code palantir.query.time-bucket-ms} bucket, keyed by propagator key + bucket, so
+ *       many callers asking about nearby instants share one propagation. Entries older
+ *       than {@code palantir.query.result-ttl-ms} count as misses.</li>
+ * </ul>
+ *
+ * <p>Answers are for the exact requested time: the bucket-start ITRF state is advanced by
+ * the offset into the bucket with a second-order Taylor step, using two-body gravity as
+ * the acceleration. The neglected terms (J2, Coriolis and centrifugal) are below
+ * 1.5 m/s² in LEO, so with 100 ms buckets the position error stays under 1 cm and the
+ * velocity error under 0.15 m/s. Both grow with the bucket length (quadratically and
+ * linearly); larger buckets trade that accuracy for more sharing.
+ *
+ * <p>Each request resolves its objects against one catalogue snapshot and reports that
+ * snapshot's version with every state. Cached results are keyed by TLE, so they are
+ * reused across versions that kept the TLE and re-attributed to the version asked.
+ *
+ * <p>The active spacecraft is evaluated like the tick does: from its post-manoeuvre
+ * ephemeris wherever that is in force, from SGP4 otherwise. Its results are keyed by the
+ * ephemeris as well, so states cached before a burn was planned are not served after.
+ *
+ * <p>Hit/miss/eviction counters and sizes are published as the standard Micrometer
+ * {@code cache.*} meters; request latency as {@code palantir.query.position}.
+ */
+@Service
+public class PositionQueryService {
+
+    static final String PROPAGATOR_CACHE = "palantir.query.propagators";
+    static final String RESULT_CACHE = "palantir.query.results";
+
+    @SuppressWarnings("unused") // injected to guarantee Orekit data is loaded before @PostConstruct
+    private final OrekitConfig orekitConfig;
+    private final OrbitPropagationService orbitPropagationService;
+
+    private final LruCache<PropagatorKey, TLEPropagator> propagators;
+    private final LruCache<ResultKey, CachedResult> results;
+    private final long timeBucketMillis;
+    private final long resultTtlNanos;
+    private final int maxBatchSize;
+
+    private final Timer singleTimer;
+    private final Timer batchTimer;
+
+    private OneAxisEllipsoid earth;
+    private Frame teme;
+
+    public PositionQueryService(
+            final OrekitConfig orekitConfig,
+            final OrbitPropagationService orbitPropagationService,
+            final MeterRegistry meterRegistry,
+            @Value("${palantir.query.propagator-cache-size:4096}") final int propagatorCacheSize,
+            @Value("${palantir.query.result-cache-size:65536}") final int resultCacheSize,
+            @Value("${palantir.query.time-bucket-ms:100}") final long timeBucketMillis,
+            @Value("${palantir.query.result-ttl-ms:10000}") final long resultTtlMillis,
+            @Value("${palantir.query.max-batch-size:100000}") final int maxBatchSize) {
+        this.orekitConfig = orekitConfig;
+        this.orbitPropagationService = orbitPropagationService;
+        this.propagators = new LruCache<>(propagatorCacheSize);
+        this.results = new LruCache<>(resultCacheSize);
+        this.timeBucketMillis = Math.max(1, timeBucketMillis);
+        this.resultTtlNanos = TimeUnit.MILLISECONDS.toNanos(resultTtlMillis);
+        this.maxBatchSize = maxBatchSize;
+
+        registerCacheMeters(meterRegistry, PROPAGATOR_CACHE, propagators);
+        registerCacheMeters(meterRegistry, RESULT_CACHE, results);
+        this.singleTimer = Timer.builder("palantir.query.position")
+                .tag("type", "single")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("palantir.query.position")
+                .tag("type", "batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        earth = new OneAxisEllipsoid(
+                Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                Constants.WGS84_EARTH_FLATTENING,
+                FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        teme = FramesFactory.getTEME();
+    }
+
+    /**
+     * State of one tracked object at {@code time}.
+     *
+     * @return empty if the catalogue number is not tracked
+     */
+    public Optional<ObjectStateResponse> positionAt(final int catalogNumber, final Instant time) {
+        final var start = System.nanoTime();
+        try {
+            final var snapshot = orbitPropagationService.snapshot();
+            return snapshot.find(catalogNumber)
+                    .map(object -> new ObjectQuery(object, ephemerisOf(snapshot, object), snapshot.version())
+                            .evaluate(new TimeSlot(time)));
+        } finally {
+            singleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Evaluates every object at every time. Frame transforms are computed once per time
+     * and shared across objects; each object's propagator is looked up once.
+     *
+     * @throws IllegalArgumentException if {@code catalogNumbers × times} exceeds
+     *                                  {@code palantir.query.max-batch-size}
+     */
+    public PositionBatchResponse positionsAt(final List<Integer> catalogNumbers, final List<Instant> times) {
+        final var pairs = (long) catalogNumbers.size() * times.size();
+        if (pairs > maxBatchSize) {
+            throw new IllegalArgumentException("Batch of " + pairs + " evaluations exceeds limit of " + maxBatchSize);
+        }
+        final var start = System.nanoTime();
+        try {
+            final var slots = times.stream().map(TimeSlot::new).toList();
+            final var states = new ArrayList<ObjectStateResponse>((int) pairs);
+            final var unknown = new ArrayList<Integer>();
+            final var snapshot = orbitPropagationService.snapshot();
+            for (final var catalogNumber : catalogNumbers) {
+                final var object = snapshot.find(catalogNumber);
+                if (object.isEmpty()) {
+                    unknown.add(catalogNumber);
+                    continue;
+                }
+                final var query = new ObjectQuery(object.get(), ephemerisOf(snapshot, object.get()), snapshot.version());
+                for (final var slot : slots) {
+                    states.add(query.evaluate(slot));
+                }
+            }
+            return new PositionBatchResponse(states, unknown, snapshot.version());
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** The post-manoeuvre ephemeris if {@code object} is the snapshot's active spacecraft. */
+    private static ManoeuvreEphemeris ephemerisOf(final CatalogueSnapshot snapshot, final TrackedObject object) {
+        return snapshot.active().filter(active -> active == object).flatMap(active -> snapshot.ephemeris()).orElse(null);
+    }
+
+    private static void registerCacheMeters(final MeterRegistry registry, final String name, final LruCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, LruCache::hits)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, LruCache::misses)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, LruCache::evictions)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", cache, LruCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private record PropagatorKey(int catalogNumber, AbsoluteDate tleEpoch) {
+    }
+
+    /** {@code ephemeris} is {@code null} for SGP4-only objects; it compares by identity. */
+    private record ResultKey(PropagatorKey propagator, ManoeuvreEphemeris ephemeris, long bucket) {
+    }
+
+    private record CachedResult(ObjectStateResponse state, long createdNanos) {
+    }
+
+    /**
+     * One tracked object within a request. Resolves its propagator from the LRU at most
+     * once, and only if some time slot misses the result cache.
+     */
+    private final class ObjectQuery {
+
+        private final TrackedObject object;
+        private final ManoeuvreEphemeris ephemeris;
+        private final long catalogueVersion;
+        private final PropagatorKey propagatorKey;
+        private TLEPropagator propagator;
+
+        ObjectQuery(final TrackedObject object, final ManoeuvreEphemeris ephemeris, final long catalogueVersion) {
+            this.object = object;
+            this.ephemeris = ephemeris;
+            this.catalogueVersion = catalogueVersion;
+            this.propagatorKey = new PropagatorKey(object.catalogNumber(), object.tle().getDate());
+        }
+
+        ObjectStateResponse evaluate(final TimeSlot slot) {
+            final var resultKey = new ResultKey(propagatorKey, ephemeris, slot.bucket);
+            final var now = System.nanoTime();
+            final var cached = results.get(resultKey, result -> now - result.createdNanos() < resultTtlNanos);
+            final var bucketState = cached != null ? cached.state() : propagate(slot, resultKey, now);
+            return slot.offsetSeconds == 0
+                    ? bucketState.withCatalogueVersion(catalogueVersion)
+                    : shift(bucketState, slot);
+        }
+
+        /** Propagates to the start of {@code slot}'s bucket and caches the state. */
+        private ObjectStateResponse propagate(final TimeSlot slot, final ResultKey resultKey, final long now) {
+            final var itrf = ephemeris != null && ephemeris.isActiveAt(slot.date())
+                    ? ephemeris.stateAt(slot.date()).getPVCoordinates(earth.getBodyFrame())
+                    : slot.temeToItrf().transformPVCoordinates(sgp4(slot.date()));
+            final var geo = earth.transform(itrf.getPosition(), earth.getBodyFrame(), slot.date());
+            final var p = itrf.getPosition();
+            final var v = itrf.getVelocity();
+            final var state = new ObjectStateResponse(
+                    object.catalogNumber(),
+                    object.name(),
+                    slot.bucketStart,
+                    Math.toDegrees(geo.getLatitude()),
+                    Math.toDegrees(geo.getLongitude()),
+                    geo.getAltitude() / 1000.0,
+                    new double[] {p.getX(), p.getY(), p.getZ()},
+                    new double[] {v.getX(), v.getY(), v.getZ()},
+                    catalogueVersion);
+
+            return results.putIfAbsent(resultKey, new CachedResult(state, now)).state();
+        }
+
+        private PVCoordinates sgp4(final AbsoluteDate date) {
+            if (propagator == null) {
+                propagator = propagators.computeIfAbsent(propagatorKey,
+                        key -> TLEPropagator.selectExtrapolator(object.tle()));
+            }
+            synchronized (propagator) {
+                return propagator.propagate(date).getPVCoordinates();
+            }
+        }
+
+        /** Advances a bucket-start state to the requested time; see the class comment. */
+        private ObjectStateResponse shift(final ObjectStateResponse bucketState, final TimeSlot slot) {
+            final var p = bucketState.position();
+            final var v = bucketState.velocity();
+            final var position = new Vector3D(p[0], p[1], p[2]);
+            final var r = position.getNorm();
+            final var gravity = position.scalarMultiply(-Constants.WGS84_EARTH_MU / (r * r * r));
+            final var shifted = new PVCoordinates(position, new Vector3D(v[0], v[1], v[2]), gravity)
+                    .shiftedBy(slot.offsetSeconds);
+            final var sp = shifted.getPosition();
+            final var sv = shifted.getVelocity();
+            final var geo = earth.transform(sp, earth.getBodyFrame(), slot.date());
+            return new ObjectStateResponse(
+                    bucketState.catalogNumber(),
+                    bucketState.name(),
+                    slot.requested,
+                    Math.toDegrees(geo.getLatitude()),
+                    Math.toDegrees(geo.getLongitude()),
+                    geo.getAltitude() / 1000.0,
+                    new double[] {sp.getX(), sp.getY(), sp.getZ()},
+                    new double[] {sv.getX(), sv.getY(), sv.getZ()},
+                    catalogueVersion);
+        }
+    }
+
+    /**
+     * A request time and the bucket containing it; the Orekit date and frame transform of
+     * the bucket start are built lazily.
+     */
+    private final class TimeSlot {
+
+        private final Instant requested;
+        private final long bucket;
+        private final Instant bucketStart;
+        private final double offsetSeconds;
+        private AbsoluteDate date;
+        private Transform temeToItrf;
+
+        TimeSlot(final Instant requested) {
+            this.requested = requested;
+            this.bucket = Math.floorDiv(requested.toEpochMilli(), timeBucketMillis);
+            this.bucketStart = Instant.ofEpochMilli(bucket * timeBucketMillis);
+            this.offsetSeconds = Duration.between(bucketStart, requested).toNanos() / 1e9;
+        }
+
+        AbsoluteDate date() {
+            if (date == null) {
+                date = new AbsoluteDate(Date.from(bucketStart), TimeScalesFactory.getUTC());
+            }
+            return date;
+        }
+
+        Transform temeToItrf() {
+            if (temeToItrf == null) {
+                temeToItrf = teme.getTransformTo(earth.getBodyFrame(), date());
+            }
+            return temeToItrf;
+        }
+    }
+}
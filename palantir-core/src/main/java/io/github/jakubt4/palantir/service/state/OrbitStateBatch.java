@@ -0,0 +1,143 @@
+package io.github.jakubt4.palantir.service.state;
+
+import io.github.jakubt4.palantir.service.eclipse.EclipseFrame;
+import io.github.jakubt4.palantir.service.eclipse.ShadowModel;
+import io.github.jakubt4.palantir.service.stream.PositionFrame;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.utils.PVCoordinates;
+
+import java.util.Arrays;
+
+/**
+ * Column-oriented result of one propagation tick, built by the tick thread and then
+ * handed to {@link OrbitStateStore#publish} in one call.
+ *
+ * <p>Rows must be appended in strictly ascending catalogue-number order; the store and
+ * the position stream both rely on that ordering. Not thread-safe — a batch is owned by
+ * the tick that fills it.
+ */
+public final class OrbitStateBatch {
+
+    final long epochMillis;
+    final long catalogueVersion;
+    int size;
+    int[] catalogNumbers;
+    String[] names;
+    double[] posX;
+    double[] posY;
+    double[] posZ;
+    double[] velX;
+    double[] velY;
+    double[] velZ;
+    double[] latitudes;
+    double[] longitudes;
+    double[] altitudes;
+
+    /**
+     * @param epochMillis      tick generation time, milliseconds since the Unix epoch (UTC)
+     * @param catalogueVersion version of the catalogue snapshot every row was propagated from
+     * @param expectedCapacity number of rows the tick expects to add (grows if exceeded)
+     */
+    public OrbitStateBatch(final long epochMillis, final long catalogueVersion, final int expectedCapacity) {
+        this.epochMillis = epochMillis;
+        this.catalogueVersion = catalogueVersion;
+        final var n = Math.max(1, expectedCapacity);
+        catalogNumbers = new int[n];
+        names = new String[n];
+        posX = new double[n];
+        posY = new double[n];
+        posZ = new double[n];
+        velX = new double[n];
+        velY = new double[n];
+        velZ = new double[n];
+        latitudes = new double[n];
+        longitudes = new double[n];
+        altitudes = new double[n];
+    }
+
+    /**
+     * Appends one object's state.
+     *
+     * @param catalogNumber NORAD catalogue number, greater than every previously added one
+     * @param name          display name
+     * @param itrf          position (m) and velocity (m/s) in ITRF
+     * @param latDeg        geodetic latitude (degrees)
+     * @param lonDeg        geodetic longitude (degrees)
+     * @param altKm         altitude above the WGS-84 ellipsoid (kilometres)
+     */
+    public void add(final int catalogNumber, final String name, final PVCoordinates itrf,
+                    final double latDeg, final double lonDeg, final double altKm) {
+        if (size > 0 && catalogNumber <= catalogNumbers[size - 1]) {
+            throw new IllegalArgumentException("Rows must be added in ascending catalogue order, got "
+                    + catalogNumber + " after " + catalogNumbers[size - 1]);
+        }
+        if (size == catalogNumbers.length) {
+            grow();
+        }
+        final var p = itrf.getPosition();
+        final var v = itrf.getVelocity();
+        catalogNumbers[size] = catalogNumber;
+        names[size] = name;
+        posX[size] = p.getX();
+        posY[size] = p.getY();
+        posZ[size] = p.getZ();
+        velX[size] = v.getX();
+        velY[size] = v.getY();
+        velZ[size] = v.getZ();
+        latitudes[size] = latDeg;
+        longitudes[size] = lonDeg;
+        altitudes[size] = altKm;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long epochMillis() {
+        return epochMillis;
+    }
+
+    public long catalogueVersion() {
+        return catalogueVersion;
+    }
+
+    /** Copies the geodetic columns into an immutable frame for the position stream. */
+    public PositionFrame toPositionFrame() {
+        final var lat = new float[size];
+        final var lon = new float[size];
+        final var alt = new float[size];
+        for (var i = 0; i < size; i++) {
+            lat[i] = (float) latitudes[i];
+            lon[i] = (float) longitudes[i];
+            alt[i] = (float) altitudes[i];
+        }
+        return new PositionFrame(epochMillis, catalogueVersion, Arrays.copyOf(catalogNumbers, size), lat, lon, alt);
+    }
+
+    /**
+     * Evaluates the shadow model for every row in one pass over the ITRF position columns.
+     *
+     * @param sunItrf Sun position in ITRF at this batch's epoch (m)
+     */
+    public EclipseFrame toEclipseFrame(final Vector3D sunItrf) {
+        final var illumination = new float[size];
+        ShadowModel.illumination(sunItrf, posX, posY, posZ, size, illumination);
+        return new EclipseFrame(epochMillis, Arrays.copyOf(catalogNumbers, size), illumination);
+    }
+
+    private void grow() {
+        final var n = catalogNumbers.length * 2;
+        catalogNumbers = Arrays.copyOf(catalogNumbers, n);
+        names = Arrays.copyOf(names, n);
+        posX = Arrays.copyOf(posX, n);
+        posY = Arrays.copyOf(posY, n);
+        posZ = Arrays.copyOf(posZ, n);
+        velX = Arrays.copyOf(velX, n);
+        velY = Arrays.copyOf(velY, n);
+        velZ = Arrays.copyOf(velZ, n);
+        latitudes = Arrays.copyOf(latitudes, n);
+        longitudes = Arrays.copyOf(longitudes, n);
+        altitudes = Arrays.copyOf(altitudes, n);
+    }
+}
@@ -0,0 +1,359 @@
+package io.github.jakubt4.palantir.service.state;
+
+import io.github.jakubt4.palantir.dto.ObjectStateResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Columnar latest-state store for every tracked object, overwritten in place by each
+ * propagation tick and queried by REST without touching the propagators.
+ *
+ * <p>State lives in primitive arrays (one column per quantity, one row per object,
+ * rows sorted by catalogue number) so a tick update is a handful of
+ * {@code System.arraycopy} calls and a lookup by catalogue number is a binary search.
+ *
+ * <p>A fixed {@value #CELL_DEG}° lat/lon bucket grid indexes the rows spatially.
+ * Each cell is an intrusive doubly-linked list threaded through {@code int[]} columns,
+ * so moving an object between cells is O(1) and only happens for rows whose cell
+ * actually changed — a LEO object crosses a 5° cell roughly every 75 s. Region queries
+ * visit only the overlapping cells and then apply the exact test per row.
+ *
+ * <p>Concurrency: the tick is the only writer and holds the {@link StampedLock} write
+ * lock for the copy only (propagation happens before, into an {@link OrbitStateBatch}),
+ * so readers always see one whole tick. Single-object lookups use an optimistic read;
+ * region scans take the read lock.
+ */
+@Service
+public class OrbitStateStore {
+
+    static final int CELL_DEG = 5;
+    private static final int LAT_CELLS = 180 / CELL_DEG;
+    private static final int LON_CELLS = 360 / CELL_DEG;
+    private static final double MEAN_EARTH_RADIUS_KM = 6371.0088;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long epochMillis;
+    private long catalogueVersion;
+    private int size;
+    private int[] catalogNumbers = new int[0];
+    private String[] names = new String[0];
+    private double[] posX = new double[0];
+    private double[] posY = new double[0];
+    private double[] posZ = new double[0];
+    private double[] velX = new double[0];
+    private double[] velY = new double[0];
+    private double[] velZ = new double[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private double[] altitudes = new double[0];
+
+    private final int[] cellHead = new int[LAT_CELLS * LON_CELLS];
+    private int[] cellOf = new int[0];
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+
+    public OrbitStateStore() {
+        Arrays.fill(cellHead, -1);
+    }
+
+    /**
+     * Replaces the store's contents with the batch. When the set of catalogue numbers is
+     * unchanged since the last tick (the steady state) rows are overwritten in place and
+     * only objects that crossed a cell boundary are re-linked; otherwise the columns and
+     * grid are rebuilt.
+     */
+    public void publish(final OrbitStateBatch batch) {
+        final var n = batch.size;
+        final var stamp = lock.writeLock();
+        try {
+            final var sameMembership = n == size
+                    && Arrays.equals(catalogNumbers, 0, n, batch.catalogNumbers, 0, n);
+            if (!sameMembership) {
+                resize(n);
+                System.arraycopy(batch.catalogNumbers, 0, catalogNumbers, 0, n);
+            }
+            System.arraycopy(batch.names, 0, names, 0, n);
+            System.arraycopy(batch.posX, 0, posX, 0, n);
+            System.arraycopy(batch.posY, 0, posY, 0, n);
+            System.arraycopy(batch.posZ, 0, posZ, 0, n);
+            System.arraycopy(batch.velX, 0, velX, 0, n);
+            System.arraycopy(batch.velY, 0, velY, 0, n);
+            System.arraycopy(batch.velZ, 0, velZ, 0, n);
+            System.arraycopy(batch.latitudes, 0, latitudes, 0, n);
+            System.arraycopy(batch.longitudes, 0, longitudes, 0, n);
+            System.arraycopy(batch.altitudes, 0, altitudes, 0, n);
+            size = n;
+            epochMillis = batch.epochMillis;
+            catalogueVersion = batch.catalogueVersion;
+
+            if (sameMembership) {
+                for (var i = 0; i < n; i++) {
+                    final var cell = cellIndex(latitudes[i], longitudes[i]);
+                    if (cell != cellOf[i]) {
+                        unlink(i);
+                        link(i, cell);
+                    }
+                }
+            } else {
+                Arrays.fill(cellHead, -1);
+                for (var i = 0; i < n; i++) {
+                    link(i, cellIndex(latitudes[i], longitudes[i]));
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Number of objects in the store. */
+    public int size() {
+        final var stamp = lock.tryOptimisticRead();
+        final var n = size;
+        if (lock.validate(stamp)) {
+            return n;
+        }
+        final var readStamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /** Latest state of one object, if tracked. */
+    public Optional<ObjectStateResponse> find(final int catalogNumber) {
+        final var stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final var row = Arrays.binarySearch(catalogNumbers, 0, size, catalogNumber);
+                final var result = row >= 0 ? toResponse(row) : null;
+                if (lock.validate(stamp)) {
+                    return Optional.ofNullable(result);
+                }
+            } catch (final RuntimeException e) {
+                // Torn optimistic read (columns reallocated mid-read) — fall through to the read lock.
+            }
+        }
+        final var readStamp = lock.readLock();
+        try {
+            final var row = Arrays.binarySearch(catalogNumbers, 0, size, catalogNumber);
+            return row >= 0 ? Optional.of(toResponse(row)) : Optional.empty();
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /** Latest state of every object, in catalogue-number order. */
+    public List<ObjectStateResponse> findAll() {
+        final var stamp = lock.readLock();
+        try {
+            final var result = new ArrayList<ObjectStateResponse>(size);
+            for (var i = 0; i < size; i++) {
+                result.add(toResponse(i));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Objects whose sub-satellite point lies within {@code radiusKm} great-circle distance
+     * of the given ground location, nearest first.
+     *
+     * @param latDeg   observer latitude (degrees)
+     * @param lonDeg   observer longitude (degrees)
+     * @param radiusKm ground radius (kilometres, spherical mean Earth radius)
+     */
+    public List<ObjectStateResponse> findOverhead(final double latDeg, final double lonDeg, final double radiusKm) {
+        final var angular = radiusKm / MEAN_EARTH_RADIUS_KM;
+        final var angularDeg = Math.toDegrees(angular);
+        final var minLat = Math.max(-90.0, latDeg - angularDeg);
+        final var maxLat = Math.min(90.0, latDeg + angularDeg);
+
+        // Longitude half-width of a spherical cap; the cap covers every longitude once it
+        // reaches a pole.
+        final var cosLat = Math.cos(Math.toRadians(latDeg));
+        final var sinRatio = Math.sin(Math.min(angular, Math.PI / 2)) / cosLat;
+        final var allLongitudes = minLat <= -90.0 || maxLat >= 90.0 || angular >= Math.PI / 2 || sinRatio >= 1.0;
+        final var halfWidth = allLongitudes ? 180.0 : Math.toDegrees(Math.asin(sinRatio));
+
+        final var lat0 = Math.toRadians(latDeg);
+        final var lon0 = Math.toRadians(lonDeg);
+
+        final var stamp = lock.readLock();
+        try {
+            final var hits = new ArrayList<Hit>();
+            forEachCell(minLat, maxLat, lonDeg - halfWidth, lonDeg + halfWidth, allLongitudes, row -> {
+                final var d = centralAngle(lat0, lon0,
+                        Math.toRadians(latitudes[row]), Math.toRadians(longitudes[row]));
+                if (d <= angular) {
+                    hits.add(new Hit(row, d));
+                }
+            });
+            hits.sort(Comparator.comparingDouble(Hit::distance));
+            final var result = new ArrayList<ObjectStateResponse>(hits.size());
+            for (final var hit : hits) {
+                result.add(toResponse(hit.row()));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Objects whose sub-satellite point lies in the bounding box, in catalogue-number order.
+     * {@code minLon > maxLon} denotes a box crossing the antimeridian.
+     */
+    public List<ObjectStateResponse> findInBox(final double minLat, final double maxLat,
+                                               final double minLon, final double maxLon) {
+        final var wraps = minLon > maxLon;
+        final var allLongitudes = !wraps && maxLon - minLon >= 360.0;
+        final var stamp = lock.readLock();
+        try {
+            final var matches = new ArrayList<Integer>();
+            forEachCell(minLat, maxLat, minLon, wraps ? maxLon + 360.0 : maxLon, allLongitudes, row -> {
+                final var lat = latitudes[row];
+                final var lon = longitudes[row];
+                final var inLon = wraps ? lon >= minLon || lon <= maxLon : lon >= minLon && lon <= maxLon;
+                if (lat >= minLat && lat <= maxLat && inLon) {
+                    matches.add(row);
+                }
+            });
+            matches.sort(null);
+            final var result = new ArrayList<ObjectStateResponse>(matches.size());
+            for (final var row : matches) {
+                result.add(toResponse(row));
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private record Hit(int row, double distance) {
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        void visit(int row);
+    }
+
+    /**
+     * Visits every row in the cells overlapping {@code [minLat, maxLat] × [fromLon, toLon]},
+     * where {@code toLon} may exceed 180 to express wrap-around. Caller holds the read lock.
+     */
+    private void forEachCell(final double minLat, final double maxLat,
+                             final double fromLon, final double toLon,
+                             final boolean allLongitudes, final RowVisitor visitor) {
+        final var latFrom = latCell(minLat);
+        final var latTo = latCell(maxLat);
+        final int lonFrom;
+        final int lonCount;
+        if (allLongitudes || toLon - fromLon >= 360.0) {
+            lonFrom = 0;
+            lonCount = LON_CELLS;
+        } else {
+            lonFrom = lonCell(fromLon);
+            final var lonTo = lonCell(toLon);
+            lonCount = Math.floorMod(lonTo - lonFrom, LON_CELLS) + 1;
+        }
+        for (var la = latFrom; la <= latTo; la++) {
+            for (var k = 0; k < lonCount; k++) {
+                final var lo = (lonFrom + k) % LON_CELLS;
+                for (var row = cellHead[la * LON_CELLS + lo]; row >= 0; row = next[row]) {
+                    visitor.visit(row);
+                }
+            }
+        }
+    }
+
+    private ObjectStateResponse toResponse(final int row) {
+        return new ObjectStateResponse(
+                catalogNumbers[row],
+                names[row],
+                Instant.ofEpochMilli(epochMillis),
+                latitudes[row],
+                longitudes[row],
+                altitudes[row],
+                new double[] {posX[row], posY[row], posZ[row]},
+                new double[] {velX[row], velY[row], velZ[row]},
+                catalogueVersion);
+    }
+
+    private void resize(final int n) {
+        if (catalogNumbers.length < n) {
+            catalogNumbers = new int[n];
+            names = new String[n];
+            posX = new double[n];
+            posY = new double[n];
+            posZ = new double[n];
+            velX = new double[n];
+            velY = new double[n];
+            velZ = new double[n];
+            latitudes = new double[n];
+            longitudes = new double[n];
+            altitudes = new double[n];
+            cellOf = new int[n];
+            next = new int[n];
+            prev = new int[n];
+        } else {
+            // Drop references to names of objects no longer tracked.
+            Arrays.fill(names, n, names.length, null);
+        }
+    }
+
+    private void link(final int row, final int cell) {
+        final var head = cellHead[cell];
+        next[row] = head;
+        prev[row] = -1;
+        if (head >= 0) {
+            prev[head] = row;
+        }
+        cellHead[cell] = row;
+        cellOf[row] = cell;
+    }
+
+    private void unlink(final int row) {
+        final var p = prev[row];
+        final var nx = next[row];
+        if (p >= 0) {
+            next[p] = nx;
+        } else {
+            cellHead[cellOf[row]] = nx;
+        }
+        if (nx >= 0) {
+            prev[nx] = p;
+        }
+    }
+
+    static int cellIndex(final double latDeg, final double lonDeg) {
+        return latCell(latDeg) * LON_CELLS + lonCell(lonDeg);
+    }
+
+    private static int latCell(final double latDeg) {
+        return Math.min(LAT_CELLS - 1, Math.max(0, (int) Math.floor((latDeg + 90.0) / CELL_DEG)));
+    }
+
+    private static int lonCell(final double lonDeg) {
+        final var normalized = lonDeg - 360.0 * Math.floor((lonDeg + 180.0) / 360.0);
+        return Math.min(LON_CELLS - 1, Math.max(0, (int) Math.floor((normalized + 180.0) / CELL_DEG)));
+    }
+
+    /** Haversine central angle between two points on the unit sphere (radians in, radians out). */
+    private static double centralAngle(final double lat1, final double lon1, final double lat2, final double lon2) {
+        final var sinDLat = Math.sin((lat2 - lat1) / 2);
+        final var sinDLon = Math.sin((lon2 - lon1) / 2);
+        final var h = sinDLat * sinDLat + Math.cos(lat1) * Math.cos(lat2) * sinDLon * sinDLon;
+        return 2 * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+}
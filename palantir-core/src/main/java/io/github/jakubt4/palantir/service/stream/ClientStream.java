@@ -0,0 +1,108 @@
+package io.github.jakubt4.palantir.service.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One connected position-stream client with latest-value-wins backpressure.
+ *
+ * <p>The propagation tick only ever calls {@link #offer}, which overwrites a single
+ * pending slot and — if no drain is already running — schedules one on the executor.
+ * The drain loop performs the (blocking) WebSocket send. A slow client therefore never
+ * queues more than one frame and never holds the tick thread: frames it cannot keep up
+ * with are coalesced, and because the encoder deltas against what was <em>actually
+ * sent</em>, skipped frames do not corrupt the client's reconstruction.
+ */
+@Slf4j
+final class ClientStream {
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final PositionFrameEncoder encoder = new PositionFrameEncoder();
+
+    private final AtomicReference<PositionFrame> pending = new AtomicReference<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesCoalesced = new AtomicLong();
+
+    private volatile StreamFilter filter = StreamFilter.ALL;
+    /** Filter the encoder's reference frame was built against; touched only by the drain loop. */
+    private StreamFilter encodedFilter = StreamFilter.ALL;
+
+    ClientStream(final WebSocketSession session, final Executor executor) {
+        this.session = session;
+        this.executor = executor;
+    }
+
+    /** Replaces the subscription; the next frame sent will be a keyframe. */
+    void updateFilter(final StreamFilter newFilter) {
+        filter = newFilter;
+    }
+
+    /** Non-blocking hand-off from the tick thread. */
+    void offer(final PositionFrame frame) {
+        if (pending.getAndSet(frame) != null) {
+            framesCoalesced.incrementAndGet();
+        }
+        scheduleDrain();
+    }
+
+    long framesSent() {
+        return framesSent.get();
+    }
+
+    long framesCoalesced() {
+        return framesCoalesced.get();
+    }
+
+    String id() {
+        return session.getId();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            PositionFrame frame;
+            while ((frame = pending.getAndSet(null)) != null) {
+                send(frame);
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A frame may have landed between the last poll and releasing the flag.
+        if (pending.get() != null) {
+            scheduleDrain();
+        }
+    }
+
+    private void send(final PositionFrame frame) {
+        if (!session.isOpen()) {
+            return;
+        }
+        final var current = filter;
+        if (current != encodedFilter) {
+            encoder.reset();
+            encodedFilter = current;
+        }
+        try {
+            session.sendMessage(new BinaryMessage(encoder.encode(frame, current)));
+            framesSent.incrementAndGet();
+        } catch (final IOException | IllegalStateException e) {
+            log.warn("[STREAM] Send to session {} failed: {}", session.getId(), e.getMessage());
+            // The client's reconstruction state is now unknown — restart from absolute values.
+            encoder.reset();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.jakubt4.palantir.service.stream;
+
+/**
+ * Immutable snapshot of every object's geodetic position for one propagation tick.
+ *
+ * <p>Entries are stored column-wise and sorted by ascending NORAD catalogue number so
+ * the encoder can delta-encode the ids. The arrays are owned by the frame once it is
+ * published — callers must not mutate them afterwards, because the same instance is
+ * handed to every connected client.
+ *
+ * @param epochMillis    tick generation time, milliseconds since the Unix epoch (UTC)
+ * @param catalogueVersion version of the catalogue snapshot the tick propagated
+ * @param catalogNumbers NORAD catalogue numbers, strictly ascending
+ * @param latitudes      geodetic latitude per entry (degrees)
+ * @param longitudes     geodetic longitude per entry (degrees, −180..180)
+ * @param altitudes      altitude above the WGS-84 ellipsoid per entry (kilometres)
+ */
+public record PositionFrame(long epochMillis,
+                            long catalogueVersion,
+                            int[] catalogNumbers,
+                            float[] latitudes,
+                            float[] longitudes,
+                            float[] altitudes) {
+
+    public PositionFrame {
+        final var n = catalogNumbers.length;
+        if (latitudes.length != n || longitudes.length != n || altitudes.length != n) {
+            throw new IllegalArgumentException("PositionFrame columns must have equal length");
+        }
+    }
+
+    public int size() {
+        return catalogNumbers.length;
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.jakubt4.palantir.service.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Stateful, per-client encoder for the binary position stream.
+ *
+ * <p>Wire layout of one WebSocket binary message (all multi-byte fixed fields big-endian):
+ * <pre>
+ *   [0]      Format            uint8, bits 0-6 version (currently 3), bit 7 keyframe flag
+ *   [1-8]    Tick epoch        int64, milliseconds since 1970-01-01 UTC
+ *   [9-16]   Catalogue version int64, catalogue snapshot the tick propagated (since format 2)
+ *   varint   Entry count       unsigned LEB128
+ *   per entry, ascending catalogue number:
+ *     varint  Catalogue delta  unsigned LEB128, id − previous entry's id (first entry: id − 0)
+ *     varint  Latitude         zigzag LEB128, 1e-5 deg units, delta vs. reference
+ *     varint  Longitude        zigzag LEB128, 1e-5 deg units, delta vs. reference
+ *     varint  Altitude         zigzag LEB128, metres,        delta vs. reference
+ * </pre>
+ *
+ * <p>The reference for an entry is the quantised value this encoder sent for the same
+ * catalogue number in the <em>previous message to this client</em>, or zero if the
+ * object was not in that message. A decoder therefore only has to remember the last
+ * frame it received. After a {@link #reset} — a new subscription or a failed send — the
+ * next message carries absolute values and sets the keyframe flag (since format 3): the
+ * decoder must drop its reference before decoding it, since it cannot tell an absolute
+ * entry from a delta otherwise. A LEO object moves ~0.06 deg/s, so at
+ * 1 Hz a typical entry costs 1 + 3 + 3 + 1 bytes versus 16 for raw id + 3 floats.
+ *
+ * <p>Not thread-safe: each instance belongs to exactly one client drain loop.
+ */
+final class PositionFrameEncoder {
+
+    static final int FORMAT_VERSION = 3;
+    /** Set in the format byte of a message encoded without a reference. */
+    static final int KEYFRAME_FLAG = 0x80;
+    static final double ANGLE_SCALE = 1e5;     // 1e-5 deg ≈ 1.1 m at the equator
+    static final double ALTITUDE_SCALE = 1e3;  // km → m
+
+    private static final int HEADER_LENGTH = 1 + 2 * Long.BYTES;
+    private static final int MAX_ENTRY_LENGTH = 5 * 4;  // 4 varints, ≤ 5 bytes each
+
+    private int[] prevIds = new int[0];
+    private int[] prevLat = new int[0];
+    private int[] prevLon = new int[0];
+    private int[] prevAlt = new int[0];
+    private int prevCount;
+
+    private int[] curIds = new int[0];
+    private int[] curLat = new int[0];
+    private int[] curLon = new int[0];
+    private int[] curAlt = new int[0];
+
+    private byte[] out = new byte[256];
+    private int pos;
+    private boolean keyframe = true;
+
+    /** Forgets the reference frame so the next message is a keyframe (absolute values). */
+    void reset() {
+        prevCount = 0;
+        keyframe = true;
+    }
+
+    /**
+     * Encodes the entries of {@code frame} accepted by {@code filter}.
+     *
+     * @return a view over an internal buffer, valid until the next call on this encoder
+     */
+    ByteBuffer encode(final PositionFrame frame, final StreamFilter filter) {
+        final var n = frame.size();
+        ensureCapacity(n);
+
+        pos = 0;
+        out[pos++] = (byte) (keyframe ? FORMAT_VERSION | KEYFRAME_FLAG : FORMAT_VERSION);
+        keyframe = false;
+        putLong(frame.epochMillis());
+        putLong(frame.catalogueVersion());
+
+        // Filter + quantise first so the count can be written before the entries.
+        var count = 0;
+        for (var i = 0; i < n; i++) {
+            final var lat = frame.latitudes()[i];
+            final var lon = frame.longitudes()[i];
+            final var id = frame.catalogNumbers()[i];
+            if (!filter.matches(id, lat, lon)) {
+                continue;
+            }
+            curIds[count] = id;
+            curLat[count] = (int) Math.round(lat * ANGLE_SCALE);
+            curLon[count] = (int) Math.round(lon * ANGLE_SCALE);
+            curAlt[count] = (int) Math.round(frame.altitudes()[i] * ALTITUDE_SCALE);
+            count++;
+        }
+        putVarint(count);
+
+        // Both current and previous entries are sorted by id → merge-walk for references.
+        var p = 0;
+        var lastId = 0;
+        for (var i = 0; i < count; i++) {
+            final var id = curIds[i];
+            while (p < prevCount && prevIds[p] < id) {
+                p++;
+            }
+            final var known = p < prevCount && prevIds[p] == id;
+            putVarint(id - lastId);
+            putVarint(zigzag(curLat[i] - (known ? prevLat[p] : 0)));
+            putVarint(zigzag(curLon[i] - (known ? prevLon[p] : 0)));
+            putVarint(zigzag(curAlt[i] - (known ? prevAlt[p] : 0)));
+            lastId = id;
+        }
+
+        swapReference(count);
+        return ByteBuffer.wrap(out, 0, pos);
+    }
+
+    private void swapReference(final int count) {
+        final var ids = prevIds;
+        final var lat = prevLat;
+        final var lon = prevLon;
+        final var alt = prevAlt;
+        prevIds = curIds;
+        prevLat = curLat;
+        prevLon = curLon;
+        prevAlt = curAlt;
+        curIds = ids;
+        curLat = lat;
+        curLon = lon;
+        curAlt = alt;
+        prevCount = count;
+    }
+
+    private void ensureCapacity(final int n) {
+        if (curIds.length < n) {
+            curIds = Arrays.copyOf(curIds, n);
+            curLat = Arrays.copyOf(curLat, n);
+            curLon = Arrays.copyOf(curLon, n);
+            curAlt = Arrays.copyOf(curAlt, n);
+        }
+        final var needed = HEADER_LENGTH + 5 + n * MAX_ENTRY_LENGTH;
+        if (out.length < needed) {
+            out = new byte[needed];
+        }
+    }
+
+    private void putLong(final long v) {
+        for (var shift = 56; shift >= 0; shift -= 8) {
+            out[pos++] = (byte) (v >>> shift);
+        }
+    }
+
+    private void putVarint(final int value) {
+        var v = value;
+        while ((v & ~0x7F) != 0) {
+            out[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out[pos++] = (byte) v;
+    }
+
+    private static int zigzag(final int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.jakubt4.palantir.service.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jakubt4.palantir.dto.StreamSubscriptionRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Live binary position stream for large constellations, served directly by
+ * {@code palantir-core} over WebSocket (path configured by {@code palantir.stream.path}).
+ *
+ * <p>Replaces the per-satellite, per-parameter Yamcs WebSocket subscriptions the HMI
+ * needs today: one binary message per tick carries every subscribed object, delta-encoded
+ * and quantised by {@link PositionFrameEncoder}. Clients narrow the stream by sending a
+ * JSON {@link StreamSubscriptionRequest} text message at any time, e.g.
+ * <pre>
+ *   {"catalogNumbers":[25544], "viewport":{"minLat":30,"maxLat":60,"minLon":-20,"maxLon":40}}
+ * </pre>
+ *
+ * <p>{@link #publish} is called from the propagation tick and does O(clients) atomic
+ * work only — encoding and socket I/O run on a virtual thread per client drain, see
+ * {@link ClientStream} for the backpressure contract.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PositionStreamBroadcaster extends TextWebSocketHandler {
+
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ClientStream> clients = new ConcurrentHashMap<>();
+
+    private volatile PositionFrame latestFrame;
+
+    /**
+     * Fans the tick's frame out to every connected client. Never blocks.
+     *
+     * @param frame positions produced by the current propagation tick
+     */
+    public void publish(final PositionFrame frame) {
+        latestFrame = frame;
+        for (final var client : clients.values()) {
+            client.offer(frame);
+        }
+    }
+
+    /** Number of currently connected stream clients. */
+    public int clientCount() {
+        return clients.size();
+    }
+
+    @Override
+    public void afterConnectionEstablished(final WebSocketSession session) {
+        final var client = new ClientStream(session, executor);
+        clients.put(session.getId(), client);
+        log.info("[STREAM] Client {} connected from {} ({} active)",
+                session.getId(), session.getRemoteAddress(), clients.size());
+
+        // Give the new client something to draw before the next tick.
+        final var frame = latestFrame;
+        if (frame != null) {
+            client.offer(frame);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(final WebSocketSession session, final TextMessage message) throws IOException {
+        final var client = clients.get(session.getId());
+        if (client == null) {
+            return;
+        }
+        try {
+            final var request = objectMapper.readValue(message.getPayload(), StreamSubscriptionRequest.class);
+            client.updateFilter(StreamFilter.from(request));
+            log.debug("[STREAM] Client {} subscription updated: {}", session.getId(), request);
+        } catch (final JsonProcessingException | IllegalArgumentException e) {
+            log.warn("[STREAM] Client {} sent invalid subscription: {}", session.getId(), e.getMessage());
+            session.close(CloseStatus.BAD_DATA.withReason("Invalid subscription"));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(final WebSocketSession session, final CloseStatus status) {
+        final var client = clients.remove(session.getId());
+        if (client != null) {
+            log.info("[STREAM] Client {} disconnected ({}) — sent={}, coalesced={}",
+                    client.id(), status, client.framesSent(), client.framesCoalesced());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.jakubt4.palantir.service.stream;
+
+import io.github.jakubt4.palantir.dto.StreamSubscriptionRequest;
+
+import java.util.Arrays;
+
+/**
+ * Per-client subscription set + viewport, evaluated once per entry per frame.
+ *
+ * <p>The catalogue-number set is kept as a sorted {@code int[]} so the per-entry check
+ * is a binary search over primitives rather than a boxed {@code Set<Integer>} lookup.
+ * A {@code null} array means "all objects".
+ */
+final class StreamFilter {
+
+    static final StreamFilter ALL = new StreamFilter(null, -90, 90, -180, 180);
+
+    private final int[] catalogNumbers;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+
+    private StreamFilter(final int[] catalogNumbers,
+                         final double minLat, final double maxLat,
+                         final double minLon, final double maxLon) {
+        this.catalogNumbers = catalogNumbers;
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLon = minLon;
+        this.maxLon = maxLon;
+    }
+
+    static StreamFilter from(final StreamSubscriptionRequest request) {
+        if (request == null) {
+            return ALL;
+        }
+        int[] ids = null;
+        if (request.catalogNumbers() != null && !request.catalogNumbers().isEmpty()) {
+            ids = request.catalogNumbers().stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        }
+        final var viewport = request.viewport();
+        if (viewport == null) {
+            return new StreamFilter(ids, -90, 90, -180, 180);
+        }
+        // Negated comparisons also reject NaN.
+        if (!(viewport.minLat() >= -90 && viewport.maxLat() <= 90)) {
+            throw new IllegalArgumentException("viewport latitudes must lie in [-90, 90]");
+        }
+        if (!(viewport.minLon() >= -180 && viewport.minLon() <= 180
+                && viewport.maxLon() >= -180 && viewport.maxLon() <= 180)) {
+            throw new IllegalArgumentException("viewport longitudes must lie in [-180, 180]");
+        }
+        if (viewport.minLat() > viewport.maxLat()) {
+            throw new IllegalArgumentException("viewport.minLat must not exceed viewport.maxLat");
+        }
+        return new StreamFilter(ids, viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+    }
+
+    boolean matches(final int catalogNumber, final float lat, final float lon) {
+        if (catalogNumbers != null && Arrays.binarySearch(catalogNumbers, catalogNumber) < 0) {
+            return false;
+        }
+        if (lat < minLat || lat > maxLat) {
+            return false;
+        }
+        // minLon > maxLon → viewport wraps across the antimeridian.
+        return minLon <= maxLon
+                ? lon >= minLon && lon <= maxLon
+                : lon >= minLon || lon <= maxLon;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.jakubt4.palantir.service.uplink;
+
+/**
+ * Verification stage reported by a telecommand acknowledgement packet. Codes are the
+ * on-wire {@code Ack_Stage} values in {@code yamcs/mdb/features/commands.xml}.
+ */
+public enum CommandAckStage {
+
+    /** Opcode recognised and handed to its handler. */
+    ACCEPTED(1),
+    /** Handler returned normally. */
+    COMPLETED(2),
+    /** Unknown opcode, malformed arguments or a handler error. */
+    FAILED(3);
+
+    private final int code;
+
+    CommandAckStage(final int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+}
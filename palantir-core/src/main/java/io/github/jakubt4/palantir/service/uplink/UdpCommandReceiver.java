@@ -1,35 +1,102 @@
 package io.github.jakubt4.palantir.service.uplink;
 
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.diagnostics.TelecommandEvent;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverCommand;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverOutcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Listens for telecommand packets from the ground station (Yamcs) via UDP.
  * Uses Java 21 Virtual Threads for non-blocking receive.
+ *
+ * <p>A command is its opcode, a 16-bit uplink sequence number set by the ground, then
+ * its arguments. {@code FIRE_THRUSTER} (opcode {@code 0x04}) is decoded and published as
+ * a {@link ThrustManeuverCommand} application event; the receive loop never waits for the
+ * manoeuvre to be planned.
+ *
+ * <p>Every command is acknowledged on APID {@value CcsdsTelemetrySender#COMMAND_ACK_APID}:
+ * {@link CommandAckStage#ACCEPTED} when its handler is invoked, then
+ * {@link CommandAckStage#COMPLETED} or {@link CommandAckStage#FAILED} once it has taken
+ * effect — for {@code FIRE_THRUSTER} when the {@link ThrustManeuverOutcome} of its
+ * planning arrives. Planning reports failure itself after
+ * {@code palantir.uplink.completion-timeout-ms}, and then never installs the manoeuvre,
+ * so the acknowledgement cannot contradict the trajectory.
+ * A command too short to carry a sequence number, or with an unknown opcode, fails
+ * straight away. Each acknowledgement echoes the uplink sequence and the opcode, so the
+ * Yamcs verifiers match it to the command they released, plus the receive time.
+ * Receive→dispatch, dispatch→complete and receive→complete latencies are recorded as the
+ * {@code palantir.uplink.command} timer, tagged by {@code phase}, and each command as a
+ * {@link TelecommandEvent} when a JFR recording enables it.
+ *
+ * <p>Receive and acknowledgement times come from one monotonic clock anchored to UTC at
+ * startup, so acknowledgements never go back in time however close together they are.
  */
 @Slf4j
 @Service
 public class UdpCommandReceiver {
 
+    /** Opcode plus the uplink sequence number. */
+    static final int HEADER_LENGTH = 3;
+
     private final int port;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CcsdsTelemetrySender ccsdsTelemetrySender;
     private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<ThrustManeuverCommand, CompletableFuture<Boolean>> pendingManoeuvres = new ConcurrentHashMap<>();
+    private final Instant clockAnchor = Instant.now();
+    private final long clockAnchorNanos = System.nanoTime();
+    private final Timer dispatchTimer;
+    private final Timer executeTimer;
+    private final Timer totalTimer;
     private DatagramSocket socket;
     private volatile boolean running = true;
 
     /**
-     * @param port UDP port to bind for telecommand reception (default 10001, 0 for ephemeral in tests)
+     * @param port                 UDP port to bind for telecommand reception (default 10001, 0 for ephemeral in tests)
+     * @param eventPublisher       publishes decoded commands that other services act on
+     * @param ccsdsTelemetrySender downlinks the acknowledgements; also guarantees Orekit data is loaded
+     * @param meterRegistry        registry for the command latency timers
      */
-    public UdpCommandReceiver(@Value("${palantir.uplink.port:10001}") final int port) {
+    public UdpCommandReceiver(@Value("${palantir.uplink.port:10001}") final int port,
+                              final ApplicationEventPublisher eventPublisher,
+                              final CcsdsTelemetrySender ccsdsTelemetrySender,
+                              final MeterRegistry meterRegistry) {
         this.port = port;
+        this.eventPublisher = eventPublisher;
+        this.ccsdsTelemetrySender = ccsdsTelemetrySender;
+        this.dispatchTimer = latencyTimer(meterRegistry, "dispatch");
+        this.executeTimer = latencyTimer(meterRegistry, "execute");
+        this.totalTimer = latencyTimer(meterRegistry, "total");
+    }
+
+    private static Timer latencyTimer(final MeterRegistry meterRegistry, final String phase) {
+        return Timer.builder("palantir.uplink.command")
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @PostConstruct
@@ -44,7 +111,8 @@ public class UdpCommandReceiver {
                 while (running) {
                     final var packet = new DatagramPacket(buffer, buffer.length);
                     socket.receive(packet);
-                    processTelecommand(packet);
+                    final var receivedNanos = System.nanoTime();
+                    processTelecommand(packet, receivedNanos, instantOf(receivedNanos));
                 }
             } catch (final IOException e) {
                 if (running) {
@@ -54,25 +122,135 @@ public class UdpCommandReceiver {
         });
     }
 
-    private void processTelecommand(final DatagramPacket packet) {
+    /** Wall-clock time of a {@link System#nanoTime()} reading, on the anchored clock. */
+    Instant instantOf(final long nanos) {
+        return clockAnchor.plusNanos(nanos - clockAnchorNanos);
+    }
+
+    /**
+     * Dispatches one command and acknowledges it. A command that completes asynchronously
+     * is acknowledged COMPLETED or FAILED from the thread that completes it.
+     *
+     * @param receivedNanos {@link System#nanoTime()} when the datagram was received
+     * @param receivedAt    wall-clock time when the datagram was received
+     */
+    void processTelecommand(final DatagramPacket packet, final long receivedNanos, final Instant receivedAt) {
+        final var event = new TelecommandEvent();
+        event.begin();
         final var data = packet.getData();
+        final var length = packet.getLength();
         final var opCode = data[0];
+        final var sequence = length >= HEADER_LENGTH ? ((data[1] & 0xFF) << 8) | (data[2] & 0xFF) : 0;
+        // Full Instant precision: a Date would truncate to the millisecond, and acknowledgements
+        // of consecutive commands within one millisecond would then go back in time.
+        final var receivedDate = new AbsoluteDate(receivedAt, TimeScalesFactory.getUTC());
 
         final var commandName = switch (opCode) {
             case 0x01 -> "PING / NOOP";
             case 0x02 -> "REBOOT_OBC";
             case 0x03 -> "SET_TRANSMIT_POWER";
-            default -> "UNKNOWN_OPCODE (0x" + String.format("%02X", opCode) + ")";
+            case 0x04 -> "FIRE_THRUSTER";
+            default -> null;
         };
 
-        log.warn("[COMMAND RECEIVED] Source: {}:{} | OpCode: 0x{} | Executing: {}",
+        log.warn("[COMMAND RECEIVED] Source: {}:{} | Seq: {} | OpCode: 0x{} | Executing: {}",
                 packet.getAddress().getHostAddress(),
                 packet.getPort(),
+                sequence,
                 String.format("%02X", opCode),
-                commandName);
+                commandName != null ? commandName : "UNKNOWN_OPCODE (0x" + String.format("%02X", opCode) + ")");
 
+        if (commandName == null || length < HEADER_LENGTH) {
+            acknowledge(sequence, opCode, CommandAckStage.FAILED, receivedNanos, receivedDate);
+            commit(event, opCode, length, sequence, CommandAckStage.FAILED, 0, 0);
+            return;
+        }
+        acknowledge(sequence, opCode, CommandAckStage.ACCEPTED, receivedNanos, receivedDate);
+
+        final var dispatched = System.nanoTime();
+        dispatchTimer.record(dispatched - receivedNanos, TimeUnit.NANOSECONDS);
+        CompletableFuture<Boolean> completion;
+        try {
+            completion = execute(opCode, data, length, receivedAt);
+        } catch (final RuntimeException e) {
+            log.error("[UPLINK] {} failed: {}", commandName, e.getMessage());
+            completion = CompletableFuture.completedFuture(false);
+        }
+        completion.whenComplete((completed, failure) -> {
+            final var done = System.nanoTime();
+            executeTimer.record(done - dispatched, TimeUnit.NANOSECONDS);
+            totalTimer.record(done - receivedNanos, TimeUnit.NANOSECONDS);
+            final var outcome = Boolean.TRUE.equals(completed) ? CommandAckStage.COMPLETED : CommandAckStage.FAILED;
+            acknowledge(sequence, opCode, outcome, receivedNanos, receivedDate);
+            commit(event, opCode, length, sequence, outcome, dispatched - receivedNanos, done - dispatched);
+        });
+    }
+
+    private static void commit(final TelecommandEvent event, final byte opCode, final int length, final int sequence,
+                               final CommandAckStage outcome, final long dispatchNanos, final long executeNanos) {
+        if (event.shouldCommit()) {
+            event.uplinkSequence = sequence;
+            event.opCode = opCode & 0xFF;
+            event.bytes = length;
+            event.outcome = outcome.name();
+            event.dispatchDuration = dispatchNanos;
+            event.executeDuration = executeNanos;
+            event.commit();
+        }
+    }
+
+    /** Runs the command's handler; completes with {@code false} if the command was rejected. */
+    private CompletableFuture<Boolean> execute(final byte opCode, final byte[] data, final int length,
+                                               final Instant receivedAt) {
         if (opCode == 0x02) {
             triggerRebootSequence();
+        } else if (opCode == 0x04) {
+            return fireThruster(data, length, receivedAt);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Sends an acknowledgement stamped with the current time, derived from the receive time
+     * plus the monotonic latency so the two timestamps stay consistent. Synchronized so
+     * acknowledgements from different threads leave in the order they were stamped.
+     */
+    private synchronized void acknowledge(final int sequence, final byte opCode, final CommandAckStage stage,
+                                          final long receivedNanos, final AbsoluteDate receivedDate) {
+        final var latencySeconds = (System.nanoTime() - receivedNanos) / 1e9;
+        ccsdsTelemetrySender.sendCommandAck(receivedDate.shiftedBy(latencySeconds), sequence, opCode & 0xFF, stage,
+                receivedDate, (float) latencySeconds);
+    }
+
+    /** Completes when the manoeuvre has been planned and installed, or failed to be. */
+    private CompletableFuture<Boolean> fireThruster(final byte[] data, final int length, final Instant receivedAt) {
+        final ThrustManeuverCommand command;
+        try {
+            command = ThrustManeuverCommand.decode(data, HEADER_LENGTH, length - HEADER_LENGTH, receivedAt);
+        } catch (final IllegalArgumentException e) {
+            log.error("[UPLINK] FIRE_THRUSTER rejected: {}", e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+        log.info("[UPLINK] FIRE_THRUSTER Δv R={} S={} W={} m/s, burn {} s",
+                command.deltaVRadial(), command.deltaVAlongTrack(), command.deltaVNormal(),
+                command.burnDurationSeconds());
+        final var planned = new CompletableFuture<Boolean>();
+        pendingManoeuvres.put(command, planned);
+        try {
+            eventPublisher.publishEvent(command);
+        } catch (final RuntimeException e) {
+            pendingManoeuvres.remove(command);
+            throw e;
+        }
+        return planned;
+    }
+
+    /** Completes the {@code FIRE_THRUSTER} the outcome belongs to. */
+    @EventListener
+    public void onThrustManeuverOutcome(final ThrustManeuverOutcome outcome) {
+        final var planned = pendingManoeuvres.remove(outcome.command());
+        if (planned != null) {
+            planned.complete(outcome.installed());
         }
     }
 
@@ -0,0 +1,196 @@
+package io.github.jakubt4.palantir.service.workload;
+
+import io.github.jakubt4.palantir.config.WorkloadProperties.LaneLimits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead for one class of expensive requests: at most {@code maxConcurrent} compute at
+ * once, at most {@code maxQueued} wait for a slot — in arrival order, for up to
+ * {@code maxWait} — and the rest are shed with a {@link LaneSaturatedException}.
+ *
+ * <p>Work submitted through {@link #run} executes on the lane's own pool of
+ * {@code maxConcurrent} platform threads while the request's virtual thread parks. CPU-bound
+ * work on a virtual thread would hold its carrier until done; on a platform thread it is
+ * time-sliced by the OS, so the carriers stay free for admitting, queueing and shedding
+ * further requests.
+ *
+ * <p>The exception carries a retry hint: the mean time a request holds its slot
+ * (exponentially weighted) times the number of requests ahead of the caller per slot,
+ * i.e. roughly when a retry would find room.
+ *
+ * <p>Meters, tagged {@code lane}: {@code palantir.workload.active} and
+ * {@code palantir.workload.queued} (queue depth) gauges, the
+ * {@code palantir.workload.rejected} counter and the {@code palantir.workload.wait} timer
+ * of admitted requests' queueing time.
+ */
+public final class ComputeLane {
+
+    private static final long MIN_RETRY_SECONDS = 1;
+    private static final long MAX_RETRY_SECONDS = 60;
+    /** Weight of the newest hold time in the running mean. */
+    private static final double HOLD_TIME_WEIGHT = 0.2;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final AtomicInteger queued = new AtomicInteger();
+    /** Running mean of slot hold time in nanoseconds. */
+    private final AtomicLong meanHoldNanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    ComputeLane(final String name, final LaneLimits limits, final MeterRegistry meterRegistry) {
+        if (limits.maxConcurrent() < 1 || limits.maxQueued() < 0) {
+            throw new IllegalArgumentException("Lane " + name + " needs maxConcurrent >= 1 and maxQueued >= 0");
+        }
+        this.name = name;
+        this.maxConcurrent = limits.maxConcurrent();
+        this.maxQueued = limits.maxQueued();
+        this.maxWaitNanos = limits.maxWait() == null ? 0 : limits.maxWait().toNanos();
+        // Fair, so queued requests are served in arrival order.
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.workers = Executors.newFixedThreadPool(maxConcurrent, Thread.ofPlatform()
+                .name("palantir-" + name + "-", 0)
+                .daemon(true)
+                .factory());
+
+        Gauge.builder("palantir.workload.active", this, ComputeLane::active)
+                .tag("lane", name)
+                .register(meterRegistry);
+        Gauge.builder("palantir.workload.queued", queued, AtomicInteger::get)
+                .tag("lane", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("palantir.workload.rejected")
+                .tag("lane", name)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("palantir.workload.wait")
+                .tag("lane", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Requests computing right now. */
+    public int active() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    /** Requests waiting for a slot. */
+    public int queued() {
+        return queued.get();
+    }
+
+    /**
+     * Takes a slot, waiting in line if the lane is busy and the queue has room.
+     *
+     * @return the slot; close it when the work — including any streamed response — is done
+     * @throws LaneSaturatedException if the queue is full or the wait timed out
+     */
+    public Permit admit() {
+        final var start = System.nanoTime();
+        try {
+            // A timed tryAcquire honours fairness, unlike the untimed one.
+            if (slots.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return new Permit();
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                throw reject();
+            }
+            final boolean acquired;
+            try {
+                acquired = slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!acquired) {
+                throw reject();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject();
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit();
+    }
+
+    /**
+     * Runs {@code work} on the lane's pool once admitted and waits for its result.
+     * Unchecked exceptions thrown by {@code work} reach the caller unchanged.
+     *
+     * @throws LaneSaturatedException if the lane is full
+     */
+    public <T> T run(final Supplier<T> work) {
+        try (final var permit = admit()) {
+            final var future = workers.submit(work::get);
+            try {
+                return future.get();
+            } catch (final InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for lane " + name, e);
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private LaneSaturatedException reject() {
+        rejected.increment();
+        final var ahead = active() + queued.get() + 1;
+        final var estimateNanos = (double) meanHoldNanos.get() * ahead / maxConcurrent;
+        final var retryAfter = Math.clamp((long) Math.ceil(estimateNanos / 1e9), MIN_RETRY_SECONDS, MAX_RETRY_SECONDS);
+        return new LaneSaturatedException(name, retryAfter);
+    }
+
+    /** One admitted request's slot. Closing it more than once has no further effect. */
+    public final class Permit implements AutoCloseable {
+
+        private final long acquiredNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                final var held = System.nanoTime() - acquiredNanos;
+                meanHoldNanos.updateAndGet(mean -> mean + (long) (HOLD_TIME_WEIGHT * (held - mean)));
+                slots.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.jakubt4.palantir.service.workload;
+
+import io.github.jakubt4.palantir.config.WorkloadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The {@link ComputeLane}s that admit expensive REST requests.
+ *
+ * <p>With virtual threads every request gets a thread of its own, so nothing bounds how
+ * much CPU a burst of heavy requests claims; virtual threads are not time-sliced either,
+ * and CPU-bound ones can occupy every carrier. Each expensive endpoint therefore computes
+ * on its lane's bounded pool of platform threads and sheds load once the lane and its
+ * queue are full, while the propagation tick runs on its own platform thread
+ * ({@link TickLane}) outside any lane. Lanes are independent, so a flood of one kind of request cannot starve
+ * another.
+ *
+ * <p>Limits come from {@code palantir.workload.lanes.<name>.*}.
+ */
+@Slf4j
+@Service
+public class ComputeLanes {
+
+    /** {@code POST /api/analysis/coverage}. */
+    public static final String COVERAGE = "coverage";
+    /** {@code POST /api/export/telemetry}, held until the stream ends. */
+    public static final String EXPORT = "export";
+    /** {@code POST /api/manoeuvre/avoidance-plan}. */
+    public static final String AVOIDANCE = "avoidance";
+    /** {@code POST /api/orbit/position/batch}. */
+    public static final String POSITION_BATCH = "position-batch";
+    /** {@code POST /api/orbit/catalogue} — bulk TLE parsing. */
+    public static final String CATALOGUE = "catalogue";
+
+    private static final List<String> LANES = List.of(COVERAGE, EXPORT, AVOIDANCE, POSITION_BATCH, CATALOGUE);
+
+    private final Map<String, ComputeLane> lanes = new LinkedHashMap<>();
+
+    public ComputeLanes(final WorkloadProperties properties, final MeterRegistry meterRegistry) {
+        for (final var name : LANES) {
+            final var limits = properties.lanes().getOrDefault(name, WorkloadProperties.LaneLimits.DEFAULT);
+            lanes.put(name, new ComputeLane(name, limits, meterRegistry));
+            log.info("[WORKLOAD] Lane {} — {} concurrent, {} queued, wait up to {}",
+                    name, limits.maxConcurrent(), limits.maxQueued(), limits.maxWait());
+        }
+    }
+
+    /**
+     * Runs {@code work} in {@code lane}; see {@link ComputeLane#run}.
+     *
+     * @throws LaneSaturatedException if the lane is full
+     */
+    public <T> T run(final String lane, final Supplier<T> work) {
+        return lane(lane).run(work);
+    }
+
+    /**
+     * Takes a slot in {@code lane} for work that computes elsewhere, e.g. on a pool of its
+     * own; see {@link ComputeLane#admit()}.
+     *
+     * @throws LaneSaturatedException if the lane is full
+     */
+    public ComputeLane.Permit admit(final String lane) {
+        return lane(lane).admit();
+    }
+
+    public ComputeLane lane(final String lane) {
+        final var computeLane = lanes.get(lane);
+        if (computeLane == null) {
+            throw new IllegalStateException("Unknown compute lane " + lane);
+        }
+        return computeLane;
+    }
+
+    @PreDestroy
+    void stop() {
+        lanes.values().forEach(ComputeLane::shutdown);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.jakubt4.palantir.service.workload;
+
+/**
+ * A request was shed because its {@link ComputeLane} was full. Answered with
+ * {@code 429 Too Many Requests} and a {@code Retry-After} of {@link #retryAfterSeconds()}.
+ */
+public class LaneSaturatedException extends RuntimeException {
+
+    private final String lane;
+    private final long retryAfterSeconds;
+
+    public LaneSaturatedException(final String lane, final long retryAfterSeconds) {
+        super("Compute lane '" + lane + "' is saturated, retry in " + retryAfterSeconds + " s");
+        this.lane = lane;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String lane() {
+        return lane;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
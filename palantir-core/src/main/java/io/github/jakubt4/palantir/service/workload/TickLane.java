@@ -0,0 +1,109 @@
+package io.github.jakubt4.palantir.service.workload;
+
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserved execution lane of the propagation/transmit loop.
+ *
+ * <p>With {@code spring.threads.virtual.enabled} a {@code @Scheduled} tick runs on a
+ * virtual thread and shares the carrier threads with every REST request. Virtual threads
+ * are not time-sliced, so a few CPU-bound requests can hold all carriers and the tick
+ * waits until one of them yields. Here the tick owns a dedicated platform thread instead,
+ * outside the carrier pool: the OS time-slices it fairly against every other thread, so
+ * it cannot be stuck behind pinned carriers, and expensive requests are additionally
+ * bounded by {@link ComputeLanes}. The thread keeps normal priority — HotSpot on Linux
+ * ignores Java thread priorities unless started with {@code -XX:ThreadPriorityPolicy=1}
+ * as root, so a higher one would promise nothing.
+ *
+ * <p>Ticks run at a fixed rate of {@code palantir.workload.tick.period-ms}. Meters:
+ * {@code palantir.tick.lateness} (start behind schedule), {@code palantir.tick.duration}
+ * and the {@code palantir.tick.over-budget} counter of ticks that finished more than
+ * {@code palantir.workload.tick.budget-ms} after they were due.
+ */
+@Slf4j
+@Service
+public class TickLane {
+
+    static final String THREAD_NAME = "palantir-tick";
+
+    private final OrbitPropagationService orbitPropagationService;
+    private final long periodNanos;
+    private final long budgetNanos;
+
+    private final Timer latenessTimer;
+    private final Timer durationTimer;
+    private final Counter overBudget;
+
+    private final ScheduledExecutorService executor;
+    private long firstDueNanos;
+    private long ticks;
+
+    public TickLane(
+            final OrbitPropagationService orbitPropagationService,
+            final MeterRegistry meterRegistry,
+            @Value("${palantir.workload.tick.period-ms:1000}") final long periodMillis,
+            @Value("${palantir.workload.tick.budget-ms:250}") final long budgetMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("palantir.workload.tick.period-ms must be positive");
+        }
+        this.orbitPropagationService = orbitPropagationService;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.latenessTimer = Timer.builder("palantir.tick.lateness")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("palantir.tick.duration")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.overBudget = Counter.builder("palantir.tick.over-budget")
+                .register(meterRegistry);
+
+        final var threadFactory = Thread.ofPlatform()
+                .name(THREAD_NAME)
+                .daemon(true)
+                .factory();
+        this.executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+    }
+
+    @PostConstruct
+    void start() {
+        firstDueNanos = System.nanoTime();
+        executor.scheduleAtFixedRate(this::run, 0, periodNanos, TimeUnit.NANOSECONDS);
+        log.info("[TICK] Propagation tick every {} ms on platform thread {}",
+                TimeUnit.NANOSECONDS.toMillis(periodNanos), THREAD_NAME);
+    }
+
+    private void run() {
+        final var due = firstDueNanos + ticks++ * periodNanos;
+        final var started = System.nanoTime();
+        try {
+            orbitPropagationService.propagateAndSend();
+        } catch (final Exception e) {
+            // An exception would cancel every further run of a fixed-rate task.
+            log.error("[TICK] Propagation tick failed: {}", e.getMessage(), e);
+        }
+        final var finished = System.nanoTime();
+        latenessTimer.record(Math.max(0, started - due), TimeUnit.NANOSECONDS);
+        durationTimer.record(finished - started, TimeUnit.NANOSECONDS);
+        if (finished - due > budgetNanos) {
+            overBudget.increment();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
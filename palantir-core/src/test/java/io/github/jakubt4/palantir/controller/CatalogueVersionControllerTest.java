@@ -0,0 +1,136 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.VersionedCatalogue;
+import io.github.jakubt4.palantir.service.cluster.ClusterMembership;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CatalogueVersionController.class)
+class CatalogueVersionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VersionedCatalogue versionedCatalogue;
+
+    @MockBean
+    private ClusterMembership clusterMembership;
+
+    /** Real history behind the mock, fresh for every test. */
+    private VersionedCatalogue catalogue;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        new OrekitConfig().init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        catalogue = new VersionedCatalogue(new SimpleMeterRegistry(), 3);
+        when(versionedCatalogue.history()).thenAnswer(invocation -> catalogue.history());
+        when(versionedCatalogue.rollback(anyLong(), any())).thenAnswer(invocation ->
+                catalogue.rollback(invocation.getArgument(0), invocation.<IntPredicate>getArgument(1)));
+        when(clusterMembership.ringSince()).thenReturn(Instant.EPOCH);
+        when(clusterMembership.owns(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void versionsAreListedCurrentFirst() throws Exception {
+        catalogue.publish(s -> s.withTracked(List.of(object(1, "A"), object(2, "B")), "batch"));
+        catalogue.publish(s -> s.withActive(object(25544, "ISS (ZARYA)"), "active"));
+
+        mockMvc.perform(get("/api/orbit/catalogue/versions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].version").value(2))
+                .andExpect(jsonPath("$[0].change").value("active"))
+                .andExpect(jsonPath("$[0].activeSatellite").value("ISS (ZARYA)"))
+                .andExpect(jsonPath("$[0].catalogueSize").value(2))
+                .andExpect(jsonPath("$[1].version").value(1))
+                .andExpect(jsonPath("$[1].activeSatellite").doesNotExist())
+                .andExpect(jsonPath("$[2].version").value(0));
+    }
+
+    @Test
+    void rollbackRepublishesTheVersion() throws Exception {
+        final var good = catalogue.publish(s -> s.withTracked(List.of(object(1, "A")), "batch"));
+        catalogue.publish(s -> s.withTracked(List.of(object(2, "B")), "batch"));
+
+        mockMvc.perform(post("/api/orbit/catalogue/versions/{version}/rollback", good.version()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(3))
+                .andExpect(jsonPath("$.change").value("rollback to v1"))
+                .andExpect(jsonPath("$.catalogueSize").value(1));
+
+        assertThat(catalogue.current().version()).isEqualTo(3);
+    }
+
+    @Test
+    void rollbackToAVersionNoLongerRetainedIsNotFound() throws Exception {
+        for (var i = 1; i <= 3; i++) {
+            final var number = i;
+            catalogue.publish(s -> s.withTracked(List.of(object(number, "OBJ-" + number)), "batch"));
+        }
+
+        mockMvc.perform(post("/api/orbit/catalogue/versions/0/rollback"))
+                .andExpect(status().isNotFound());
+
+        assertThat(catalogue.current().version()).isEqualTo(3);
+    }
+
+    @Test
+    void rollbackLeavesEntriesOwnedByPeersOut() throws Exception {
+        final var good = catalogue.publish(s -> s.withTracked(List.of(object(1, "A"), object(2, "B")), "batch"));
+        catalogue.publish(s -> s.withTracked(List.of(object(3, "C")), "batch"));
+        when(clusterMembership.owns(2)).thenReturn(false);
+
+        mockMvc.perform(post("/api/orbit/catalogue/versions/{version}/rollback", good.version()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.catalogueSize").value(1));
+
+        assertThat(catalogue.current().catalogue().toList()).extracting(TrackedObject::catalogNumber)
+                .containsExactly(1);
+    }
+
+    @Test
+    void rollbackToAVersionFromBeforeTheRingChangeIsRefused() throws Exception {
+        final var beforeRebalance = catalogue.publish(s -> s.withTracked(List.of(object(1, "A")), "batch"));
+        when(clusterMembership.ringSince()).thenReturn(beforeRebalance.publishedAt().plusMillis(1));
+        final var afterRebalance = catalogue.publish(s -> s.withTracked(List.of(object(2, "B")), "forwarded"));
+
+        mockMvc.perform(post("/api/orbit/catalogue/versions/{version}/rollback", beforeRebalance.version()))
+                .andExpect(status().isConflict());
+        assertThat(catalogue.current()).isSameAs(afterRebalance);
+    }
+
+    private static TrackedObject object(final int number, final String name) {
+        final var tle = new TLE(number, 'U', 2000, 1, "A", 0, 999, AbsoluteDate.J2000_EPOCH,
+                0.001, 0, 0, 0.001, 0.9, 0, 0, 0, 1, 0);
+        return new TrackedObject(name, tle, null);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.service.state.OrbitStateStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrbitStateController.class)
+class OrbitStateControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrbitStateStore orbitStateStore;
+
+    @Test
+    void overheadRejectsLocationsOffTheGlobeAndNaN() throws Exception {
+        when(orbitStateStore.findOverhead(48.15, 17.11, 50)).thenReturn(List.of());
+        mockMvc.perform(get("/api/orbit/overhead?lat=48.15&lon=17.11&radius=50"))
+                .andExpect(status().isOk());
+
+        for (final var query : List.of("lat=NaN&lon=17.11&radius=50", "lat=48.15&lon=NaN&radius=50",
+                "lat=48.15&lon=17.11&radius=NaN", "lat=91&lon=17.11&radius=50", "lat=48.15&lon=17.11&radius=0")) {
+            mockMvc.perform(get("/api/orbit/overhead?" + query))
+                    .andExpect(status().isBadRequest());
+        }
+        verify(orbitStateStore).findOverhead(anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void boundingBoxRejectsBoxesOffTheGlobeAndNaN() throws Exception {
+        for (final var query : List.of("minLat=NaN&maxLat=10&minLon=0&maxLon=10",
+                "minLat=-10&maxLat=NaN&minLon=0&maxLon=10", "minLat=-10&maxLat=10&minLon=NaN&maxLon=10",
+                "minLat=-10&maxLat=10&minLon=0&maxLon=NaN", "minLat=10&maxLat=-10&minLon=0&maxLon=10",
+                "minLat=-10&maxLat=10&minLon=0&maxLon=181")) {
+            mockMvc.perform(get("/api/orbit/bbox?" + query))
+                    .andExpect(status().isBadRequest());
+        }
+        verify(orbitStateStore, never()).findInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.jakubt4.palantir.controller;
+
+import io.github.jakubt4.palantir.config.WorkloadProperties;
+import io.github.jakubt4.palantir.service.export.TelemetryExportService;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TelemetryExportController.class)
+class TelemetryExportControllerTest {
+
+    private static final String REQUEST = """
+            {"catalogNumbers": [25544], "start": "2024-01-01T00:00:00Z", "end": "2024-01-01T01:00:00Z"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TelemetryExportService telemetryExportService;
+
+    @MockBean
+    private ComputeLanes computeLanes;
+
+    /** Real lanes behind the mock, so a leaked slot shows up as an active one. */
+    private ComputeLanes lanes;
+
+    @BeforeEach
+    void admitThroughRealLane() {
+        lanes = new ComputeLanes(new WorkloadProperties(Map.of()), new SimpleMeterRegistry());
+        when(computeLanes.admit(ComputeLanes.EXPORT)).thenAnswer(invocation -> lanes.admit(ComputeLanes.EXPORT));
+    }
+
+    @Test
+    void unexpectedFailureWhilePreparingReleasesTheSlot() {
+        when(telemetryExportService.prepare(any())).thenThrow(new IllegalStateException("ephemeris gone"));
+
+        assertThatThrownBy(() -> mockMvc.perform(post("/api/export/telemetry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST)))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(lanes.lane(ComputeLanes.EXPORT).active()).isZero();
+    }
+
+    @Test
+    void rejectedAndUnknownExportsReleaseTheSlot() throws Exception {
+        when(telemetryExportService.prepare(any()))
+                .thenThrow(new IllegalArgumentException("window too long"))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/export/telemetry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/export/telemetry")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST))
+                .andExpect(status().isNotFound());
+
+        assertThat(lanes.lane(ComputeLanes.EXPORT).active()).isZero();
+    }
+}
@@ -1,17 +1,37 @@
 package io.github.jakubt4.palantir.controller;
 
+import io.github.jakubt4.palantir.dto.TleRequest;
+import io.github.jakubt4.palantir.dto.TleResponse;
 import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueIngest;
+import io.github.jakubt4.palantir.service.cluster.CatalogueRouter;
+import io.github.jakubt4.palantir.service.workload.ComputeLanes;
+import io.github.jakubt4.palantir.service.workload.LaneSaturatedException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,6 +47,17 @@ class TleIngestionControllerTest {
     @MockBean
     private OrbitPropagationService orbitPropagationService;
 
+    @MockBean
+    private CatalogueRouter catalogueRouter;
+
+    @MockBean
+    private ComputeLanes computeLanes;
+
+    @BeforeEach
+    void runLanesInline() {
+        when(computeLanes.run(anyString(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     @Test
     void ingestTleReturnsActiveStatusForValidPayload() throws Exception {
         mockMvc.perform(post("/api/orbit/tle")
@@ -43,6 +74,7 @@ class TleIngestionControllerTest {
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
 
         verify(orbitPropagationService).updateTle("ISS (ZARYA)", TLE_LINE1, TLE_LINE2);
+        verify(catalogueRouter).activeUpdated(new TleRequest("ISS (ZARYA)", TLE_LINE1, TLE_LINE2), false);
     }
 
     @Test
@@ -78,4 +110,135 @@ class TleIngestionControllerTest {
                 .andExpect(jsonPath("$.status").value("REJECTED"))
                 .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("Invalid TLE")));
     }
+
+    @Test
+    void ingestCatalogueTracksValidEntriesAndRejectsInvalidOnes() throws Exception {
+        when(orbitPropagationService.trackTles(List.of(new TleRequest("ISS (ZARYA)", TLE_LINE1, TLE_LINE2),
+                new TleRequest("BAD-SAT", "invalid", "invalid"))))
+                .thenReturn(new CatalogueIngest(3, List.of(new CatalogueIngest.Outcome(25544, null),
+                        new CatalogueIngest.Outcome(-1, "Invalid TLE: TLE line 1 too short"))));
+
+        mockMvc.perform(post("/api/orbit/catalogue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                    {"satelliteName": "ISS (ZARYA)", "line1": "%s", "line2": "%s"},
+                                    {"satelliteName": "BAD-SAT", "line1": "invalid", "line2": "invalid"}
+                                ]
+                                """.formatted(TLE_LINE1, TLE_LINE2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("TRACKED"))
+                .andExpect(jsonPath("$[0].message").value("Catalogue #25544"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].message").value("Invalid TLE: TLE line 1 too short"));
+    }
+
+    @Test
+    void ingestCatalogueForwardsEntriesOwnedByPeers() throws Exception {
+        final var owner = "http://localhost:8081";
+        final var request = new TleRequest("ISS (ZARYA)", TLE_LINE1, TLE_LINE2);
+        when(catalogueRouter.remoteOwner(TLE_LINE1)).thenReturn(Optional.of(owner));
+        when(catalogueRouter.forward(Map.of(owner, List.of(request)))).thenReturn(Map.of(owner,
+                List.of(new TleResponse("ISS (ZARYA)", "TRACKED", "Catalogue #25544 on " + owner))));
+
+        mockMvc.perform(post("/api/orbit/catalogue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"satelliteName": "ISS (ZARYA)", "line1": "%s", "line2": "%s"}]
+                                """.formatted(TLE_LINE1, TLE_LINE2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("TRACKED"))
+                .andExpect(jsonPath("$[0].message").value("Catalogue #25544 on " + owner));
+
+        verify(orbitPropagationService, never()).trackTles(any());
+    }
+
+    @Test
+    void forwardingToPeersHoldsNoCatalogueSlot() throws Exception {
+        final var owner = "http://localhost:8081";
+        final var request = new TleRequest("ISS (ZARYA)", TLE_LINE1, TLE_LINE2);
+        final var inLane = new AtomicBoolean();
+        final var forwardedInLane = new AtomicBoolean();
+        when(computeLanes.run(eq(ComputeLanes.CATALOGUE), any())).thenAnswer(invocation -> {
+            inLane.set(true);
+            try {
+                return invocation.<Supplier<?>>getArgument(1).get();
+            } finally {
+                inLane.set(false);
+            }
+        });
+        when(catalogueRouter.remoteOwner(TLE_LINE1)).thenReturn(Optional.of(owner));
+        when(catalogueRouter.forward(Map.of(owner, List.of(request)))).thenAnswer(invocation -> {
+            forwardedInLane.set(inLane.get());
+            return Map.of(owner, List.of(new TleResponse("ISS (ZARYA)", "TRACKED", "Catalogue #25544 on " + owner)));
+        });
+
+        mockMvc.perform(post("/api/orbit/catalogue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"satelliteName": "ISS (ZARYA)", "line1": "%s", "line2": "%s"}]
+                                """.formatted(TLE_LINE1, TLE_LINE2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("TRACKED"));
+
+        verify(catalogueRouter).forward(any());
+        assertThat(forwardedInLane).isFalse();
+        // Nothing left to parse locally, so no slot at all.
+        verify(computeLanes, never()).run(any(), any());
+    }
+
+    @Test
+    void forwardedCatalogueIsTrackedLocallyWithoutRouting() throws Exception {
+        when(catalogueRouter.trustForwarded(true, "127.0.0.1")).thenReturn(true);
+        when(orbitPropagationService.trackTles(List.of(new TleRequest("ISS (ZARYA)", TLE_LINE1, TLE_LINE2))))
+                .thenReturn(new CatalogueIngest(1, List.of(new CatalogueIngest.Outcome(25544, null))));
+
+        mockMvc.perform(post("/api/orbit/catalogue")
+                        .header(CatalogueRouter.FORWARDED_HEADER, "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"satelliteName": "ISS (ZARYA)", "line1": "%s", "line2": "%s"}]
+                                """.formatted(TLE_LINE1, TLE_LINE2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("TRACKED"));
+
+        verify(catalogueRouter, never()).remoteOwner(anyString());
+        verify(catalogueRouter, never()).forward(any());
+    }
+
+    @Test
+    void forwardedHeaderFromANonPeerIsRouted() throws Exception {
+        final var owner = "http://localhost:8081";
+        final var request = new TleRequest("ISS (ZARYA)", TLE_LINE1, TLE_LINE2);
+        when(catalogueRouter.remoteOwner(TLE_LINE1)).thenReturn(Optional.of(owner));
+        when(catalogueRouter.forward(Map.of(owner, List.of(request)))).thenReturn(Map.of(owner,
+                List.of(new TleResponse("ISS (ZARYA)", "TRACKED", "Catalogue #25544 on " + owner))));
+
+        mockMvc.perform(post("/api/orbit/catalogue")
+                        .header(CatalogueRouter.FORWARDED_HEADER, "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"satelliteName": "ISS (ZARYA)", "line1": "%s", "line2": "%s"}]
+                                """.formatted(TLE_LINE1, TLE_LINE2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].message").value("Catalogue #25544 on " + owner));
+
+        verify(catalogueRouter).trustForwarded(true, "127.0.0.1");
+        verify(orbitPropagationService, never()).trackTles(any());
+    }
+
+    @Test
+    void ingestCatalogueIsShedWithRetryHintWhenLaneIsSaturated() throws Exception {
+        when(computeLanes.run(eq(ComputeLanes.CATALOGUE), any())).thenThrow(new LaneSaturatedException(ComputeLanes.CATALOGUE, 7));
+
+        mockMvc.perform(post("/api/orbit/catalogue")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"satelliteName": "ISS (ZARYA)", "line1": "%s", "line2": "%s"}]
+                                """.formatted(TLE_LINE1, TLE_LINE2)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+
+        verify(orbitPropagationService, never()).trackTles(any());
+    }
 }
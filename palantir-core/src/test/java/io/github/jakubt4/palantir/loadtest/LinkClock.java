@@ -0,0 +1,41 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScalesFactory;
+
+import java.time.Instant;
+
+/**
+ * Common time base of the load generators and the {@link YamcsStandIn}: one wall-clock
+ * reading anchored to {@link System#nanoTime()}, so generation and receive times are
+ * derived from the same monotonic clock and differ only by the link's own latency.
+ */
+final class LinkClock {
+
+    /** CUC Level-1 epoch — 1958-01-01 00:00:00 TAI, as configured on the Yamcs preprocessor. */
+    private static final AbsoluteDate TAI_EPOCH =
+            new AbsoluteDate(new DateComponents(1958, 1, 1), TimeComponents.H00, TimeScalesFactory.getTAI());
+
+    private final long baseNanos;
+    private final AbsoluteDate baseDate;
+    private final double baseTaiSeconds;
+
+    LinkClock() {
+        final var instant = Instant.now();
+        baseNanos = System.nanoTime();
+        baseDate = new AbsoluteDate(instant, TimeScalesFactory.getUTC());
+        baseTaiSeconds = baseDate.durationFrom(TAI_EPOCH);
+    }
+
+    /** Spacecraft time for a packet generated at {@code nanos}. */
+    AbsoluteDate date(final long nanos) {
+        return baseDate.shiftedBy((nanos - baseNanos) / 1e9);
+    }
+
+    /** TAI seconds since 1958 at {@code nanos} — the scale of a decoded CUC time. */
+    double taiSeconds(final long nanos) {
+        return baseTaiSeconds + (nanos - baseNanos) / 1e9;
+    }
+}
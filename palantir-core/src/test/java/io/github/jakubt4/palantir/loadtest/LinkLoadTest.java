@@ -0,0 +1,192 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.uplink.UdpCommandReceiver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.DatagramSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sustained-load tests of the TM and TC links against the {@link YamcsStandIn}, without
+ * Docker: only the Orekit config, {@link CcsdsTelemetrySender} and
+ * {@link UdpCommandReceiver} are started, the sender pointed at the stand-in.
+ *
+ * <p>Every test here paces real UDP traffic against the wall clock, so the class is
+ * tagged {@code load} and runs only with {@code mvn test -Pload-test}: the low-rate check
+ * first, then the ramps, each of which writes its report to {@code target/load-test/}.
+ * The encoding fixes these tests once caught are covered deterministically by
+ * {@code CcsdsTelemetrySenderTest} and {@code UdpCommandReceiverTest}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(classes = {OrekitConfig.class, CcsdsTelemetrySender.class, UdpCommandReceiver.class,
+        SimpleMeterRegistry.class})
+class LinkLoadTest {
+
+    private static final int NAV_APID = 100;
+    /** Opcode, then the uplink sequence the generator fills in. */
+    private static final byte[] PING = {0x01, 0x00, 0x00};
+    private static final Duration SETTLE = Duration.ofMillis(200);
+
+    private static LinkClock clock;
+    private static YamcsStandIn yamcs;
+    private static int uplinkPort;
+
+    @Autowired
+    private CcsdsTelemetrySender sender;
+
+    @BeforeAll
+    static void startStandIn() throws Exception {
+        new OrekitConfig().init();
+        clock = new LinkClock();
+        yamcs = new YamcsStandIn(clock);
+        try (var probe = new DatagramSocket(0)) {
+            uplinkPort = probe.getLocalPort();
+        }
+    }
+
+    @AfterAll
+    static void stopStandIn() throws InterruptedException {
+        yamcs.close();
+    }
+
+    @DynamicPropertySource
+    static void link(final DynamicPropertyRegistry registry) {
+        registry.add("yamcs.udp.host", () -> "127.0.0.1");
+        registry.add("yamcs.udp.port", () -> yamcs.port());
+        registry.add("palantir.uplink.port", () -> uplinkPort);
+    }
+
+    @Test
+    void lowRateLinksAreLosslessOrderedAndMonotonic() throws Exception {
+        final var tm = telemetryStep(1000, Duration.ofMillis(500));
+        assertThat(tm.sent()).isGreaterThan(400);
+        assertThat(tm.delivered()).isEqualTo(tm.sent());
+        assertThat(tm.reordered()).isZero();
+        assertThat(tm.timeRegressions()).isZero();
+        assertThat(tm.malformed()).isZero();
+        assertThat(tm.p50Millis()).isPositive();
+
+        try (var tc = new TelecommandGenerator(uplinkPort, PING)) {
+            awaitUplink(tc);
+            final var step = telecommandStep(tc, 200, Duration.ofMillis(500));
+            assertThat(step.sent()).isGreaterThan(80);
+            assertThat(step.delivered()).isEqualTo(step.sent());
+            assertThat(step.reordered()).isZero();
+            assertThat(step.timeRegressions()).isZero();
+            assertThat(step.p99Millis()).isPositive();
+        }
+    }
+
+    @Test
+    void telemetryRamp() throws Exception {
+        final var criteria = LoadCriteria.fromSystemProperties();
+        final var report = new LoadReport("TM link — CcsdsTelemetrySender → stand-in, APID " + NAV_APID,
+                "pkt", criteria);
+        telemetryStep(criteria.telemetryRates()[0], criteria.step()); // warm-up
+        for (final var rate : criteria.telemetryRates()) {
+            if (!report.add(telemetryStep(rate, criteria.step()))) {
+                break;
+            }
+        }
+        finish(report, "telemetry.txt");
+    }
+
+    @Test
+    void telecommandRamp() throws Exception {
+        final var criteria = LoadCriteria.fromSystemProperties();
+        final var report = new LoadReport("TC link — generator → UdpCommandReceiver → COMPLETED ack at stand-in",
+                "cmd", criteria);
+        try (var tc = new TelecommandGenerator(uplinkPort, PING)) {
+            awaitUplink(tc);
+            telecommandStep(tc, criteria.telecommandRates()[0], criteria.step()); // warm-up
+            for (final var rate : criteria.telecommandRates()) {
+                if (!report.add(telecommandStep(tc, rate, criteria.step()))) {
+                    break;
+                }
+            }
+        }
+        finish(report, "telecommand.txt");
+    }
+
+    private LoadStep telemetryStep(final double rate, final Duration duration) throws InterruptedException {
+        yamcs.drain();
+        final var load = PacedLoad.run(rate, duration, index ->
+                sender.sendPacket(clock.date(System.nanoTime()), index * 0.001f, 0f, 400f));
+        final var interval = settle();
+        final var stats = interval.apid(NAV_APID);
+        return LoadStep.of(rate, load, stats.received(), stats, interval.malformed(), stats);
+    }
+
+    /**
+     * Latencies are round trips, send to COMPLETED acknowledgement, matched by the echoed
+     * uplink sequence. If any command was not completed the step falls back to the
+     * acknowledgements' own generation-to-receive latency.
+     */
+    private LoadStep telecommandStep(final TelecommandGenerator tc, final double rate, final Duration duration)
+            throws InterruptedException {
+        yamcs.drain();
+        final var load = tc.run(rate, duration);
+        final var interval = settle();
+        final var acks = interval.apid(CcsdsTelemetrySender.COMMAND_ACK_APID);
+        var latency = acks;
+        if (interval.completed() == load.emitted()) {
+            final var roundTrips = new long[(int) load.emitted()];
+            for (var i = 0; i < roundTrips.length; i++) {
+                roundTrips[i] = yamcs.completedAt(tc.sequence(i)) - tc.sentAt(i);
+            }
+            Arrays.sort(roundTrips);
+            latency = new LinkStats(acks.apid(), roundTrips.length, 0, 0, 0, roundTrips);
+        }
+        return LoadStep.of(rate, load, interval.completed(), acks, interval.malformed(), latency);
+    }
+
+    /** Sends PINGs until the receiver has bound its socket and acknowledges. */
+    private void awaitUplink(final TelecommandGenerator tc) throws Exception {
+        yamcs.drain();
+        var completed = 0L;
+        final var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (completed == 0) {
+            assertThat(System.nanoTime()).as("uplink acknowledges a PING").isLessThan(deadline);
+            tc.sendOne();
+            Thread.sleep(50);
+            final var interval = yamcs.drain();
+            completed += interval.completed();
+        }
+        Thread.sleep(SETTLE.toMillis());
+        yamcs.drain();
+    }
+
+    /** Waits until the stand-in has gone {@link #SETTLE} without a new datagram, then drains it. */
+    private static YamcsStandIn.Interval settle() throws InterruptedException {
+        var seen = yamcs.datagrams();
+        long previous;
+        do {
+            Thread.sleep(SETTLE.toMillis());
+            previous = seen;
+            seen = yamcs.datagrams();
+        } while (seen != previous);
+        return yamcs.drain();
+    }
+
+    private static void finish(final LoadReport report, final String file) throws Exception {
+        report.write(Path.of("target", "load-test", file));
+        log.info("\n{}", report.format());
+        assertThat(report.maxSustainableRate()).as("at least the lowest rate is sustained").isPresent();
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * What the {@link YamcsStandIn} observed on one APID during one measurement interval.
+ *
+ * @param apid            application process identifier
+ * @param received        packets decoded
+ * @param gaps            packets missing from the sequence count, net of late arrivals
+ * @param reordered       packets that arrived after a later sequence count
+ * @param timeRegressions packets whose CUC time is earlier than the previous packet's
+ * @param latencyNanos    generation-to-receive latency of every packet, sorted ascending
+ */
+record LinkStats(int apid, long received, long gaps, long reordered, long timeRegressions, long[] latencyNanos) {
+
+    static LinkStats empty(final int apid) {
+        return new LinkStats(apid, 0, 0, 0, 0, new long[0]);
+    }
+
+    /** Latency percentile in milliseconds, NaN without samples. */
+    double latencyMillis(final double percentile) {
+        if (latencyNanos.length == 0) {
+            return Double.NaN;
+        }
+        final var index = (int) Math.min(latencyNanos.length - 1, Math.ceil(percentile * latencyNanos.length) - 1);
+        return latencyNanos[Math.max(0, index)] / 1e6;
+    }
+
+    static long[] sorted(final long[] samples, final int count) {
+        final var copy = Arrays.copyOf(samples, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+}
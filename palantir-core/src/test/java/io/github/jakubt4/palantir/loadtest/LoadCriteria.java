@@ -0,0 +1,42 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Ramp parameters and the bar a step must clear to count as sustainable. Every value can
+ * be overridden with a {@code -Dloadtest.*} system property, e.g.
+ * {@code mvn test -Pload-test -Dloadtest.tm-rates=5000,10000 -Dloadtest.step-seconds=10}.
+ *
+ * @param telemetryRates    TM packet rates to step through (per second), ascending
+ * @param telecommandRates  TC rates to step through (per second), ascending
+ * @param step              length of each step
+ * @param maxLossRatio      largest tolerated fraction of lost packets or commands
+ * @param minAchievedRatio  smallest tolerated fraction of the offered rate the generator must reach
+ * @param maxP99Millis      largest tolerated 99th-percentile latency
+ */
+record LoadCriteria(double[] telemetryRates,
+                    double[] telecommandRates,
+                    Duration step,
+                    double maxLossRatio,
+                    double minAchievedRatio,
+                    double maxP99Millis) {
+
+    static LoadCriteria fromSystemProperties() {
+        return new LoadCriteria(
+                rates("loadtest.tm-rates", "1000,2000,5000,10000,20000,50000,100000,200000"),
+                rates("loadtest.tc-rates", "100,200,500,1000,2000,5000,10000,20000"),
+                Duration.ofMillis((long) (Double.parseDouble(System.getProperty("loadtest.step-seconds", "3")) * 1000)),
+                Double.parseDouble(System.getProperty("loadtest.max-loss", "0.001")),
+                Double.parseDouble(System.getProperty("loadtest.min-achieved", "0.98")),
+                Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "50")));
+    }
+
+    private static double[] rates(final String property, final String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::strip)
+                .mapToDouble(Double::parseDouble)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of a ramped run: one row per step and the highest rate the link sustained.
+ * The ramp stops at the first step that fails, so every step below the reported maximum
+ * passed too.
+ */
+final class LoadReport {
+
+    private final String title;
+    private final String unit;
+    private final LoadCriteria criteria;
+    private final List<LoadStep> steps = new ArrayList<>();
+
+    LoadReport(final String title, final String unit, final LoadCriteria criteria) {
+        this.title = title;
+        this.unit = unit;
+        this.criteria = criteria;
+    }
+
+    /** @return whether the ramp should continue */
+    boolean add(final LoadStep step) {
+        steps.add(step);
+        return step.sustainable(criteria);
+    }
+
+    List<LoadStep> steps() {
+        return steps;
+    }
+
+    /** Delivered rate of the last sustainable step, empty if even the first failed. */
+    Optional<Double> maxSustainableRate() {
+        LoadStep best = null;
+        for (final var step : steps) {
+            if (!step.sustainable(criteria)) {
+                break;
+            }
+            best = step;
+        }
+        return Optional.ofNullable(best).map(LoadStep::deliveredRate);
+    }
+
+    String format() {
+        final var out = new StringBuilder();
+        out.append(title).append('\n');
+        out.append("criteria: loss <= %.3f%%, achieved >= %.0f%% of offered, p99 <= %.1f ms, no reordering, step %s%n"
+                .formatted(criteria.maxLossRatio() * 100, criteria.minAchievedRatio() * 100,
+                        criteria.maxP99Millis(), criteria.step()));
+        out.append("%10s %10s %10s %8s %9s %9s %9s %9s %9s %5s%n".formatted(
+                "offered/s", "sent/s", unit + "/s", "loss %", "reorder", "t-regr", "p50 ms", "p99 ms", "max ms", "ok"));
+        for (final var step : steps) {
+            out.append("%10.0f %10.0f %10.0f %8.3f %9d %9d %9.3f %9.3f %9.3f %5s%n".formatted(
+                    step.offeredRate(), step.achievedRate(), step.deliveredRate(), step.lossRatio() * 100,
+                    step.reordered(), step.timeRegressions(), step.p50Millis(), step.p99Millis(), step.maxMillis(),
+                    step.sustainable(criteria) ? "yes" : "NO"));
+        }
+        out.append(maxSustainableRate()
+                .map(rate -> "maximum sustainable: %.0f %s/s%n".formatted(rate, unit))
+                .orElse("no step was sustainable\n"));
+        return out.toString();
+    }
+
+    void write(final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, format());
+    }
+}
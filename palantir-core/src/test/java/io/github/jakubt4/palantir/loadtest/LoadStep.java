@@ -0,0 +1,59 @@
+package io.github.jakubt4.palantir.loadtest;
+
+/**
+ * Outcome of one constant-rate step of a ramp.
+ *
+ * @param offeredRate     target rate (per second)
+ * @param sent            packets or commands the generator emitted
+ * @param elapsedSeconds  length of the emission window
+ * @param delivered       packets decoded, or commands acknowledged COMPLETED
+ * @param reordered       late arrivals
+ * @param timeRegressions CUC times earlier than their predecessor's
+ * @param malformed       datagrams the stand-in could not decode
+ * @param p50Millis       median latency
+ * @param p99Millis       99th-percentile latency
+ * @param maxMillis       worst latency
+ */
+record LoadStep(double offeredRate,
+                long sent,
+                double elapsedSeconds,
+                long delivered,
+                long reordered,
+                long timeRegressions,
+                long malformed,
+                double p50Millis,
+                double p99Millis,
+                double maxMillis) {
+
+    static LoadStep of(final double offeredRate, final PacedLoad load, final long delivered,
+                       final LinkStats stats, final long malformed, final LinkStats latency) {
+        return new LoadStep(offeredRate, load.emitted(), load.elapsedNanos() / 1e9, delivered,
+                stats.reordered(), stats.timeRegressions(), malformed,
+                latency.latencyMillis(0.5), latency.latencyMillis(0.99), latency.latencyMillis(1.0));
+    }
+
+    double achievedRate() {
+        return sent / elapsedSeconds;
+    }
+
+    double deliveredRate() {
+        return delivered / elapsedSeconds;
+    }
+
+    /** Fraction of emissions never delivered. */
+    double lossRatio() {
+        return sent == 0 ? 0 : Math.max(0, sent - delivered) / (double) sent;
+    }
+
+    /**
+     * Whether the link kept up: the generator reached the offered rate, loss and p99
+     * latency stayed within bounds, and nothing arrived out of order or malformed.
+     */
+    boolean sustainable(final LoadCriteria criteria) {
+        return achievedRate() >= offeredRate * criteria.minAchievedRatio()
+                && lossRatio() <= criteria.maxLossRatio()
+                && !(p99Millis > criteria.maxP99Millis())
+                && reordered == 0
+                && malformed == 0;
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-loop load generator: emits at a fixed rate against a schedule fixed at the start,
+ * so a slow emission delays the ones behind it instead of lowering the offered rate —
+ * the shortfall shows up as {@link #achievedRate()} below the target, not as hidden
+ * back-pressure.
+ *
+ * @param emitted      emissions made
+ * @param elapsedNanos time from the first emission to the end of the window
+ */
+record PacedLoad(long emitted, long elapsedNanos) {
+
+    /** Parking shorter than this overshoots; the pacer spins instead. */
+    private static final long MIN_PARK_NANOS = 100_000;
+
+    /**
+     * @param ratePerSecond target emissions per second
+     * @param duration      length of the window
+     * @param emit          called with the emission index, on the calling thread
+     */
+    static PacedLoad run(final double ratePerSecond, final Duration duration, final LongConsumer emit) {
+        final var interval = 1e9 / ratePerSecond;
+        final var start = System.nanoTime();
+        final var end = start + duration.toNanos();
+        var emitted = 0L;
+        while (true) {
+            var now = System.nanoTime();
+            final var due = (long) ((now - start) / interval) + 1;
+            while (emitted < due && now < end) {
+                emit.accept(emitted++);
+                now = System.nanoTime();
+            }
+            if (now >= end) {
+                return new PacedLoad(emitted, now - start);
+            }
+            final var wait = start + (long) (emitted * interval) - now;
+            if (wait > MIN_PARK_NANOS) {
+                LockSupport.parkNanos(wait - MIN_PARK_NANOS / 2);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    double achievedRate() {
+        return emitted * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Drives {@code UdpCommandReceiver} the way the Yamcs {@code UdpTcDataLink} does: one
+ * raw telecommand per datagram, opcode in the first byte and the uplink sequence number
+ * in the next two, counting up across runs. Send times are kept per command so round
+ * trips can be matched by sequence against the acknowledgements the
+ * {@link YamcsStandIn} sees.
+ */
+final class TelecommandGenerator implements AutoCloseable {
+
+    private final DatagramSocket socket;
+    private final byte[] command;
+    private final DatagramPacket packet;
+    private long[] sentAt = new long[1024];
+    private int nextSequence;
+    private int runFirstSequence;
+
+    /**
+     * @param port    the receiver's UDP port on the loopback interface
+     * @param command datagram to send, opcode first; bytes 1–2 are overwritten with the sequence
+     */
+    TelecommandGenerator(final int port, final byte[] command) throws IOException {
+        socket = new DatagramSocket();
+        this.command = command.clone();
+        packet = new DatagramPacket(this.command, this.command.length, InetAddress.getLoopbackAddress(), port);
+    }
+
+    /** Sends a single command outside of any paced run. */
+    void sendOne() throws IOException {
+        send();
+    }
+
+    /** Sends at {@code ratePerSecond} for {@code duration}; {@link #sentAt} then covers this run. */
+    PacedLoad run(final double ratePerSecond, final Duration duration) {
+        runFirstSequence = nextSequence;
+        return PacedLoad.run(ratePerSecond, duration, index -> {
+            if (index == sentAt.length) {
+                sentAt = Arrays.copyOf(sentAt, sentAt.length * 2);
+            }
+            sentAt[(int) index] = System.nanoTime();
+            try {
+                send();
+            } catch (final IOException e) {
+                throw new IllegalStateException("Telecommand send failed", e);
+            }
+        });
+    }
+
+    /** {@link System#nanoTime()} at which the {@code index}-th command of the last run was sent. */
+    long sentAt(final int index) {
+        return sentAt[index];
+    }
+
+    /** Uplink sequence number of the {@code index}-th command of the last run. */
+    int sequence(final int index) {
+        return (runFirstSequence + index) & 0xFFFF;
+    }
+
+    private void send() throws IOException {
+        command[1] = (byte) (nextSequence >>> 8);
+        command[2] = (byte) nextSequence;
+        nextSequence = (nextSequence + 1) & 0xFFFF;
+        socket.send(packet);
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.jakubt4.palantir.loadtest;
+
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.uplink.CommandAckStage;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-process stand-in for the Yamcs telemetry link: a UDP sink that receives and decodes
+ * CCSDS Space Packets the way {@code UdpTmDataLink} + {@code CfsPacketPreprocessor}
+ * ({@code timeEncoding.epoch: TAI}) do — one packet per datagram of at most 1500 bytes,
+ * APID and 14-bit sequence count from the Primary Header, generation time from the
+ * 4 + 2 octet CUC at byte 6.
+ *
+ * <p>Per APID it checks sequence-count continuity (gaps and late arrivals, modulo
+ * 2<sup>14</sup>) and CUC time monotonicity, and measures generation-to-receive latency
+ * against the shared {@link LinkClock}. Datagrams shorter than both headers, or whose
+ * length disagrees with the Data Length field, are counted as malformed and dropped, as
+ * the preprocessor would.
+ *
+ * <p>Like a Yamcs {@code VerifierSet}, it also follows telecommand acknowledgements on
+ * APID {@value CcsdsTelemetrySender#COMMAND_ACK_APID}, recording when each uplink
+ * sequence number was reported {@link CommandAckStage#COMPLETED}.
+ *
+ * <p>Counters are per measurement interval ({@link #drain()}); sequence and time
+ * tracking carries over so interval boundaries do not show up as gaps. A single receive
+ * thread does all the accounting, so the sink itself stays well ahead of the link.
+ */
+final class YamcsStandIn implements AutoCloseable {
+
+    private static final int MAX_DATAGRAM = 1500;
+    private static final int HEADERS = 12;
+    private static final int RECEIVE_BUFFER = 8 << 20;
+
+    private final LinkClock clock;
+    private final DatagramSocket socket;
+    private final Thread receiver;
+    private final Map<Integer, Channel> channels = new TreeMap<>();
+    /** Arrival ({@link System#nanoTime()}) of the COMPLETED ack per uplink sequence, 0 if none yet. */
+    private final long[] completedAt = new long[1 << 16];
+    private long datagrams;
+    private long malformed;
+    private long accepted;
+    private long completed;
+    private long failed;
+    private volatile boolean running = true;
+
+    YamcsStandIn(final LinkClock clock) throws IOException {
+        this.clock = clock;
+        socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socket.setReceiveBufferSize(RECEIVE_BUFFER);
+        receiver = Thread.ofPlatform().name("yamcs-stand-in").daemon().start(this::receiveLoop);
+    }
+
+    int port() {
+        return socket.getLocalPort();
+    }
+
+    /** Returns what was observed since the previous call, per APID, and starts a new interval. */
+    synchronized Interval drain() {
+        final var stats = new TreeMap<Integer, LinkStats>();
+        channels.forEach((apid, channel) -> stats.put(apid, channel.drain(apid)));
+        final var interval = new Interval(stats, malformed, accepted, completed, failed);
+        malformed = 0;
+        accepted = 0;
+        completed = 0;
+        failed = 0;
+        return interval;
+    }
+
+    /** Datagrams received since the stand-in started; never reset. */
+    synchronized long datagrams() {
+        return datagrams;
+    }
+
+    /** Arrival of the COMPLETED ack for {@code uplinkSequence}, 0 if not seen since it last wrapped. */
+    synchronized long completedAt(final int uplinkSequence) {
+        return completedAt[uplinkSequence & 0xFFFF];
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        socket.close();
+        receiver.join(1000);
+    }
+
+    private void receiveLoop() {
+        final var buffer = new byte[MAX_DATAGRAM];
+        final var packet = new DatagramPacket(buffer, buffer.length);
+        while (running) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                final var arrival = System.nanoTime();
+                synchronized (this) {
+                    decode(ByteBuffer.wrap(buffer, 0, packet.getLength()), arrival);
+                }
+            } catch (final IOException e) {
+                if (running) {
+                    throw new IllegalStateException("Yamcs stand-in receive failed", e);
+                }
+            }
+        }
+    }
+
+    private void decode(final ByteBuffer packet, final long arrival) {
+        datagrams++;
+        final var length = packet.remaining();
+        if (length < HEADERS || (packet.getShort(4) & 0xFFFF) + 7 != length) {
+            malformed++;
+            return;
+        }
+        final var apid = packet.getShort(0) & 0x07FF;
+        final var sequence = packet.getShort(2) & 0x3FFF;
+        final var coarse = packet.getInt(6) & 0xFFFFFFFFL;
+        final var fine = packet.getShort(10) & 0xFFFF;
+        final var generated = coarse + fine / 65536.0;
+        final var latency = (long) ((clock.taiSeconds(arrival) - generated) * 1e9);
+        channels.computeIfAbsent(apid, k -> new Channel()).record(sequence, generated, latency);
+
+        if (apid == CcsdsTelemetrySender.COMMAND_ACK_APID && length >= HEADERS + 4) {
+            final var uplinkSequence = packet.getShort(HEADERS) & 0xFFFF;
+            final var stage = packet.get(HEADERS + 3);
+            if (stage == CommandAckStage.ACCEPTED.code()) {
+                accepted++;
+            } else if (stage == CommandAckStage.COMPLETED.code()) {
+                completed++;
+                completedAt[uplinkSequence] = arrival;
+            } else if (stage == CommandAckStage.FAILED.code()) {
+                failed++;
+            }
+        }
+    }
+
+    /**
+     * @param apids     per-APID link statistics
+     * @param malformed datagrams dropped as not a well-formed packet
+     * @param accepted  ACCEPTED acknowledgements
+     * @param completed COMPLETED acknowledgements
+     * @param failed    FAILED acknowledgements
+     */
+    record Interval(Map<Integer, LinkStats> apids, long malformed, long accepted, long completed, long failed) {
+
+        LinkStats apid(final int apid) {
+            return apids.getOrDefault(apid, LinkStats.empty(apid));
+        }
+    }
+
+    /** Sequence, time and latency tracking of one APID. Guarded by the stand-in's lock. */
+    private static final class Channel {
+
+        private static final int SEQUENCE_MODULUS = 1 << 14;
+
+        private int expected = -1;
+        private double lastGenerated = Double.NEGATIVE_INFINITY;
+        private long received;
+        private long gaps;
+        private long reordered;
+        private long timeRegressions;
+        private long[] latencies = new long[1024];
+
+        void record(final int sequence, final double generated, final long latencyNanos) {
+            if (received == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[(int) received++] = latencyNanos;
+            if (expected < 0) {
+                expected = (sequence + 1) % SEQUENCE_MODULUS;
+                lastGenerated = generated;
+                return;
+            }
+            final var ahead = (sequence - expected) & (SEQUENCE_MODULUS - 1);
+            if (ahead >= SEQUENCE_MODULUS / 2) {
+                // Behind the expected count: a late packet filling a gap already counted.
+                reordered++;
+                gaps--;
+                return;
+            }
+            gaps += ahead;
+            expected = (sequence + 1) % SEQUENCE_MODULUS;
+            if (generated < lastGenerated) {
+                timeRegressions++;
+            }
+            lastGenerated = generated;
+        }
+
+        LinkStats drain(final int apid) {
+            final var stats = new LinkStats(apid, received, gaps, reordered, timeRegressions,
+                    LinkStats.sorted(latencies, (int) received));
+            received = 0;
+            gaps = 0;
+            reordered = 0;
+            timeRegressions = 0;
+            return stats;
+        }
+    }
+}
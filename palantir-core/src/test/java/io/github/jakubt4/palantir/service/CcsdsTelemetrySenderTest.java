@@ -0,0 +1,94 @@
+package io.github.jakubt4.palantir.service;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.DateComponents;
+import org.orekit.time.TimeComponents;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CcsdsTelemetrySenderTest {
+
+    private static final int SECONDS = 2_145_000_000;
+
+    private static OrekitConfig orekitConfig;
+    private static AbsoluteDate taiEpoch;
+
+    private DatagramSocket ground;
+    private CcsdsTelemetrySender sender;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+        taiEpoch = new AbsoluteDate(new DateComponents(1958, 1, 1), TimeComponents.H00, TimeScalesFactory.getTAI());
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ground = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        ground.setSoTimeout(5_000);
+        sender = new CcsdsTelemetrySender(orekitConfig);
+        ReflectionTestUtils.setField(sender, "host", InetAddress.getLoopbackAddress().getHostAddress());
+        ReflectionTestUtils.setField(sender, "port", ground.getLocalPort());
+        sender.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.destroy();
+        ground.close();
+    }
+
+    @Test
+    void fractionJustBelowTheNextSecondCarriesIntoTheCoarseField() throws Exception {
+        // Within 2^-17 s of the next second: the fine field alone would round to 65536.
+        final var time = taiEpoch.shiftedBy(SECONDS).shiftedBy(0.999995);
+
+        sender.sendPacket(time, 48.1f, 17.1f, 420f);
+
+        final var packet = receive();
+        // Wrapping the fine field to 0 without the carry would send n s, a second back in time.
+        assertThat(Integer.toUnsignedLong(packet.getInt(6))).isEqualTo(SECONDS + 1L);
+        assertThat(Short.toUnsignedInt(packet.getShort(10))).isZero();
+        assertThat(decodeCuc(packet, 6).durationFrom(time)).isCloseTo(0, within(1.0 / 65536 / 2));
+    }
+
+    @Test
+    void cucTimeRoundTripsWithinHalfAFineTick() throws Exception {
+        for (final var fraction : new double[]{0.0, 0.5, 0.123456, 0.99999}) {
+            final var time = taiEpoch.shiftedBy(SECONDS).shiftedBy(fraction);
+
+            sender.sendPacket(time, 0f, 0f, 400f);
+
+            final var decoded = decodeCuc(receive(), 6);
+            assertThat(decoded.durationFrom(time)).as("fraction %s", fraction)
+                    .isCloseTo(0, within(1.0 / 65536 / 2));
+        }
+    }
+
+    private ByteBuffer receive() throws Exception {
+        final var buffer = new byte[64];
+        final var datagram = new DatagramPacket(buffer, buffer.length);
+        ground.receive(datagram);
+        return ByteBuffer.wrap(buffer, 0, datagram.getLength());
+    }
+
+    private static AbsoluteDate decodeCuc(final ByteBuffer packet, final int offset) {
+        final var coarse = Integer.toUnsignedLong(packet.getInt(offset));
+        final var fine = Short.toUnsignedInt(packet.getShort(offset + 4));
+        return taiEpoch.shiftedBy(coarse).shiftedBy(fine / 65536.0);
+    }
+}
@@ -4,12 +4,30 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import io.github.jakubt4.palantir.dto.TleRequest;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverCommand;
+import io.github.jakubt4.palantir.service.state.OrbitStateStore;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
 import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.IERSConventions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 
@@ -20,12 +38,22 @@ class OrbitPropagationServiceTest {
     private static final String TLE_LINE1 = "1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927";
     private static final String TLE_LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
 
+    // Hubble Space Telescope — a second, independent catalogue object
+    private static final String HST_LINE1 = "1 20580U 90037B   24001.50000000  .00001264  00000+0  64354-4 0  9994";
+    private static final String HST_LINE2 = "2 20580  28.4699 288.8102 0002579 321.7771 171.5855 15.24629183 31358";
+
     @MockBean
     private CcsdsTelemetrySender ccsdsTelemetrySender;
 
     @Autowired
     private OrbitPropagationService orbitPropagationService;
 
+    @Autowired
+    private OrbitStateStore orbitStateStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void resetMock() {
         Mockito.clearInvocations(ccsdsTelemetrySender);
@@ -66,4 +94,86 @@ class OrbitPropagationServiceTest {
         assertThat(altCaptor.getAllValues()).allSatisfy(alt ->
                 assertThat((double) alt).isGreaterThan(0.0));
     }
+
+    @Test
+    void trackedCatalogueIsPublishedToStateStore() {
+        orbitPropagationService.updateTle("ISS (ZARYA)", TLE_LINE1, TLE_LINE2);
+        final var catalogNumber = orbitPropagationService.trackTle("HST", HST_LINE1, HST_LINE2);
+        orbitPropagationService.propagateAndSend();
+
+        assertThat(catalogNumber).isEqualTo(20580);
+        assertThat(orbitStateStore.find(25544)).hasValueSatisfying(s ->
+                assertThat(s.name()).isEqualTo("ISS (ZARYA)"));
+        assertThat(orbitStateStore.find(20580)).hasValueSatisfying(s -> {
+            assertThat(s.name()).isEqualTo("HST");
+            assertThat(s.altitude()).isBetween(300.0, 700.0);
+        });
+    }
+
+    @Test
+    void catalogueBatchIsPublishedAsOneVersionStampedOnTickStates() {
+        final var before = orbitPropagationService.snapshot().version();
+
+        final var ingest = orbitPropagationService.trackTles(List.of(
+                new TleRequest("HST", HST_LINE1, HST_LINE2),
+                new TleRequest("BAD-SAT", "invalid", "invalid")));
+        orbitPropagationService.propagateAndSend();
+
+        assertThat(ingest.version()).isEqualTo(before + 1);
+        assertThat(ingest.outcomes().get(0).catalogNumber()).isEqualTo(20580);
+        assertThat(ingest.outcomes().get(1).tracked()).isFalse();
+        assertThat(ingest.outcomes().get(1).error()).startsWith("Invalid TLE");
+        assertThat(orbitStateStore.find(20580)).hasValueSatisfying(s ->
+                assertThat(s.catalogueVersion()).isEqualTo(ingest.version()));
+
+        final var hst = orbitPropagationService.snapshot().catalogue().get(20580);
+        assertThat(orbitPropagationService.untrack(List.of(hst))).isEqualTo(1);
+        assertThat(orbitPropagationService.untrack(List.of(hst))).isZero();
+        assertThat(orbitPropagationService.snapshot().version()).isEqualTo(ingest.version() + 1);
+    }
+
+    @Test
+    void tickSamplesManoeuvreEphemerisAfterBurnEpoch() {
+        orbitPropagationService.updateTle("HST", HST_LINE1, HST_LINE2);
+        // Received a minute ago, so with the default 10 s lead time the burn is already in the past.
+        eventPublisher.publishEvent(new ThrustManeuverCommand(0, 5, 0, 0, Instant.now().minusSeconds(60)));
+        await().atMost(Duration.ofSeconds(30))
+                .until(() -> orbitPropagationService.activeEphemeris().isPresent());
+
+        orbitPropagationService.propagateAndSend();
+
+        final var ephemeris = orbitPropagationService.activeEphemeris().orElseThrow();
+        final var state = orbitStateStore.find(20580).orElseThrow();
+        final var epoch = new AbsoluteDate(Date.from(state.epoch()), TimeScalesFactory.getUTC());
+        final var expected = ephemeris.stateAt(epoch)
+                .getPVCoordinates(FramesFactory.getITRF(IERSConventions.IERS_2010, true)).getPosition();
+        assertThat(Vector3D.distance(expected, new Vector3D(state.position()))).isLessThan(1.0);
+
+        // A fresh TLE for the active spacecraft supersedes the manoeuvre.
+        orbitPropagationService.updateTle("HST", HST_LINE1, HST_LINE2);
+        assertThat(orbitPropagationService.activeEphemeris()).isEmpty();
+    }
+
+    @Test
+    void tickFallsBackToSgp4PastTheEphemerisEnd() {
+        orbitPropagationService.updateTle("HST", HST_LINE1, HST_LINE2);
+        // Received seven hours ago with the default six-hour horizon: the ephemeris ended an hour ago.
+        eventPublisher.publishEvent(new ThrustManeuverCommand(0, 5, 0, 0, Instant.now().minus(Duration.ofHours(7))));
+        await().atMost(Duration.ofSeconds(60))
+                .until(() -> orbitPropagationService.activeEphemeris().isPresent());
+        final var ephemeris = orbitPropagationService.activeEphemeris().orElseThrow();
+
+        orbitPropagationService.propagateAndSend();
+
+        verify(ccsdsTelemetrySender, atLeastOnce()).sendPacket(any(), anyFloat(), anyFloat(), anyFloat());
+        final var state = orbitStateStore.find(20580).orElseThrow();
+        final var epoch = new AbsoluteDate(Date.from(state.epoch()), TimeScalesFactory.getUTC());
+        assertThat(ephemeris.isActiveAt(epoch)).isFalse();
+        assertThat(ephemeris.isExhaustedAt(epoch)).isTrue();
+        final var expected = TLEPropagator.selectExtrapolator(new TLE(HST_LINE1, HST_LINE2))
+                .getPVCoordinates(epoch, FramesFactory.getITRF(IERSConventions.IERS_2010, true)).getPosition();
+        assertThat(Vector3D.distance(expected, new Vector3D(state.position()))).isLessThan(1.0);
+
+        orbitPropagationService.updateTle("HST", HST_LINE1, HST_LINE2);
+    }
 }
@@ -0,0 +1,127 @@
+package io.github.jakubt4.palantir.service.catalogue;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.time.AbsoluteDate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueEntriesTest {
+
+    @BeforeAll
+    static void loadOrekitData() {
+        new OrekitConfig().init();
+    }
+
+    @Test
+    void iteratesInCatalogueNumberOrderAcrossChunks() {
+        final var numbers = IntStream.range(0, 1000).map(i -> (i * 7919) % 1000 + 1).toArray();
+        final var entries = CatalogueEntries.EMPTY.putAll(objects(numbers));
+
+        assertThat(entries.size()).isEqualTo(1000);
+        assertThat(entries.chunkCount()).isGreaterThan(1000 / CatalogueEntries.MAX_CHUNK);
+        assertThat(entries.toList()).extracting(TrackedObject::catalogNumber)
+                .isEqualTo(IntStream.rangeClosed(1, 1000).boxed().toList());
+        assertThat(entries).extracting(TrackedObject::catalogNumber).isSorted();
+        for (var c = 0; c < entries.chunkCount(); c++) {
+            assertThat(entries.chunk(c).length).isLessThanOrEqualTo(CatalogueEntries.MAX_CHUNK);
+        }
+        assertThat(entries.get(500).catalogNumber()).isEqualTo(500);
+        assertThat(entries.get(1001)).isNull();
+        assertThat(entries.get(0)).isNull();
+    }
+
+    @Test
+    void lastObjectWithANumberWinsAndReplacesTheStoredEntry() {
+        final var first = object(42, "FIRST");
+        final var second = object(42, "SECOND");
+        final var replacement = object(42, "REPLACEMENT");
+
+        final var entries = CatalogueEntries.EMPTY.putAll(List.of(first, object(7, "OTHER"), second));
+        assertThat(entries.size()).isEqualTo(2);
+        assertThat(entries.get(42)).isSameAs(second);
+
+        final var replaced = entries.putAll(List.of(replacement));
+        assertThat(replaced.size()).isEqualTo(2);
+        assertThat(replaced.get(42)).isSameAs(replacement);
+        assertThat(entries.get(42)).isSameAs(second);
+    }
+
+    @Test
+    void smallUpdateSharesEveryUntouchedChunk() {
+        final var entries = CatalogueEntries.EMPTY.putAll(objects(IntStream.rangeClosed(1, 2000).toArray()));
+
+        final var updated = entries.putAll(List.of(object(1000, "UPDATED")));
+
+        assertThat(updated.get(1000).name()).isEqualTo("UPDATED");
+        assertThat(updated.chunkCount()).isEqualTo(entries.chunkCount());
+        var copied = 0;
+        for (var c = 0; c < entries.chunkCount(); c++) {
+            if (updated.chunk(c) != entries.chunk(c)) {
+                copied++;
+            }
+        }
+        assertThat(copied).isEqualTo(1);
+    }
+
+    @Test
+    void growingChunkIsSplit() {
+        final var entries = CatalogueEntries.EMPTY.putAll(objects(IntStream.rangeClosed(1, 100).toArray()));
+        assertThat(entries.chunkCount()).isEqualTo(1);
+
+        final var grown = entries.putAll(objects(IntStream.rangeClosed(101, 300).toArray()));
+
+        assertThat(grown.size()).isEqualTo(300);
+        assertThat(grown.chunkCount()).isGreaterThan(2);
+        assertThat(grown).extracting(TrackedObject::catalogNumber)
+                .isEqualTo(IntStream.rangeClosed(1, 300).boxed().toList());
+    }
+
+    @Test
+    void removeKeepsEntriesReplacedInTheMeantime() {
+        final var stale = object(2, "STALE");
+        final var entries = CatalogueEntries.EMPTY.putAll(List.of(object(1, "A"), stale, object(3, "C")));
+        final var current = entries.putAll(List.of(object(2, "CURRENT")));
+
+        assertThat(current.removeAll(List.of(stale))).isSameAs(current);
+
+        final var removed = current.removeAll(List.of(current.get(1), current.get(2)));
+        assertThat(removed).extracting(TrackedObject::name).containsExactly("C");
+        assertThat(current.size()).isEqualTo(3);
+    }
+
+    @Test
+    void removalsMergeSmallChunksAndCanEmptyTheCatalogue() {
+        final var all = objects(IntStream.rangeClosed(1, 1000).toArray());
+        final var entries = CatalogueEntries.EMPTY.putAll(all);
+
+        final var remaining = entries.removeAll(all.subList(10, 990));
+        assertThat(remaining).extracting(TrackedObject::catalogNumber)
+                .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 991, 992, 993, 994, 995, 996, 997, 998, 999, 1000);
+        assertThat(remaining.chunkCount()).isEqualTo(1);
+        assertThat(remaining.get(995).catalogNumber()).isEqualTo(995);
+
+        assertThat(entries.removeAll(all).isEmpty()).isTrue();
+    }
+
+    static List<TrackedObject> objects(final int[] numbers) {
+        final var objects = new ArrayList<TrackedObject>(numbers.length);
+        for (final var number : numbers) {
+            objects.add(object(number, "OBJ-" + number));
+        }
+        return objects;
+    }
+
+    static TrackedObject object(final int number, final String name) {
+        final var tle = new TLE(number, 'U', 2000, 1, "A", 0, 999, AbsoluteDate.J2000_EPOCH,
+                0.001, 0, 0, 0.001, 0.9, 0, 0, 0, 1, 0);
+        return new TrackedObject(name, tle, null);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.jakubt4.palantir.service.catalogue;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.jakubt4.palantir.service.catalogue.CatalogueEntriesTest.object;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class VersionedCatalogueTest {
+
+    private SimpleMeterRegistry registry;
+    private VersionedCatalogue catalogue;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        new OrekitConfig().init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        catalogue = new VersionedCatalogue(registry, 3);
+    }
+
+    @Test
+    void everyChangeIsOneNewVersionAndReadersKeepTheirSnapshot() {
+        final var before = catalogue.current();
+
+        final var batch = catalogue.publish(s -> s.withTracked(List.of(object(1, "A"), object(2, "B")), "batch"));
+        final var active = catalogue.publish(s -> s.withActive(object(25544, "ISS"), "active"));
+
+        assertThat(before.version()).isZero();
+        assertThat(before.isEmpty()).isTrue();
+        assertThat(batch.version()).isEqualTo(1);
+        assertThat(batch.catalogue().size()).isEqualTo(2);
+        assertThat(batch.active()).isEmpty();
+        assertThat(active.version()).isEqualTo(2);
+        assertThat(active.find(25544)).isPresent();
+        assertThat(active.registeredObjects()).extracting(TrackedObject::catalogNumber).containsExactly(1, 2, 25544);
+        assertThat(catalogue.current()).isSameAs(active);
+        assertThat(registry.get("palantir.catalogue.version").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void changeThatLeavesTheSnapshotAsIsPublishesNothing() {
+        catalogue.publish(s -> s.withTracked(List.of(object(1, "A")), "batch"));
+
+        final var unchanged = catalogue.publish(s -> s.withoutTracked(List.of(object(1, "OTHER")), "untrack"));
+
+        assertThat(unchanged.version()).isEqualTo(1);
+        assertThat(catalogue.history()).hasSize(2);
+    }
+
+    @Test
+    void snapshotNotDerivedFromTheCurrentOneIsRefused() {
+        final var stale = catalogue.current();
+        catalogue.publish(s -> s.withTracked(List.of(object(1, "A")), "batch"));
+
+        assertThatThrownBy(() -> catalogue.publish(s -> stale.withTracked(List.of(object(2, "B")), "stale")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(catalogue.current().version()).isEqualTo(1);
+    }
+
+    @Test
+    void historyKeepsTheMostRecentVersionsNewestFirst() {
+        for (var i = 1; i <= 5; i++) {
+            final var number = i;
+            catalogue.publish(s -> s.withTracked(List.of(object(number, "OBJ")), "batch " + number));
+        }
+
+        assertThat(catalogue.history()).extracting(CatalogueSnapshot::version).containsExactly(5L, 4L, 3L);
+        assertThat(catalogue.history()).extracting(CatalogueSnapshot::change)
+                .containsExactly("batch 5", "batch 4", "batch 3");
+    }
+
+    @Test
+    void rollbackRepublishesRetainedCatalogueAsANewVersion() {
+        final var good = catalogue.publish(s -> s.withTracked(List.of(object(1, "A")), "good"));
+        catalogue.publish(s -> s.withTracked(List.of(object(1, "A (BAD TLE)")), "bad"));
+        final var active = catalogue.publish(s -> s.withActive(object(25544, "ISS"), "active"));
+
+        final var restored = catalogue.rollback(good.version()).orElseThrow();
+
+        assertThat(restored.version()).isEqualTo(4);
+        assertThat(restored.change()).isEqualTo("rollback to v1");
+        assertThat(restored.find(1).orElseThrow()).isSameAs(good.find(1).orElseThrow());
+        // The active spacecraft and its manoeuvre are not rolled back with the catalogue.
+        assertThat(restored.active().orElseThrow()).isSameAs(active.active().orElseThrow());
+        final var ephemeris = mock(ManoeuvreEphemeris.class);
+        assertThat(active.withEphemeris(ephemeris, "burn").restoring(good, catalogNumber -> true).ephemeris())
+                .containsSame(ephemeris);
+        assertThat(catalogue.current()).isSameAs(restored);
+        assertThat(catalogue.rollback(0)).as("v0 fell out of a history of 3").isEmpty();
+        assertThat(catalogue.rollback(99)).isEmpty();
+    }
+
+    @Test
+    void rollbackRestoresOnlyTheEntriesKept() {
+        final var good = catalogue.publish(s -> s.withTracked(List.of(object(1, "A"), object(2, "B")), "batch"));
+        catalogue.publish(s -> s.withTracked(List.of(object(3, "C")), "batch"));
+
+        final var restored = catalogue.rollback(good.version(), catalogNumber -> catalogNumber != 2).orElseThrow();
+
+        assertThat(restored.change()).isEqualTo("rollback to v1");
+        assertThat(restored.catalogue().toList()).extracting(TrackedObject::catalogNumber).containsExactly(1);
+        assertThat(good.catalogue().size()).as("the retained version is not modified").isEqualTo(2);
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.jakubt4.palantir.service.cluster;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.DownlinkHandoff;
+import io.github.jakubt4.palantir.dto.TleRequest;
+import io.github.jakubt4.palantir.dto.TleResponse;
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverCommand;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogueRouterTest {
+
+    private static final String A = "http://localhost:8080";
+    private static final String B = "http://localhost:8081";
+    private static final String C = "http://localhost:8082";
+    private static final String LINE1 = "1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+
+    @Mock
+    private ClusterMembership membership;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    @Mock
+    private CcsdsTelemetrySender ccsdsTelemetrySender;
+
+    private CatalogueRouter router;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        new OrekitConfig().init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        router = spy(new CatalogueRouter(membership, orbitPropagationService, ccsdsTelemetrySender, null, 5, 1000));
+        lenient().when(membership.self()).thenReturn(A);
+    }
+
+    @Test
+    void handOffMovesAcceptedEntriesAndKeepsUnreachableOwnersShard() {
+        final var ring = ConsistentHashRing.of(List.of(A, B, C), 128);
+        final var objects = IntStream.rangeClosed(1, 60).mapToObj(CatalogueRouterTest::tracked).toList();
+        when(orbitPropagationService.catalogueObjects()).thenReturn(objects);
+        when(orbitPropagationService.untrack(any()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        final var batches = new ArrayList<List<?>>();
+        doAnswer(invocation -> {
+            final List<?> requests = invocation.getArgument(2);
+            batches.add(requests);
+            return requests.stream().map(r -> new TleResponse(((TleRequest) r).satelliteName(), "TRACKED", "")).toList();
+        }).when(router).post(eq(B), eq("/api/orbit/catalogue"), any(), any());
+        doThrow(new ResourceAccessException("Connection refused"))
+                .when(router).post(eq(C), anyString(), any(), any());
+
+        final var handedOff = router.handOff(ring);
+
+        final var ownedByB = objects.stream().filter(o -> ring.owner(o.catalogNumber()).equals(B)).toList();
+        assertThat(handedOff).isEqualTo(ownedByB.size()).isPositive();
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(5));
+        final var untracked = ArgumentCaptor.<Collection<TrackedObject>>captor();
+        verify(orbitPropagationService, times(batches.size())).untrack(untracked.capture());
+        assertThat(untracked.getAllValues()).flatExtracting(batch -> batch)
+                .containsExactlyInAnyOrderElementsOf(ownedByB);
+    }
+
+    @Test
+    void remoteOwnerReadsCatalogueNumberWithoutParsingTheTle() {
+        when(membership.isEnabled()).thenReturn(true);
+        when(membership.ring()).thenReturn(ConsistentHashRing.of(List.of(A, B, C), 128));
+        final var expected = ConsistentHashRing.of(List.of(A, B, C), 128).owner(25544);
+
+        assertThat(router.remoteOwner(LINE1)).isEqualTo(expected.equals(A)
+                ? Optional.empty() : Optional.of(expected));
+        assertThat(router.remoteOwner("invalid")).isEmpty();
+        assertThat(CatalogueRouter.catalogNumber("1 A0001U 98067A")).isEqualTo(100_001);
+        assertThat(CatalogueRouter.catalogNumber("1 Z9999U 98067A")).isEqualTo(339_999);
+    }
+
+    @Test
+    void manoeuvreIsReplicatedToEveryPeerAndTheOwnerDecides() {
+        final var ring = ConsistentHashRing.of(List.of(A, B, C), 128);
+        final var catalogNumber = IntStream.rangeClosed(1, 1000)
+                .filter(id -> ring.owner(id).equals(B)).findFirst().orElseThrow();
+        when(membership.isEnabled()).thenReturn(true);
+        when(membership.ring()).thenReturn(ring);
+        when(orbitPropagationService.activeObject()).thenReturn(Optional.of(tracked(catalogNumber)));
+        final var command = new ThrustManeuverCommand(0, 1, 0, 0, Instant.parse("2008-09-21T12:00:00Z"));
+        doReturn(null).when(router).post(eq(B), eq("/api/cluster/manoeuvre"), eq(command), any());
+        doThrow(new ResourceAccessException("Connection refused"))
+                .when(router).post(eq(C), eq("/api/cluster/manoeuvre"), eq(command), any());
+
+        final var owner = router.replicateManoeuvre(command);
+
+        assertThat(owner).isPresent();
+        assertThat(owner.get().join()).isTrue();
+        verify(router, timeout(5_000)).post(eq(C), eq("/api/cluster/manoeuvre"), eq(command), any());
+    }
+
+    @Test
+    void ownerOfTheActiveSpacecraftPlansManoeuvreItself() {
+        final var ring = ConsistentHashRing.of(List.of(A, B), 128);
+        final var catalogNumber = IntStream.rangeClosed(1, 1000)
+                .filter(id -> ring.owner(id).equals(A)).findFirst().orElseThrow();
+        when(membership.isEnabled()).thenReturn(true);
+        when(membership.ring()).thenReturn(ring);
+        when(orbitPropagationService.activeObject()).thenReturn(Optional.of(tracked(catalogNumber)));
+        final var command = new ThrustManeuverCommand(0, 1, 0, 0, Instant.parse("2008-09-21T12:00:00Z"));
+        doReturn(null).when(router).post(eq(B), anyString(), any(), any());
+
+        assertThat(router.replicateManoeuvre(command)).isEmpty();
+        verify(router, timeout(5_000)).post(eq(B), eq("/api/cluster/manoeuvre"), eq(command), any());
+    }
+
+    @Test
+    void downlinkSequenceIsHandedToTheNewOwnerOnce() {
+        final var ring = ConsistentHashRing.of(List.of(A, B), 128);
+        final var catalogNumber = IntStream.rangeClosed(1, 1000)
+                .filter(id -> ring.owner(id).equals(B)).findFirst().orElseThrow();
+        when(orbitPropagationService.activeObject()).thenReturn(Optional.of(tracked(catalogNumber)));
+        final var handoff = new DownlinkHandoff(1234, 1_700_000_000_000L);
+        when(ccsdsTelemetrySender.downlinkHandoff()).thenReturn(handoff);
+        doReturn(null).when(router).post(eq(B), eq("/api/cluster/downlink"), eq(handoff), any());
+
+        assertThat(router.handOffDownlink(ring)).isTrue();
+        assertThat(router.handOffDownlink(ring)).isFalse();
+        verify(router, times(1)).post(eq(B), eq("/api/cluster/downlink"), any(), any());
+    }
+
+    @Test
+    void memberThatNeverDownlinkedHandsNothingOff() {
+        final var ring = ConsistentHashRing.of(List.of(A, B), 128);
+        final var catalogNumber = IntStream.rangeClosed(1, 1000)
+                .filter(id -> ring.owner(id).equals(B)).findFirst().orElseThrow();
+        when(orbitPropagationService.activeObject()).thenReturn(Optional.of(tracked(catalogNumber)));
+        when(ccsdsTelemetrySender.downlinkHandoff()).thenReturn(new DownlinkHandoff(0, 0));
+
+        assertThat(router.handOffDownlink(ring)).isFalse();
+        verify(router, never()).post(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void takenOverDownlinkSkipsTheTicksSinceTheLastPacket() {
+        router.onDownlinkHandoff(new DownlinkHandoff(0x3FFF, System.currentTimeMillis() - 2_500));
+
+        // Two ticks elapsed at 1 Hz: the count wraps past 0x3FFF to 1.
+        verify(ccsdsTelemetrySender).continueDownlink(1);
+    }
+
+    @Test
+    void forwardedHeaderIsTrustedOnlyFromPeers() {
+        when(membership.isPeerAddress("127.0.0.1")).thenReturn(true);
+
+        assertThat(router.trustForwarded(true, "127.0.0.1")).isTrue();
+        assertThat(router.trustForwarded(true, "10.20.30.40")).isFalse();
+        assertThat(router.trustForwarded(false, "127.0.0.1")).isFalse();
+    }
+
+    /** A valid TLE for {@code catalogNumber}, built from the ISS set with recomputed checksums. */
+    private static TrackedObject tracked(final int catalogNumber) {
+        final var line1 = withChecksum("1 %05dU".formatted(catalogNumber) + LINE1.substring(8, 68));
+        final var line2 = withChecksum("2 %05d".formatted(catalogNumber) + LINE2.substring(7, 68));
+        final var tle = new TLE(line1, line2);
+        return new TrackedObject("OBJ-" + catalogNumber, tle, TLEPropagator.selectExtrapolator(tle));
+    }
+
+    private static String withChecksum(final String line) {
+        var sum = 0;
+        for (final var c : line.toCharArray()) {
+            sum += Character.isDigit(c) ? c - '0' : c == '-' ? 1 : 0;
+        }
+        return line + sum % 10;
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.jakubt4.palantir.service.cluster;
+
+import io.github.jakubt4.palantir.dto.ClusterHeartbeat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+class ClusterMembershipTest {
+
+    private static final String A = "http://localhost:8080";
+    private static final String B = "http://localhost:8081";
+    private static final String C = "http://localhost:8082";
+    private static final int KEYS = 30_000;
+    /** Client address of the in-process exchanges; every member here runs on localhost. */
+    private static final String LOOPBACK = "127.0.0.1";
+
+    /** In-process "network": members reachable by URL, and the ones that have crashed. */
+    private final Map<String, ClusterMembership> network = new ConcurrentHashMap<>();
+    private final Set<String> down = ConcurrentHashMap.newKeySet();
+    private final List<ClusterMembership> started = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(ClusterMembership::close);
+    }
+
+    @Test
+    void ringSplitsCatalogueEvenlyAndStably() {
+        final var ring = ConsistentHashRing.of(List.of(A, B, C, "http://localhost:8083"), 128);
+        final var shares = new HashMap<String, Integer>();
+        for (var id = 1; id <= KEYS; id++) {
+            shares.merge(ring.owner(id), 1, Integer::sum);
+        }
+
+        assertThat(shares).hasSize(4);
+        assertThat(shares.values()).allSatisfy(share ->
+                assertThat(share).isBetween((int) (KEYS / 4 * 0.8), (int) (KEYS / 4 * 1.2)));
+        assertThat(ConsistentHashRing.of(List.of("http://localhost:8083", C, B, A), 128).owner(25544))
+                .isEqualTo(ring.owner(25544));
+    }
+
+    @Test
+    void joiningMemberTakesOverOnlyItsOwnShare() {
+        final var before = ConsistentHashRing.of(List.of(A, B, C), 128);
+        final var after = ConsistentHashRing.of(List.of(A, B, C, "http://localhost:8083"), 128);
+
+        var moved = 0;
+        for (var id = 1; id <= KEYS; id++) {
+            final var owner = after.owner(id);
+            if (!owner.equals(before.owner(id))) {
+                assertThat(owner).isEqualTo("http://localhost:8083");
+                moved++;
+            }
+        }
+        assertThat((double) moved / KEYS).isBetween(0.18, 0.32);
+    }
+
+    @Test
+    void gossipConvergesThroughSeedsAndDropsSilentMember() throws Exception {
+        final var a = member(A, 300, B);
+        final var b = member(B, 300, A);
+        final var c = member(C, 300, B);
+
+        for (var round = 0; round < 3; round++) {
+            gossip(a, b, c);
+        }
+        assertThat(a.ring().members()).containsExactly(A, B, C);
+        assertThat(b.ring().members()).containsExactly(A, B, C);
+        assertThat(c.ring().members()).containsExactly(A, B, C);
+        assertThat(List.of(a, b, c)).filteredOn(member -> member.owns(25544)).hasSize(1);
+
+        down.add(C);
+        final var deadline = System.nanoTime() + 2_000_000_000L;
+        while (a.ring().members().size() == 3 || b.ring().members().size() == 3) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(50);
+            gossip(a, b);
+        }
+        assertThat(a.ring().members()).containsExactly(A, B);
+        assertThat(b.ring().members()).containsExactly(A, B);
+    }
+
+    @Test
+    void gracefulLeaveRemovesMemberAtOnce() {
+        final var a = member(A, 60_000, B);
+        final var b = member(B, 60_000, A);
+        assertThat(a.ringSince()).isEqualTo(Instant.EPOCH);
+        gossip(b, a);
+        assertThat(a.ring().members()).containsExactly(A, B);
+        final var joined = a.ringSince();
+        assertThat(joined).isAfter(Instant.EPOCH);
+
+        assertThat(b.departureRing().members()).containsExactly(A);
+        final var stale = new HashMap<>(b.onHeartbeat(new ClusterHeartbeat(A, Map.of()), LOOPBACK).heartbeats());
+        b.leave();
+        // b's last counter, still circulating in a third party's gossip, must not bring it back.
+        stale.put(C, 1L);
+        a.onHeartbeat(new ClusterHeartbeat(C, stale), LOOPBACK);
+
+        assertThat(a.ring().members()).containsExactly(A, C);
+        assertThat(a.ringSince()).isAfterOrEqualTo(joined);
+    }
+
+    @Test
+    void onlySeedHostsArePeers() {
+        final var member = member(A, 60_000, "http://127.0.0.1:8081", "http://unresolvable.invalid:8082");
+        final var standalone = new ClusterMembership(null, mock(ApplicationEventPublisher.class),
+                false, A, new String[]{"http://127.0.0.1:8081"}, 5_000, 128);
+        started.add(standalone);
+
+        assertThat(member.isPeerAddress("127.0.0.1")).isTrue();
+        assertThat(member.isPeerAddress("10.20.30.40")).isFalse();
+        assertThat(member.isPeerAddress(null)).isFalse();
+        // Gossip alone does not make a member a peer.
+        member.onHeartbeat(new ClusterHeartbeat("http://10.20.30.40:8080", Map.of("http://10.20.30.40:8080", 1L)),
+                "10.20.30.40");
+        assertThat(member.isPeerAddress("10.20.30.40")).isFalse();
+        assertThat(standalone.isPeerAddress("127.0.0.1")).isFalse();
+    }
+
+    @Test
+    void heartbeatFromOutsideThePeersVouchesOnlyForSeeds() {
+        final var seed = "http://127.0.0.1:8081";
+        final var member = member(A, 60_000, seed);
+        final var forged = "http://10.20.30.40:8080";
+
+        member.onHeartbeat(new ClusterHeartbeat(forged, Map.of(forged, 1L)), "10.20.30.40");
+        assertThat(member.ring().members()).containsExactly(A);
+
+        member.onHeartbeat(new ClusterHeartbeat(forged, Map.of(forged, 2L, seed, 1L)), "10.20.30.40");
+        assertThat(member.ring().members()).containsExactlyInAnyOrder(A, seed);
+
+        // Relayed by a peer, gossip about any member counts.
+        member.onHeartbeat(new ClusterHeartbeat(seed, Map.of(seed, 2L, C, 1L)), LOOPBACK);
+        assertThat(member.ring().members()).containsExactlyInAnyOrder(A, seed, C);
+    }
+
+    private ClusterMembership member(final String url, final long failureTimeoutMs, final String... seeds) {
+        final var member = spy(new ClusterMembership(null, mock(ApplicationEventPublisher.class),
+                true, url, seeds, failureTimeoutMs, 128));
+        doAnswer(invocation -> {
+            final String peer = invocation.getArgument(0);
+            if (down.contains(peer)) {
+                throw new ResourceAccessException("Connection refused: " + peer);
+            }
+            return network.get(peer).onHeartbeat(invocation.getArgument(1), LOOPBACK);
+        }).when(member).exchange(anyString(), any());
+        doAnswer(invocation -> {
+            network.get((String) invocation.getArgument(0)).onLeave(invocation.getArgument(1));
+            return null;
+        }).when(member).sendLeave(anyString(), any());
+        network.put(url, member);
+        started.add(member);
+        return member;
+    }
+
+    private static void gossip(final ClusterMembership... members) {
+        for (final var member : members) {
+            member.gossip().join();
+        }
+    }
+}
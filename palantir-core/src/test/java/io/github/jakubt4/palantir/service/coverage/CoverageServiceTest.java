@@ -0,0 +1,229 @@
+package io.github.jakubt4.palantir.service.coverage;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.CoverageRequest;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoverageServiceTest {
+
+    private static final Instant START = Instant.parse("2008-09-21T00:00:00Z");
+
+    private static OrekitConfig orekitConfig;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+    }
+
+    @Test
+    void singleSatelliteCoversOnlyLatitudesItReaches() {
+        when(orbitPropagationService.snapshot()).thenReturn(catalogue(walker(1, 1, 51.6)));
+        final var service = service(1);
+
+        final var result = service.analyse(new CoverageRequest(null, START, START.plusSeconds(86_400),
+                60.0, 2.0, 10.0)).orElseThrow();
+
+        assertThat(result.rows()).isEqualTo(90);
+        assertThat(result.cols()).isEqualTo(180);
+        assertThat(result.steps()).isEqualTo(1441);
+        assertThat(result.satellites()).isEqualTo(1);
+        assertThat(result.catalogueVersion()).isEqualTo(1);
+        // 51.6° inclination + ~20° footprint at 10° elevation: nothing beyond ~72°.
+        for (var col = 0; col < result.cols(); col++) {
+            assertThat(result.coverage()[col]).isZero();
+            assertThat(result.maxRevisitSeconds()[col]).isNaN();
+            assertThat(result.coverage()[(result.rows() - 1) * result.cols() + col]).isZero();
+        }
+        final var equator = (result.rows() / 2) * result.cols();
+        for (var col = 0; col < result.cols(); col++) {
+            final var cell = equator + col;
+            assertThat(result.coverage()[cell]).isBetween(0.001f, 0.2f);
+            if (!Float.isNaN(result.maxRevisitSeconds()[cell])) {
+                assertThat(result.maxRevisitSeconds()[cell])
+                        .isGreaterThanOrEqualTo(result.meanRevisitSeconds()[cell])
+                        .isGreaterThan(60f);
+            }
+        }
+    }
+
+    @Test
+    void slicedRunMatchesSequentialRun() {
+        final var constellation = walker(12, 3, 53.0);
+        when(orbitPropagationService.snapshot()).thenReturn(catalogue(constellation));
+        final var request = new CoverageRequest(null, START, START.plusSeconds(6 * 3600), 30.0, 3.0, 15.0);
+
+        final var sequential = service(1).analyse(request).orElseThrow();
+        final var sliced = service(16).analyse(request).orElseThrow();
+
+        assertThat(sliced.coverage()).containsExactly(sequential.coverage());
+        assertThat(sliced.maxRevisitSeconds()).containsExactly(sequential.maxRevisitSeconds());
+        assertThat(sliced.meanRevisitSeconds()).containsExactly(sequential.meanRevisitSeconds());
+    }
+
+    @Test
+    void gridMergeBridgesSliceBoundary() {
+        final var left = new CoverageGrid(2);
+        left.mark(0, 1, 0);
+        left.mark(0, 0, 1);
+        left.mark(0, 0, 1);   // overlapping footprints count once
+        final var right = new CoverageGrid(2);
+        right.mark(0, 0, 5);
+        right.mark(0, 0, 7);
+
+        final var merged = left.merge(right);
+
+        assertThat(merged.accessed(0)).isEqualTo(4);
+        assertThat(merged.accessed(1)).isEqualTo(1);
+        assertThat(merged.maxGap).containsExactly(4, 0);
+        assertThat(merged.gapSum).containsExactly(6L, 0L);
+        assertThat(merged.gapCount).containsExactly(2, 0);
+        assertThat(merged.first).containsExactly(0, 0);
+        assertThat(merged.last).containsExactly(7, 0);
+    }
+
+    @Test
+    void encodesHeaderAndMaps() throws Exception {
+        when(orbitPropagationService.snapshot()).thenReturn(catalogue(walker(2, 2, 98.0)));
+        final var result = service(2).analyse(new CoverageRequest(null, START, START.plusSeconds(3600),
+                10.0, 10.0, 0.0)).orElseThrow();
+
+        final var out = new ByteArrayOutputStream();
+        CoverageEncoder.write(result, out);
+
+        final var buffer = ByteBuffer.wrap(out.toByteArray());
+        assertThat(buffer.remaining()).isEqualTo(CoverageEncoder.HEADER_LENGTH + 3 * result.cells() * Float.BYTES);
+        assertThat(new String(out.toByteArray(), 0, 4)).isEqualTo("PCOV");
+        buffer.position(4);
+        assertThat(buffer.get()).isEqualTo((byte) CoverageEncoder.FORMAT_VERSION);
+        assertThat(buffer.getShort()).isEqualTo((short) 18);
+        assertThat(buffer.getShort()).isEqualTo((short) 36);
+        assertThat(buffer.getFloat()).isEqualTo(10f);
+        assertThat(buffer.getLong()).isEqualTo(START.toEpochMilli());
+        assertThat(buffer.getFloat()).isEqualTo(10f);
+        assertThat(buffer.getInt()).isEqualTo(361);
+        assertThat(buffer.getShort()).isEqualTo((short) 2);
+        final var maps = buffer.asFloatBuffer();
+        for (var c = 0; c < result.cells(); c++) {
+            assertThat(maps.get(c)).isEqualTo(result.coverage()[c]);
+        }
+        maps.position(2 * result.cells());
+        final var meanRevisit = new float[result.cells()];
+        maps.get(meanRevisit);
+        assertThat(meanRevisit).containsExactly(result.meanRevisitSeconds());
+    }
+
+    @Test
+    void activeSpacecraftIsAnalysedFromItsEphemerisFromTheBurnOn() {
+        final var satellite = walker(1, 1, 51.6).get(0);
+        final var burnEpoch = new AbsoluteDate(Date.from(START), TimeScalesFactory.getUTC()).shiftedBy(43_200);
+        final var end = burnEpoch.shiftedBy(3_600);
+        // Post-burn ephemeris parks the spacecraft at 85° N, far beyond anything SGP4 reaches.
+        final var ephemeris = mock(ManoeuvreEphemeris.class);
+        when(ephemeris.burnEpoch()).thenReturn(burnEpoch);
+        when(ephemeris.stateAt(any())).thenAnswer(invocation -> {
+            final AbsoluteDate date = invocation.getArgument(0);
+            if (date.isAfter(end)) {
+                throw new IllegalArgumentException("past the ephemeris end");
+            }
+            final var pv = new PVCoordinates(new Vector3D(603_800, 0, 6_901_600), new Vector3D(7_585, 0, 0));
+            return new SpacecraftState(new CartesianOrbit(pv, FramesFactory.getGCRF(), date, Constants.WGS84_EARTH_MU));
+        });
+        when(orbitPropagationService.snapshot()).thenReturn(catalogue(List.of(satellite))
+                .withActive(satellite, "active")
+                .withEphemeris(ephemeris, "burn"));
+
+        final var result = service(1).analyse(new CoverageRequest(null, START, START.plusSeconds(86_400),
+                60.0, 2.0, 10.0)).orElseThrow();
+
+        final var northRow = (result.rows() - 1) * result.cols();
+        for (var col = 0; col < result.cols(); col++) {
+            // 61 steps over the pole out of 1441, nothing after the ephemeris end.
+            assertThat(result.coverage()[northRow + col]).isCloseTo(61f / 1441f, within(1e-4f));
+            assertThat(result.coverage()[col]).isZero();
+        }
+    }
+
+    @Test
+    void rejectsInvalidRequestsAndUnknownObjects() {
+        final var service = service(1);
+        final var end = START.plusSeconds(3600);
+
+        assertThatThrownBy(() -> service.analyse(new CoverageRequest(List.of(25544), end, START, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        when(orbitPropagationService.snapshot()).thenReturn(CatalogueSnapshot.EMPTY);
+        assertThat(service.analyse(new CoverageRequest(List.of(99999), START, end, null, null, null))).isEmpty();
+
+        when(orbitPropagationService.snapshot()).thenReturn(catalogue(walker(1, 1, 51.6)));
+        assertThatThrownBy(() -> service.analyse(new CoverageRequest(List.of(10_000), START, end, null, 7.0, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.analyse(new CoverageRequest(List.of(10_000), START, START.plusSeconds(864_000),
+                0.01, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CoverageService service(final int parallelism) {
+        return new CoverageService(orekitConfig, orbitPropagationService, new SimpleMeterRegistry(),
+                10, 1, 10, 0.25, 50_000_000, parallelism);
+    }
+
+    private static CatalogueSnapshot catalogue(final List<TrackedObject> objects) {
+        return CatalogueSnapshot.EMPTY.withTracked(objects, "test");
+    }
+
+    /** Walker-delta constellation of {@code total} satellites in {@code planes} planes at ~550 km. */
+    static List<TrackedObject> walker(final int total, final int planes, final double inclinationDeg) {
+        final var epoch = new AbsoluteDate(Date.from(START), TimeScalesFactory.getUTC());
+        final var meanMotion = 2 * Math.PI / 5_736.0;
+        final var perPlane = total / planes;
+        final var objects = new ArrayList<TrackedObject>(total);
+        for (var k = 0; k < total; k++) {
+            final var plane = k / perPlane;
+            final var slot = k % perPlane;
+            final var tle = new TLE(10_000 + k, 'U', 2008, 1, "A", 0, 999, epoch, meanMotion, 0, 0, 0.0001,
+                    Math.toRadians(inclinationDeg), 0,
+                    2 * Math.PI * plane / planes,
+                    2 * Math.PI * slot / perPlane + Math.PI * plane / total,
+                    1, 0);
+            objects.add(new TrackedObject("SAT-" + k, tle, TLEPropagator.selectExtrapolator(tle)));
+        }
+        return objects;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.jakubt4.palantir.service.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingServiceTest {
+
+    private FlightRecordingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlightRecordingService(60_000, 10 * 1024 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void recordsPipelineEventsAndDumpsThem() throws Exception {
+        assertThat(service.status()).isEmpty();
+        assertThat(service.dump()).isEmpty();
+
+        final var started = service.start(Duration.ofSeconds(30), null);
+        assertThat(started.state()).isEqualTo("RUNNING");
+        assertThat(started.settings()).isEqualTo("default");
+        assertThat(started.maxDurationMs()).isEqualTo(30_000);
+        assertThat(started.stopTime()).isNull();
+
+        final var tick = new PropagationTickEvent();
+        tick.begin();
+        assertThat(tick.lap()).isZero();
+        tick.objects = 42;
+        tick.transformDuration = tick.lap();
+        tick.commit();
+
+        final var stopped = service.stop().orElseThrow();
+        assertThat(stopped.state()).isEqualTo("STOPPED");
+        assertThat(stopped.stopTime()).isNotNull();
+
+        final var file = service.dump().orElseThrow();
+        try {
+            // Tick lanes of other application contexts in the same JVM commit events too.
+            final var thread = Thread.currentThread().threadId();
+            final var events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("palantir.PropagationTick"))
+                    .filter(event -> event.getThread() != null && event.getThread().getJavaThreadId() == thread)
+                    .toList();
+            assertThat(events).hasSize(1);
+            final RecordedEvent event = events.getFirst();
+            assertThat(event.getInt("objects")).isEqualTo(42);
+            assertThat(event.getDuration("transformDuration")).isGreaterThanOrEqualTo(Duration.ZERO);
+            assertThat(event.getStackTrace()).isNull();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void dumpCarriesNoEnvironmentSystemPropertiesOrJvmArguments() throws Exception {
+        for (final var settings : List.of("default", "profile")) {
+            service.start(Duration.ofSeconds(30), settings);
+            service.stop();
+
+            final var file = service.dump().orElseThrow();
+            try {
+                final var types = RecordingFile.readAllEvents(file).stream()
+                        .map(event -> event.getEventType().getName())
+                        .collect(Collectors.toSet());
+                // Other start-of-recording snapshots are still there.
+                assertThat(types).contains("jdk.OSInformation");
+                assertThat(types).doesNotContainAnyElementsOf(FlightRecordingService.REDACTED_EVENTS);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void enforcesBoundsAndOneRecordingAtATime() {
+        assertThatThrownBy(() -> service.start(Duration.ofMinutes(5), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(null, "everything"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        final var first = service.start(null, "profile");
+        assertThat(first.maxDurationMs()).isEqualTo(60_000);
+        assertThat(first.maxSizeBytes()).isEqualTo(10 * 1024 * 1024);
+        assertThatThrownBy(() -> service.start(null, null)).isInstanceOf(IllegalStateException.class);
+
+        service.stop();
+        final var second = service.start(null, null);
+        assertThat(second.state()).isEqualTo("RUNNING");
+        assertThat(service.status().orElseThrow().settings()).isEqualTo("default");
+    }
+}
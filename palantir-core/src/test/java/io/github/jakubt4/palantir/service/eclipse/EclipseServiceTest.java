@@ -0,0 +1,217 @@
+package io.github.jakubt4.palantir.service.eclipse;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.state.OrbitStateBatch;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.bodies.AnalyticalSolarPositionProvider;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EclipseServiceTest {
+
+    private static final String LINE1 = "1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+    private static final Instant EPOCH = Instant.parse("2008-09-21T12:00:00Z");
+    private static final double AU = Constants.IAU_2012_ASTRONOMICAL_UNIT;
+    private static final double LEO = 6_778_000;
+
+    private static OrekitConfig orekitConfig;
+
+    @Mock
+    private CcsdsTelemetrySender ccsdsTelemetrySender;
+
+    private EclipseService eclipseService;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        eclipseService = new EclipseService(orekitConfig, ccsdsTelemetrySender, 6 * 3_600_000L, 30_000);
+        eclipseService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eclipseService.stop();
+    }
+
+    @Test
+    void shadowModelSeparatesSunlitPenumbraAndUmbra() {
+        final var sun = new Vector3D(AU, 0, 0);
+
+        assertThat(ShadowModel.illumination(sun, new Vector3D(LEO, 0, 0))).isEqualTo(1.0);
+        assertThat(ShadowModel.illumination(sun, new Vector3D(0, LEO, 0))).isEqualTo(1.0);
+        assertThat(ShadowModel.illumination(sun, new Vector3D(-LEO, 0, 0))).isEqualTo(0.0);
+
+        // Walking out of the shadow sideways: monotonic, through a penumbra band 2·d·α☉ ≈ 63 km wide.
+        var previous = 0.0;
+        var penumbraSamples = 0;
+        for (var y = 6_300_000.0; y <= 6_500_000.0; y += 1_000.0) {
+            final var fraction = ShadowModel.illumination(sun, new Vector3D(-LEO, y, 0));
+            assertThat(fraction).isGreaterThanOrEqualTo(previous);
+            if (fraction > 0 && fraction < 1) {
+                penumbraSamples++;
+                assertThat(EclipseState.of(fraction)).isEqualTo(EclipseState.PENUMBRA);
+            }
+            previous = fraction;
+        }
+        assertThat(previous).isEqualTo(1.0);
+        assertThat(penumbraSamples).isBetween(60, 66);
+    }
+
+    @Test
+    void batchPassMatchesPerObjectModel() {
+        final var sun = new Vector3D(AU * 0.6, AU * 0.8, 0);
+        final var batch = new OrbitStateBatch(EPOCH.toEpochMilli(), 1, 2);
+        final var positions = new Vector3D[64];
+        for (var i = 0; i < positions.length; i++) {
+            final var angle = 2 * Math.PI * i / positions.length;
+            positions[i] = new Vector3D(LEO * Math.cos(angle), LEO * Math.sin(angle), 1e4 * i);
+            batch.add(1000 + i, "OBJ-" + i, new PVCoordinates(positions[i], Vector3D.ZERO), 0, 0, 400);
+        }
+
+        final var frame = batch.toEclipseFrame(sun);
+
+        assertThat(frame.size()).isEqualTo(positions.length);
+        assertThat(frame.epochMillis()).isEqualTo(EPOCH.toEpochMilli());
+        for (var i = 0; i < positions.length; i++) {
+            assertThat(frame.illuminationOf(1000 + i).getAsDouble())
+                    .isCloseTo(ShadowModel.illumination(sun, positions[i]), within(1e-6));
+        }
+        assertThat(frame.illuminationOf(1).isPresent()).isFalse();
+        assertThat(frame.illumination()).contains(0f, 1f);
+    }
+
+    @Test
+    void predictedTransitionsBracketTheShadow() {
+        final var tle = new TLE(LINE1, LINE2);
+        final var from = date(EPOCH);
+
+        final var prediction = eclipseService.predict(tle, from);
+
+        // ISS: ~4 orbits in 6 h, each with a ~35 min eclipse, 4 crossings per eclipse.
+        final var transitions = prediction.transitions();
+        assertThat(transitions).hasSizeBetween(12, 20);
+        for (var i = 1; i < transitions.size(); i++) {
+            assertThat(transitions.get(i).date()).isGreaterThan(transitions.get(i - 1).date());
+            final var expected = EclipsePrediction.Type.values()[
+                    (transitions.get(i - 1).type().ordinal() + 1) % EclipsePrediction.Type.values().length];
+            assertThat(transitions.get(i).type()).isEqualTo(expected);
+        }
+
+        final var propagator = TLEPropagator.selectExtrapolator(tle);
+        final var sun = new AnalyticalSolarPositionProvider();
+        for (final var transition : transitions) {
+            final var before = illumination(propagator, sun, transition.date().shiftedBy(-0.05));
+            final var after = illumination(propagator, sun, transition.date().shiftedBy(0.05));
+            switch (transition.type()) {
+                case PENUMBRA_ENTRY -> assertThat(before).isEqualTo(1.0);
+                case UMBRA_ENTRY -> assertThat(after).isEqualTo(0.0);
+                case UMBRA_EXIT -> assertThat(before).isEqualTo(0.0);
+                case PENUMBRA_EXIT -> assertThat(after).isEqualTo(1.0);
+            }
+            assertThat(before).isNotEqualTo(after);
+        }
+
+        // Cached per TLE; a new TLE object for the same satellite is predicted afresh.
+        assertThat(eclipseService.predict(tle, from.shiftedBy(60))).isSameAs(prediction);
+        assertThat(eclipseService.predict(new TLE(LINE1, LINE2), from)).isNotSameAs(prediction);
+    }
+
+    @Test
+    void tickDownlinksActiveEclipseStateOncePredictionLands() {
+        final var tle = new TLE(LINE1, LINE2);
+        final var date = date(EPOCH);
+        final var itrf = TLEPropagator.selectExtrapolator(tle).propagate(date)
+                .getPVCoordinates(FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        final var batch = new OrbitStateBatch(EPOCH.toEpochMilli(), 1, 1);
+        batch.add(25544, "ISS", itrf, 0, 0, 400);
+
+        // First tick: no prediction cached yet — times are unknown, the search starts in the background.
+        eclipseService.process(batch, date, tle);
+        verify(ccsdsTelemetrySender).sendEclipsePacket(eq(date), any(EclipseState.class), anyFloat(),
+                eq(Float.NaN), eq(Float.NaN));
+        assertThat(eclipseService.latest()).isPresent();
+
+        final var entry = ArgumentCaptor.forClass(Float.class);
+        final var exit = ArgumentCaptor.forClass(Float.class);
+        await().atMost(Duration.ofSeconds(30)).until(() -> {
+            eclipseService.process(batch, date, tle);
+            verify(ccsdsTelemetrySender, atLeastOnce()).sendEclipsePacket(eq(date), any(EclipseState.class),
+                    anyFloat(), entry.capture(), exit.capture());
+            return !Float.isNaN(entry.getValue());
+        });
+        assertThat(entry.getValue()).isPositive().isLessThan(6_000f);
+        assertThat(exit.getValue()).isPositive().isLessThan(8_000f);
+
+        final var response = eclipseService.describe(tle, EPOCH);
+        assertThat(response.catalogNumber()).isEqualTo(25544);
+        assertThat(response.epoch()).isEqualTo(EPOCH);
+        assertThat(response.state()).isEqualTo(EclipseState.of(response.illumination()));
+        assertThat(response.transitions()).isNotEmpty();
+        assertThat(response.transitions().getFirst().time()).isAfterOrEqualTo(EPOCH);
+    }
+
+    @Test
+    void predictionsOfObjectsThatLeaveTheCatalogueAreDropped() {
+        final var tle = new TLE(LINE1, LINE2);
+        final var date = date(EPOCH);
+        final var prediction = eclipseService.predict(tle, date);
+        final var itrf = TLEPropagator.selectExtrapolator(tle).propagate(date)
+                .getPVCoordinates(FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+
+        final var tracked = new OrbitStateBatch(EPOCH.toEpochMilli(), 1, 1);
+        tracked.add(25544, "ISS", itrf, 0, 0, 400);
+        eclipseService.process(tracked, date, null);
+        assertThat(eclipseService.predict(tle, date)).isSameAs(prediction);
+
+        // Version 2 no longer carries #25544 — untracked or handed off.
+        final var untracked = new OrbitStateBatch(EPOCH.toEpochMilli(), 2, 1);
+        untracked.add(99999, "OTHER", itrf, 0, 0, 400);
+        eclipseService.process(untracked, date, null);
+        assertThat(eclipseService.predict(tle, date)).isNotSameAs(prediction);
+    }
+
+    private static double illumination(final TLEPropagator propagator, final AnalyticalSolarPositionProvider sun,
+                                       final AbsoluteDate date) {
+        return ShadowModel.illumination(sun.getPosition(date, propagator.getFrame()),
+                propagator.propagate(date).getPosition());
+    }
+
+    private static AbsoluteDate date(final Instant instant) {
+        return new AbsoluteDate(Date.from(instant), TimeScalesFactory.getUTC());
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.jakubt4.palantir.service.export;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.TelemetryExportRequest;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.bodies.OneAxisEllipsoid;
+import org.orekit.frames.FramesFactory;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryExportServiceTest {
+
+    private static final Instant START = Instant.parse("2008-09-21T12:00:00Z");
+    private static final String[][] TLE_LINES = {
+            {"1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927",
+                    "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537"},
+            {"1 28654U 05018A   08264.50140976  .00000076  00000-0  65866-4 0  6453",
+                    "2 28654  98.8016 210.8516 0014043 187.6584 172.4349 14.11163624175219"},
+    };
+
+    private static OrekitConfig orekitConfig;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+    }
+
+    @Test
+    void streamsHeaderDirectoryAndChunksOfGeodeticSamples() throws Exception {
+        when(orbitPropagationService.snapshot()).thenReturn(CatalogueSnapshot.EMPTY.withTracked(objects(), "test"));
+        final var service = service(50, 2);
+        final var export = service.prepare(new TelemetryExportRequest(null, START.plusNanos(400_000),
+                START.plusSeconds(1000), 10.0)).orElseThrow();
+        assertThat(export.catalogueVersion()).isEqualTo(1);
+
+        final var out = new ByteArrayOutputStream();
+        service.write(export, out);
+
+        final var buffer = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat((long) buffer.remaining()).isEqualTo(TelemetryExportEncoder.length(export));
+        assertThat(new String(out.toByteArray(), 0, 4)).isEqualTo("PTLM");
+        assertThat(buffer.get(4)).isEqualTo((byte) TelemetryExportEncoder.FORMAT_VERSION);
+        assertThat(buffer.getLong(8)).isEqualTo(START.toEpochMilli());
+        assertThat(buffer.getDouble(16)).isEqualTo(10.0);
+        assertThat(buffer.getInt(24)).isEqualTo(101);
+        assertThat(buffer.getInt(28)).isEqualTo(2);
+        assertThat(buffer.getInt(32)).isEqualTo(25);
+        assertThat(buffer.getInt(40)).isEqualTo(25544);
+        assertThat(buffer.getInt(44)).isEqualTo(28654);
+
+        final var columns = decode(out.toByteArray());
+        final var itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final var earth = new OneAxisEllipsoid(Constants.WGS84_EARTH_EQUATORIAL_RADIUS,
+                Constants.WGS84_EARTH_FLATTENING, itrf);
+        for (var s = 0; s < TLE_LINES.length; s++) {
+            final var propagator = TLEPropagator.selectExtrapolator(new TLE(TLE_LINES[s][0], TLE_LINES[s][1]));
+            for (final var step : new int[] {0, 24, 25, 99, 100}) {
+                final var date = new AbsoluteDate(START, TimeScalesFactory.getUTC()).shiftedBy(step * 10.0);
+                final var geo = earth.transform(propagator.getPVCoordinates(date, itrf).getPosition(), itrf, date);
+                assertThat(columns[0][s][step]).isCloseTo((float) Math.toDegrees(geo.getLatitude()), within(1e-4f));
+                assertThat(columns[1][s][step]).isCloseTo((float) Math.toDegrees(geo.getLongitude()), within(1e-4f));
+                assertThat(columns[2][s][step]).isCloseTo((float) (geo.getAltitude() / 1000.0), within(1e-3f));
+            }
+        }
+    }
+
+    @Test
+    void chunkingAndParallelismDoNotChangeSamples() throws Exception {
+        when(orbitPropagationService.snapshot()).thenReturn(CatalogueSnapshot.EMPTY.withTracked(objects(), "test"));
+        final var request = new TelemetryExportRequest(null, START, START.plusSeconds(3600), 7.0);
+
+        final var whole = new ByteArrayOutputStream();
+        final var wholeService = service(1_000_000, 1);
+        wholeService.write(wholeService.prepare(request).orElseThrow(), whole);
+        final var chunked = new ByteArrayOutputStream();
+        final var chunkedService = service(33, 4);
+        chunkedService.write(chunkedService.prepare(request).orElseThrow(), chunked);
+
+        final var expected = decode(whole.toByteArray());
+        final var actual = decode(chunked.toByteArray());
+        for (var c = 0; c < 3; c++) {
+            for (var s = 0; s < 2; s++) {
+                assertThat(actual[c][s]).containsExactly(expected[c][s]);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidRequestsAndUnknownObjects() {
+        final var service = service(1000, 1);
+        final var end = START.plusSeconds(3600);
+
+        assertThatThrownBy(() -> service.prepare(new TelemetryExportRequest(List.of(25544), end, START, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        when(orbitPropagationService.snapshot()).thenReturn(CatalogueSnapshot.EMPTY);
+        assertThat(service.prepare(new TelemetryExportRequest(List.of(99999), START, end, null))).isEmpty();
+
+        when(orbitPropagationService.snapshot())
+                .thenReturn(CatalogueSnapshot.EMPTY.withTracked(List.of(objects().getFirst()), "test"));
+        assertThatThrownBy(() -> service.prepare(new TelemetryExportRequest(List.of(25544), START, end, 0.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.prepare(new TelemetryExportRequest(List.of(25544), START,
+                START.plusSeconds(86_400 * 365), null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TelemetryExportService service(final int chunkSamples, final int parallelism) {
+        return new TelemetryExportService(orekitConfig, orbitPropagationService, new SimpleMeterRegistry(),
+                1, 10_000_000, chunkSamples, parallelism);
+    }
+
+    private static List<TrackedObject> objects() {
+        final var iss = new TLE(TLE_LINES[0][0], TLE_LINES[0][1]);
+        final var noaa = new TLE(TLE_LINES[1][0], TLE_LINES[1][1]);
+        return List.of(
+                new TrackedObject("ISS (ZARYA)", iss, TLEPropagator.selectExtrapolator(iss)),
+                new TrackedObject("NOAA 18", noaa, TLEPropagator.selectExtrapolator(noaa)));
+    }
+
+    /** Reassembles the chunks into {@code [column][satellite][step]}. */
+    private static float[][][] decode(final byte[] bytes) {
+        final var buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        final var steps = buffer.getInt(24);
+        final var satellites = buffer.getInt(28);
+        final var columns = new float[3][satellites][steps];
+        buffer.position(TelemetryExportEncoder.HEADER_LENGTH + ((satellites * 4 + 7) & ~7));
+        while (buffer.hasRemaining()) {
+            final var first = buffer.getInt();
+            final var n = buffer.getInt();
+            for (final var column : columns) {
+                for (final var series : column) {
+                    buffer.asFloatBuffer().get(series, first, n);
+                    buffer.position(buffer.position() + n * Float.BYTES);
+                }
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.AvoidancePlanRequest;
+import io.github.jakubt4.palantir.dto.AvoidancePlanResponse;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hipparchus.geometry.euclidean.threed.Rotation;
+import org.hipparchus.geometry.euclidean.threed.RotationConvention;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.analytical.KeplerianPropagator;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.PVCoordinates;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvoidancePlannerTest {
+
+    private static final String LINE1 = "1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+    private static final Instant TCA = Instant.parse("2008-09-21T18:00:00Z");
+
+    private static ManoeuvreDynamics dynamics;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    private SimpleMeterRegistry registry;
+    private ForkJoinPool pool;
+    private AvoidancePlanner planner;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        final var orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+        dynamics = new ManoeuvreDynamics(orekitConfig, 450_000, 1500, 2.2);
+        dynamics.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        pool = new ForkJoinPool(2);
+        planner = planner(300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void plansParetoSetForHeadOnCrossing() {
+        final var primary = TLEPropagator.selectExtrapolator(new TLE(LINE1, LINE2));
+        final var tca = date(TCA);
+
+        // Secondary 50 m above the primary at TCA, crossing its track at right angles.
+        final var atTca = primary.propagate(tca).getPVCoordinates(dynamics.inertialFrame());
+        final var radial = atTca.getPosition().normalize();
+        final var crossingVelocity = new Rotation(radial, Math.PI / 2, RotationConvention.VECTOR_OPERATOR)
+                .applyTo(atTca.getVelocity());
+        final var secondary = new KeplerianPropagator(new CartesianOrbit(
+                new PVCoordinates(atTca.getPosition().add(50, radial), crossingVelocity),
+                dynamics.inertialFrame(), tca, Constants.WGS84_EARTH_MU));
+
+        final var plan = planner.plan(25544, primary::propagate, 99999, secondary::propagate,
+                tca, tca.shiftedBy(-5 * 3600), 2000);
+
+        assertThat(plan.missDistanceKm()).isLessThan(0.1);
+        assertThat(plan.collisionProbability()).isGreaterThan(1e-4);
+        assertThat(plan.manoeuvreRequired()).isTrue();
+
+        final var candidates = plan.candidates();
+        assertThat(candidates).isNotEmpty();
+        for (var i = 1; i < candidates.size(); i++) {
+            assertThat(candidates.get(i).deltaV()).isGreaterThan(candidates.get(i - 1).deltaV());
+            assertThat(candidates.get(i).collisionProbability())
+                    .isLessThan(candidates.get(i - 1).collisionProbability());
+        }
+        final var cheapestSufficient = candidates.getLast();
+        assertThat(cheapestSufficient.meetsTarget()).isTrue();
+        assertThat(cheapestSufficient.missDistanceKm()).isGreaterThanOrEqualTo(2.0);
+        assertThat(cheapestSufficient.burnEpoch()).isBefore(TCA);
+        assertThat(candidates).filteredOn(AvoidancePlanResponse.Candidate::meetsTarget).hasSize(1);
+
+        assertThat(plan.pruned()).isPositive();
+        assertThat(plan.evaluated() + plan.pruned()).isEqualTo(6 * 6 * 7);
+        assertThat(registry.get("palantir.manoeuvre.plan").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTcaWithoutBurnOpportunity() {
+        final var primary = TLEPropagator.selectExtrapolator(new TLE(LINE1, LINE2));
+        final var tca = date(TCA);
+
+        assertThatThrownBy(() -> planner.plan(25544, primary::propagate, 25544, primary::propagate,
+                tca, tca.shiftedBy(-600), 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsWindowReachingBackToTheBurnEpochs() {
+        assertThatThrownBy(() -> planner(3000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> planner(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encounterPastTheEphemerisEndIsAPlannerError() {
+        final var tle = new TLE(LINE1, LINE2);
+        final var sgp4 = TLEPropagator.selectExtrapolator(tle);
+        final var iss = new TrackedObject("ISS", tle, sgp4);
+        // Ten minutes of post-burn ephemeris, ending 50 minutes before TCA.
+        final var burn = date(TCA).shiftedBy(-3600);
+        final var integrator = dynamics.propagator(sgp4.propagate(burn));
+        final var generator = integrator.getEphemerisGenerator();
+        integrator.propagate(burn.shiftedBy(600));
+        final var ephemeris = new ManoeuvreEphemeris(burn, generator.getGeneratedEphemeris());
+        when(orbitPropagationService.snapshot()).thenReturn(CatalogueSnapshot.EMPTY
+                .withActive(iss, "active")
+                .withEphemeris(ephemeris, "burn"));
+
+        assertThatThrownBy(() -> planner.plan(new AvoidancePlanRequest(25544, 25544, TCA, null, null)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ephemeris");
+        // Both objects resolved from the one snapshot.
+        verify(orbitPropagationService).snapshot();
+        verifyNoMoreInteractions(orbitPropagationService);
+    }
+
+    @Test
+    void unknownObjectIsEmpty() {
+        when(orbitPropagationService.snapshot()).thenReturn(CatalogueSnapshot.EMPTY);
+
+        assertThat(planner.plan(new AvoidancePlanRequest(25544, 99999, TCA, null, null))).isEmpty();
+    }
+
+    private AvoidancePlanner planner(final double windowSeconds) {
+        return new AvoidancePlanner(orbitPropagationService, dynamics, registry,
+                1e-4, 20, 1000, 5, windowSeconds, 6, new double[] {1.0, 0.01, 0.1, 0.05, 0.5, 0.2, 0.02}, 0, pool);
+    }
+
+    private static AbsoluteDate date(final Instant instant) {
+        return new AbsoluteDate(Date.from(instant), TimeScalesFactory.getUTC());
+    }
+}
@@ -0,0 +1,248 @@
+package io.github.jakubt4.palantir.service.manoeuvre;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.cluster.CatalogueRouter;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.KeplerianOrbit;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ManoeuvreServiceTest {
+
+    private static final String LINE1 = "1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+    private static final Instant T0 = Instant.parse("2008-09-21T12:00:00Z");
+
+    private static OrekitConfig orekitConfig;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    @Mock
+    private CatalogueRouter catalogueRouter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TLE tle;
+    private ManoeuvreDynamics dynamics;
+    private ManoeuvreService service;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        tle = new TLE(LINE1, LINE2);
+        lenient().when(orbitPropagationService.activeObject()).thenReturn(
+                Optional.of(new TrackedObject("ISS (ZARYA)", tle, TLEPropagator.selectExtrapolator(tle))));
+        lenient().when(orbitPropagationService.activeEphemeris()).thenReturn(Optional.empty());
+        lenient().when(catalogueRouter.replicateManoeuvre(any())).thenReturn(Optional.empty());
+
+        // No lead time, 1 h segments.
+        dynamics = new ManoeuvreDynamics(orekitConfig, 450_000, 1500, 2.2);
+        dynamics.init();
+        service = service(30_000);
+    }
+
+    @Test
+    void tangentialBurnRaisesSemiMajorAxisByAnalyticAmount() {
+        final var deltaV = 5.0;
+        final var ephemeris = planAndCapture(new ThrustManeuverCommand(0, deltaV, 0, 0, T0));
+
+        final var burnEpoch = date(T0);
+        assertThat(ephemeris.burnEpoch()).isEqualTo(burnEpoch);
+        final var before = new KeplerianOrbit(TLEPropagator.selectExtrapolator(tle).propagate(burnEpoch).getOrbit());
+        final var after = new KeplerianOrbit(ephemeris.stateAt(burnEpoch).getOrbit());
+
+        // Δa = 2·Δv·√(a³/μ) for a tangential impulse on a near-circular orbit.
+        final var a = before.getA();
+        final var expected = 2 * deltaV * Math.sqrt(a * a * a / Constants.WGS84_EARTH_MU);
+        assertThat(after.getA() - a).isCloseTo(expected, within(0.02 * expected));
+    }
+
+    @Test
+    void ephemerisHandsOffAtBurnEpochAndCoversHorizon() {
+        final var ephemeris = planAndCapture(new ThrustManeuverCommand(0, 1, 0, 20, T0));
+
+        final var burnEpoch = date(T0).shiftedBy(10);  // impulse at the burn midpoint
+        assertThat(ephemeris.isActiveAt(burnEpoch.shiftedBy(-0.001))).isFalse();
+        assertThat(ephemeris.isActiveAt(burnEpoch)).isTrue();
+        assertThat(ephemeris.end().durationFrom(burnEpoch)).isCloseTo(3600, within(1e-6));
+
+        final var state = ephemeris.stateAt(burnEpoch.shiftedBy(1800));
+        final var radiusKm = state.getPVCoordinates(FramesFactory.getGCRF()).getPosition().getNorm() / 1000;
+        assertThat(radiusKm).isBetween(6_600.0, 6_800.0);
+        assertThatThrownBy(() -> ephemeris.stateAt(burnEpoch.shiftedBy(-60)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void secondBurnChainsOntoTheFirstInsteadOfReplacingIt() {
+        final var first = planAndCapture(new ThrustManeuverCommand(0, 5, 0, 0, T0));
+        when(orbitPropagationService.activeEphemeris()).thenReturn(Optional.of(first));
+        final var captor = ArgumentCaptor.forClass(ManoeuvreEphemeris.class);
+        when(orbitPropagationService.installEphemeris(eq(tle), eq(first), captor.capture())).thenReturn(true);
+
+        assertThat(service.plan(new ThrustManeuverCommand(0, 5, 0, 0, T0.plusSeconds(600)))).isTrue();
+        final var chained = captor.getValue();
+
+        final var firstBurn = date(T0);
+        final var secondBurn = firstBurn.shiftedBy(600);
+        assertThat(chained.burnEpoch()).isEqualTo(firstBurn);
+        assertThat(chained.latestBurnEpoch()).isEqualTo(secondBurn);
+        // Between the burns — e.g. while the second is pending — the first one stays in force.
+        assertThat(chained.isActiveAt(firstBurn.shiftedBy(300))).isTrue();
+        assertThat(position(chained, firstBurn.shiftedBy(300))).isEqualTo(position(first, firstBurn.shiftedBy(300)));
+        assertThat(position(chained, secondBurn.shiftedBy(60))).isNotEqualTo(position(first, secondBurn.shiftedBy(60)));
+        final var before = new KeplerianOrbit(first.stateAt(secondBurn).getOrbit()).getA();
+        final var after = new KeplerianOrbit(chained.stateAt(secondBurn).getOrbit()).getA();
+        // About 8.8 km for 5 m/s, as for the first burn.
+        assertThat(after - before).isGreaterThan(5_000.0);
+        assertThat(chained.end().durationFrom(secondBurn)).isCloseTo(3600, within(1e-6));
+
+        when(orbitPropagationService.activeEphemeris()).thenReturn(Optional.of(chained));
+        assertThat(service.planReplica(new ThrustManeuverCommand(0, 5, 0, 0, T0.plusSeconds(600)))).isTrue();
+        verify(orbitPropagationService).installEphemeris(eq(tle), eq(first), any());
+    }
+
+    @Test
+    void discardsResultWhenActiveTrajectoryChanged() {
+        when(orbitPropagationService.installEphemeris(any(), any(), any())).thenReturn(false);
+
+        assertThat(service.plan(new ThrustManeuverCommand(0, 1, 0, 0, T0))).isFalse();
+    }
+
+    @Test
+    void ignoresCommandWithoutActiveSpacecraft() {
+        when(orbitPropagationService.activeObject()).thenReturn(Optional.empty());
+
+        assertThat(service.plan(new ThrustManeuverCommand(0, 1, 0, 0, T0))).isFalse();
+        verify(orbitPropagationService, never()).installEphemeris(any(), any(), any());
+    }
+
+    @Test
+    void publishesOutcomeOncePlanningEnds() {
+        when(orbitPropagationService.activeObject()).thenReturn(Optional.empty());
+        final var command = new ThrustManeuverCommand(0, 1, 0, 0, T0);
+
+        service.onThrustManeuver(command);
+
+        verify(eventPublisher, timeout(5_000)).publishEvent(new ThrustManeuverOutcome(command, false));
+    }
+
+    @Test
+    void planningPastTheCompletionTimeoutIsReportedFailedAndNeverInstalled() {
+        final var active = orbitPropagationService.activeObject();
+        final var release = new CountDownLatch(1);
+        when(orbitPropagationService.activeObject()).thenAnswer(invocation -> {
+            release.await();
+            return active;
+        });
+        service = service(50);
+        final var command = new ThrustManeuverCommand(0, 1, 0, 0, T0);
+
+        service.onThrustManeuver(command);
+
+        verify(eventPublisher, timeout(5_000)).publishEvent(new ThrustManeuverOutcome(command, false));
+        // Planning resumes after the deadline: its ephemeris is discarded and no second outcome follows.
+        release.countDown();
+        verify(orbitPropagationService, after(3_000).never()).installEphemeris(any(), any(), any());
+        verify(eventPublisher).publishEvent(any(ThrustManeuverOutcome.class));
+    }
+
+    @Test
+    void outcomeIsTheOwnersWhenAPeerOwnsTheActiveSpacecraft() {
+        final var command = new ThrustManeuverCommand(0, 1, 0, 0, T0);
+        when(catalogueRouter.replicateManoeuvre(command)).thenReturn(Optional.of(CompletableFuture.completedFuture(false)));
+        when(orbitPropagationService.installEphemeris(eq(tle), isNull(), any())).thenReturn(true);
+
+        service.onThrustManeuver(command);
+
+        verify(eventPublisher, timeout(10_000)).publishEvent(new ThrustManeuverOutcome(command, false));
+        verify(orbitPropagationService).installEphemeris(eq(tle), isNull(), any());
+    }
+
+    @Test
+    void replicaAlreadyInForceIsNotPlannedAgain() {
+        final var installed = planAndCapture(new ThrustManeuverCommand(0, 1, 0, 10, T0));
+        when(orbitPropagationService.activeEphemeris()).thenReturn(Optional.of(installed));
+
+        assertThat(service.planReplica(new ThrustManeuverCommand(0, 1, 0, 10, T0))).isTrue();
+        assertThat(service.planReplica(new ThrustManeuverCommand(0, 1, 0, 0, T0))).isTrue();
+        verify(orbitPropagationService).installEphemeris(any(), any(), any());
+    }
+
+    @Test
+    void decodesBigEndianPayloadAfterOpcodeAndSequence() {
+        final var packet = ByteBuffer.allocate(17)
+                .put((byte) 0x04).putShort((short) 7).putFloat(0.5f).putFloat(-1.25f).putFloat(2f)
+                .putShort((short) 40_000)
+                .array();
+
+        final var command = ThrustManeuverCommand.decode(packet, 3, packet.length - 3, T0);
+
+        assertThat(command).isEqualTo(new ThrustManeuverCommand(0.5, -1.25, 2, 40_000, T0));
+        assertThatThrownBy(() -> ThrustManeuverCommand.decode(packet, 3, 10, T0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ManoeuvreService service(final long completionTimeoutMillis) {
+        return new ManoeuvreService(orbitPropagationService, dynamics, catalogueRouter, eventPublisher,
+                0, 3_600_000, 1_800_000, completionTimeoutMillis);
+    }
+
+    private ManoeuvreEphemeris planAndCapture(final ThrustManeuverCommand command) {
+        final var captor = ArgumentCaptor.forClass(ManoeuvreEphemeris.class);
+        when(orbitPropagationService.installEphemeris(eq(tle), isNull(), captor.capture())).thenReturn(true);
+
+        assertThat(service.plan(command)).isTrue();
+        return captor.getValue();
+    }
+
+    private static Vector3D position(final ManoeuvreEphemeris ephemeris, final AbsoluteDate date) {
+        return ephemeris.stateAt(date).getPVCoordinates(FramesFactory.getGCRF()).getPosition();
+    }
+
+    private static AbsoluteDate date(final Instant instant) {
+        return new AbsoluteDate(Date.from(instant), TimeScalesFactory.getUTC());
+    }
+}
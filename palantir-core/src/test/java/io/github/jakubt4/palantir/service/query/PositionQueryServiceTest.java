@@ -0,0 +1,208 @@
+package io.github.jakubt4.palantir.service.query;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.dto.ObjectStateResponse;
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.github.jakubt4.palantir.service.TrackedObject;
+import io.github.jakubt4.palantir.service.catalogue.CatalogueSnapshot;
+import io.github.jakubt4.palantir.service.manoeuvre.ManoeuvreEphemeris;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.orekit.frames.FramesFactory;
+import org.orekit.orbits.CartesianOrbit;
+import org.orekit.propagation.SpacecraftState;
+import org.orekit.propagation.analytical.tle.TLE;
+import org.orekit.propagation.analytical.tle.TLEPropagator;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.orekit.utils.Constants;
+import org.orekit.utils.IERSConventions;
+import org.orekit.utils.PVCoordinates;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PositionQueryServiceTest {
+
+    private static final String LINE1 = "1 25544U 98067A   08264.51782528 -.00002182  00000-0 -11606-4 0  2927";
+    private static final String LINE2 = "2 25544  51.6416 247.4627 0006703 130.5360 325.0288 15.72125391563537";
+    private static final Instant T0 = Instant.parse("2008-09-21T12:00:00Z");
+
+    private static OrekitConfig orekitConfig;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    private SimpleMeterRegistry registry;
+    private PositionQueryService service;
+    private CatalogueSnapshot snapshot;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        orekitConfig = new OrekitConfig();
+        orekitConfig.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        final var tle = new TLE(LINE1, LINE2);
+        snapshot = CatalogueSnapshot.EMPTY.withTracked(
+                List.of(new TrackedObject("ISS (ZARYA)", tle, TLEPropagator.selectExtrapolator(tle))), "test");
+        lenient().when(orbitPropagationService.snapshot()).thenAnswer(invocation -> snapshot);
+
+        registry = new SimpleMeterRegistry();
+        service = new PositionQueryService(orekitConfig, orbitPropagationService, registry, 2, 2, 100, 60_000, 10);
+        service.init();
+    }
+
+    @Test
+    void repeatedQueryInSameBucketIsServedFromResultCache() {
+        final var first = service.positionAt(25544, T0).orElseThrow();
+        final var second = service.positionAt(25544, T0).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.epoch()).isEqualTo(T0);
+        assertThat(first.latitude()).isBetween(-52.0, 52.0);
+        assertThat(first.altitude()).isBetween(300.0, 500.0);
+        assertThat(gets(PositionQueryService.RESULT_CACHE, "hit")).isEqualTo(1);
+        assertThat(gets(PositionQueryService.PROPAGATOR_CACHE, "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void timesWithinABucketAreAnsweredExactlyFromTheBucketState() {
+        final var time = T0.plusMillis(99).plusNanos(500_000);
+        final var shifted = service.positionAt(25544, time).orElseThrow();
+
+        final var tle = new TLE(LINE1, LINE2);
+        final var itrf = FramesFactory.getITRF(IERSConventions.IERS_2010, true);
+        final var date = new AbsoluteDate(Date.from(T0), TimeScalesFactory.getUTC()).shiftedBy(0.0995);
+        final var exact = TLEPropagator.selectExtrapolator(tle).getPVCoordinates(date, itrf);
+
+        assertThat(shifted.epoch()).isEqualTo(time);
+        assertThat(Vector3D.distance(new Vector3D(shifted.position()), exact.getPosition())).isLessThan(0.01);
+        assertThat(Vector3D.distance(new Vector3D(shifted.velocity()), exact.getVelocity())).isLessThan(0.15);
+        assertThat(gets(PositionQueryService.RESULT_CACHE, "miss")).isEqualTo(1);
+
+        service.positionAt(25544, T0.plusMillis(10));
+        assertThat(gets(PositionQueryService.RESULT_CACHE, "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void expiredResultCountsAsMiss() {
+        registry = new SimpleMeterRegistry();
+        service = new PositionQueryService(orekitConfig, orbitPropagationService, registry, 2, 2, 100, 0, 10);
+        service.init();
+
+        service.positionAt(25544, T0);
+        service.positionAt(25544, T0);
+
+        assertThat(gets(PositionQueryService.RESULT_CACHE, "hit")).isZero();
+        assertThat(gets(PositionQueryService.RESULT_CACHE, "miss")).isEqualTo(2);
+    }
+
+    @Test
+    void cachedResultReportsTheCatalogueVersionOfTheQuery() {
+        final var first = service.positionAt(25544, T0).orElseThrow();
+        // Re-ingesting the same TLE publishes a new version that keeps the cached result valid.
+        snapshot = snapshot.withTracked(List.of(snapshot.find(25544).orElseThrow()), "re-ingest");
+        final var second = service.positionAt(25544, T0).orElseThrow();
+
+        assertThat(first.catalogueVersion()).isEqualTo(1);
+        assertThat(second.catalogueVersion()).isEqualTo(2);
+        assertThat(second.position()).isEqualTo(first.position());
+        assertThat(gets(PositionQueryService.RESULT_CACHE, "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void newTimeBucketReusesCachedPropagator() {
+        service.positionAt(25544, T0);
+        service.positionAt(25544, T0.plusSeconds(1));
+
+        assertThat(gets(PositionQueryService.PROPAGATOR_CACHE, "hit")).isEqualTo(1);
+        assertThat(gets(PositionQueryService.PROPAGATOR_CACHE, "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void resultCacheEvictsLeastRecentlyUsed() {
+        service.positionAt(25544, T0);
+        service.positionAt(25544, T0.plusSeconds(1));
+        service.positionAt(25544, T0.plusSeconds(2));
+
+        assertThat(registry.get("cache.evictions").tag("cache", PositionQueryService.RESULT_CACHE)
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownObjectIsEmpty() {
+        assertThat(service.positionAt(99999, T0)).isEmpty();
+    }
+
+    @Test
+    void batchEvaluatesEveryPairAndReportsUnknownObjects() {
+        final var result = service.positionsAt(List.of(25544, 99999),
+                List.of(T0, T0.plusSeconds(60), T0.plusSeconds(120)));
+
+        assertThat(result.states()).hasSize(3);
+        assertThat(result.states()).extracting(ObjectStateResponse::epoch)
+                .containsExactly(T0, T0.plusSeconds(60), T0.plusSeconds(120));
+        assertThat(result.unknownCatalogNumbers()).containsExactly(99999);
+        assertThat(result.catalogueVersion()).isEqualTo(1);
+        assertThat(result.states()).extracting(ObjectStateResponse::catalogueVersion).containsOnly(1L);
+    }
+
+    @Test
+    void batchAboveLimitIsRejected() {
+        assertThatThrownBy(() -> service.positionsAt(List.of(25544, 1, 2, 3),
+                List.of(T0, T0.plusSeconds(1), T0.plusSeconds(2))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void activeSpacecraftFollowsItsEphemerisOnceABurnIsInstalled() {
+        final var tle = new TLE(LINE1, LINE2);
+        snapshot = CatalogueSnapshot.EMPTY.withActive(
+                new TrackedObject("ISS (ZARYA)", tle, TLEPropagator.selectExtrapolator(tle)), "test");
+        final var sgp4 = service.positionAt(25544, T0).orElseThrow();
+
+        // A post-burn state 10 km above the SGP4 one.
+        final var date = new AbsoluteDate(Date.from(T0), TimeScalesFactory.getUTC());
+        final var gcrf = FramesFactory.getGCRF();
+        final var pv = TLEPropagator.selectExtrapolator(tle).getPVCoordinates(date, gcrf);
+        final var raised = new SpacecraftState(new CartesianOrbit(new PVCoordinates(
+                pv.getPosition().add(pv.getPosition().normalize().scalarMultiply(10_000)), pv.getVelocity()),
+                gcrf, date, Constants.WGS84_EARTH_MU));
+        final var ephemeris = mock(ManoeuvreEphemeris.class);
+        when(ephemeris.isActiveAt(any())).thenReturn(true);
+        when(ephemeris.stateAt(any())).thenReturn(raised);
+        snapshot = snapshot.withEphemeris(ephemeris, "burn");
+
+        final var postBurn = service.positionAt(25544, T0).orElseThrow();
+
+        assertThat(postBurn).isNotSameAs(sgp4);
+        assertThat(postBurn.altitude() - sgp4.altitude()).isCloseTo(10.0, within(0.1));
+        final var expected = raised.getPVCoordinates(FramesFactory.getITRF(IERSConventions.IERS_2010, true));
+        assertThat(Vector3D.distance(new Vector3D(postBurn.position()), expected.getPosition())).isLessThan(1e-6);
+        assertThat(service.positionsAt(List.of(25544), List.of(T0)).states().getFirst().position())
+                .containsExactly(postBurn.position());
+    }
+
+    private double gets(final String cache, final String result) {
+        return registry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.jakubt4.palantir.service.state;
+
+import io.github.jakubt4.palantir.dto.ObjectStateResponse;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.Test;
+import org.orekit.utils.PVCoordinates;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrbitStateStoreTest {
+
+    private static final PVCoordinates PV = new PVCoordinates(
+            new Vector3D(6_800_000, 0, 0), new Vector3D(0, 7_500, 0));
+
+    private final OrbitStateStore store = new OrbitStateStore();
+
+    @Test
+    void findReturnsLatestTickState() {
+        store.publish(batch(1000, new int[] {100, 200}, new double[] {10, 20}, new double[] {30, 40}));
+        store.publish(batch(2000, new int[] {100, 200}, new double[] {11, 21}, new double[] {31, 41}));
+
+        final var state = store.find(200).orElseThrow();
+        assertThat(state.latitude()).isEqualTo(21);
+        assertThat(state.longitude()).isEqualTo(41);
+        assertThat(state.epoch().toEpochMilli()).isEqualTo(2000);
+        assertThat(state.position()).containsExactly(6_800_000, 0, 0);
+        assertThat(state.catalogueVersion()).isEqualTo(7);
+        assertThat(store.find(300)).isEmpty();
+    }
+
+    @Test
+    void overheadFollowsObjectsAcrossCells() {
+        store.publish(batch(1000, new int[] {1, 2}, new double[] {48.1, -30}, new double[] {17.1, 100}));
+        assertThat(ids(store.findOverhead(48.15, 17.11, 50))).containsExactly(1);
+
+        // Object 1 moves far away, object 2 moves overhead — in-place update with cell re-linking.
+        store.publish(batch(2000, new int[] {1, 2}, new double[] {0, 48.2}, new double[] {0, 17.2}));
+        assertThat(ids(store.findOverhead(48.15, 17.11, 50))).containsExactly(2);
+    }
+
+    @Test
+    void overheadIsSortedByDistanceAndHandlesPoles() {
+        store.publish(batch(1000, new int[] {1, 2, 3}, new double[] {89.5, 88.0, 0}, new double[] {0, 179, 0}));
+
+        assertThat(ids(store.findOverhead(90, 0, 300))).containsExactly(1, 2);
+    }
+
+    @Test
+    void boundingBoxCrossingAntimeridian() {
+        store.publish(batch(1000, new int[] {1, 2, 3}, new double[] {0, 0, 0}, new double[] {175, -175, 0}));
+
+        assertThat(ids(store.findInBox(-10, 10, 170, -170))).containsExactly(1, 2);
+        assertThat(ids(store.findInBox(-10, 10, -10, 10))).containsExactly(3);
+    }
+
+    @Test
+    void membershipChangeRebuildsIndex() {
+        store.publish(batch(1000, new int[] {1, 2, 3}, new double[] {0, 0, 0}, new double[] {0, 1, 2}));
+        store.publish(batch(2000, new int[] {2, 4}, new double[] {0, 0}, new double[] {1, 3}));
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(ids(store.findInBox(-5, 5, -5, 5))).containsExactly(2, 4);
+        assertThat(store.find(1)).isEmpty();
+    }
+
+    private static OrbitStateBatch batch(final long epoch, final int[] ids, final double[] lat, final double[] lon) {
+        final var batch = new OrbitStateBatch(epoch, 7, 1);
+        for (var i = 0; i < ids.length; i++) {
+            batch.add(ids[i], "OBJ-" + ids[i], PV, lat[i], lon[i], 400);
+        }
+        return batch;
+    }
+
+    private static List<Integer> ids(final List<ObjectStateResponse> states) {
+        return states.stream().map(ObjectStateResponse::catalogNumber).toList();
+    }
+}
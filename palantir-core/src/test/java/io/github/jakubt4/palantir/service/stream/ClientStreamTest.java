@@ -0,0 +1,82 @@
+package io.github.jakubt4.palantir.service.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies the latest-value-wins contract: a client whose socket is stalled never
+ * makes {@link ClientStream#offer} block, and once it recovers it receives the most
+ * recent frame rather than a backlog.
+ */
+class ClientStreamTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void stalledClientCoalescesToLatestFrame() throws Exception {
+        final var session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("s1");
+
+        final var firstSendEntered = new CountDownLatch(1);
+        final var releaseSocket = new CountDownLatch(1);
+        final List<Long> sentEpochs = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            final BinaryMessage message = invocation.getArgument(0);
+            sentEpochs.add(message.getPayload().getLong(1));
+            firstSendEntered.countDown();
+            releaseSocket.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+
+        final var client = new ClientStream(session, executor);
+
+        client.offer(frame(1));
+        assertThat(firstSendEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Socket is now "stalled" inside sendMessage — these must return immediately.
+        final var start = System.nanoTime();
+        for (var epoch = 2; epoch <= 10; epoch++) {
+            client.offer(frame(epoch));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+
+        releaseSocket.countDown();
+        awaitSent(client, 2);
+
+        assertThat(sentEpochs).containsExactly(1L, 10L);
+        assertThat(client.framesCoalesced()).isEqualTo(8);
+    }
+
+    private static void awaitSent(final ClientStream client, final long expected) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (client.framesSent() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(client.framesSent()).isEqualTo(expected);
+    }
+
+    private static PositionFrame frame(final long epoch) {
+        return new PositionFrame(epoch, 1, new int[] {25544}, new float[] {1f}, new float[] {2f}, new float[] {400f});
+    }
+}
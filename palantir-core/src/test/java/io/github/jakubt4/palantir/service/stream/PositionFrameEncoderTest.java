@@ -0,0 +1,195 @@
+package io.github.jakubt4.palantir.service.stream;
+
+import io.github.jakubt4.palantir.dto.StreamSubscriptionRequest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Round-trips frames through the encoder and a reference decoder written against
+ * the wire layout documented on {@link PositionFrameEncoder}.
+ */
+class PositionFrameEncoderTest {
+
+    private static final long CATALOGUE_VERSION = 42;
+
+    private final PositionFrameEncoder encoder = new PositionFrameEncoder();
+
+    @Test
+    void firstFrameDecodesToAbsoluteValues() {
+        final var frame = frame(1_700_000_000_000L,
+                new int[] {25544, 48274},
+                new float[] {51.2f, -12.5f},
+                new float[] {-179.9f, 33.3f},
+                new float[] {420.7f, 390.1f});
+
+        final var decoder = new Decoder();
+        decoder.decode(encoder.encode(frame, StreamFilter.ALL));
+
+        assertThat(decoder.epochMillis).isEqualTo(1_700_000_000_000L);
+        assertThat(decoder.catalogueVersion).isEqualTo(CATALOGUE_VERSION);
+        assertThat(decoder.state).containsOnlyKeys(25544, 48274);
+        assertThat(decoder.state.get(25544)[0]).isCloseTo(51.2, within(1e-4));
+        assertThat(decoder.state.get(25544)[1]).isCloseTo(-179.9, within(1e-4));
+        assertThat(decoder.state.get(48274)[2]).isCloseTo(390.1, within(1e-3));
+    }
+
+    @Test
+    void subsequentFramesAreDeltaEncodedAndSmaller() {
+        final var first = frame(1000, new int[] {25544}, new float[] {10f}, new float[] {20f}, new float[] {420f});
+        final var second = frame(2000, new int[] {25544}, new float[] {10.06f}, new float[] {20.03f}, new float[] {420.1f});
+
+        final var decoder = new Decoder();
+        final var firstSize = decode(decoder, first, StreamFilter.ALL);
+        final var secondSize = decode(decoder, second, StreamFilter.ALL);
+
+        assertThat(secondSize).isLessThan(firstSize);
+        assertThat(decoder.state.get(25544)[0]).isCloseTo(10.06, within(1e-4));
+        assertThat(decoder.state.get(25544)[1]).isCloseTo(20.03, within(1e-4));
+        assertThat(decoder.state.get(25544)[2]).isCloseTo(420.1, within(1e-3));
+    }
+
+    @Test
+    void objectsEnteringTheFrameAreSentAbsolute() {
+        final var decoder = new Decoder();
+        decode(decoder, frame(1000, new int[] {1}, new float[] {1f}, new float[] {1f}, new float[] {500f}),
+                StreamFilter.ALL);
+        decode(decoder, frame(2000, new int[] {1, 2}, new float[] {1.01f, -5f}, new float[] {1.01f, 5f},
+                new float[] {500f, 600f}), StreamFilter.ALL);
+
+        assertThat(decoder.state).containsOnlyKeys(1, 2);
+        assertThat(decoder.state.get(2)[0]).isCloseTo(-5.0, within(1e-4));
+        assertThat(decoder.state.get(2)[2]).isCloseTo(600.0, within(1e-3));
+    }
+
+    @Test
+    void frameAfterResetIsAKeyframeTheDecoderAppliesFromScratch() {
+        final var decoder = new Decoder();
+        decode(decoder, frame(1000, new int[] {1}, new float[] {10f}, new float[] {20f}, new float[] {500f}),
+                StreamFilter.ALL);
+        assertThat(decoder.keyframe).isTrue();
+        decode(decoder, frame(2000, new int[] {1}, new float[] {10.01f}, new float[] {20.01f}, new float[] {500f}),
+                StreamFilter.ALL);
+        assertThat(decoder.keyframe).isFalse();
+
+        // E.g. a send failed: the client still holds the frame above as its reference.
+        encoder.reset();
+        decode(decoder, frame(3000, new int[] {1}, new float[] {10.02f}, new float[] {20.02f}, new float[] {500f}),
+                StreamFilter.ALL);
+
+        assertThat(decoder.keyframe).isTrue();
+        assertThat(decoder.state.get(1)[0]).isCloseTo(10.02, within(1e-4));
+        assertThat(decoder.state.get(1)[1]).isCloseTo(20.02, within(1e-4));
+        assertThat(decoder.state.get(1)[2]).isCloseTo(500.0, within(1e-3));
+    }
+
+    @Test
+    void filterAppliesSubscriptionAndAntimeridianViewport() {
+        final var filter = StreamFilter.from(new StreamSubscriptionRequest(
+                List.of(3, 1, 2),
+                new StreamSubscriptionRequest.Viewport(-10, 10, 170, -170)));
+
+        final var frame = frame(1000,
+                new int[] {1, 2, 3, 4},
+                new float[] {0f, 0f, 50f, 0f},
+                new float[] {175f, -175f, 175f, 175f},
+                new float[] {400f, 400f, 400f, 400f});
+
+        final var decoder = new Decoder();
+        decoder.decode(encoder.encode(frame, filter));
+
+        // 3 is outside the latitude band, 4 is not subscribed.
+        assertThat(decoder.state).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    void viewportOutsideTheGlobeIsRejected() {
+        for (final var viewport : List.of(
+                new StreamSubscriptionRequest.Viewport(-91, 10, 0, 10),
+                new StreamSubscriptionRequest.Viewport(-10, 90.5, 0, 10),
+                new StreamSubscriptionRequest.Viewport(-10, 10, -181, 10),
+                new StreamSubscriptionRequest.Viewport(-10, 10, 0, 540),
+                new StreamSubscriptionRequest.Viewport(Double.NaN, 10, 0, 10),
+                new StreamSubscriptionRequest.Viewport(10, -10, 0, 10))) {
+            assertThatThrownBy(() -> StreamFilter.from(new StreamSubscriptionRequest(null, viewport)))
+                    .as(viewport.toString())
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(StreamFilter.from(new StreamSubscriptionRequest(null,
+                new StreamSubscriptionRequest.Viewport(-90, 90, -180, 180))).matches(1, 90f, 180f)).isTrue();
+    }
+
+    private int decode(final Decoder decoder, final PositionFrame frame, final StreamFilter filter) {
+        final var buffer = encoder.encode(frame, filter);
+        final var size = buffer.remaining();
+        decoder.decode(buffer);
+        return size;
+    }
+
+    private static PositionFrame frame(final long epoch, final int[] ids,
+                                       final float[] lat, final float[] lon, final float[] alt) {
+        return new PositionFrame(epoch, CATALOGUE_VERSION, ids, lat, lon, alt);
+    }
+
+    /** Minimal client-side decoder — mirrors what the HMI does in JavaScript. */
+    private static final class Decoder {
+
+        long epochMillis;
+        long catalogueVersion;
+        boolean keyframe;
+        Map<Integer, double[]> state = new LinkedHashMap<>();
+        private Map<Integer, int[]> reference = new LinkedHashMap<>();
+
+        void decode(final ByteBuffer buffer) {
+            final var format = Byte.toUnsignedInt(buffer.get());
+            assertThat(format & ~PositionFrameEncoder.KEYFRAME_FLAG).isEqualTo(PositionFrameEncoder.FORMAT_VERSION);
+            keyframe = (format & PositionFrameEncoder.KEYFRAME_FLAG) != 0;
+            if (keyframe) {
+                reference = new LinkedHashMap<>();
+            }
+            epochMillis = buffer.getLong();
+            catalogueVersion = buffer.getLong();
+            final var count = readVarint(buffer);
+            final Map<Integer, int[]> next = new LinkedHashMap<>();
+            var id = 0;
+            for (var i = 0; i < count; i++) {
+                id += readVarint(buffer);
+                final var ref = reference.getOrDefault(id, new int[3]);
+                final var q = new int[] {
+                        ref[0] + unzigzag(readVarint(buffer)),
+                        ref[1] + unzigzag(readVarint(buffer)),
+                        ref[2] + unzigzag(readVarint(buffer))};
+                next.put(id, q);
+            }
+            reference = next;
+            state = new LinkedHashMap<>();
+            next.forEach((k, q) -> state.put(k, new double[] {
+                    q[0] / PositionFrameEncoder.ANGLE_SCALE,
+                    q[1] / PositionFrameEncoder.ANGLE_SCALE,
+                    q[2] / PositionFrameEncoder.ALTITUDE_SCALE}));
+        }
+
+        private static int readVarint(final ByteBuffer buffer) {
+            var result = 0;
+            var shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                result |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+
+        private static int unzigzag(final int v) {
+            return (v >>> 1) ^ -(v & 1);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.jakubt4.palantir.service.uplink;
+
+import io.github.jakubt4.palantir.config.OrekitConfig;
+import io.github.jakubt4.palantir.service.CcsdsTelemetrySender;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverCommand;
+import io.github.jakubt4.palantir.service.manoeuvre.ThrustManeuverOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.orekit.time.AbsoluteDate;
+import org.orekit.time.TimeScalesFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class UdpCommandReceiverTest {
+
+    private static final Instant RECEIVED_AT = Instant.parse("2026-10-19T12:00:00Z");
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CcsdsTelemetrySender ccsdsTelemetrySender;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UdpCommandReceiver receiver;
+
+    @BeforeAll
+    static void loadOrekitData() {
+        new OrekitConfig().init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        receiver = new UdpCommandReceiver(0, eventPublisher, ccsdsTelemetrySender, meterRegistry);
+    }
+
+    @Test
+    void pingIsAcceptedThenCompletedWithEchoedSequence() {
+        receiver.processTelecommand(packet(new byte[]{0x01, (byte) 0xFF, (byte) 0xFE}), System.nanoTime(), RECEIVED_AT);
+        receiver.processTelecommand(packet(new byte[]{0x01, (byte) 0xFF, (byte) 0xFF}), System.nanoTime(), RECEIVED_AT);
+
+        final InOrder order = inOrder(ccsdsTelemetrySender);
+        for (final var sequence : new int[]{0xFFFE, 0xFFFF}) {
+            order.verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(sequence), eq(0x01),
+                    eq(CommandAckStage.ACCEPTED), any(), anyFloat());
+            order.verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(sequence), eq(0x01),
+                    eq(CommandAckStage.COMPLETED), any(), anyFloat());
+        }
+
+        final var stageTime = ArgumentCaptor.forClass(AbsoluteDate.class);
+        final var receivedDate = ArgumentCaptor.forClass(AbsoluteDate.class);
+        final var latency = ArgumentCaptor.forClass(Float.class);
+        verify(ccsdsTelemetrySender, times(4)).sendCommandAck(stageTime.capture(), anyInt(), anyInt(), any(),
+                receivedDate.capture(), latency.capture());
+        for (var i = 0; i < 4; i++) {
+            assertThat(latency.getAllValues().get(i)).isNotNegative();
+            assertThat(stageTime.getAllValues().get(i).durationFrom(receivedDate.getAllValues().get(i)))
+                    .isCloseTo(latency.getAllValues().get(i), within(1e-6));
+            assertThat(receivedDate.getAllValues().get(i).toDate(TimeScalesFactory.getUTC())
+                    .toInstant()).isEqualTo(RECEIVED_AT);
+        }
+
+        for (final var phase : new String[]{"dispatch", "execute", "total"}) {
+            assertThat(meterRegistry.get("palantir.uplink.command").tag("phase", phase).timer().count())
+                    .isEqualTo(2);
+        }
+    }
+
+    @Test
+    void acknowledgementsOfCommandsWithinOneMillisecondKeepTheirOrder() {
+        final var receivedNanos = System.nanoTime();
+        receiver.processTelecommand(packet(new byte[]{0x01, 0x00, 0x01}), receivedNanos,
+                RECEIVED_AT.plusNanos(100_000));
+        receiver.processTelecommand(packet(new byte[]{0x01, 0x00, 0x02}), receivedNanos + 200_000,
+                RECEIVED_AT.plusNanos(300_000));
+
+        final var stageTime = ArgumentCaptor.forClass(AbsoluteDate.class);
+        final var receivedDate = ArgumentCaptor.forClass(AbsoluteDate.class);
+        verify(ccsdsTelemetrySender, times(4)).sendCommandAck(stageTime.capture(), anyInt(), anyInt(), any(),
+                receivedDate.capture(), anyFloat());
+        // Truncated to the millisecond, both receive times would be 12:00:00.000.
+        assertThat(receivedDate.getAllValues().get(2).durationFrom(receivedDate.getAllValues().get(0)))
+                .isCloseTo(200e-6, within(1e-9));
+        for (var i = 1; i < 4; i++) {
+            assertThat(stageTime.getAllValues().get(i).durationFrom(stageTime.getAllValues().get(i - 1)))
+                    .isNotNegative();
+        }
+    }
+
+    @Test
+    void unknownOpcodeFailsWithoutDispatch() {
+        receiver.processTelecommand(packet(new byte[]{0x7F, 0x00, 0x05}), System.nanoTime(), RECEIVED_AT);
+
+        verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(5), eq(0x7F), eq(CommandAckStage.FAILED),
+                any(), anyFloat());
+        verify(ccsdsTelemetrySender, never()).sendCommandAck(any(), anyInt(), anyInt(),
+                eq(CommandAckStage.ACCEPTED), any(), anyFloat());
+        assertThat(meterRegistry.get("palantir.uplink.command").tag("phase", "dispatch").timer().count())
+                .isZero();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void commandWithoutSequenceFails() {
+        receiver.processTelecommand(packet(new byte[]{0x01}), System.nanoTime(), RECEIVED_AT);
+
+        verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(0), eq(0x01), eq(CommandAckStage.FAILED),
+                any(), anyFloat());
+        verify(ccsdsTelemetrySender, never()).sendCommandAck(any(), anyInt(), anyInt(),
+                eq(CommandAckStage.ACCEPTED), any(), anyFloat());
+    }
+
+    @Test
+    void fireThrusterFailsWhenPayloadDoesNotDecode() {
+        receiver.processTelecommand(packet(new byte[]{0x04, 0x00, 0x01, 0x00}), System.nanoTime(), RECEIVED_AT);
+
+        verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(1), eq(0x04), eq(CommandAckStage.FAILED),
+                any(), anyFloat());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void fireThrusterCompletesOnlyOncePlanned() {
+        receiver.processTelecommand(packet(fireThruster(1, 0.5f)), System.nanoTime(), RECEIVED_AT);
+        receiver.processTelecommand(packet(fireThruster(2, 0.25f)), System.nanoTime(), RECEIVED_AT);
+
+        final var first = new ThrustManeuverCommand(0, 0.5, 0, 10, RECEIVED_AT);
+        final var second = new ThrustManeuverCommand(0, 0.25, 0, 10, RECEIVED_AT);
+        verify(eventPublisher).publishEvent(first);
+        verify(eventPublisher).publishEvent(second);
+        verify(ccsdsTelemetrySender, times(2)).sendCommandAck(any(), anyInt(), eq(0x04),
+                eq(CommandAckStage.ACCEPTED), any(), anyFloat());
+        verify(ccsdsTelemetrySender, never()).sendCommandAck(any(), anyInt(), anyInt(),
+                eq(CommandAckStage.COMPLETED), any(), anyFloat());
+
+        receiver.onThrustManeuverOutcome(new ThrustManeuverOutcome(second, false));
+        receiver.onThrustManeuverOutcome(new ThrustManeuverOutcome(first, true));
+
+        final InOrder order = inOrder(ccsdsTelemetrySender);
+        order.verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(2), eq(0x04), eq(CommandAckStage.FAILED),
+                any(), anyFloat());
+        order.verify(ccsdsTelemetrySender).sendCommandAck(any(), eq(1), eq(0x04), eq(CommandAckStage.COMPLETED),
+                any(), anyFloat());
+        assertThat(meterRegistry.get("palantir.uplink.command").tag("phase", "total").timer().count())
+                .isEqualTo(2);
+    }
+
+    private static byte[] fireThruster(final int sequence, final float deltaVAlongTrack) {
+        return ByteBuffer.allocate(UdpCommandReceiver.HEADER_LENGTH + ThrustManeuverCommand.PAYLOAD_LENGTH)
+                .put((byte) 0x04).putShort((short) sequence)
+                .putFloat(0f).putFloat(deltaVAlongTrack).putFloat(0f).putShort((short) 10)
+                .array();
+    }
+
+    private static DatagramPacket packet(final byte[] data) {
+        return new DatagramPacket(data, data.length, InetAddress.getLoopbackAddress(), 50_000);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.jakubt4.palantir.service.workload;
+
+import io.github.jakubt4.palantir.config.WorkloadProperties;
+import io.github.jakubt4.palantir.config.WorkloadProperties.LaneLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ComputeLanesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ComputeLanes computeLanes;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        computeLanes = new ComputeLanes(new WorkloadProperties(Map.of(
+                ComputeLanes.COVERAGE, new LaneLimits(1, 1, Duration.ofSeconds(10)),
+                ComputeLanes.EXPORT, new LaneLimits(1, 1, Duration.ofMillis(50)))),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        computeLanes.stop();
+    }
+
+    @Test
+    void queuesUpToTheLimitAndShedsTheRestWithRetryHint() throws Exception {
+        final var lane = computeLanes.lane(ComputeLanes.COVERAGE);
+        final var first = computeLanes.admit(ComputeLanes.COVERAGE);
+
+        final var second = CompletableFuture.supplyAsync(() -> computeLanes.admit(ComputeLanes.COVERAGE),
+                runnable -> Thread.ofVirtual().start(runnable));
+        await().atMost(Duration.ofSeconds(5)).until(() -> lane.queued() == 1);
+        assertThat(meterRegistry.get("palantir.workload.queued").tag("lane", "coverage").gauge().value())
+                .isEqualTo(1.0);
+
+        assertThatThrownBy(() -> computeLanes.admit(ComputeLanes.COVERAGE))
+                .isInstanceOfSatisfying(LaneSaturatedException.class, e -> {
+                    assertThat(e.lane()).isEqualTo(ComputeLanes.COVERAGE);
+                    assertThat(e.retryAfterSeconds()).isBetween(1L, 60L);
+                });
+        assertThat(meterRegistry.get("palantir.workload.rejected").tag("lane", "coverage").counter().count())
+                .isEqualTo(1.0);
+        assertThat(second).isNotDone();
+
+        first.close();
+        first.close();
+        try (final var permit = second.get()) {
+            assertThat(lane.active()).isEqualTo(1);
+            assertThat(lane.queued()).isZero();
+        }
+        assertThat(lane.active()).isZero();
+        assertThat(meterRegistry.get("palantir.workload.wait").tag("lane", "coverage").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shedsQueuedRequestOnceMaxWaitElapses() {
+        final var lane = computeLanes.lane(ComputeLanes.EXPORT);
+        try (final var permit = computeLanes.admit(ComputeLanes.EXPORT)) {
+            assertThatThrownBy(() -> computeLanes.admit(ComputeLanes.EXPORT))
+                    .isInstanceOf(LaneSaturatedException.class);
+            assertThat(lane.queued()).isZero();
+            assertThat(lane.active()).isEqualTo(1);
+        }
+        try (final var permit = computeLanes.admit(ComputeLanes.EXPORT)) {
+            assertThat(lane.active()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void runsAdmittedWorkOnTheLanePlatformThreads() throws Exception {
+        final var worker = CompletableFuture.supplyAsync(
+                () -> computeLanes.run(ComputeLanes.COVERAGE, Thread::currentThread),
+                runnable -> Thread.ofVirtual().start(runnable)).get();
+
+        assertThat(worker.isVirtual()).isFalse();
+        assertThat(worker.getName()).startsWith("palantir-coverage-");
+        assertThat(computeLanes.lane(ComputeLanes.COVERAGE).active()).isZero();
+
+        assertThatThrownBy(() -> computeLanes.run(ComputeLanes.COVERAGE, () -> {
+            throw new IllegalArgumentException("bad request");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("bad request");
+        assertThat(computeLanes.lane(ComputeLanes.COVERAGE).active()).isZero();
+    }
+
+    @Test
+    void unconfiguredLanesGetDefaultLimits() {
+        final var lane = computeLanes.lane(ComputeLanes.CATALOGUE);
+        try (final var permit = computeLanes.admit(ComputeLanes.CATALOGUE)) {
+            assertThat(lane.active()).isEqualTo(LaneLimits.DEFAULT.maxConcurrent());
+        }
+        assertThatThrownBy(() -> computeLanes.admit("unknown")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.jakubt4.palantir.service.workload;
+
+import io.github.jakubt4.palantir.service.OrbitPropagationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+class TickLaneTest {
+
+    private static final long PERIOD_MS = 50;
+
+    @Mock
+    private OrbitPropagationService orbitPropagationService;
+
+    /** Keeps the flood's busy loops from being optimised away. */
+    private static volatile long sink;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TickLane tickLane;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tickLane = new TickLane(orbitPropagationService, meterRegistry, PERIOD_MS, 250);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tickLane.stop();
+    }
+
+    @Test
+    void ticksStayOnScheduleWhileVirtualThreadsSaturateTheCarriers() throws Exception {
+        final var ticks = new ConcurrentLinkedQueue<Long>();
+        final var virtualTicks = new AtomicInteger();
+        doAnswer(invocation -> {
+            ticks.add(System.nanoTime());
+            if (Thread.currentThread().isVirtual() || !TickLane.THREAD_NAME.equals(Thread.currentThread().getName())) {
+                virtualTicks.incrementAndGet();
+            }
+            return null;
+        }).when(orbitPropagationService).propagateAndSend();
+
+        // CPU-bound virtual threads never yield, so they pin every carrier for the whole flood.
+        final var floodNanos = TimeUnit.MILLISECONDS.toNanos(1500);
+        final var flood = new ArrayList<Thread>();
+        for (var i = 0; i < Runtime.getRuntime().availableProcessors() * 2; i++) {
+            flood.add(Thread.ofVirtual().start(() -> {
+                final var end = System.nanoTime() + floodNanos;
+                var x = 0L;
+                while (System.nanoTime() < end) {
+                    x += x * 31 + 7;
+                }
+                sink = x;
+            }));
+        }
+        tickLane.start();
+        for (final var thread : flood) {
+            thread.join();
+        }
+
+        final List<Long> times = new ArrayList<>(ticks);
+        assertThat(times).hasSizeGreaterThan(15);
+        assertThat(virtualTicks).hasValue(0);
+        var maxGap = 0L;
+        for (var i = 1; i < times.size(); i++) {
+            maxGap = Math.max(maxGap, times.get(i) - times.get(i - 1));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(maxGap)).isLessThan(250);
+        assertThat(meterRegistry.get("palantir.tick.lateness").timer().max(TimeUnit.MILLISECONDS))
+                .isLessThan(250);
+    }
+
+    @Test
+    void failingTickDoesNotStopLaterTicks() {
+        doThrow(new IllegalStateException("boom")).when(orbitPropagationService).propagateAndSend();
+
+        tickLane.start();
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("palantir.tick.duration").timer().count() >= 3);
+    }
+}
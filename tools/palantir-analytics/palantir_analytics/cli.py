@@ -7,6 +7,7 @@ from pathlib import Path
 
 import typer
 
+from palantir_analytics.core_export import fetch_telemetry_export, open_telemetry_export
 from palantir_analytics.export import run_export
 from palantir_analytics.passes import compute_passes
 from palantir_analytics.plots import (
@@ -99,6 +100,42 @@ def export(
         typer.echo(f"Wrote {ground_track_png}")
 
 
+@app.command("bulk-export")
+def bulk_export(
+    start: str = typer.Option(..., "--start", help="Window start, ISO 8601 with tz."),
+    stop: str = typer.Option(..., "--stop", help="Window stop, ISO 8601 with tz."),
+    satellite: list[int] = typer.Option(
+        [],
+        "--satellite",
+        "-s",
+        help="NORAD catalogue number (repeatable); omit for every registered object.",
+    ),
+    step: float | None = typer.Option(
+        None, "--step", help="Sampling step in seconds; server default is 1 s."
+    ),
+    core_url: str = typer.Option("http://localhost:8080", "--core-url"),
+    out: Path = typer.Option(Path("./export"), "--out", help="Output directory."),
+) -> None:
+    """Stream generated telemetry from palantir-core into a columnar file."""
+    start_dt = _parse_iso_utc(start)
+    stop_dt = _parse_iso_utc(stop)
+
+    path = fetch_telemetry_export(
+        core_url=core_url,
+        start=start_dt,
+        stop=stop_dt,
+        out_path=out / "telemetry_export.ptlm",
+        catalog_numbers=satellite or None,
+        step_seconds=step,
+    )
+    result = open_telemetry_export(path)
+    satellites, steps = result.latitude.shape
+    typer.echo(
+        f"Wrote {satellites} satellites × {steps} samples to {path} "
+        f"({path.stat().st_size / 1e6:.1f} MB)"
+    )
+
+
 @app.command()
 def passes(
     start: str = typer.Option(..., "--start", help="Window start, ISO 8601 with tz."),
@@ -0,0 +1,274 @@
+"""Bulk telemetry export straight from palantir-core.
+
+The Yamcs archive answers one parameter per request, which dominates run
+time for long windows. palantir-core can instead regenerate the same
+navigation telemetry (latitude, longitude, altitude) for many satellites
+at once and stream it in a column-chunked binary file
+(``POST /api/export/telemetry``, layout documented on the Java side in
+``TelemetryExportEncoder``). This module downloads such a file and maps it
+with numpy, so the columns are read from the page cache rather than
+parsed. A chunk holds every satellite's samples for its time range, so a
+column spanning several chunks is not one strided array; it stays a list
+of per-chunk views (:class:`ChunkedColumn`) and only what is indexed is
+copied.
+
+File layout, little-endian::
+
+    header (40 B)    magic "PTLM", version, start ms, step s, steps,
+                     satellites, chunk steps
+    directory        int32 catalogue number per satellite, padded to 8 B
+    chunks           int32 first step, int32 n, then float32
+                     latitude / longitude / altitude, each satellites × n
+"""
+
+from __future__ import annotations
+
+from dataclasses import dataclass
+from datetime import datetime
+from itertools import accumulate
+from pathlib import Path
+from typing import Sequence
+
+import numpy as np
+import pandas as pd
+import requests
+
+MAGIC = b"PTLM"
+FORMAT_VERSION = 1
+
+_HEADER = np.dtype(
+    [
+        ("magic", "S4"),
+        ("version", "u1"),
+        ("reserved", "V3"),
+        ("start_ms", "<i8"),
+        ("step_s", "<f8"),
+        ("steps", "<i4"),
+        ("satellites", "<i4"),
+        ("chunk_steps", "<i4"),
+        ("reserved2", "V4"),
+    ]
+)
+COLUMNS = ("Latitude", "Longitude", "Altitude")
+
+
+def _chunk_dtype(satellites: int, steps: int) -> np.dtype:
+    """One chunk of ``steps`` samples per satellite, as a numpy record."""
+    return np.dtype(
+        [("first_step", "<i4"), ("steps", "<i4")]
+        + [(column, "<f4", (satellites, steps)) for column in COLUMNS]
+    )
+
+
+class ChunkedColumn:
+    """A ``(satellites, steps)`` float32 column left in the file's chunks.
+
+    ``chunks`` are ``(satellites, n)`` views of the memory map, in time
+    order. Indexing copies only the samples it selects, and nothing at all
+    when they fall in one chunk; ``np.asarray(column)`` joins every chunk
+    and therefore copies the whole column unless there is only one.
+    """
+
+    dtype = np.dtype("<f4")
+    ndim = 2
+
+    def __init__(self, chunks: Sequence[np.ndarray], satellites: int) -> None:
+        self.chunks = tuple(chunks)
+        self._starts = list(accumulate((chunk.shape[1] for chunk in self.chunks), initial=0))
+        self.shape = (satellites, self._starts[-1])
+
+    def __len__(self) -> int:
+        return self.shape[0]
+
+    def __getitem__(self, key):
+        """``column[rows]`` or ``column[rows, steps]``, steps an index or a unit-step slice."""
+        rows, steps = key if isinstance(key, tuple) and len(key) == 2 else (key, slice(None))
+        if isinstance(steps, (int, np.integer)):
+            step = int(steps) + self.shape[1] if steps < 0 else int(steps)
+            if not 0 <= step < self.shape[1]:
+                raise IndexError(f"step {steps} is out of range for {self.shape[1]} steps")
+            chunk = next(k for k in range(len(self.chunks)) if step < self._starts[k + 1])
+            return self.chunks[chunk][rows, step - self._starts[chunk]]
+        if isinstance(steps, slice) and steps.step in (None, 1):
+            start, stop, _ = steps.indices(self.shape[1])
+            parts = [
+                chunk[rows, max(start, lo) - lo : min(stop, hi) - lo]
+                for chunk, lo, hi in zip(self.chunks, self._starts, self._starts[1:])
+                if max(start, lo) < min(stop, hi)
+            ]
+            if len(parts) == 1:
+                return parts[0]
+            if not parts:
+                return np.empty((self.shape[0], 0), dtype=self.dtype)[rows, :]
+            return np.concatenate(parts, axis=-1)
+        return np.asarray(self)[key]
+
+    def __array__(self, dtype=None, copy=None):
+        if len(self.chunks) == 1:
+            array = self.chunks[0]
+        elif self.chunks:
+            array = np.concatenate(self.chunks, axis=1)
+        else:
+            array = np.empty(self.shape, dtype=self.dtype)
+        if dtype is not None or copy:
+            array = np.array(array, dtype=dtype, copy=True)
+        return array
+
+    def __repr__(self) -> str:
+        return f"ChunkedColumn(shape={self.shape}, chunks={len(self.chunks)})"
+
+
+@dataclass(frozen=True)
+class TelemetryExport:
+    """A palantir-core telemetry export, mapped from disk.
+
+    Each column is a ``(satellites, steps)`` float32 :class:`ChunkedColumn`
+    — degrees for latitude/longitude, kilometres for altitude, NaN where
+    the satellite could not be propagated — whose chunks are views of the
+    memory map.
+    """
+
+    catalog_numbers: np.ndarray
+    times: pd.DatetimeIndex
+    latitude: ChunkedColumn
+    longitude: ChunkedColumn
+    altitude: ChunkedColumn
+
+    def frame(self, catalog_number: int) -> pd.DataFrame:
+        """One satellite's samples as a time-indexed DataFrame.
+
+        Same column names as ``run_export``'s DataFrame, so the plot engines
+        accept either.
+        """
+        matches = np.flatnonzero(self.catalog_numbers == catalog_number)
+        if matches.size == 0:
+            raise KeyError(f"catalogue number {catalog_number} is not in the export")
+        row = int(matches[0])
+        return pd.DataFrame(
+            {
+                "Latitude": self.latitude[row],
+                "Longitude": self.longitude[row],
+                "Altitude": self.altitude[row],
+            },
+            index=self.times,
+        )
+
+
+def open_telemetry_export(path: Path) -> TelemetryExport:
+    """Map a file written by :func:`fetch_telemetry_export`.
+
+    :raises ValueError: if the file is not a complete version-1 export.
+    """
+    header = np.fromfile(path, dtype=_HEADER, count=1)
+    if header.size != 1 or header["magic"][0] != MAGIC:
+        raise ValueError(f"{path} is not a palantir-core telemetry export")
+    if header["version"][0] != FORMAT_VERSION:
+        raise ValueError(f"{path}: unsupported format version {header['version'][0]}")
+
+    steps = int(header["steps"][0])
+    satellites = int(header["satellites"][0])
+    chunk_steps = int(header["chunk_steps"][0])
+    directory_offset = _HEADER.itemsize
+    data_offset = directory_offset + ((satellites * 4 + 7) & ~7)
+    full_chunks, tail_steps = divmod(steps, chunk_steps)
+
+    full = _chunk_dtype(satellites, chunk_steps)
+    tail = _chunk_dtype(satellites, tail_steps) if tail_steps else None
+    expected = data_offset + full_chunks * full.itemsize + (tail.itemsize if tail else 0)
+    if path.stat().st_size != expected:
+        raise ValueError(
+            f"{path} is {path.stat().st_size} bytes, expected {expected} — truncated download?"
+        )
+
+    catalog_numbers = np.memmap(
+        path, dtype="<i4", mode="r", offset=directory_offset, shape=(satellites,)
+    )
+    parts = []
+    if full_chunks:
+        parts.append(
+            np.memmap(path, dtype=full, mode="r", offset=data_offset, shape=(full_chunks,))
+        )
+    if tail is not None:
+        parts.append(
+            np.memmap(
+                path,
+                dtype=tail,
+                mode="r",
+                offset=data_offset + full_chunks * full.itemsize,
+                shape=(1,),
+            )
+        )
+
+    # part[column] is (chunks, satellites, n); iterating it yields one view per chunk.
+    columns = {
+        column: ChunkedColumn([chunk for part in parts for chunk in part[column]], satellites)
+        for column in COLUMNS
+    }
+
+    start_ms = int(header["start_ms"][0])
+    step_ms = float(header["step_s"][0]) * 1000.0
+    times = pd.to_datetime(
+        start_ms + np.round(np.arange(steps) * step_ms).astype("int64"),
+        unit="ms",
+        utc=True,
+    ).rename("timestamp")
+
+    return TelemetryExport(
+        catalog_numbers=catalog_numbers,
+        times=times,
+        latitude=columns["Latitude"],
+        longitude=columns["Longitude"],
+        altitude=columns["Altitude"],
+    )
+
+
+def fetch_telemetry_export(
+    core_url: str,
+    start: datetime,
+    stop: datetime,
+    out_path: Path,
+    catalog_numbers: Sequence[int] | None = None,
+    step_seconds: float | None = None,
+    timeout: float = 60.0,
+) -> Path:
+    """Stream an export from palantir-core to ``out_path``.
+
+    The body is copied to disk as it arrives and only renamed into place
+    once its length matches ``Content-Length``, so a dropped connection
+    never leaves a plausible-looking partial file behind.
+
+    :param core_url:        Base URL, e.g. ``http://localhost:8080``.
+    :param catalog_numbers: NORAD numbers; ``None`` for every registered object.
+    :param step_seconds:    Sampling step; ``None`` for the server default (1 s).
+    :param timeout:         Connect / between-reads timeout, seconds.
+    :raises requests.HTTPError: 400 for an invalid or oversized window,
+                                404 for an unknown catalogue number.
+    """
+    body = {
+        "catalogNumbers": list(catalog_numbers) if catalog_numbers else None,
+        "start": start.isoformat(),
+        "end": stop.isoformat(),
+        "stepSeconds": step_seconds,
+    }
+    out_path.parent.mkdir(parents=True, exist_ok=True)
+    partial = out_path.with_name(out_path.name + ".part")
+    try:
+        with requests.post(
+            core_url.rstrip("/") + "/api/export/telemetry",
+            json=body,
+            stream=True,
+            timeout=timeout,
+        ) as response:
+            response.raise_for_status()
+            expected = response.headers.get("Content-Length")
+            with partial.open("wb") as out:
+                for block in response.iter_content(chunk_size=1 << 20):
+                    out.write(block)
+        received = partial.stat().st_size
+        if expected is not None and received != int(expected):
+            raise OSError(f"export truncated: received {received} of {expected} bytes")
+    except BaseException:
+        partial.unlink(missing_ok=True)
+        raise
+    partial.replace(out_path)
+    return out_path
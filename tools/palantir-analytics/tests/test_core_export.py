@@ -0,0 +1,154 @@
+"""Unit tests for the palantir-core bulk export reader.
+
+Export files are built with ``struct`` following the documented layout,
+so the reader is checked against the format rather than against itself.
+``responses`` stands in for palantir-core's HTTP endpoint.
+"""
+
+from __future__ import annotations
+
+import struct
+from datetime import datetime, timezone
+from pathlib import Path
+
+import numpy as np
+import pytest
+import requests
+import responses
+from responses import matchers
+
+from palantir_analytics.core_export import fetch_telemetry_export, open_telemetry_export
+
+START_MS = 1_792_368_000_000  # 2026-10-19T00:00:00Z
+
+
+def _value(column: int, satellite: int, step: int) -> float:
+    return column * 1000.0 + satellite * 100.0 + step
+
+
+def _export_bytes(catalog_numbers: list[int], steps: int, chunk_steps: int, step_s: float = 1.0) -> bytes:
+    satellites = len(catalog_numbers)
+    data = bytearray(b"PTLM" + bytes([1, 0, 0, 0]))
+    data += struct.pack("<qdiii4x", START_MS, step_s, steps, satellites, chunk_steps)
+    data += struct.pack(f"<{satellites}i", *catalog_numbers)
+    data += bytes((-len(data)) % 8)
+    for first in range(0, steps, chunk_steps):
+        n = min(chunk_steps, steps - first)
+        data += struct.pack("<ii", first, n)
+        for column in range(3):
+            for satellite in range(satellites):
+                data += struct.pack(
+                    f"<{n}f", *(_value(column, satellite, first + j) for j in range(n))
+                )
+    return bytes(data)
+
+
+def test_reassembles_columns_across_chunks(tmp_path: Path) -> None:
+    """Full chunks and the shorter tail chunk join into (satellites, steps) columns."""
+    path = tmp_path / "export.ptlm"
+    path.write_bytes(_export_bytes([25544, 28654, 43013], steps=10, chunk_steps=4))
+
+    export = open_telemetry_export(path)
+
+    assert list(export.catalog_numbers) == [25544, 28654, 43013]
+    assert export.latitude.shape == (3, 10)
+    expected = np.array([[_value(2, s, i) for i in range(10)] for s in range(3)], dtype=np.float32)
+    np.testing.assert_array_equal(export.altitude, expected)
+    assert export.times[0] == datetime(2026, 10, 19, tzinfo=timezone.utc)
+    assert export.times[-1] == datetime(2026, 10, 19, 0, 0, 9, tzinfo=timezone.utc)
+
+
+def test_single_chunk_is_a_view_of_the_map(tmp_path: Path) -> None:
+    path = tmp_path / "export.ptlm"
+    path.write_bytes(_export_bytes([25544], steps=5, chunk_steps=5, step_s=0.5))
+
+    export = open_telemetry_export(path)
+
+    assert isinstance(export.latitude.chunks[0], np.memmap)
+    assert np.shares_memory(np.asarray(export.latitude), export.latitude.chunks[0])
+    assert export.times[1] == datetime(2026, 10, 19, 0, 0, 0, 500_000, tzinfo=timezone.utc)
+    frame = export.frame(25544)
+    assert list(frame.columns) == ["Latitude", "Longitude", "Altitude"]
+    assert frame["Longitude"].iloc[4] == pytest.approx(_value(1, 0, 4))
+    with pytest.raises(KeyError):
+        export.frame(99999)
+
+
+def test_columns_across_chunks_are_views_of_the_map(tmp_path: Path) -> None:
+    """Several chunks are not joined into a copy; indexing copies only what it selects."""
+    path = tmp_path / "export.ptlm"
+    path.write_bytes(_export_bytes([25544, 28654], steps=10, chunk_steps=4))
+
+    export = open_telemetry_export(path)
+
+    chunks = export.latitude.chunks
+    assert [chunk.shape for chunk in chunks] == [(2, 4), (2, 4), (2, 2)]
+    assert all(isinstance(chunk, np.memmap) for chunk in chunks)
+    assert np.shares_memory(export.latitude[:, 4:8], chunks[1])
+    np.testing.assert_array_equal(export.latitude[1, 2:7], [_value(0, 1, i) for i in range(2, 7)])
+    assert export.latitude[0, -1] == _value(0, 0, 9)
+    with pytest.raises(IndexError):
+        export.latitude[0, 10]
+
+    # The map reflects the file: rewrite satellite 0's latitude at step 5 in place.
+    header_and_directory = 40 + 8
+    second_chunk = header_and_directory + (8 + 3 * 2 * 4 * 4)
+    with path.open("r+b") as out:
+        out.seek(second_chunk + 8 + 4)
+        out.write(struct.pack("<f", -1.5))
+    assert export.latitude[0, 5] == -1.5
+
+
+def test_rejects_truncated_file(tmp_path: Path) -> None:
+    path = tmp_path / "export.ptlm"
+    path.write_bytes(_export_bytes([25544, 28654], steps=8, chunk_steps=3)[:-4])
+
+    with pytest.raises(ValueError, match="truncated"):
+        open_telemetry_export(path)
+
+
+@responses.activate
+def test_fetch_posts_window_and_writes_body(tmp_path: Path) -> None:
+    body = _export_bytes([25544], steps=3, chunk_steps=3)
+    responses.post(
+        "http://core:8080/api/export/telemetry",
+        body=body,
+        content_type="application/vnd.palantir.telemetry",
+        match=[
+            matchers.json_params_matcher(
+                {
+                    "catalogNumbers": [25544],
+                    "start": "2026-10-19T00:00:00+00:00",
+                    "end": "2026-10-19T00:00:02+00:00",
+                    "stepSeconds": None,
+                }
+            )
+        ],
+    )
+
+    path = fetch_telemetry_export(
+        core_url="http://core:8080/",
+        start=datetime(2026, 10, 19, tzinfo=timezone.utc),
+        stop=datetime(2026, 10, 19, 0, 0, 2, tzinfo=timezone.utc),
+        out_path=tmp_path / "out" / "export.ptlm",
+        catalog_numbers=[25544],
+    )
+
+    assert path.read_bytes() == body
+    assert not (tmp_path / "out" / "export.ptlm.part").exists()
+
+
+@responses.activate
+def test_fetch_leaves_no_file_on_error(tmp_path: Path) -> None:
+    responses.post("http://core:8080/api/export/telemetry", status=404)
+
+    with pytest.raises(requests.HTTPError):
+        fetch_telemetry_export(
+            core_url="http://core:8080",
+            start=datetime(2026, 10, 19, tzinfo=timezone.utc),
+            stop=datetime(2026, 10, 20, tzinfo=timezone.utc),
+            out_path=tmp_path / "export.ptlm",
+            catalog_numbers=[99999],
+        )
+
+    assert list(tmp_path.iterdir()) == []
@@ -0,0 +1,126 @@
+/**
+ * palantir-core position stream client — binary catalogue positions with
+ * auto-reconnect.
+ *
+ * Wire format (documented on PositionFrameEncoder in palantir-core):
+ * uint8 format (version in bits 0-6, keyframe flag in bit 7), int64 tick
+ * epoch ms, int64 catalogue version, then a LEB128 entry count and per
+ * entry four varints — catalogue number delta, then latitude / longitude
+ * (1e-5 deg) and altitude (m) as zigzag deltas against the previous frame.
+ * The decoder therefore keeps the last frame and drops it on a keyframe,
+ * which the server sends first and after every reset of its own reference
+ * (a subscription change or a failed send). A subscription change is sent
+ * on the open socket: frames still in flight were encoded against the
+ * frames before them, and the keyframe that follows starts over.
+ */
+
+const FORMAT_VERSION = 3;
+const KEYFRAME_FLAG = 0x80;
+const ANGLE_SCALE = 1e5;
+const ALTITUDE_SCALE = 1e3;
+const RECONNECT_INITIAL_MS = 1000;
+const RECONNECT_MAX_MS = 30000;
+
+/**
+ * Connect to the stream and deliver every decoded frame:
+ *
+ *     onFrame({epoch: Date, catalogueVersion: number,
+ *              objects: [{id: 25544, lat: 48.7, lon: 17.1, alt_km: 420.3}]})
+ *
+ * Returns {subscribe(request), close()}. subscribe() replaces the
+ * StreamSubscriptionRequest ({catalogNumbers, viewport}) sent on every
+ * connect, and sends it at once if the socket is open.
+ *
+ * @param {string} url - ws(s)://host/ws/positions
+ * @param {(frame: object) => void} onFrame
+ * @param {(state: "connecting" | "open" | "closed") => void} [onStatus]
+ */
+export function connectPositionStream(url, onFrame, onStatus) {
+  let ws = null;
+  let backoff = RECONNECT_INITIAL_MS;
+  let teardown = false;
+  let subscription = null;
+  // Quantised reference values of the previous frame, by catalogue number.
+  let reference = new Map();
+
+  function connect() {
+    onStatus?.("connecting");
+    reference = new Map();
+    ws = new WebSocket(url);
+    ws.binaryType = "arraybuffer";
+
+    ws.onopen = () => {
+      backoff = RECONNECT_INITIAL_MS;
+      onStatus?.("open");
+      if (subscription) ws.send(JSON.stringify(subscription));
+    };
+
+    ws.onmessage = (event) => {
+      if (!(event.data instanceof ArrayBuffer)) return;
+      const frame = decode(new DataView(event.data));
+      if (frame) onFrame(frame);
+    };
+
+    ws.onclose = () => {
+      onStatus?.("closed");
+      if (teardown) return;
+      setTimeout(connect, backoff);
+      backoff = Math.min(backoff * 2, RECONNECT_MAX_MS);
+    };
+
+    ws.onerror = () => { ws?.close(); };
+  }
+
+  function decode(view) {
+    const format = view.getUint8(0);
+    if ((format & ~KEYFRAME_FLAG) !== FORMAT_VERSION) {
+      console.warn(`Unsupported position stream format ${format & ~KEYFRAME_FLAG}`);
+      return null;
+    }
+    if (format & KEYFRAME_FLAG) reference = new Map();
+    const epoch = new Date(Number(view.getBigInt64(1)));
+    const catalogueVersion = Number(view.getBigInt64(9));
+    const cursor = { pos: 17 };
+    const count = readVarint(view, cursor);
+    const next = new Map();
+    const objects = [];
+    let id = 0;
+    for (let i = 0; i < count; i++) {
+      id += readVarint(view, cursor);
+      const ref = reference.get(id) ?? [0, 0, 0];
+      const q = [
+        ref[0] + unzigzag(readVarint(view, cursor)),
+        ref[1] + unzigzag(readVarint(view, cursor)),
+        ref[2] + unzigzag(readVarint(view, cursor)),
+      ];
+      next.set(id, q);
+      objects.push({ id, lat: q[0] / ANGLE_SCALE, lon: q[1] / ANGLE_SCALE, alt_km: q[2] / ALTITUDE_SCALE });
+    }
+    reference = next;
+    return { epoch, catalogueVersion, objects };
+  }
+
+  connect();
+  return {
+    subscribe(request) {
+      subscription = request;
+      if (ws?.readyState === WebSocket.OPEN) ws.send(JSON.stringify(request));
+    },
+    close() { teardown = true; ws?.close(); },
+  };
+}
+
+function readVarint(view, cursor) {
+  let result = 0;
+  let shift = 0;
+  for (;;) {
+    const b = view.getUint8(cursor.pos++);
+    result += (b & 0x7f) * 2 ** shift;
+    if ((b & 0x80) === 0) return result;
+    shift += 7;
+  }
+}
+
+function unzigzag(n) {
+  return n % 2 === 0 ? n / 2 : -(n + 1) / 2;
+}
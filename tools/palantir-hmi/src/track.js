@@ -9,17 +9,24 @@
  * UnitSet), CesiumJS Cartesian3.fromDegrees expects **metres**. The
  * `* 1000.0` multiply on line `metersFromKm` is the single most common
  * Cesium ground-track bug — keeping it explicit and named.
+ *
+ * The rest of the tracked catalogue comes from palantir-core's binary
+ * position stream (/ws/positions) as one point per object, limited to
+ * the area the camera shows. The dev server proxies /ws to palantir-core,
+ * so the stream is same-origin and needs no CORS opt-in.
  */
 
 import * as Cesium from "cesium";
 import "cesium/Build/Cesium/Widgets/widgets.css";
 
+import { connectPositionStream } from "./position-stream.js";
 import { subscribeParameters } from "./yamcs-ws.js";
 
 const ION_TOKEN = import.meta.env.VITE_CESIUM_ION_TOKEN;
 const YAMCS_WS_URL = "ws://localhost:8090/api/websocket";
 const INSTANCE = "palantir";
 const PROCESSOR = "realtime";
+const POSITION_STREAM_URL = `${location.protocol === "https:" ? "wss" : "ws"}://${location.host}/ws/positions`;
 
 // Trail length: one ISS-class orbit ≈ 5554 s. Round to 93 min (5580 s)
 // per FEATURES.md §1.1; 1 Hz cadence gives 5580 stored samples max.
@@ -151,3 +158,47 @@ subscribeParameters(
     statusReadout.className = `status status-${state}`;
   },
 );
+
+// Tracked catalogue from the palantir-core position stream. Points are
+// keyed by catalogue number and dropped when an object leaves the frame
+// (out of view, or untracked).
+const cataloguePoints = viewer.scene.primitives.add(new Cesium.PointPrimitiveCollection());
+const pointsById = new Map();
+const catalogueReadout = document.getElementById("catalogueReadout");
+
+const positionStream = connectPositionStream(POSITION_STREAM_URL, ({ catalogueVersion, objects }) => {
+  const seen = new Set();
+  for (const { id, lat, lon, alt_km } of objects) {
+    seen.add(id);
+    const position = Cesium.Cartesian3.fromDegrees(lon, lat, alt_km * 1000.0);
+    const point = pointsById.get(id);
+    if (point) {
+      point.position = position;
+    } else {
+      pointsById.set(id, cataloguePoints.add({ position, pixelSize: 4, color: Cesium.Color.ORANGE }));
+    }
+  }
+  for (const [id, point] of pointsById) {
+    if (!seen.has(id)) {
+      cataloguePoints.remove(point);
+      pointsById.delete(id);
+    }
+  }
+  catalogueReadout.textContent = `${objects.length} in view · v${catalogueVersion}`;
+});
+
+// Narrow the stream to what the camera shows; west > east crosses the
+// antimeridian, which the server's viewport understands as well.
+function viewport() {
+  const rect = viewer.camera.computeViewRectangle();
+  if (!rect) return null;  // looking past the globe
+  const clamp = (deg, limit) => Math.max(-limit, Math.min(limit, deg));
+  return {
+    minLat: clamp(Cesium.Math.toDegrees(rect.south), 90),
+    maxLat: clamp(Cesium.Math.toDegrees(rect.north), 90),
+    minLon: clamp(Cesium.Math.toDegrees(rect.west), 180),
+    maxLon: clamp(Cesium.Math.toDegrees(rect.east), 180),
+  };
+}
+positionStream.subscribe({ viewport: viewport() });
+viewer.camera.moveEnd.addEventListener(() => positionStream.subscribe({ viewport: viewport() }));
@@ -8,10 +8,16 @@
 
 const DEFAULT_BASE = "http://localhost:8090/api";
 
+// Uplink_Seq of the next command. palantir-core echoes it in the APID 102
+// acknowledgements and the Yamcs verifiers match on it; a random start keeps
+// two open panels from issuing the same numbers.
+let nextUplinkSeq = Math.floor(Math.random() * 0x10000);
+
 /**
- * Issue a no-argument command (e.g. PING, REBOOT_OBC). The qualified
- * command name maps onto the Yamcs URL path; e.g. "/Palantir/TC/PING"
- * becomes ".../commands/Palantir/TC/PING".
+ * Issue a command without arguments of its own (e.g. PING, REBOOT_OBC),
+ * numbered with the next Uplink_Seq. The qualified command name maps onto
+ * the Yamcs URL path; e.g. "/Palantir/TC/PING" becomes
+ * ".../commands/Palantir/TC/PING".
  *
  * @returns the parsed JSON response on 2xx; throws Error with a
  *   human-readable message on 4xx/5xx so callers can render it inline.
@@ -19,10 +25,12 @@ const DEFAULT_BASE = "http://localhost:8090/api";
 export async function issueCommand(qualifiedCommand, { base = DEFAULT_BASE, instance = "palantir", processor = "realtime" } = {}) {
   const path = qualifiedCommand.replace(/^\//, "");
   const url = `${base}/processors/${instance}/${processor}/commands/${path}`;
+  const uplinkSeq = nextUplinkSeq;
+  nextUplinkSeq = (nextUplinkSeq + 1) & 0xffff;
   const res = await fetch(url, {
     method: "POST",
     headers: { "Content-Type": "application/json" },
-    body: "{}",
+    body: JSON.stringify({ args: { Uplink_Seq: uplinkSeq } }),
   });
   if (!res.ok) {
     const detail = await res.text().catch(() => "");
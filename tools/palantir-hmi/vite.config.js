@@ -7,8 +7,24 @@ import cesium from "vite-plugin-cesium";
 // copies Cesium's static assets (Workers, Widgets, Assets) into dist/
 // and sets CESIUM_BASE_URL so the runtime finds them.
 
+// /ws is proxied to palantir-core so the position stream is same-origin
+// for the browser. The Origin header is rewritten to the target because
+// palantir-core only accepts same-origin stream handshakes by default.
+const PALANTIR_CORE_URL = process.env.PALANTIR_CORE_URL ?? "http://localhost:8080";
+
 export default defineConfig({
   plugins: [cesium()],
+  server: {
+    proxy: {
+      "/ws": {
+        target: PALANTIR_CORE_URL,
+        ws: true,
+        configure: (proxy) => {
+          proxy.on("proxyReqWs", (proxyReq) => proxyReq.setHeader("origin", PALANTIR_CORE_URL));
+        },
+      },
+    },
+  },
   build: {
     rollupOptions: {
       input: {